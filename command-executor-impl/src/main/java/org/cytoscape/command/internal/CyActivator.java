@@ -1,5 +1,11 @@
 package org.cytoscape.command.internal;
 
+import static org.cytoscape.work.ServiceProperties.COMMAND;
+import static org.cytoscape.work.ServiceProperties.COMMAND_DESCRIPTION;
+import static org.cytoscape.work.ServiceProperties.COMMAND_EXAMPLE_JSON;
+import static org.cytoscape.work.ServiceProperties.COMMAND_LONG_DESCRIPTION;
+import static org.cytoscape.work.ServiceProperties.COMMAND_NAMESPACE;
+import static org.cytoscape.work.ServiceProperties.COMMAND_SUPPORTS_JSON;
 import static org.cytoscape.work.ServiceProperties.ID;
 
 import java.io.File;
@@ -177,5 +183,28 @@ public class CyActivator extends AbstractCyActivator {
 		registerServiceListener(bc, commandExecutor::addTableTaskFactory, commandExecutor::removeTableTaskFactory, TableTaskFactory.class);
 
 		registerServiceListener(bc, interceptor::addTunableHandlerFactory, interceptor::removeTunableHandlerFactory, StringTunableHandlerFactory.class);
+
+		{
+			EventMetricsTaskFactory factory = new EventMetricsTaskFactory();
+			Properties props = new Properties();
+			props.setProperty(COMMAND_NAMESPACE, "events");
+			props.setProperty(COMMAND, "metrics");
+			props.setProperty(COMMAND_DESCRIPTION, "Return event bus latency metrics");
+			props.setProperty(COMMAND_LONG_DESCRIPTION,
+					"Returns the number of times each event type was fired, its dispatch latency, its payload sizes "
+					+ "and the latency of every listener, as percentiles in nanoseconds. The slowest single listener "
+					+ "call is reported as well. The metrics can also be written to a file and reset.");
+			props.setProperty(COMMAND_SUPPORTS_JSON, "true");
+			props.setProperty(COMMAND_EXAMPLE_JSON,
+					"{\"enabled\":true,\"intervalMillis\":60000,"
+					+ "\"slowestCall\":{\"listener\":\"org.example.MyListener\",\"event\":\"org.cytoscape.model.events.RowsSetEvent\",\"nanos\":250000000},"
+					+ "\"slowestListeners\":[\"org.example.MyListener\"],"
+					+ "\"listeners\":{\"org.example.MyListener\":{\"latencyNanos\":{\"count\":12,\"mean\":21000000,\"p50\":1040,\"p90\":2080,\"p99\":250000000,\"p999\":250000000,\"max\":250000000}}},"
+					+ "\"events\":{\"org.cytoscape.model.events.RowsSetEvent\":{\"fireCount\":12,\"dispatchNanos\":{\"count\":12,\"mean\":21000000,\"p50\":1040,\"p90\":2080,\"p99\":250000000,\"p999\":250000000,\"max\":250000000},"
+					+ "\"payloadSize\":{\"count\":12,\"mean\":40,\"p50\":34,\"p90\":68,\"p99\":100,\"p999\":100,\"max\":100}}},"
+					+ "\"payloadFlush\":{\"payloadsAdded\":480,\"payloadsFlushed\":480,\"pendingPayloads\":0,\"eventsFired\":12,"
+					+ "\"flushCount\":12,\"earlyFlushCount\":0,\"meanFlushNanos\":21000000,\"maxFlushNanos\":250000000}}");
+			registerService(bc, factory, TaskFactory.class, props);
+		}
 	}
 }
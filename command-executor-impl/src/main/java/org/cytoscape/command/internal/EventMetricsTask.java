@@ -0,0 +1,105 @@
+package org.cytoscape.command.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.cytoscape.work.AbstractTask;
+import org.cytoscape.work.ObservableTask;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+import org.cytoscape.work.json.JSONResult;
+
+/*
+ * #%L
+ * Cytoscape Command Executor Impl (command-executor-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Reads the event bus metrics that event-impl publishes as an MBean, and
+ * optionally writes them to a file or resets them.
+ */
+public class EventMetricsTask extends AbstractTask implements ObservableTask {
+
+	// Must match EventMetrics.OBJECT_NAME in event-impl.
+	static final String METRICS_OBJECT_NAME = "org.cytoscape:type=EventMetrics";
+
+	@Tunable(description = "File to write the metrics to", params = "input=false", required = false,
+			longDescription = "If specified, the metrics are also written to this file as JSON.")
+	public File file;
+
+	@Tunable(description = "Reset after reading", required = false,
+			longDescription = "If true, the latency histograms are cleared after the metrics have been read.")
+	public boolean reset;
+
+	private String json;
+
+	@Override
+	public void run(TaskMonitor tm) throws Exception {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = new ObjectName(METRICS_OBJECT_NAME);
+
+		try {
+			json = (String) server.getAttribute(name, "MetricsJSON");
+
+			if (reset)
+				server.invoke(name, "reset", new Object[0], new String[0]);
+		} catch (InstanceNotFoundException e) {
+			throw new IllegalStateException("Event metrics are not available.", e);
+		} catch (JMException e) {
+			throw new IllegalStateException("Could not read the event metrics.", e);
+		}
+
+		if (file != null) {
+			try {
+				Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+			} catch (IOException e) {
+				throw new IOException("Could not write the event metrics to " + file + ".", e);
+			}
+			tm.showMessage(TaskMonitor.Level.INFO, "Event metrics written to " + file);
+		}
+	}
+
+	@Override
+	public Object getResults(Class type) {
+		if (type.equals(JSONResult.class)) {
+			JSONResult res = () -> json == null ? "{}" : json;
+			return res;
+		}
+
+		return json;
+	}
+
+	@Override
+	public List<Class<?>> getResultClasses() {
+		return Arrays.asList(String.class, JSONResult.class);
+	}
+}
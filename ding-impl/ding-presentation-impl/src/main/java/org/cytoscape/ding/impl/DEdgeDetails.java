@@ -57,7 +57,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.cytoscape.ding.DArrowShape;
 import org.cytoscape.ding.EdgeView;
@@ -86,33 +85,34 @@ final class DEdgeDetails extends EdgeDetails {
 	private final DGraphView dGraphView;
 	private final Map<VisualProperty<?>, Object> defaultValues; 
 
-	// Mapped Values
-	// If value found in these map objects, the value will be used by the renderer.
+	// Mapped Values, indexed by DEdgeView.detailsIndex
+	// If a value is set in these columns, the value will be used by the renderer.
 	// Otherwise, default value will be used.
-	Map<CyEdge, Object> m_colorsLowDetail = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Object> m_selectedColorsLowDetail = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Float> m_widths = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Stroke> m_strokes = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, ArrowShape> m_sourceArrows = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Paint> m_sourceArrowPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Paint> m_sourceArrowSelectedPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Double> m_sourceArrowSizes = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, ArrowShape> m_targetArrows = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Paint> m_targetArrowPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Paint> m_targetArrowSelectedPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Double> m_targetArrowSizes = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Integer> m_labelCounts = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, String> m_labelTexts = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Font> m_labelFonts = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Paint> m_labelPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Double> m_labelWidths = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Paint> m_unselectedPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Paint> m_selectedPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Integer> m_lineCurved = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Bend> m_edgeBends = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, String> m_edgeTooltips = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Integer> m_edgeTansparencies = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyEdge, Integer> m_edgeLabelTansparencies = new ConcurrentHashMap<>(16, 0.75f, 2);
+	private final DetailsStore store = new DetailsStore();
+	final DetailsStore.ObjectColumn<Object> m_colorsLowDetail = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Object> m_selectedColorsLowDetail = store.newObjectColumn();
+	final DetailsStore.DoubleColumn m_widths = store.newDoubleColumn();
+	final DetailsStore.ObjectColumn<Stroke> m_strokes = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<ArrowShape> m_sourceArrows = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Paint> m_sourceArrowPaints = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Paint> m_sourceArrowSelectedPaints = store.newObjectColumn();
+	final DetailsStore.DoubleColumn m_sourceArrowSizes = store.newDoubleColumn();
+	final DetailsStore.ObjectColumn<ArrowShape> m_targetArrows = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Paint> m_targetArrowPaints = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Paint> m_targetArrowSelectedPaints = store.newObjectColumn();
+	final DetailsStore.DoubleColumn m_targetArrowSizes = store.newDoubleColumn();
+	final DetailsStore.IntColumn m_labelCounts = store.newIntColumn();
+	final DetailsStore.ObjectColumn<String> m_labelTexts = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Font> m_labelFonts = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Paint> m_labelPaints = store.newObjectColumn();
+	final DetailsStore.DoubleColumn m_labelWidths = store.newDoubleColumn();
+	final DetailsStore.ObjectColumn<Paint> m_unselectedPaints = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Paint> m_selectedPaints = store.newObjectColumn();
+	final DetailsStore.IntColumn m_lineCurved = store.newIntColumn();
+	final DetailsStore.ObjectColumn<Bend> m_edgeBends = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<String> m_edgeTooltips = store.newObjectColumn();
+	final DetailsStore.IntColumn m_edgeTansparencies = store.newIntColumn();
+	final DetailsStore.IntColumn m_edgeLabelTansparencies = store.newIntColumn();
 
 	// Default Values
 	ArrowShape m_sourceArrowDefault;
@@ -150,61 +150,31 @@ final class DEdgeDetails extends EdgeDetails {
 		if (isCleared)
 			return;
 
-		m_widths = new ConcurrentHashMap<>();
-		m_strokes = new ConcurrentHashMap<>();
-		m_sourceArrows = new ConcurrentHashMap<>();
-		m_sourceArrowPaints = new ConcurrentHashMap<>();
-		m_sourceArrowSelectedPaints = new ConcurrentHashMap<>();
-		m_sourceArrowSizes = new ConcurrentHashMap<>();
-		m_targetArrows = new ConcurrentHashMap<>();
-		m_targetArrowPaints = new ConcurrentHashMap<>();
-		m_targetArrowSelectedPaints = new ConcurrentHashMap<>();
-		m_targetArrowSizes = new ConcurrentHashMap<>();
-		m_labelCounts = new ConcurrentHashMap<>();
-		m_labelTexts = new ConcurrentHashMap<>();
-		m_labelFonts = new ConcurrentHashMap<>();
-		m_labelPaints = new ConcurrentHashMap<>();
-		m_labelWidths = new ConcurrentHashMap<>();
-		m_unselectedPaints = new ConcurrentHashMap<>();
-		m_selectedPaints = new ConcurrentHashMap<>();
-		m_colorsLowDetail = new ConcurrentHashMap<>();
-		m_selectedColorsLowDetail = new ConcurrentHashMap<>();
-		m_lineCurved = new ConcurrentHashMap<>();
-		m_edgeBends = new ConcurrentHashMap<>();
-		m_edgeTooltips = new ConcurrentHashMap<>();
-		m_edgeTansparencies = new ConcurrentHashMap<>();
-		m_edgeLabelTansparencies = new ConcurrentHashMap<>();
+		store.clear();
 
 		isCleared = true;
 	}
 
-	void unregisterEdge(final CyEdge edge) {
-		// To avoid a memory leak its important to permanently remove the node from all the maps.
-		m_colorsLowDetail.remove(edge);
-		m_selectedColorsLowDetail.remove(edge);
-		m_widths.remove(edge);
-		m_strokes.remove(edge);
-		m_sourceArrows.remove(edge);
-		m_sourceArrowPaints.remove(edge);
-		m_sourceArrowSelectedPaints.remove(edge);
-		m_sourceArrowSizes.remove(edge);
-		m_targetArrows.remove(edge);
-		m_targetArrowPaints.remove(edge);
-		m_targetArrowSelectedPaints.remove(edge);
-		m_targetArrowSizes.remove(edge);
-		m_labelCounts.remove(edge);
-		m_labelTexts.remove(edge);
-		m_labelFonts.remove(edge);
-		m_labelPaints.remove(edge);
-		m_labelWidths.remove(edge);
-		m_selectedPaints.remove(edge);
-		m_unselectedPaints.remove(edge);
-		m_lineCurved.remove(edge);
-		m_edgeBends.remove(edge);
-		selected.remove(edge);
-		m_edgeTooltips.remove(edge);
-		m_edgeTansparencies.remove(edge);
-		m_edgeLabelTansparencies.remove(edge);
+	/**
+	 * Gives the edge view a slot in the value store. Must be called before any value is set for the edge.
+	 */
+	void registerEdge(final DEdgeView dev) {
+		dev.detailsIndex = store.allocate();
+	}
+
+	void unregisterEdge(final DEdgeView dev) {
+		// To avoid a memory leak its important to permanently remove the edge from all the columns.
+		store.release(dev.detailsIndex);
+		dev.detailsIndex = -1;
+		selected.remove(dev.getModel());
+	}
+
+	/**
+	 * @return the slot of the edge in the value store, or -1 if the edge has no view.
+	 */
+	private int index(final CyEdge edge) {
+		final DEdgeView dev = dGraphView.getDEdgeView(edge);
+		return dev != null ? dev.detailsIndex : -1;
 	}
 	
 	public <V> void setDefaultValue(final VisualProperty<V> vp, V value) {
@@ -225,7 +195,7 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_STROKE_UNSELECTED_PAINT))
 			return (Color) dev.getVisualProperty(EDGE_STROKE_UNSELECTED_PAINT);
 
-		final Object o = m_colorsLowDetail.get(edge);
+		final Object o = m_colorsLowDetail.get(dev.detailsIndex);
 
 		if (o == null)
 			if (m_colorLowDetailDefault == null)
@@ -242,7 +212,7 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_STROKE_SELECTED_PAINT))
 			return (Color) dev.getVisualProperty(EDGE_STROKE_SELECTED_PAINT);
 
-		final Object o = m_selectedColorsLowDetail.get(edge);
+		final Object o = m_selectedColorsLowDetail.get(dev.detailsIndex);
 
 		if (o == null)
 			if (m_selectedColorLowDetailDefault == null)
@@ -277,7 +247,7 @@ final class DEdgeDetails extends EdgeDetails {
 			return DArrowShape.parseArrowText(shapeID).getPresentationShape();
 		}
 
-		final ArrowShape arrow = m_sourceArrows.get(edge);
+		final ArrowShape arrow = m_sourceArrows.get(dev.detailsIndex);
 		
 		if (arrow == null)
 			return m_sourceArrowDefault == null ? super.getSourceArrowShape(edge) : m_sourceArrowDefault;
@@ -292,9 +262,9 @@ final class DEdgeDetails extends EdgeDetails {
 
 	void overrideSourceArrow(final CyEdge edge, final ArrowShape arrowType) {
 		if (arrowType == null) {
-			m_sourceArrows.remove(edge);
+			m_sourceArrows.remove(index(edge));
 		} else {
-			m_sourceArrows.put(edge, arrowType);
+			m_sourceArrows.put(index(edge), arrowType);
 			isCleared = false;
 		}
 	}
@@ -313,7 +283,7 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_SOURCE_ARROW_UNSELECTED_PAINT))
 			return dev.getVisualProperty(EDGE_SOURCE_ARROW_UNSELECTED_PAINT);
 
-		final Paint paint = m_sourceArrowPaints.get(edge);
+		final Paint paint = m_sourceArrowPaints.get(dev.detailsIndex);
 		
 		if (paint == null)
 			return m_sourceArrowPaintDefault == null ? EDGE_SOURCE_ARROW_UNSELECTED_PAINT.getDefault()
@@ -332,18 +302,18 @@ final class DEdgeDetails extends EdgeDetails {
 	 */
 	void overrideSourceArrowPaint(final CyEdge edge, final Paint paint) {
 		if ((paint == null) || paint.equals(super.getSourceArrowPaint(edge))) {
-			m_sourceArrowPaints.remove(edge);
+			m_sourceArrowPaints.remove(index(edge));
 		} else {
-			m_sourceArrowPaints.put(edge, paint);
+			m_sourceArrowPaints.put(index(edge), paint);
 			isCleared = false;
 		}
 	}
 
 	void overrideSourceArrowSelectedPaint(final CyEdge edge, final Paint paint) {
 		if ((paint == null) || paint.equals(super.getSourceArrowPaint(edge))) {
-			this.m_sourceArrowSelectedPaints.remove(edge);
+			this.m_sourceArrowSelectedPaints.remove(index(edge));
 		} else {
-			m_sourceArrowSelectedPaints.put(edge, paint);
+			m_sourceArrowSelectedPaints.put(index(edge), paint);
 			isCleared = false;
 		}
 	}
@@ -360,7 +330,7 @@ final class DEdgeDetails extends EdgeDetails {
 			return DArrowShape.parseArrowText(shapeID).getPresentationShape();
 		}
 
-		final ArrowShape arrow = m_targetArrows.get(edge);
+		final ArrowShape arrow = m_targetArrows.get(dev.detailsIndex);
 		
 		if (arrow == null)
 			return m_targetArrowDefault == null ? super.getTargetArrowShape(edge) : m_targetArrowDefault;
@@ -375,9 +345,9 @@ final class DEdgeDetails extends EdgeDetails {
 
 	void overrideTargetArrow(final CyEdge edge, final ArrowShape arrowType) {
 		if (arrowType == null) {
-			m_targetArrows.remove(edge);
+			m_targetArrows.remove(index(edge));
 		} else {
-			m_targetArrows.put(edge, arrowType);
+			m_targetArrows.put(index(edge), arrowType);
 			isCleared = false;
 		}
 	}
@@ -399,7 +369,7 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_TARGET_ARROW_UNSELECTED_PAINT))
 			return dev.getVisualProperty(EDGE_TARGET_ARROW_UNSELECTED_PAINT);
 
-		final Paint paint = m_targetArrowPaints.get(edge);
+		final Paint paint = m_targetArrowPaints.get(dev.detailsIndex);
 
 		if (paint == null)
 			return m_targetArrowPaintDefault == null ? EDGE_TARGET_ARROW_UNSELECTED_PAINT.getDefault()
@@ -418,9 +388,9 @@ final class DEdgeDetails extends EdgeDetails {
 	 */
 	void overrideTargetArrowPaint(final CyEdge edge, final Paint paint) {
 		if (paint == null)
-			m_targetArrowPaints.remove(edge);
+			m_targetArrowPaints.remove(index(edge));
 		else {
-			m_targetArrowPaints.put(edge, paint);
+			m_targetArrowPaints.put(index(edge), paint);
 			isCleared = false;
 		}
 	}
@@ -430,28 +400,30 @@ final class DEdgeDetails extends EdgeDetails {
 	 */
 	void overrideTargetArrowSelectedPaint(final CyEdge edge, final Paint paint) {
 		if ((paint == null) || paint.equals(super.getTargetArrowPaint(edge))) {
-			this.m_targetArrowSelectedPaints.remove(edge);
+			this.m_targetArrowSelectedPaints.remove(index(edge));
 		} else {
-			m_targetArrowSelectedPaints.put(edge, paint);
+			m_targetArrowSelectedPaints.put(index(edge), paint);
 			isCleared = false;
 		}
 	}
 
 	@Override
 	public float getWidth(final CyEdge edge) {
-		Float w = null;
+		float w;
 		// Bypass check
 		final DEdgeView edv = dGraphView.getDEdgeView(edge);
 		
 		if (edv.isValueLocked(EDGE_WIDTH)) {
 			w = edv.getVisualProperty(EDGE_WIDTH).floatValue();
 		} else {
-			w = m_widths.get(edge);
-			if (w == null) {
+			final double o = m_widths.get(edv.detailsIndex);
+			if (Double.isNaN(o)) {
 				if (m_widthDefault == null)
 					w = super.getWidth(edge);
 				else
 					w = m_widthDefault.floatValue();
+			} else {
+				w = (float) o;
 			}
 		}
 
@@ -468,9 +440,9 @@ final class DEdgeDetails extends EdgeDetails {
 	 */
 	void overrideWidth(final CyEdge edge, final float width) {
 		if ((width < 0.0f) || (width == super.getWidth(edge))) {
-			m_widths.remove(edge);
+			m_widths.remove(index(edge));
 		} else {
-			m_widths.put(edge, width);
+			m_widths.put(index(edge), width);
 			isCleared = false;
 		}
 	}
@@ -489,13 +461,13 @@ final class DEdgeDetails extends EdgeDetails {
 
 			// We need to handle animated edges with some care...
 			if (stroke instanceof AnimatedStroke) {
-				Stroke oldStroke = m_strokes.get(edge);
+				Stroke oldStroke = m_strokes.get(dev.detailsIndex);
 				
 				if (oldStroke != null && oldStroke.getClass().equals(stroke.getClass()))
 					stroke = ((WidthStroke)oldStroke).newInstanceForWidth(getWidth(edge));
 			}
 		} else {
-			stroke = m_strokes.get(edge);
+			stroke = m_strokes.get(dev.detailsIndex);
 
 			if (stroke == null) {
 				if (m_strokeDefault == null)
@@ -523,9 +495,9 @@ final class DEdgeDetails extends EdgeDetails {
 	 */
 	void overrideStroke(final CyEdge edge, final Stroke stroke) {
 		if ((stroke == null) || stroke.equals(super.getStroke(edge))) {
-			m_strokes.remove(edge);
+			m_strokes.remove(index(edge));
 		} else {
-			m_strokes.put(edge, stroke);
+			m_strokes.put(index(edge), stroke);
 			isCleared = false;
 		}
 	}
@@ -560,7 +532,7 @@ final class DEdgeDetails extends EdgeDetails {
 		} else if (dev.isValueLocked(EDGE_UNSELECTED_PAINT)) {
 			paint = dev.getVisualProperty(EDGE_UNSELECTED_PAINT);
 		} else {
-			paint = m_unselectedPaints.get(edge);
+			paint = m_unselectedPaints.get(dev.detailsIndex);
 
 			if (paint == null)
 				paint = m_unselectedPaintDefault == null ?
@@ -586,7 +558,7 @@ final class DEdgeDetails extends EdgeDetails {
 		} else if (dev.isValueLocked(EDGE_SELECTED_PAINT)) {
 			paint = dev.getVisualProperty(EDGE_SELECTED_PAINT);
 		} else {
-			paint = m_selectedPaints.get(edge);
+			paint = m_selectedPaints.get(dev.detailsIndex);
 
 			if (paint == null)
 				paint = m_selectedPaintDefault == null ? EDGE_SELECTED_PAINT.getDefault() : m_selectedPaintDefault;
@@ -613,19 +585,19 @@ final class DEdgeDetails extends EdgeDetails {
 	}
 
 	void setUnselectedPaint(final CyEdge edge, final Paint paint) {
-		m_unselectedPaints.put(edge, paint);
+		m_unselectedPaints.put(index(edge), paint);
 		
 		if (paint instanceof Color)
-			m_colorsLowDetail.put(edge, paint);
+			m_colorsLowDetail.put(index(edge), paint);
 		
 		isCleared = false;
 	}
 
 	void setSelectedPaint(final CyEdge edge, final Paint paint) {
-		m_selectedPaints.put(edge, paint);
+		m_selectedPaints.put(index(edge), paint);
 		
 		if (paint instanceof Color)
-			m_selectedColorsLowDetail.put(edge, paint);
+			m_selectedColorsLowDetail.put(index(edge), paint);
 
 		isCleared = false;
 	}
@@ -638,9 +610,9 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_LABEL) && !dev.getVisualProperty(EDGE_LABEL).isEmpty())
 			return 1;
 		
-		Integer count = m_labelCounts.get(edge);
+		int count = m_labelCounts.get(dev.detailsIndex);
 		
-		if (count == null) {
+		if (count == DetailsStore.IntColumn.UNSET) {
 			try {
 				String defLabel = (String) defaultValues.get(EDGE_LABEL);
 				count = (defLabel == null || defLabel.isEmpty()) ? super.getLabelCount(edge) : 1;
@@ -657,9 +629,9 @@ final class DEdgeDetails extends EdgeDetails {
 	 */
 	void overrideLabelCount(final CyEdge edge, final int labelCount) {
 		if ((labelCount < 0) || (labelCount == super.getLabelCount(edge))) {
-			m_labelCounts.remove(edge);
+			m_labelCounts.remove(index(edge));
 		} else {
-			m_labelCounts.put(edge, labelCount);
+			m_labelCounts.put(index(edge), labelCount);
 			isCleared = false;
 		}
 	}
@@ -672,7 +644,7 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_LABEL))
 			return dev.getVisualProperty(EDGE_LABEL);
 
-		final String text = m_labelTexts.get(edge);
+		final String text = m_labelTexts.get(dev.detailsIndex);
 		
 		if (text == null)
 			return m_labelTextDefault == null ? super.getLabelText(edge, labelInx) : m_labelTextDefault;
@@ -690,9 +662,9 @@ final class DEdgeDetails extends EdgeDetails {
 	 */
 	void overrideLabelText(final CyEdge edge, final int labelInx, final String text) {
 		if ((text == null) || text.equals(super.getLabelText(edge, labelInx))) {
-			m_labelTexts.remove(edge);
+			m_labelTexts.remove(index(edge));
 		} else {
-			m_labelTexts.put(edge, text);
+			m_labelTexts.put(index(edge), text);
 			isCleared = false;
 		}
 	}
@@ -704,7 +676,7 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_TOOLTIP))
 			return dev.getVisualProperty(EDGE_TOOLTIP);
 
-		final String text = m_edgeTooltips.get(edge);
+		final String text = m_edgeTooltips.get(dev.detailsIndex);
 		
 		if (text == null)
 			return m_edgeTooltipDefault == null ? EDGE_TOOLTIP.getDefault() : m_edgeTooltipDefault;
@@ -719,9 +691,9 @@ final class DEdgeDetails extends EdgeDetails {
 
 	void overrideTooltipText(final CyEdge edge, final String text) {
 		if ((text == null) || text.equals("")) {
-			m_edgeTooltips.remove(edge);
+			m_edgeTooltips.remove(index(edge));
 		} else {
-			m_edgeTooltips.put(edge, text);
+			m_edgeTooltips.put(index(edge), text);
 			isCleared = false;
 		}
 	}
@@ -733,7 +705,7 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_TRANSPARENCY))
 			return dev.getVisualProperty(EDGE_TRANSPARENCY);
 
-		Integer trans = m_edgeTansparencies.get(edge);
+		Integer trans = m_edgeTansparencies.isSet(dev.detailsIndex) ? m_edgeTansparencies.get(dev.detailsIndex) : null;
 		
 		if (trans == null)
 			trans = transparencyDefault == null ? EDGE_TRANSPARENCY.getDefault() : transparencyDefault;
@@ -748,9 +720,9 @@ final class DEdgeDetails extends EdgeDetails {
 
 	void overrideTransparency(final CyEdge edge, final Integer transparency) {
 		if (transparency == null) {
-			m_edgeTansparencies.remove(edge);
+			m_edgeTansparencies.remove(index(edge));
 		} else {
-			m_edgeTansparencies.put(edge, transparency);
+			m_edgeTansparencies.put(index(edge), transparency);
 			isCleared = false;
 		}
 	}
@@ -762,7 +734,7 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_LABEL_TRANSPARENCY))
 			return dev.getVisualProperty(EDGE_LABEL_TRANSPARENCY);
 
-		Integer trans = m_edgeLabelTansparencies.get(edge);
+		Integer trans = m_edgeLabelTansparencies.isSet(dev.detailsIndex) ? m_edgeLabelTansparencies.get(dev.detailsIndex) : null;
 		
 		if (trans == null)
 			trans = labelTransparencyDefault == null ? EDGE_LABEL_TRANSPARENCY.getDefault() : labelTransparencyDefault;
@@ -777,9 +749,9 @@ final class DEdgeDetails extends EdgeDetails {
 
 	void overrideLabelTransparency(final CyEdge edge, final Integer transparency) {
 		if (transparency == null) {
-			m_edgeLabelTansparencies.remove(edge);
+			m_edgeLabelTansparencies.remove(index(edge));
 		} else {
-			m_edgeLabelTansparencies.put(edge, transparency);
+			m_edgeLabelTansparencies.put(index(edge), transparency);
 			isCleared = false;
 		}
 	}
@@ -797,7 +769,7 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_LABEL_FONT_FACE)) {
 			font = dev.getVisualProperty(EDGE_LABEL_FONT_FACE);
 		} else {
-			font = m_labelFonts.get(edge);
+			font = m_labelFonts.get(dev.detailsIndex);
 	
 			if (font == null)
 				font = m_labelFontDefault != null ? m_labelFontDefault : super.getLabelFont(edge, labelInx);
@@ -824,9 +796,9 @@ final class DEdgeDetails extends EdgeDetails {
 		// final long key = (((long) edge) << 32) | ((long) labelInx);
 
 		if ((font == null) || font.equals(super.getLabelFont(edge, labelInx))) {
-			m_labelFonts.remove(edge);
+			m_labelFonts.remove(index(edge));
 		} else {
-			m_labelFonts.put(edge, font);
+			m_labelFonts.put(index(edge), font);
 			isCleared = false;
 		}
 	}
@@ -845,7 +817,7 @@ final class DEdgeDetails extends EdgeDetails {
 			// Check bypass
 			paint = dev.getVisualProperty(EDGE_LABEL_COLOR);
 		} else {
-			paint = m_labelPaints.get(edge);
+			paint = m_labelPaints.get(dev.detailsIndex);
 
 			if (paint == null)
 				paint = m_labelPaintDefault != null ? m_labelPaintDefault : super.getLabelPaint(edge, labelInx);
@@ -867,9 +839,9 @@ final class DEdgeDetails extends EdgeDetails {
 	 */
 	void overrideLabelPaint(final CyEdge edge, final int labelInx, final Paint paint) {
 		if ((paint == null) || paint.equals(super.getLabelPaint(edge, labelInx))) {
-			m_labelPaints.remove(edge);
+			m_labelPaints.remove(index(edge));
 		} else {
-			m_labelPaints.put(edge, paint);
+			m_labelPaints.put(index(edge), paint);
 			isCleared = false;
 		}
 	}
@@ -882,9 +854,9 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_LABEL_WIDTH))
 			return dev.getVisualProperty(EDGE_LABEL_WIDTH);
 		
-		final Double width = m_labelWidths.get(edge);
+		final double width = m_labelWidths.get(dev.detailsIndex);
 		
-		if (width == null) {
+		if (Double.isNaN(width)) {
 			if (m_labelWidthDefault == null)
 				return super.getLabelWidth(edge);
 			else
@@ -904,9 +876,9 @@ final class DEdgeDetails extends EdgeDetails {
 	 */
 	void overrideLabelWidth(final CyEdge edge, final double width) {
 		if ((width < 0.0) || (width == super.getLabelWidth(edge))) {
-			m_labelWidths.remove(edge);
+			m_labelWidths.remove(index(edge));
 		} else {
-			m_labelWidths.put(edge, width);
+			m_labelWidths.put(index(edge), width);
 			isCleared = false;
 		}
 	}
@@ -920,10 +892,12 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_SOURCE_ARROW_SIZE)) {
 			size = dev.getVisualProperty(EDGE_SOURCE_ARROW_SIZE);
 		} else {
-			size = m_sourceArrowSizes.get(edge);
+			final double o = m_sourceArrowSizes.get(dev.detailsIndex);
 			
-			if (size == null)
+			if (Double.isNaN(o))
 				size = m_sourceArrowSizeDefault != null ? m_sourceArrowSizeDefault : super.getSourceArrowSize(edge);
+			else
+				size = o;
 		}
 		
 		return adjustArrowSize(edge, getSourceArrowShape(edge), size);
@@ -936,9 +910,9 @@ final class DEdgeDetails extends EdgeDetails {
 	
 	void overrideSourceArrowSize(final CyEdge edge, final double size) {
 		if (size < 0.0 || size == super.getSourceArrowSize(edge)) {
-			m_sourceArrowSizes.remove(edge);
+			m_sourceArrowSizes.remove(index(edge));
 		} else {
-			m_sourceArrowSizes.put(edge, size);
+			m_sourceArrowSizes.put(index(edge), size);
 			isCleared = false;
 		}
 	}
@@ -952,10 +926,12 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_TARGET_ARROW_SIZE)) {
 			size = dev.getVisualProperty(EDGE_TARGET_ARROW_SIZE);
 		} else {
-			size = m_targetArrowSizes.get(edge);
+			final double o = m_targetArrowSizes.get(dev.detailsIndex);
 			
-			if (size == null)
+			if (Double.isNaN(o))
 				size = m_targetArrowSizeDefault != null ? m_targetArrowSizeDefault : super.getTargetArrowSize(edge);
+			else
+				size = o;
 		}
 		
 		return adjustArrowSize(edge, getTargetArrowShape(edge), size);
@@ -968,19 +944,19 @@ final class DEdgeDetails extends EdgeDetails {
 	
 	void overrideTargetArrowSize(final CyEdge edge, final double size) {
 		if (size < 0.0 || size == super.getTargetArrowSize(edge)) {
-			m_targetArrowSizes.remove(edge);
+			m_targetArrowSizes.remove(index(edge));
 		} else {
-			m_targetArrowSizes.put(edge, size);
+			m_targetArrowSizes.put(index(edge), size);
 			isCleared = false;
 		}
 	}
 
 	void overrideLineCurved(final CyEdge edge, final int type) {
 		if (EdgeView.STRAIGHT_LINES == type || EdgeView.CURVED_LINES == type) {
-			m_lineCurved.put(edge, type);
+			m_lineCurved.put(index(edge), type);
 			isCleared = false;
 		} else {
-			m_lineCurved.remove(edge);
+			m_lineCurved.remove(index(edge));
 		}
 	}
 
@@ -994,9 +970,9 @@ final class DEdgeDetails extends EdgeDetails {
 			return lockedVal ? EdgeView.CURVED_LINES : EdgeView.STRAIGHT_LINES;
 		}
 
-		final Integer lineType = m_lineCurved.get(edge);
+		final int lineType = m_lineCurved.get(dev.detailsIndex);
 		
-		if (lineType == null)
+		if (lineType == DetailsStore.IntColumn.UNSET)
 			return m_lineCurvedDefault == null ? EdgeView.STRAIGHT_LINES : m_lineCurvedDefault;
 
 		return lineType;
@@ -1022,11 +998,11 @@ final class DEdgeDetails extends EdgeDetails {
 		if (dev.isValueLocked(EDGE_BEND))
 			return dev.getVisualProperty(EDGE_BEND);
 
-		Bend bend = m_edgeBends.get(edge);
+		Bend bend = m_edgeBends.get(dev.detailsIndex);
 
 		if (bend == null && forceCreate) {
 			bend = new BendImpl();
-			m_edgeBends.put(edge, bend);
+			m_edgeBends.put(dev.detailsIndex, bend);
 		}
 
 		if (bend == null)
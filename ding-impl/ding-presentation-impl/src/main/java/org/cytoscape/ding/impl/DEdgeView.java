@@ -62,6 +62,9 @@ public class DEdgeView extends AbstractDViewModel<CyEdge> implements EdgeView, L
 
 	// Cached visibility information
 	private boolean isVisible = true;
+
+	// Slot of this edge in the DEdgeDetails value store, -1 once the view has been removed.
+	int detailsIndex = -1;
 	
 	DEdgeView(final DGraphView graphView,
 			  final CyEdge model,
@@ -334,7 +337,7 @@ public class DEdgeView extends AbstractDViewModel<CyEdge> implements EdgeView, L
 	@Override
 	public void setToolTip(String tip) {
 		synchronized (graphView.m_lock) {
-			graphView.m_edgeDetails.m_edgeTooltips.put(model, tip);
+			graphView.m_edgeDetails.m_edgeTooltips.put(detailsIndex, tip);
 		}
 	}
 
@@ -617,7 +620,7 @@ public class DEdgeView extends AbstractDViewModel<CyEdge> implements EdgeView, L
 		if( !isValueLocked(BasicVisualLexicon.EDGE_BEND) )
 		{
 			synchronized (graphView.m_lock) {
-				graphView.m_edgeDetails.m_edgeBends.put(model, bend);
+				graphView.m_edgeDetails.m_edgeBends.put(detailsIndex, bend);
 			}
 		}
 		graphView.setContentChanged();
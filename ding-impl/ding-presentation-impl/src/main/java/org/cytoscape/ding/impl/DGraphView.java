@@ -36,6 +36,9 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.BooleanSupplier;
 import java.util.regex.Pattern;
 
 import javax.imageio.ImageIO;
@@ -164,6 +167,10 @@ public class DGraphView extends AbstractDViewModel<CyNetwork> implements CyNetwo
 	// Size of square for moving handle
 	static final float DEFAULT_ANCHOR_SIZE = 12.0f;
 	
+	// Renders the tiles of large full detail frames; shared by all views.
+	private static final ForkJoinPool TILE_POOL =
+			new ForkJoinPool(Runtime.getRuntime().availableProcessors(), TileWorker::new, null, false);
+
 	// Size of snapshot image
 	protected static int DEF_SNAPSHOT_SIZE = 400;
 	
@@ -420,7 +427,9 @@ public class DGraphView extends AbstractDViewModel<CyNetwork> implements CyNetwo
 		final SpacialIndex2DFactory spacialFactory = serviceRegistrar.getService(SpacialIndex2DFactory.class);
 		vmm = serviceRegistrar.getService(VisualMappingManager.class);
 		
-		m_spacial = spacialFactory.createSpacialIndex2D();
+		// Node extents change all at once when a layout is applied, which the
+		// bulk loaded index absorbs without rebalancing after every node.
+		m_spacial = spacialFactory.createSpacialIndex2D(null, null, null, 0);
 		m_spacialA = spacialFactory.createSpacialIndex2D();
 		m_nodeDetails = new DNodeDetails(this);
 		m_edgeDetails = new DEdgeDetails(this);
@@ -753,6 +762,7 @@ public class DGraphView extends AbstractDViewModel<CyNetwork> implements CyNetwo
 		m_drawPersp.addNode(node);
 
 		final DNodeView dNodeView = new DNodeView(lexicon, this, node, serviceRegistrar);
+		m_nodeDetails.registerNode(dNodeView);
 		
 		// WARNING: DO not call the following in view creation.  This is VERY slow.
 		//Boolean selected = getModel().getRow(node).get(CyNetwork.SELECTED, Boolean.class);
@@ -789,6 +799,7 @@ public class DGraphView extends AbstractDViewModel<CyNetwork> implements CyNetwo
 			m_drawPersp.addEdge(edge);
 
 			dEdgeView = new DEdgeView(this, edge, handleFactory, lexicon, serviceRegistrar);
+			m_edgeDetails.registerEdge(dEdgeView);
 
 			edgeViewMap.put(edge, dEdgeView);
 			setContentChanged();
@@ -870,7 +881,7 @@ public class DGraphView extends AbstractDViewModel<CyNetwork> implements CyNetwo
 			// If this node was hidden, it won't be in m_drawPersp.
 			m_drawPersp.removeNodes(Collections.singletonList(nnode));
 			// m_structPersp.removeNode(nodeInx);
-			m_nodeDetails.unregisterNode(nnode);
+			m_nodeDetails.unregisterNode(returnThis);
 
 			// If this node was hidden, it won't be in m_spacial.
 			m_spacial.delete(suid);
@@ -984,7 +995,7 @@ public class DGraphView extends AbstractDViewModel<CyNetwork> implements CyNetwo
 		// Now we can remove it
 		edgeViewMap.remove(edge);
 		m_drawPersp.removeEdges(Collections.singletonList(edge)); 
-		m_edgeDetails.unregisterEdge(edge);
+		m_edgeDetails.unregisterEdge(returnThis);
 
 		return returnThis;
 	}
@@ -1762,10 +1773,6 @@ public class DGraphView extends AbstractDViewModel<CyNetwork> implements CyNetwo
 		if (bg != null)
 			bg = new Color(bg.getRed(), bg.getBlue(), bg.getGreen(), 0);
 
-		// Create our private spacial index.
-		final SpacialIndex2DFactory spacialFactory = serviceRegistrar.getService(SpacialIndex2DFactory.class);
-		SpacialIndex2D sub_spacial = spacialFactory.createSpacialIndex2D();
-
 		// And our private subnetwork
 		CySubNetwork net = new MinimalNetwork(SUIDFactory.getNextSUID());
 
@@ -1774,16 +1781,27 @@ public class DGraphView extends AbstractDViewModel<CyNetwork> implements CyNetwo
 			nodes.add(edge.getSource());
 		}
 		
+		// Collect the visible nodes so that our private spacial index can be bulk loaded.
+		final LongHash subNodes = new LongHash();
+		final long[] subKeys = new long[nodes.size()];
+		final float[] subExtents = new float[nodes.size() * 4];
+		int subCount = 0;
+
 		for (CyNode node: nodes) {
 			long idx = node.getSUID();
 			if (m_spacial.exists(idx, m_extentsBuff, 0)) {
-				if (!sub_spacial.exists(idx, new float[4], 0))
-					sub_spacial.insert(idx, m_extentsBuff[0], m_extentsBuff[1], m_extentsBuff[2], m_extentsBuff[3],
-							0.0);
+				if (subNodes.put(idx) < 0) {
+					subKeys[subCount] = idx;
+					System.arraycopy(m_extentsBuff, 0, subExtents, subCount * 4, 4);
+					subCount++;
+				}
 				net.addNode(node);
 			}
 		}
 		
+		final SpacialIndex2DFactory spacialFactory = serviceRegistrar.getService(SpacialIndex2DFactory.class);
+		SpacialIndex2D sub_spacial = spacialFactory.createSpacialIndex2D(subKeys, subExtents, null, subCount);
+
 		for (CyEdge edge: edges) {
 			net.addEdge(edge);
 		}
@@ -1815,33 +1833,71 @@ public class DGraphView extends AbstractDViewModel<CyNetwork> implements CyNetwo
 	 */
 	int renderGraph(GraphGraphics graphics, final GraphLOD lod,
 	                Paint bgColor, double xCenter, double yCenter, double scale, LongHash hash) {
+		final int lastRenderDetail = renderFrame(graphics, lod, bgColor, xCenter, yCenter, scale, hash, null);
+
+		setContentChanged(false);
+		setViewportChanged(false);
+		m_visualChanged = true;
+		
+		return lastRenderDetail;
+	}
+
+	/**
+	 * Renders the full detail version of a frame that was first shown at low
+	 * detail.  Unlike renderGraph() this leaves the content and viewport flags
+	 * alone, so it may be called from a background thread; the frame is
+	 * abandoned as soon as cancelled returns true, or once the view has
+	 * changed.  The refinement of a tiled frame only holds m_lock while the
+	 * frame is listed, and its tiles are rendered from a copy of the view.
+	 * @see ProgressiveLOD
+	 */
+	int renderRefinement(GraphGraphics graphics, final GraphLOD lod,
+	                     Paint bgColor, double xCenter, double yCenter, double scale, LongHash hash,
+	                     final BooleanSupplier cancelled) {
+		return renderFrame(graphics, lod, bgColor, xCenter, yCenter, scale, hash,
+		                   () -> cancelled.getAsBoolean() || isDirty());
+	}
+
+	private int renderFrame(GraphGraphics graphics, final GraphLOD lod,
+	                        Paint bgColor, double xCenter, double yCenter, double scale, LongHash hash,
+	                        final BooleanSupplier cancelled) {
 		int lastRenderDetail = 0;
 		
 		try {
+			final Set<VisualPropertyDependency<?>> dependencies;
+			final boolean zOrder;
+
 			synchronized (m_lock) {
 				// final VisualMappingManager vmm = serviceRegistrar.getService(VisualMappingManager.class);
-				final Set<VisualPropertyDependency<?>> dependencies =
-						vmm.getVisualStyle(this).getAllVisualPropertyDependencies();
-				
-				lastRenderDetail = GraphRenderer.renderGraph(this,
-				  						     m_spacial, lod,
-				  						     m_nodeDetails,
-				  						     m_edgeDetails, hash,
-				  						     graphics, bgColor, xCenter,
-				  						     yCenter, scale, haveZOrder,
-				  						     dependencies);
+				dependencies = vmm.getVisualStyle(this).getAllVisualPropertyDependencies();
+				zOrder = haveZOrder;
 			}
+
+			// The renderer holds m_lock while it reads the view; the tiles only
+			// read what it copies from the view for them.
+			final ForkJoinPool tilePool = (TILE_POOL.getParallelism() > 1) ? TILE_POOL : null;
+
+			lastRenderDetail = GraphRenderer.renderGraph(this,
+			  						     m_spacial, lod,
+			  						     m_nodeDetails,
+			  						     m_edgeDetails, hash,
+			  						     graphics, bgColor, xCenter,
+			  						     yCenter, scale, zOrder,
+			  						     dependencies, tilePool, m_lock, cancelled);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
 
-		setContentChanged(false);
-		setViewportChanged(false);
-		m_visualChanged = true;
-		
 		return lastRenderDetail;
 	}
 
+	private static final class TileWorker extends ForkJoinWorkerThread {
+		TileWorker(final ForkJoinPool pool) {
+			super(pool);
+			setName("ding-tile-renderer-" + getPoolIndex());
+		}
+	}
+
 	public void addContentChangeListener(ContentChangeListener l) {
 		m_cLis[0] = ContentChangeListenerChain.add(m_cLis[0], l);
 	}
@@ -58,7 +58,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.cytoscape.ding.DNodeShape;
 import org.cytoscape.ding.Label;
@@ -81,31 +80,32 @@ public class DNodeDetails extends NodeDetails {
 	
 	private final Map<VisualProperty<?>, Object> defaultValues;
 
-	// Mapped Values
-	Map<CyNode, Object> m_colorsLowDetail = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Object> m_selectedColorsLowDetail = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, NodeShape> m_shapes = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Paint> m_unselectedPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Paint> m_selectedPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Float> m_borderWidths = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Stroke> m_borderStrokes = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Paint> m_borderPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Integer> m_labelCounts = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, String> m_labelTexts = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, String> m_tooltipTexts = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Font> m_labelFonts = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Paint> m_labelPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Double> m_labelWidths = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Position> m_labelTextAnchors = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Position> m_labelNodeAnchors = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Justification> m_labelJustifys = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Double> m_labelOffsetXs = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Double> m_labelOffsetYs = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Integer> m_nodeTansparencies = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Integer> m_nodeBorderTansparencies = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Integer> m_nodeLabelTansparencies = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Double> m_nodeZ = new ConcurrentHashMap<>(16, 0.75f, 2);
-	Map<CyNode, Boolean> m_nestedNetworkImgVisible = new ConcurrentHashMap<>(16, 0.75f, 2);
+	// Mapped Values, indexed by DNodeView.detailsIndex
+	private final DetailsStore store = new DetailsStore();
+	final DetailsStore.ObjectColumn<Object> m_colorsLowDetail = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Object> m_selectedColorsLowDetail = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<NodeShape> m_shapes = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Paint> m_unselectedPaints = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Paint> m_selectedPaints = store.newObjectColumn();
+	final DetailsStore.DoubleColumn m_borderWidths = store.newDoubleColumn();
+	final DetailsStore.ObjectColumn<Stroke> m_borderStrokes = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Paint> m_borderPaints = store.newObjectColumn();
+	final DetailsStore.IntColumn m_labelCounts = store.newIntColumn();
+	final DetailsStore.ObjectColumn<String> m_labelTexts = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<String> m_tooltipTexts = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Font> m_labelFonts = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Paint> m_labelPaints = store.newObjectColumn();
+	final DetailsStore.DoubleColumn m_labelWidths = store.newDoubleColumn();
+	final DetailsStore.ObjectColumn<Position> m_labelTextAnchors = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Position> m_labelNodeAnchors = store.newObjectColumn();
+	final DetailsStore.ObjectColumn<Justification> m_labelJustifys = store.newObjectColumn();
+	final DetailsStore.DoubleColumn m_labelOffsetXs = store.newDoubleColumn();
+	final DetailsStore.DoubleColumn m_labelOffsetYs = store.newDoubleColumn();
+	final DetailsStore.IntColumn m_nodeTansparencies = store.newIntColumn();
+	final DetailsStore.IntColumn m_nodeBorderTansparencies = store.newIntColumn();
+	final DetailsStore.IntColumn m_nodeLabelTansparencies = store.newIntColumn();
+	final DetailsStore.DoubleColumn m_nodeZ = store.newDoubleColumn();
+	final DetailsStore.BooleanColumn m_nestedNetworkImgVisible = store.newBooleanColumn();
 
 	private final Set<CyNode> selected = new HashSet<>();
 	
@@ -145,65 +145,34 @@ public class DNodeDetails extends NodeDetails {
 		if (isCleared)
 			return;
 
-		m_colorsLowDetail = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_selectedColorsLowDetail = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_shapes = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_unselectedPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_borderWidths = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_borderStrokes = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_borderPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_labelCounts = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_labelTexts = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_tooltipTexts = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_labelFonts = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_labelPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_labelWidths = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_labelTextAnchors = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_labelNodeAnchors = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_labelJustifys = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_labelOffsetXs = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_labelOffsetYs = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_selectedPaints = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_nodeTansparencies = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_nodeBorderTansparencies = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_nodeLabelTansparencies = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_nodeZ = new ConcurrentHashMap<>(16, 0.75f, 2);
-		m_nestedNetworkImgVisible = new ConcurrentHashMap<>(16, 0.75f, 2);
+		store.clear();
 
 		isCleared = true;
 	}
 
-	void unregisterNode(final CyNode nodeIdx) {
-		// To avoid a memory leak its important to permanently remove the node from all the maps.
-		m_colorsLowDetail.remove(nodeIdx);
-		m_selectedColorsLowDetail.remove(nodeIdx);
-		m_shapes.remove(nodeIdx);
-		m_unselectedPaints.remove(nodeIdx);
-		m_borderWidths.remove(nodeIdx);
-		m_borderStrokes.remove(nodeIdx);
-		m_borderPaints.remove(nodeIdx);
-		m_labelWidths.remove(nodeIdx);
-		m_labelTextAnchors.remove(nodeIdx);
-		m_labelNodeAnchors.remove(nodeIdx);
-		m_labelJustifys.remove(nodeIdx);
-		m_labelOffsetXs.remove(nodeIdx);
-		m_labelOffsetYs.remove(nodeIdx);
-		m_selectedPaints.remove(nodeIdx);
-		m_tooltipTexts.remove(nodeIdx);
+	/**
+	 * Gives the node view a slot in the value store. Must be called before any value is set for the node.
+	 */
+	void registerNode(final DNodeView dnv) {
+		dnv.detailsIndex = store.allocate();
+	}
+
+	void unregisterNode(final DNodeView dnv) {
+		// To avoid a memory leak its important to permanently remove the node from all the columns.
+		store.release(dnv.detailsIndex);
+		dnv.detailsIndex = -1;
 		
 		synchronized (lock) {
-			selected.remove(nodeIdx);
+			selected.remove(dnv.getModel());
 		}
-		
-		m_labelCounts.remove(nodeIdx);
-		m_labelTexts.remove(nodeIdx);
-		m_labelFonts.remove(nodeIdx);
-		m_labelPaints.remove(nodeIdx);
-		m_nodeTansparencies.remove(nodeIdx);
-		m_nodeBorderTansparencies.remove(nodeIdx);
-		m_nodeLabelTansparencies.remove(nodeIdx);
-		m_nodeZ.remove(nodeIdx);
-		m_nestedNetworkImgVisible.remove(nodeIdx);
+	}
+
+	/**
+	 * @return the slot of the node in the value store, or -1 if the node has no view.
+	 */
+	private int index(final CyNode node) {
+		final DNodeView dnv = dGraphView.getDNodeView(node);
+		return dnv != null ? dnv.detailsIndex : -1;
 	}
 
 	public <V> void setDefaultValue(final VisualProperty<V> vp, V value) {
@@ -229,7 +198,7 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_FILL_COLOR))
 			return (Color) dnv.getVisualProperty(NODE_FILL_COLOR);
 
-		final Object o = m_colorsLowDetail.get(node);
+		final Object o = m_colorsLowDetail.get(dnv.detailsIndex);
 
 		if (o == null)
 			if (m_colorLowDetailDefault == null)
@@ -252,7 +221,7 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_SELECTED_PAINT))
 			return (Color) dnv.getVisualProperty(NODE_SELECTED_PAINT);
 
-		final Object o = m_selectedColorsLowDetail.get(node);
+		final Object o = m_selectedColorsLowDetail.get(dnv.detailsIndex);
 
 		if (o == null)
 			if (m_selectedColorLowDetailDefault == null)
@@ -274,7 +243,7 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_SELECTED_PAINT))
 			return dnv.getVisualProperty(NODE_SELECTED_PAINT);
 
-		final Paint o = m_selectedPaints.get(node);
+		final Paint o = m_selectedPaints.get(dnv.detailsIndex);
 
 		if (o == null)
 			if (m_selectedPaintDefault == null)
@@ -297,7 +266,7 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_SHAPE))
 			return DNodeShape.getDShape(dnv.getVisualProperty(NODE_SHAPE)).getNativeShape();
 
-		final NodeShape originaShape = m_shapes.get(node);
+		final NodeShape originaShape = m_shapes.get(dnv.detailsIndex);
 
 		if (originaShape == null) {
 			if (m_shapeDefault == null)
@@ -320,9 +289,9 @@ public class DNodeDetails extends NodeDetails {
 	 */
 	void overrideShape(CyNode node, NodeShape shape) {
 		if (shape == null)
-			m_shapes.remove(node);
+			m_shapes.remove(index(node));
 		else {
-			m_shapes.put(node, shape);
+			m_shapes.put(index(node), shape);
 			isCleared = false;
 		}
 	}
@@ -342,7 +311,7 @@ public class DNodeDetails extends NodeDetails {
 		if (dev.isValueLocked(NODE_FILL_COLOR)) {
 			paint = dev.getVisualProperty(NODE_FILL_COLOR);
 		} else {
-			paint = m_unselectedPaints.get(node);
+			paint = m_unselectedPaints.get(dev.detailsIndex);
 
 			if (paint == null) {
 				// Mapped Value does not exist; use default
@@ -366,16 +335,16 @@ public class DNodeDetails extends NodeDetails {
 	}
 
 	void setUnselectedPaint(final CyNode node, final Paint paint) {
-		m_unselectedPaints.put(node, paint);
+		m_unselectedPaints.put(index(node), paint);
 		if (paint instanceof Color)
-			m_colorsLowDetail.put(node, paint);
+			m_colorsLowDetail.put(index(node), paint);
 		isCleared = false;
 	}
 
 	void setSelectedPaint(final CyNode node, final Paint paint) {
-		m_selectedPaints.put(node, paint);
+		m_selectedPaints.put(index(node), paint);
 		if (paint instanceof Color)
-			m_selectedColorsLowDetail.put(node, paint);
+			m_selectedColorsLowDetail.put(index(node), paint);
 
 		isCleared = false;
 	}
@@ -429,15 +398,15 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_BORDER_WIDTH))
 			return dnv.getVisualProperty(NODE_BORDER_WIDTH).floatValue();
 
-		final Float o = m_borderWidths.get(node);
+		final double o = m_borderWidths.get(dnv.detailsIndex);
 		
-		if (o == null)
+		if (Double.isNaN(o))
 			if (m_borderWidthDefault == null)
 				return NODE_BORDER_WIDTH.getDefault().floatValue();
 			else
 				return m_borderWidthDefault.floatValue();
 
-		return o;
+		return (float) o;
 	}
 
 	void setBorderWidthDefault(float width) {
@@ -450,9 +419,9 @@ public class DNodeDetails extends NodeDetails {
 	 */
 	void overrideBorderWidth(final CyNode node, final Float width) {
 		if (width == null || width < 0.0f) {
-			m_borderWidths.remove(node);
+			m_borderWidths.remove(index(node));
 		} else {
-			m_borderWidths.put(node, width);
+			m_borderWidths.put(index(node), width);
 			isCleared = false;
 		}
 	}
@@ -467,7 +436,7 @@ public class DNodeDetails extends NodeDetails {
 			return DLineType.getDLineType(lockedLineType).getStroke(borderWidth);
 		}
 
-		final Stroke stroke = m_borderStrokes.get(node);
+		final Stroke stroke = m_borderStrokes.get(dnv.detailsIndex);
 		
 		if (stroke == null) {
 			if (m_borderStrokeDefault == null) {
@@ -489,9 +458,9 @@ public class DNodeDetails extends NodeDetails {
 	
 	void overrideBorderStroke(final CyNode node, final Stroke stroke) {
 		if (stroke == null)
-			m_borderStrokes.remove(node);
+			m_borderStrokes.remove(index(node));
 		else {
-			m_borderStrokes.put(node, stroke);
+			m_borderStrokes.put(index(node), stroke);
 			isCleared = false;
 		}
 	}
@@ -513,7 +482,7 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_BORDER_PAINT)) {
 			paint = dnv.getVisualProperty(NODE_BORDER_PAINT);
 		} else {
-			paint = m_borderPaints.get(node);
+			paint = m_borderPaints.get(dnv.detailsIndex);
 
 			if (paint == null)
 				paint = m_borderPaintDefault != null ? m_borderPaintDefault : super.getBorderPaint(node);
@@ -538,9 +507,9 @@ public class DNodeDetails extends NodeDetails {
 	 */
 	void overrideBorderPaint(final CyNode node, final Paint paint) {
 		if ((paint == null) || paint.equals(super.getBorderPaint(node)))
-			m_borderPaints.remove(node);
+			m_borderPaints.remove(index(node));
 		else {
-			m_borderPaints.put(node, paint);
+			m_borderPaints.put(index(node), paint);
 			isCleared = false;
 		}
 	}
@@ -553,9 +522,9 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_LABEL) && !dnv.getVisualProperty(NODE_LABEL).isEmpty())
 			return 1;
 		
-		Integer count = m_labelCounts.get(node);
+		int count = m_labelCounts.get(dnv.detailsIndex);
 		
-		if (count == null) {
+		if (count == DetailsStore.IntColumn.UNSET) {
 			try {
 				String defLabel = (String) defaultValues.get(NODE_LABEL);
 				count = (defLabel == null || defLabel.isEmpty()) ? super.getLabelCount(node) : 1;
@@ -572,9 +541,9 @@ public class DNodeDetails extends NodeDetails {
 	 */
 	void overrideLabelCount(final CyNode node, final int labelCount) {
 		if ((labelCount < 0) || (labelCount == super.getLabelCount(node)))
-			m_labelCounts.remove(node);
+			m_labelCounts.remove(index(node));
 		else {
-			m_labelCounts.put(node, labelCount);
+			m_labelCounts.put(index(node), labelCount);
 			isCleared = false;
 		}
 	}
@@ -587,7 +556,7 @@ public class DNodeDetails extends NodeDetails {
 			return dnv.getVisualProperty(NODE_LABEL);
 
 		// final long key = (((long) node) << 32) | ((long) labelInx);
-		final String o = m_labelTexts.get(node);
+		final String o = m_labelTexts.get(dnv.detailsIndex);
 
 		if (o == null)
 			if (m_labelTextDefault == null)
@@ -610,9 +579,9 @@ public class DNodeDetails extends NodeDetails {
 		// final long key = (((long) node) << 32) | ((long) labelInx);
 
 		if ((text == null) || text.equals(super.getLabelText(node, labelInx)))
-			m_labelTexts.remove(node);
+			m_labelTexts.remove(index(node));
 		else {
-			m_labelTexts.put(node, text);
+			m_labelTexts.put(index(node), text);
 			isCleared = false;
 		}
 	}
@@ -623,7 +592,7 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_TOOLTIP))
 			return dnv.getVisualProperty(NODE_TOOLTIP);
 
-		final String o = m_tooltipTexts.get(node);
+		final String o = m_tooltipTexts.get(dnv.detailsIndex);
 
 		if (o == null)
 			if (m_tooltipTextDefault == null)
@@ -645,9 +614,9 @@ public class DNodeDetails extends NodeDetails {
 	void overrideTooltipText(final CyNode node, final String text) {
 
 		if ((text == null) || text.equals(""))
-			m_tooltipTexts.remove(node);
+			m_tooltipTexts.remove(index(node));
 		else {
-			m_tooltipTexts.put(node, text);
+			m_tooltipTexts.put(index(node), text);
 			isCleared = false;
 		}
 	}
@@ -665,7 +634,7 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_LABEL_FONT_FACE)) {
 			font = dnv.getVisualProperty(NODE_LABEL_FONT_FACE);
 		} else {
-			font = m_labelFonts.get(node);
+			font = m_labelFonts.get(dnv.detailsIndex);
 	
 			if (font == null) {
 				font = m_labelFontDefault != null ? 
@@ -692,9 +661,9 @@ public class DNodeDetails extends NodeDetails {
 	 */
 	void overrideLabelFont(final CyNode node, final Font font) {
 		if (font == null) {
-			m_labelFonts.remove(node);
+			m_labelFonts.remove(index(node));
 		} else {
-			m_labelFonts.put(node, font);
+			m_labelFonts.put(index(node), font);
 			isCleared = false;
 		}
 	}
@@ -713,7 +682,7 @@ public class DNodeDetails extends NodeDetails {
 			// Check bypass
 			paint = dnv.getVisualProperty(NODE_LABEL_COLOR);
 		} else {
-			paint = m_labelPaints.get(node);
+			paint = m_labelPaints.get(dnv.detailsIndex);
 
 			if (paint == null)
 				paint = m_labelPaintDefault != null ? m_labelPaintDefault : NODE_LABEL_COLOR.getDefault();
@@ -735,9 +704,9 @@ public class DNodeDetails extends NodeDetails {
 	 */
 	void overrideLabelPaint(CyNode node, int labelInx, Paint paint) {
 		if (paint == null)
-			m_labelPaints.remove(node);
+			m_labelPaints.remove(index(node));
 		else {
-			m_labelPaints.put(node, paint);
+			m_labelPaints.put(index(node), paint);
 			isCleared = false;
 		}
 	}
@@ -760,7 +729,7 @@ public class DNodeDetails extends NodeDetails {
 			return anchor;
 		}
 
-		final Position p = m_labelTextAnchors.get(node);
+		final Position p = m_labelTextAnchors.get(dnv.detailsIndex);
 
 		if (p == null)
 			if (m_labelTextAnchorDefault == null)
@@ -782,12 +751,12 @@ public class DNodeDetails extends NodeDetails {
 		//  3) The anchor is different altogether
 		if (m_labelTextAnchorDefault == null &&
 				anchor == super.getLabelTextAnchor(node, inx))
-			m_labelTextAnchors.remove(node);
+			m_labelTextAnchors.remove(index(node));
 		else if (m_labelTextAnchorDefault != null &&
 		         anchor == m_labelTextAnchorDefault)
-			m_labelTextAnchors.remove(node);
+			m_labelTextAnchors.remove(index(node));
 		else {
-			m_labelTextAnchors.put(node, anchor);
+			m_labelTextAnchors.put(index(node), anchor);
 			isCleared = false;
 		}
 	}
@@ -803,7 +772,7 @@ public class DNodeDetails extends NodeDetails {
 			return anchor;
 		}
 
-		final Position o = m_labelNodeAnchors.get(node);
+		final Position o = m_labelNodeAnchors.get(dnv.detailsIndex);
 
 		if (o == null)
 			if (m_labelNodeAnchorDefault == null)
@@ -825,12 +794,12 @@ public class DNodeDetails extends NodeDetails {
 		//  3) The anchor is different altogether
 		if (m_labelNodeAnchorDefault == null &&
 				anchor == super.getLabelNodeAnchor(node, inx))
-			m_labelNodeAnchors.remove(node);
+			m_labelNodeAnchors.remove(index(node));
 		else if (m_labelNodeAnchorDefault != null &&
 		         anchor == m_labelNodeAnchorDefault)
-			m_labelNodeAnchors.remove(node);
+			m_labelNodeAnchors.remove(index(node));
 		else {
-			m_labelNodeAnchors.put(node, anchor);
+			m_labelNodeAnchors.put(index(node), anchor);
 			isCleared = false;
 		}
 	}
@@ -844,15 +813,15 @@ public class DNodeDetails extends NodeDetails {
 			return (float) lp.getOffsetX();
 		}
 
-		final Object o = m_labelOffsetXs.get(node);
+		final double o = m_labelOffsetXs.get(dnv.detailsIndex);
 
-		if (o == null)
+		if (Double.isNaN(o))
 			if (m_labelOffsetVectorXDefault == null)
 				return super.getLabelOffsetVectorX(node, labelInx);
 			else
 				return m_labelOffsetVectorXDefault.floatValue();
 
-		return ((Double) o).floatValue();
+		return (float) o;
 	}
 
 	void setLabelOffsetVectorXDefault(double x) {
@@ -866,12 +835,12 @@ public class DNodeDetails extends NodeDetails {
 		//  3) The offset is different altogether
 		if (m_labelOffsetVectorXDefault == null &&
 		    ((float) x) == super.getLabelOffsetVectorX(node, inx))
-			m_labelOffsetXs.remove(node);
+			m_labelOffsetXs.remove(index(node));
 		else if (m_labelOffsetVectorXDefault != null &&
 		         ((float) x) == m_labelOffsetVectorXDefault.floatValue())
-			m_labelOffsetXs.remove(node);
+			m_labelOffsetXs.remove(index(node));
 		else {
-			m_labelOffsetXs.put(node, new Double(x));
+			m_labelOffsetXs.put(index(node), x);
 			isCleared = false;
 		}
 	}
@@ -885,15 +854,15 @@ public class DNodeDetails extends NodeDetails {
 			return (float) lp.getOffsetY();
 		}
 
-		final Object o = m_labelOffsetYs.get(node);
+		final double o = m_labelOffsetYs.get(dnv.detailsIndex);
 
-		if (o == null)
+		if (Double.isNaN(o))
 			if (m_labelOffsetVectorYDefault == null)
 				return super.getLabelOffsetVectorY(node, labelInx);
 			else
 				return m_labelOffsetVectorYDefault.floatValue();
 
-		return ((Double) o).floatValue();
+		return (float) o;
 	}
 
 	void setLabelOffsetVectorYDefault(double y) {
@@ -907,12 +876,12 @@ public class DNodeDetails extends NodeDetails {
 		//  3) The offset is different altogether
 		if (m_labelOffsetVectorYDefault == null &&
 		    ((float) y) == super.getLabelOffsetVectorY(node, inx))
-			m_labelOffsetXs.remove(node);
+			m_labelOffsetXs.remove(index(node));
 		else if (m_labelOffsetVectorYDefault != null &&
 		         ((float) y) == m_labelOffsetVectorYDefault.floatValue())
-			m_labelOffsetYs.remove(node);
+			m_labelOffsetYs.remove(index(node));
 		else {
-			m_labelOffsetYs.put(node, new Double(y));
+			m_labelOffsetYs.put(index(node), y);
 			isCleared = false;
 		}
 	}
@@ -927,7 +896,7 @@ public class DNodeDetails extends NodeDetails {
 			return justify;
 		}
 
-		Justification o = m_labelJustifys.get(node);
+		Justification o = m_labelJustifys.get(dnv.detailsIndex);
 
 		if (o == null)
 			if (m_labelJustifyDefault == null)
@@ -949,12 +918,12 @@ public class DNodeDetails extends NodeDetails {
 		//  3) The offset is different altogether
 		if (m_labelJustifyDefault == null &&
 		    justify == super.getLabelJustify(node, inx))
-			m_labelJustifys.remove(node);
+			m_labelJustifys.remove(index(node));
 		else if (m_labelJustifyDefault != null &&
 		    justify == m_labelJustifyDefault)
-			m_labelJustifys.remove(node);
+			m_labelJustifys.remove(index(node));
 		else {
-			m_labelJustifys.put(node, justify);
+			m_labelJustifys.put(index(node), justify);
 			isCleared = false;
 		}
 	}
@@ -967,9 +936,9 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_LABEL_WIDTH))
 			return dnv.getVisualProperty(NODE_LABEL_WIDTH);
 		
-		final Double o = m_labelWidths.get(node);
+		final double o = m_labelWidths.get(dnv.detailsIndex);
 
-		if (o == null) {
+		if (Double.isNaN(o)) {
 			if (m_labelWidthDefault == null)
 				return super.getLabelWidth(node);
 			else
@@ -989,9 +958,9 @@ public class DNodeDetails extends NodeDetails {
 	 */
 	void overrideLabelWidth(final CyNode node, final double width) {
 		if ((width < 0.0) || (width == super.getLabelWidth(node)))
-			m_labelWidths.remove(node);
+			m_labelWidths.remove(index(node));
 		else {
-			m_labelWidths.put(node, width);
+			m_labelWidths.put(index(node), width);
 			isCleared = false;
 		}
 	}
@@ -1004,7 +973,7 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_TRANSPARENCY))
 			return dnv.getVisualProperty(NODE_TRANSPARENCY);
 
-		Integer trans = m_nodeTansparencies.get(node);
+		Integer trans = m_nodeTansparencies.isSet(dnv.detailsIndex) ? m_nodeTansparencies.get(dnv.detailsIndex) : null;
 		if (trans == null) {
 			trans = transparencyDefault != null ? transparencyDefault : NODE_TRANSPARENCY.getDefault();
 		}
@@ -1019,9 +988,9 @@ public class DNodeDetails extends NodeDetails {
 
 	void overrideTransparency(final CyNode node, final Integer transparency) {
 		if (transparency == null)
-			m_nodeTansparencies.remove(node);
+			m_nodeTansparencies.remove(index(node));
 		else {
-			m_nodeTansparencies.put(node, transparency);
+			m_nodeTansparencies.put(index(node), transparency);
 			isCleared = false;
 		}
 	}
@@ -1032,7 +1001,7 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_LABEL_TRANSPARENCY))
 			return dnv.getVisualProperty(NODE_LABEL_TRANSPARENCY);
 
-		Integer trans = m_nodeLabelTansparencies.get(node);
+		Integer trans = m_nodeLabelTansparencies.isSet(dnv.detailsIndex) ? m_nodeLabelTansparencies.get(dnv.detailsIndex) : null;
 		if (trans == null) {
 			trans = transparencyLabelDefault != null ? 
 					transparencyLabelDefault : NODE_LABEL_TRANSPARENCY.getDefault();
@@ -1048,9 +1017,9 @@ public class DNodeDetails extends NodeDetails {
 
 	void overrideLabelTransparency(final CyNode node, final Integer transparency) {
 		if (transparency == null)
-			m_nodeLabelTansparencies.remove(node);
+			m_nodeLabelTansparencies.remove(index(node));
 		else {
-			m_nodeLabelTansparencies.put(node, transparency);
+			m_nodeLabelTansparencies.put(index(node), transparency);
 			isCleared = false;
 		}
 	}
@@ -1061,7 +1030,7 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_BORDER_TRANSPARENCY))
 			return dnv.getVisualProperty(NODE_BORDER_TRANSPARENCY);
 
-		Integer trans = m_nodeBorderTansparencies.get(node);
+		Integer trans = m_nodeBorderTansparencies.isSet(dnv.detailsIndex) ? m_nodeBorderTansparencies.get(dnv.detailsIndex) : null;
 		if (trans == null) {
 			trans = transparencyBorderDefault != null ? 
 					transparencyBorderDefault : NODE_BORDER_TRANSPARENCY.getDefault();
@@ -1077,9 +1046,9 @@ public class DNodeDetails extends NodeDetails {
 
 	void overrideBorderTransparency(final CyNode node, final Integer transparency) {
 		if (transparency == null)
-			m_nodeBorderTansparencies.remove(node);
+			m_nodeBorderTansparencies.remove(index(node));
 		else {
-			m_nodeBorderTansparencies.put(node, transparency);
+			m_nodeBorderTansparencies.put(index(node), transparency);
 			isCleared = false;
 		}
 	}
@@ -1089,7 +1058,7 @@ public class DNodeDetails extends NodeDetails {
 	}
 	
 	void overrideNestedNetworkImgVisible(final CyNode node, final boolean visible) {
-		m_nestedNetworkImgVisible.put(node, visible);
+		m_nestedNetworkImgVisible.put(index(node), visible);
 		isCleared = false;
 	}
 	
@@ -1099,7 +1068,7 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_NESTED_NETWORK_IMAGE_VISIBLE))
 			return dnv.getVisualProperty(NODE_NESTED_NETWORK_IMAGE_VISIBLE);
 		
-		Boolean visible = m_nestedNetworkImgVisible.get(node);
+		Boolean visible = m_nestedNetworkImgVisible.get(dnv.detailsIndex);
 		
 		if (visible != null)
 			return visible;
@@ -1112,8 +1081,8 @@ public class DNodeDetails extends NodeDetails {
 		if (dnv.isValueLocked(NODE_DEPTH))
 			return dnv.getVisualProperty(NODE_DEPTH);
 
-		Double depth = m_nodeZ.get(node);
-		if (depth == null)
+		final double depth = m_nodeZ.get(dnv.detailsIndex);
+		if (Double.isNaN(depth))
 			return 0.0;
 		return depth;
 	}
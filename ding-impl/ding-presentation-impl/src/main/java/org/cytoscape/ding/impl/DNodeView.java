@@ -161,6 +161,9 @@ public class DNodeView extends AbstractDViewModel<CyNode> implements NodeView, L
 	// Cached node depth.
 	double m_zOrder = 0.0f;
 
+	// Slot of this node in the DNodeDetails value store, -1 once the view has been removed.
+	int detailsIndex = -1;
+
 	// Cached visibility information
 	private boolean isVisible = true;
 	
@@ -0,0 +1,328 @@
+package org.cytoscape.ding.impl;
+
+/*
+ * #%L
+ * Cytoscape Ding View/Presentation Impl (ding-presentation-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2016 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dense, index-based storage for the per-element values overridden in
+ * {@link DNodeDetails} and {@link DEdgeDetails}.
+ * <p>
+ * Every node or edge view is given a slot when it is added to the network view,
+ * and each visual property is a column: numeric properties are kept in primitive
+ * arrays and all other values in plain object arrays, all indexed by that slot.
+ * The renderer therefore reads a property with one array access instead of a
+ * hash lookup, and an override costs an array element instead of a hash map
+ * entry and a boxed value. Slots of removed views are reused.
+ * <p>
+ * A column's array is only allocated when a value is first stored in it and
+ * grows on demand. Writes are synchronized on the store; reads are not locked,
+ * and may briefly see a value that is being replaced, just like the concurrent
+ * maps this replaces.
+ */
+final class DetailsStore {
+
+	private static final int MIN_CAPACITY = 64;
+
+	private final List<Column> columns = new ArrayList<>();
+
+	private int nextSlot;
+	private int[] freeSlots = new int[16];
+	private int freeCount;
+
+	synchronized int allocate() {
+		if (freeCount > 0)
+			return freeSlots[--freeCount];
+
+		return nextSlot++;
+	}
+
+	/**
+	 * Clears the values of all columns at the given slot and makes it available
+	 * for reuse.
+	 */
+	synchronized void release(final int slot) {
+		if (slot < 0)
+			return;
+
+		for (Column c : columns)
+			c.clear(slot);
+
+		if (freeCount == freeSlots.length)
+			freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+
+		freeSlots[freeCount++] = slot;
+	}
+
+	/**
+	 * Drops the values of every column, but keeps the slots of the current views.
+	 */
+	synchronized void clear() {
+		for (Column c : columns)
+			c.reset();
+	}
+
+	synchronized <V> ObjectColumn<V> newObjectColumn() {
+		return register(new ObjectColumn<V>());
+	}
+
+	synchronized DoubleColumn newDoubleColumn() {
+		return register(new DoubleColumn());
+	}
+
+	synchronized IntColumn newIntColumn() {
+		return register(new IntColumn());
+	}
+
+	synchronized BooleanColumn newBooleanColumn() {
+		return register(new BooleanColumn());
+	}
+
+	private <C extends Column> C register(final C column) {
+		columns.add(column);
+		return column;
+	}
+
+	private static int grownLength(final int length, final int slot) {
+		return Math.max(slot + 1, Math.max(MIN_CAPACITY, length * 2));
+	}
+
+	private abstract class Column {
+		abstract void clear(int slot);
+
+		abstract void reset();
+	}
+
+	/**
+	 * A column of object values; <code>null</code> means that the value is not set.
+	 */
+	final class ObjectColumn<V> extends Column {
+
+		private volatile Object[] values;
+
+		@SuppressWarnings("unchecked")
+		V get(final int slot) {
+			final Object[] a = values;
+			return a == null || slot < 0 || slot >= a.length ? null : (V) a[slot];
+		}
+
+		void put(final int slot, final V value) {
+			if (slot < 0)
+				return;
+
+			synchronized (DetailsStore.this) {
+				Object[] a = values;
+				if (a == null || slot >= a.length) {
+					a = a == null ? new Object[grownLength(0, slot)] : Arrays.copyOf(a, grownLength(a.length, slot));
+					values = a;
+				}
+				a[slot] = value;
+			}
+		}
+
+		void remove(final int slot) {
+			synchronized (DetailsStore.this) {
+				clear(slot);
+			}
+		}
+
+		@Override
+		void clear(final int slot) {
+			final Object[] a = values;
+			if (a != null && slot >= 0 && slot < a.length)
+				a[slot] = null;
+		}
+
+		@Override
+		void reset() {
+			values = null;
+		}
+	}
+
+	/**
+	 * A column of double values; NaN means that the value is not set.
+	 */
+	final class DoubleColumn extends Column {
+
+		private volatile double[] values;
+
+		boolean isSet(final int slot) {
+			return !Double.isNaN(get(slot));
+		}
+
+		/**
+		 * @return the value, or NaN if it is not set
+		 */
+		double get(final int slot) {
+			final double[] a = values;
+			return a == null || slot < 0 || slot >= a.length ? Double.NaN : a[slot];
+		}
+
+		void put(final int slot, final double value) {
+			if (slot < 0)
+				return;
+
+			synchronized (DetailsStore.this) {
+				double[] a = values;
+				if (a == null || slot >= a.length) {
+					final int oldLength = a == null ? 0 : a.length;
+					a = a == null ? new double[grownLength(0, slot)] : Arrays.copyOf(a, grownLength(a.length, slot));
+					Arrays.fill(a, oldLength, a.length, Double.NaN);
+					values = a;
+				}
+				a[slot] = value;
+			}
+		}
+
+		void remove(final int slot) {
+			synchronized (DetailsStore.this) {
+				clear(slot);
+			}
+		}
+
+		@Override
+		void clear(final int slot) {
+			final double[] a = values;
+			if (a != null && slot >= 0 && slot < a.length)
+				a[slot] = Double.NaN;
+		}
+
+		@Override
+		void reset() {
+			values = null;
+		}
+	}
+
+	/**
+	 * A column of int values; {@link #UNSET} means that the value is not set.
+	 */
+	final class IntColumn extends Column {
+
+		static final int UNSET = Integer.MIN_VALUE;
+
+		private volatile int[] values;
+
+		boolean isSet(final int slot) {
+			return get(slot) != UNSET;
+		}
+
+		/**
+		 * @return the value, or {@link #UNSET}
+		 */
+		int get(final int slot) {
+			final int[] a = values;
+			return a == null || slot < 0 || slot >= a.length ? UNSET : a[slot];
+		}
+
+		void put(final int slot, final int value) {
+			if (slot < 0)
+				return;
+
+			synchronized (DetailsStore.this) {
+				int[] a = values;
+				if (a == null || slot >= a.length) {
+					final int oldLength = a == null ? 0 : a.length;
+					a = a == null ? new int[grownLength(0, slot)] : Arrays.copyOf(a, grownLength(a.length, slot));
+					Arrays.fill(a, oldLength, a.length, UNSET);
+					values = a;
+				}
+				a[slot] = value;
+			}
+		}
+
+		void remove(final int slot) {
+			synchronized (DetailsStore.this) {
+				clear(slot);
+			}
+		}
+
+		@Override
+		void clear(final int slot) {
+			final int[] a = values;
+			if (a != null && slot >= 0 && slot < a.length)
+				a[slot] = UNSET;
+		}
+
+		@Override
+		void reset() {
+			values = null;
+		}
+	}
+
+	/**
+	 * A column of boolean values, one byte per slot.
+	 */
+	final class BooleanColumn extends Column {
+
+		private static final byte UNSET = 0;
+		private static final byte FALSE = 1;
+		private static final byte TRUE = 2;
+
+		private volatile byte[] values;
+
+		/**
+		 * @return the value, or <code>null</code> if it is not set
+		 */
+		Boolean get(final int slot) {
+			final byte[] a = values;
+			final byte b = a == null || slot < 0 || slot >= a.length ? UNSET : a[slot];
+			return b == UNSET ? null : Boolean.valueOf(b == TRUE);
+		}
+
+		void put(final int slot, final boolean value) {
+			if (slot < 0)
+				return;
+
+			synchronized (DetailsStore.this) {
+				byte[] a = values;
+				if (a == null || slot >= a.length) {
+					a = a == null ? new byte[grownLength(0, slot)] : Arrays.copyOf(a, grownLength(a.length, slot));
+					values = a;
+				}
+				a[slot] = value ? TRUE : FALSE;
+			}
+		}
+
+		void remove(final int slot) {
+			synchronized (DetailsStore.this) {
+				clear(slot);
+			}
+		}
+
+		@Override
+		void clear(final int slot) {
+			final byte[] a = values;
+			if (a != null && slot >= 0 && slot < a.length)
+				a[slot] = UNSET;
+		}
+
+		@Override
+		void reset() {
+			values = null;
+		}
+	}
+}
@@ -4,6 +4,7 @@ import java.util.Properties;
 
 import org.cytoscape.application.CyApplicationManager;
 import org.cytoscape.graph.render.stateful.GraphLOD;
+import org.cytoscape.graph.render.stateful.GraphRenderer;
 import org.cytoscape.property.CyProperty;
 import org.cytoscape.property.PropertyUpdatedEvent;
 import org.cytoscape.property.PropertyUpdatedListener;
@@ -46,6 +47,13 @@ public class DingGraphLOD extends GraphLOD implements PropertyUpdatedListener {
 	protected int nodeLabelThreshold;
 	protected int edgeArrowThreshold;
 	protected int edgeLabelThreshold;
+	protected int tiledRenderingThreshold;
+	protected int tileSize;
+	protected boolean progressiveRendering;
+	protected int frameBudget;
+
+	// Smoothed cost of rendering one node or edge at full detail, in nanoseconds.
+	private volatile double fullDetailCost;
 
 	private final Properties props;
 	private final CyProperty<Properties> cyProp;
@@ -72,6 +80,11 @@ public class DingGraphLOD extends GraphLOD implements PropertyUpdatedListener {
 		this.nodeLabelThreshold = source.nodeLabelThreshold;
 		this.edgeArrowThreshold = source.edgeArrowThreshold;
 		this.edgeLabelThreshold = source.edgeLabelThreshold;
+		this.tiledRenderingThreshold = source.tiledRenderingThreshold;
+		this.tileSize = source.tileSize;
+		this.progressiveRendering = source.progressiveRendering;
+		this.frameBudget = source.frameBudget;
+		this.fullDetailCost = source.fullDetailCost;
 		this.drawEdges = source.drawEdges;
 	}
 
@@ -81,7 +94,10 @@ public class DingGraphLOD extends GraphLOD implements PropertyUpdatedListener {
 		nodeLabelThreshold = parseInt(props.getProperty("render.nodeLabelThreshold"), 200);
 		edgeArrowThreshold = parseInt(props.getProperty("render.edgeArrowThreshold"), 600);
 		edgeLabelThreshold = parseInt(props.getProperty("render.edgeLabelThreshold"), 200);
-
+		tiledRenderingThreshold = parseInt(props.getProperty("render.tiledRenderingThreshold"), 1000);
+		tileSize = parseInt(props.getProperty("render.tileSize"), 256);
+		progressiveRendering = !"false".equalsIgnoreCase(props.getProperty("render.progressive"));
+		frameBudget = parseInt(props.getProperty("render.frameBudget"), 100);
 	}
 
 	private int parseInt(final String intString, final int defaultValue) {
@@ -379,6 +395,65 @@ public class DingGraphLOD extends GraphLOD implements PropertyUpdatedListener {
 		return true;
 	}
 
+	/**
+	 * Determines the size of the tiles a full detail frame is split into.
+	 * Tiles are only used if the sum of rendered nodes and rendered edges is
+	 * at least render.tiledRenderingThreshold; a render.tileSize that is not
+	 * positive turns tiling off.
+	 * 
+	 * @param renderNodeCount
+	 *            the number of nodes that are about to be rendered.
+	 * @param renderEdgeCount
+	 *            the number of edges that are about to be rendered.
+	 * @return the width and height of a tile in pixels, or zero to render the
+	 *         frame as a whole.
+	 */
+	@Override
+	public int tileSize(final int renderNodeCount, final int renderEdgeCount) {
+		if (tileSize <= 0 || (renderNodeCount + renderEdgeCount) < tiledRenderingThreshold)
+			return 0;
+
+		return tileSize;
+	}
+
+	/**
+	 * Determines whether a full detail frame should be shown at low detail
+	 * first and refined in the background. This is the case if
+	 * render.progressive is not turned off and, judging by the time recent full
+	 * detail frames took, rendering this one would take longer than
+	 * render.frameBudget milliseconds.
+	 * 
+	 * @param renderNodeCount
+	 *            the number of nodes that are about to be rendered.
+	 * @param renderEdgeCount
+	 *            the number of edges that are about to be rendered.
+	 * @return true if and only if full detail rendering should be deferred.
+	 */
+	@Override
+	public boolean refineLater(final int renderNodeCount, final int renderEdgeCount) {
+		final double cost = fullDetailCost;
+
+		if (!progressiveRendering || cost <= 0.0)
+			return false;
+
+		return cost * (renderNodeCount + renderEdgeCount + 1) > frameBudget * 1000000.0;
+	}
+
+	/**
+	 * Keeps a moving average of the time it takes to render one node or edge
+	 * at full detail, which refineLater() uses to predict the cost of the next
+	 * frame. Low detail frames are ignored.
+	 */
+	@Override
+	public synchronized void frameRendered(final int lodBits, final int renderNodeCount,
+	                                       final int renderEdgeCount, final long nanos) {
+		if ((lodBits & GraphRenderer.LOD_HIGH_DETAIL) == 0)
+			return;
+
+		final double cost = (double) nanos / (renderNodeCount + renderEdgeCount + 1);
+		fullDetailCost = (fullDetailCost <= 0.0) ? cost : (0.75 * fullDetailCost) + (0.25 * cost);
+	}
+
 	@Override
 	public double getNestedNetworkImageScaleFactor() {
 		final String scaleFactor = props.getProperty("nestedNetwork.imageScaleFactor", "1.0");
@@ -1,5 +1,6 @@
 package org.cytoscape.ding.impl;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Container;
@@ -29,6 +30,8 @@ import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.swing.JComponent;
 import javax.swing.JLabel;
@@ -96,6 +99,13 @@ public class InnerCanvas extends DingCanvas implements MouseListener, MouseMotio
 
 	private final static long serialVersionUID = 1202416511420671L;
 
+	/** Renders the full detail version of frames that were first shown at low detail. */
+	private static final ExecutorService REFINEMENT_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+		final Thread t = new Thread(r, "ding-progressive-renderer");
+		t.setDaemon(true);
+		return t;
+	});
+
 	// TODO This is public because BirdsEyeView needs to ensure that it isn't null and that is ridiculous. 
 	public GraphGraphics m_grafx;
 
@@ -147,6 +157,9 @@ public class InnerCanvas extends DingCanvas implements MouseListener, MouseMotio
 
 	private AddEdgeStateMonitor addEdgeMode;
 	private Timer hideEdgesTimer;
+	private Timer refineTimer;
+	private volatile Refinement m_refinement;
+	private volatile boolean m_refinePending;
 	private Cursor moveCursor;
 	
 	private final CyServiceRegistrar serviceRegistrar;
@@ -188,6 +201,16 @@ public class InnerCanvas extends DingCanvas implements MouseListener, MouseMotio
 			repaint();
 		};
 		hideEdgesTimer = new Timer(600, taskPerformer);
+
+		// Timer to start refining a frame that was rendered at low detail,
+		// once the view has been left alone for a moment
+		refineTimer = new Timer(200, (ActionEvent evt) -> {
+			refineTimer.stop();
+
+			if (m_refinePending && m_refinement == null && !hideEdgesTimer.isRunning()
+					&& m_view != null && !m_view.isDirty())
+				startRefinement();
+		});
 	}
 
 	@Override
@@ -222,17 +245,31 @@ public class InnerCanvas extends DingCanvas implements MouseListener, MouseMotio
 
 		m_fontMetrics = g.getFontMetrics();
 
-		synchronized (m_lock) {
-			if (m_view.isDirty()) {
-				contentChanged = m_view.isContentChanged();
-				viewportChanged = m_view.isViewportChanged();
-				renderGraph(m_grafx,/* setLastRenderDetail = */ true, m_lod[0]);
-				xCenter = m_xCenter;
-				yCenter = m_yCenter;
-				scaleFactor = m_scaleFactor;
-				
-				// set the publicly accessible image object *after* it has been rendered
-				m_img = m_grafx.image;
+		// A refinement holds m_lock while it reads the view, which is only
+		// while it lists the frame if the frame is tiled; only wait for it to
+		// give up if there is something new to draw.
+		if (m_view.isDirty())
+			cancelRefinement();
+
+		if (m_refinement == null) {
+			synchronized (m_lock) {
+				if (m_view.isDirty()) {
+					contentChanged = m_view.isContentChanged();
+					viewportChanged = m_view.isViewportChanged();
+					final ProgressiveLOD lod = new ProgressiveLOD(m_lod[0]);
+					renderGraph(m_grafx,/* setLastRenderDetail = */ true, lod);
+					xCenter = m_xCenter;
+					yCenter = m_yCenter;
+					scaleFactor = m_scaleFactor;
+					
+					// set the publicly accessible image object *after* it has been rendered
+					m_img = m_grafx.image;
+					
+					m_refinePending = lod.isDeferred();
+					
+					if (m_refinePending)
+						refineTimer.restart();
+				}
 			}
 		}
 
@@ -331,6 +368,8 @@ public class InnerCanvas extends DingCanvas implements MouseListener, MouseMotio
 	// TODO: set timer and setDrawEdges to false.  Set back to true when timer expires.
 	@Override
 	public void mouseWheelMoved(MouseWheelEvent e) {
+		cancelRefinement();
+
 		if (!m_view.isValueLocked(BasicVisualLexicon.NETWORK_SCALE_FACTOR)) {
 			setHideEdges();
 			adjustZoom(e.getWheelRotation());
@@ -339,6 +378,7 @@ public class InnerCanvas extends DingCanvas implements MouseListener, MouseMotio
 	
 	@Override
 	public void mouseDragged(MouseEvent e) {
+		cancelRefinement();
 		mouseDraggedDelegator.delegateMouseEvent(e);
 	}
 
@@ -367,11 +407,13 @@ public class InnerCanvas extends DingCanvas implements MouseListener, MouseMotio
 
 	@Override
 	public void mouseReleased(MouseEvent e) {
+		cancelRefinement();
 		mouseReleasedDelegator.delegateMouseEvent(e);
 	}
 
 	@Override
 	public void mousePressed(MouseEvent e) {
+		cancelRefinement();
 		if ( addEdgeMode.addingEdge() )
 			addEdgeMousePressedDelegator.delegateMouseEvent(e);
 		else
@@ -387,6 +429,7 @@ public class InnerCanvas extends DingCanvas implements MouseListener, MouseMotio
 	 */
 	@Override
 	public void keyPressed(KeyEvent k) {
+		cancelRefinement();
 		final int code = k.getKeyCode();
 		if ( (code == KeyEvent.VK_UP) || (code == KeyEvent.VK_DOWN) || 
 		     (code == KeyEvent.VK_LEFT) || (code == KeyEvent.VK_RIGHT)) {
@@ -998,6 +1041,7 @@ public class InnerCanvas extends DingCanvas implements MouseListener, MouseMotio
 	}
 
 	public void updateSubgraph(List<CyNode> nodes, List<CyEdge> edges) {
+		cancelRefinement();
 		renderSubgraph(m_grafx, false, m_lod[0], nodes, edges);
 	}
 
@@ -1041,6 +1085,104 @@ public class InnerCanvas extends DingCanvas implements MouseListener, MouseMotio
 		// repaint();
 	}
 
+	/**
+	 * Renders the current frame at full detail on a background thread, and
+	 * shows the result unless the view changes in the meantime.
+	 */
+	private void startRefinement() {
+		final int w = getWidth();
+		final int h = getHeight();
+
+		if (m_grafx == null || w <= 0 || h <= 0)
+			return;
+
+		final int alpha = (m_isOpaque) ? 255 : 0;
+		final Color backgroundColor = new Color(m_backgroundColor.getRed(), m_backgroundColor.getGreen(),
+							m_backgroundColor.getBlue(), alpha);
+
+		final Refinement refinement = new Refinement(m_grafx, m_lod[0], backgroundColor, w, h);
+		m_refinePending = false;
+		m_refinement = refinement;
+		REFINEMENT_EXECUTOR.execute(refinement);
+	}
+
+	/**
+	 * Abandons the refinement that is in progress, if any; the frame will be
+	 * refined again once the view settles.
+	 */
+	private void cancelRefinement() {
+		final Refinement refinement = m_refinement;
+
+		if (refinement != null) {
+			refinement.cancelled = true;
+			m_refinement = null;
+			m_refinePending = true;
+			refineTimer.restart();
+		}
+	}
+
+	private final class Refinement implements Runnable {
+		private final GraphGraphics target;
+		private final GraphLOD lod;
+		private final Color backgroundColor;
+		private final int width;
+		private final int height;
+		private final double xCenter;
+		private final double yCenter;
+		private final double scaleFactor;
+		private volatile boolean cancelled;
+
+		Refinement(GraphGraphics target, GraphLOD lod, Color backgroundColor, int width, int height) {
+			this.target = target;
+			this.lod = lod;
+			this.backgroundColor = backgroundColor;
+			this.width = width;
+			this.height = height;
+			xCenter = m_xCenter;
+			yCenter = m_yCenter;
+			scaleFactor = m_scaleFactor;
+		}
+
+		@Override
+		public void run() {
+			final DGraphView view = m_view;
+
+			if (cancelled || view == null)
+				return;
+
+			final BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			final LongHash hash = new LongHash();
+			final int lastRenderDetail = view.renderRefinement(new GraphGraphics(img, false, true), lod,
+					backgroundColor, xCenter, yCenter, scaleFactor, hash, () -> cancelled);
+
+			if (!cancelled)
+				SwingUtilities.invokeLater(() -> finish(img, hash, lastRenderDetail));
+		}
+
+		private void finish(BufferedImage img, LongHash hash, int lastRenderDetail) {
+			if (m_refinement != this)
+				return;
+
+			m_refinement = null;
+
+			if (cancelled || target != m_grafx || m_view == null || m_view.isDirty()) {
+				m_refinePending = true;
+				repaint();
+				return;
+			}
+
+			final Graphics2D g = (Graphics2D) target.image.getGraphics();
+			g.setComposite(AlphaComposite.Src);
+			g.drawImage(img, 0, 0, null);
+			g.dispose();
+
+			m_hash = hash;
+			m_lastRenderDetail = lastRenderDetail;
+			m_img = target.image;
+			repaint();
+		}
+	}
+
 	private void handleEscapeKey() {
 		AddEdgeStateMonitor.reset(m_view);
 		repaint();
@@ -1699,6 +1841,8 @@ public class InnerCanvas extends DingCanvas implements MouseListener, MouseMotio
 	}
 
 	public void dispose() {
+		cancelRefinement();
+		refineTimer.stop();
 		removeMouseListener(this);
 		removeMouseMotionListener(this);
 		removeMouseWheelListener(this);
@@ -0,0 +1,121 @@
+package org.cytoscape.ding.impl;
+
+/*
+ * #%L
+ * Cytoscape Ding View/Presentation Impl (ding-presentation-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import org.cytoscape.graph.render.stateful.GraphLOD;
+
+/**
+ * Level of Details object for the first pass of a progressively rendered
+ * frame. It renders at low detail whenever the source LOD would render at
+ * full detail but expects that to take too long, and remembers that it did,
+ * so that the caller can render the full detail frame in the background.
+ * 
+ * @see GraphLOD#refineLater(int, int)
+ */
+public class ProgressiveLOD extends GraphLOD {
+	private final GraphLOD source;
+	private boolean deferred;
+
+	public ProgressiveLOD(GraphLOD source) {
+		this.source = source;
+	}
+
+	/**
+	 * @return true if full detail rendering was deferred by the last frame
+	 *         rendered with this LOD.
+	 */
+	public boolean isDeferred() {
+		return deferred;
+	}
+
+	public boolean getDrawEdges() { 
+		return source.getDrawEdges(); 
+	}
+
+	public void setDrawEdges(boolean drawEdges) { 
+		source.setDrawEdges(drawEdges); 
+	}
+
+	public byte renderEdges(final int visibleNodeCount, final int totalNodeCount, final int totalEdgeCount) {
+		return source.renderEdges(visibleNodeCount, totalNodeCount, totalEdgeCount);
+	}
+
+	public boolean detail(final int renderNodeCount, final int renderEdgeCount) {
+		deferred = source.detail(renderNodeCount, renderEdgeCount)
+				&& source.refineLater(renderNodeCount, renderEdgeCount);
+
+		return !deferred && source.detail(renderNodeCount, renderEdgeCount);
+	}
+
+	public boolean nodeBorders(final int renderNodeCount, final int renderEdgeCount) {
+		return source.nodeBorders(renderNodeCount, renderEdgeCount);
+	}
+
+	public boolean nodeLabels(final int renderNodeCount, final int renderEdgeCount) {
+		return source.nodeLabels(renderNodeCount, renderEdgeCount);
+	}
+
+	public boolean customGraphics(final int renderNodeCount, final int renderEdgeCount) {
+		return source.customGraphics(renderNodeCount, renderEdgeCount);
+	}
+
+	public boolean edgeArrows(final int renderNodeCount, final int renderEdgeCount) {
+		return source.edgeArrows(renderNodeCount, renderEdgeCount);
+	}
+
+	public boolean dashedEdges(final int renderNodeCount, final int renderEdgeCount) {
+		return source.dashedEdges(renderNodeCount, renderEdgeCount);
+	}
+
+	public boolean edgeAnchors(final int renderNodeCount, final int renderEdgeCount) {
+		return source.edgeAnchors(renderNodeCount, renderEdgeCount);
+	}
+
+	public boolean edgeLabels(final int renderNodeCount, final int renderEdgeCount) {
+		return source.edgeLabels(renderNodeCount, renderEdgeCount);
+	}
+
+	public boolean textAsShape(final int renderNodeCount, final int renderEdgeCount) {
+		return source.textAsShape(renderNodeCount, renderEdgeCount);
+	}
+
+	public int tileSize(final int renderNodeCount, final int renderEdgeCount) {
+		return source.tileSize(renderNodeCount, renderEdgeCount);
+	}
+
+	public boolean refineLater(final int renderNodeCount, final int renderEdgeCount) {
+		return source.refineLater(renderNodeCount, renderEdgeCount);
+	}
+
+	public void frameRendered(final int lodBits, final int renderNodeCount, final int renderEdgeCount,
+	                          final long nanos) {
+		source.frameRendered(lodBits, renderNodeCount, renderEdgeCount, nanos);
+	}
+
+	public double getNestedNetworkImageScaleFactor() {
+		return source.getNestedNetworkImageScaleFactor();
+	}
+
+}
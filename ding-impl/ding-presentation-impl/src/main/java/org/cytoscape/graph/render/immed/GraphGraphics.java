@@ -48,6 +48,7 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.cytoscape.graph.render.immed.arrow.Arrow;
 import org.cytoscape.graph.render.immed.arrow.ArrowheadArrow;
@@ -143,7 +144,10 @@ public final class GraphGraphics {
 	// package scoped for unit testing
 	static final byte s_last_shape = SHAPE_VEE;
 
-	private static final Map<Byte,NodeShape> nodeShapes;
+	// Only used to build the shape map returned by getNodeShapes().  Node shape
+	// objects reuse their geometry between calls, so each GraphGraphics renders
+	// with its own set (see m_nodeShapes).
+	private static final Map<Byte,NodeShape> nodeShapes = createNodeShapes();
 
 	/**
 	 * This value is currently 100.
@@ -164,22 +168,11 @@ public final class GraphGraphics {
 	 */
 	private static final double CURVE_ELLIPTICAL = (4.0d * (Math.sqrt(2.0d) - 1.0d)) / 3.0d;
 
-	// Mapping from node to its border stroke object.
-	private static final Map<Float,Stroke> borderStrokes = new HashMap<Float,Stroke>();
+	// Mapping from node to its border stroke object.  Shared by all instances,
+	// which may be rendering on different threads.
+	private static final Map<Float,Stroke> borderStrokes = new ConcurrentHashMap<Float,Stroke>();
 
 	static {		
-		nodeShapes = new HashMap<>();
-
-		nodeShapes.put(SHAPE_RECTANGLE, new RectangleNodeShape()); 
-		nodeShapes.put(SHAPE_ELLIPSE, new EllipseNodeShape()); 
-		nodeShapes.put(SHAPE_ROUNDED_RECTANGLE, new RoundedRectangleNodeShape()); 
-		nodeShapes.put(SHAPE_DIAMOND, new DiamondNodeShape()); 
-		nodeShapes.put(SHAPE_HEXAGON, new HexagonNodeShape()); 
-		nodeShapes.put(SHAPE_OCTAGON, new OctagonNodeShape()); 
-		nodeShapes.put(SHAPE_PARALLELOGRAM, new ParallelogramNodeShape()); 
-		nodeShapes.put(SHAPE_TRIANGLE, new TriangleNodeShape()); 
-		nodeShapes.put(SHAPE_VEE, new VeeNodeShape());
-
 		arrows = new HashMap<>();
 
 		arrows.put(ArrowShapeVisualProperty.NONE, new NoArrow());
@@ -211,6 +204,22 @@ public final class GraphGraphics {
 
 	private static final float DEF_SHAPE_SIZE = 32;
 
+	private static Map<Byte,NodeShape> createNodeShapes() {
+		final Map<Byte,NodeShape> shapes = new HashMap<>();
+
+		shapes.put(SHAPE_RECTANGLE, new RectangleNodeShape()); 
+		shapes.put(SHAPE_ELLIPSE, new EllipseNodeShape()); 
+		shapes.put(SHAPE_ROUNDED_RECTANGLE, new RoundedRectangleNodeShape()); 
+		shapes.put(SHAPE_DIAMOND, new DiamondNodeShape()); 
+		shapes.put(SHAPE_HEXAGON, new HexagonNodeShape()); 
+		shapes.put(SHAPE_OCTAGON, new OctagonNodeShape()); 
+		shapes.put(SHAPE_PARALLELOGRAM, new ParallelogramNodeShape()); 
+		shapes.put(SHAPE_TRIANGLE, new TriangleNodeShape()); 
+		shapes.put(SHAPE_VEE, new VeeNodeShape());
+
+		return shapes;
+	}
+
 	/** 
 	 * The image that was passed into the constructor.
 	 */
@@ -243,6 +252,9 @@ public final class GraphGraphics {
 	// This member variable only to be used from within defineCustomNodeShape().
 	private byte m_lastCustomShapeType = s_last_shape;
 
+	// The node shapes used by this instance, including custom node shapes.
+	private final Map<Byte,NodeShape> m_nodeShapes = createNodeShapes();
+
 	// This is only used by computeCubicPolyEdgePath().
 	private final float[] m_floatBuff = new float[2];
 
@@ -831,7 +843,7 @@ public final class GraphGraphics {
 			throw new IllegalStateException( "too many custom node shapes are already defined");
 
 		m_lastCustomShapeType++;
-		nodeShapes.put(nextCustomShapeType, new LegacyCustomNodeShape(polyCoords,nextCustomShapeType));
+		m_nodeShapes.put(nextCustomShapeType, new LegacyCustomNodeShape(polyCoords,nextCustomShapeType));
 
 		return nextCustomShapeType;
 	}
@@ -880,7 +892,7 @@ public final class GraphGraphics {
 		if ( !customNodeShapeExists(customShape) )
 			return null;
 
-		LegacyCustomNodeShape ns = (LegacyCustomNodeShape)(nodeShapes.get(customShape));
+		LegacyCustomNodeShape ns = (LegacyCustomNodeShape)(m_nodeShapes.get(customShape));
 		return ns.getCoords();
 	}
 
@@ -906,15 +918,15 @@ public final class GraphGraphics {
 					"a custom node shape is already defined in this GraphGraphics");
 		}
 
-		for (Map.Entry<Byte, NodeShape> entry : grafx.nodeShapes.entrySet()) {
-			nodeShapes.put(entry.getKey(), entry.getValue());
+		for (final byte customShape : grafx.getCustomNodeShapes()) {
+			m_nodeShapes.put(customShape, ((LegacyCustomNodeShape) grafx.m_nodeShapes.get(customShape)).copy());
 			m_lastCustomShapeType++;
 		}
 	}
 
 	private final Shape getShape(final byte nodeShape, final float xMin,
 			final float yMin, final float xMax, final float yMax) {
-		NodeShape ns = nodeShapes.get(nodeShape);
+		NodeShape ns = m_nodeShapes.get(nodeShape);
 		if ( ns != null )
 			return ns.getShape(xMin,yMin,xMax,yMax);
 		else
@@ -1882,7 +1894,7 @@ public final class GraphGraphics {
 			}
 		}
 
-		NodeShape ns = nodeShapes.get(nodeShape);
+		NodeShape ns = m_nodeShapes.get(nodeShape);
 		if (ns == null)
 			return false;
 		else
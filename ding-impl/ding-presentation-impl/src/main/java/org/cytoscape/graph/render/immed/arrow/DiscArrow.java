@@ -33,8 +33,9 @@ import java.awt.geom.GeneralPath;
 
 public class DiscArrow extends AbstractArrow {
 	
-	private final GeneralPath capGP; 
-	private final Arc2D.Double capA;
+	// A returned cap is never modified afterwards, because it may still be
+	// in use by a renderer on another thread.
+	private GeneralPath capGP; 
 
 	private double currentRatio;
 
@@ -47,27 +48,29 @@ public class DiscArrow extends AbstractArrow {
 		arrow = arrowE;
 
 		// cap is calculated dynamically below!
-		capGP = new GeneralPath();
-		capA = new Arc2D.Double();
+		capGP = null;
 
 		currentRatio = Double.NaN;
 	}
 
 	public synchronized Shape getCapShape(final double ratio) {
 		// only recreate the shape if we need to
-		if ( currentRatio != Double.NaN && ratio == currentRatio )
+		if ( capGP != null && ratio == currentRatio )
 			return capGP;
 
-		currentRatio = ratio;
 		final double theta = Math.toDegrees(Math.asin(1.0d / ratio));
 
+		final Arc2D.Double capA = new Arc2D.Double();
 		capA.setArc(0.0d, ratio / -2.0d, ratio, ratio, 180.0d - theta, theta * 2, Arc2D.OPEN);
 
-		capGP.reset();
-		capGP.append(capA, false);
-		capGP.lineTo(0.0f, 0.5f);
-		capGP.lineTo(0.0f, -0.5f);
-		capGP.closePath();
+		final GeneralPath gp = new GeneralPath();
+		gp.append(capA, false);
+		gp.lineTo(0.0f, 0.5f);
+		gp.lineTo(0.0f, -0.5f);
+		gp.closePath();
+
+		currentRatio = ratio;
+		capGP = gp;
 
 		return capGP;
 	}
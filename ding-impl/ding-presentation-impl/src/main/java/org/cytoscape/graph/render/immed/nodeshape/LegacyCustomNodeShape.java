@@ -46,6 +46,14 @@ public class LegacyCustomNodeShape extends AbstractNodeShape {
 		xform = new AffineTransform(); 
 	}
 
+	/**
+	 * Returns a new shape with the same polygon.  Shapes reuse their path
+	 * between calls, so a copy is needed by each GraphGraphics.
+	 */
+	public LegacyCustomNodeShape copy() {
+		return new LegacyCustomNodeShape(coords, getType());
+	}
+
 	public float[] getCoords() {
 		final float[] returnThis = new float[coords.length];
 
@@ -0,0 +1,298 @@
+package org.cytoscape.graph.render.stateful;
+
+/*
+ * #%L
+ * Cytoscape Ding View/Presentation Impl (ding-presentation-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2013 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.awt.Font;
+import java.awt.Paint;
+import java.awt.Stroke;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.cytoscape.graph.render.immed.EdgeAnchors;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.view.presentation.property.ArrowShapeVisualProperty;
+import org.cytoscape.view.presentation.property.values.ArrowShape;
+import org.cytoscape.view.presentation.property.values.Justification;
+import org.cytoscape.view.presentation.property.values.Position;
+
+
+/**
+ * The details of the edges of one full detail frame, read from another
+ * EdgeDetails when the frame is listed.  Only what the renderer looks at for
+ * the given level of detail is kept, and the anchors are copied.  Instances
+ * never change, so the threads that render the tiles of the frame can read
+ * them while the view changes.
+ */
+final class EdgeDetailsSnapshot extends EdgeDetails {
+	private final Map<CyEdge, Values> values;
+
+	EdgeDetailsSnapshot(final EdgeDetails details, final CyEdge[] edges, final int edgeCount,
+	                    final int lodBits) {
+		values = new HashMap<>(Math.max(16, (edgeCount * 4) / 3));
+
+		for (int i = 0; i < edgeCount; i++) {
+			if (!values.containsKey(edges[i]))
+				values.put(edges[i], new Values(details, edges[i], lodBits));
+		}
+	}
+
+	@Override
+	public ArrowShape getSourceArrowShape(final CyEdge edge) {
+		return values.get(edge).srcArrow;
+	}
+
+	@Override
+	public float getSourceArrowSize(final CyEdge edge) {
+		return values.get(edge).srcArrowSize;
+	}
+
+	@Override
+	public Paint getSourceArrowPaint(final CyEdge edge) {
+		return values.get(edge).srcArrowPaint;
+	}
+
+	@Override
+	public ArrowShape getTargetArrowShape(final CyEdge edge) {
+		return values.get(edge).trgArrow;
+	}
+
+	@Override
+	public float getTargetArrowSize(final CyEdge edge) {
+		return values.get(edge).trgArrowSize;
+	}
+
+	@Override
+	public Paint getTargetArrowPaint(final CyEdge edge) {
+		return values.get(edge).trgArrowPaint;
+	}
+
+	@Override
+	public EdgeAnchors getAnchors(final CyEdge edge) {
+		return values.get(edge).anchors;
+	}
+
+	@Override
+	public float getAnchorSize(final CyEdge edge, final int anchorInx) {
+		return values.get(edge).anchorSizes[anchorInx];
+	}
+
+	@Override
+	public Paint getAnchorPaint(final CyEdge edge, final int anchorInx) {
+		return values.get(edge).anchorPaints[anchorInx];
+	}
+
+	@Override
+	public float getWidth(final CyEdge edge) {
+		return values.get(edge).width;
+	}
+
+	@Override
+	public Stroke getStroke(final CyEdge edge) {
+		return values.get(edge).stroke;
+	}
+
+	@Override
+	public Paint getPaint(final CyEdge edge) {
+		return values.get(edge).paint;
+	}
+
+	@Override
+	public int getLabelCount(final CyEdge edge) {
+		return values.get(edge).labels.length;
+	}
+
+	@Override
+	public String getLabelText(final CyEdge edge, final int labelInx) {
+		return values.get(edge).labels[labelInx].text;
+	}
+
+	@Override
+	public Font getLabelFont(final CyEdge edge, final int labelInx) {
+		return values.get(edge).labels[labelInx].font;
+	}
+
+	@Override
+	public double getLabelScaleFactor(final CyEdge edge, final int labelInx) {
+		return values.get(edge).labels[labelInx].scaleFactor;
+	}
+
+	@Override
+	public Paint getLabelPaint(final CyEdge edge, final int labelInx) {
+		return values.get(edge).labels[labelInx].paint;
+	}
+
+	@Override
+	public Position getLabelTextAnchor(final CyEdge edge, final int labelInx) {
+		return values.get(edge).labels[labelInx].textAnchor;
+	}
+
+	@Override
+	public Position getLabelEdgeAnchor(final CyEdge edge, final int labelInx) {
+		return values.get(edge).labels[labelInx].edgeAnchor;
+	}
+
+	@Override
+	public float getLabelOffsetVectorX(final CyEdge edge, final int labelInx) {
+		return values.get(edge).labels[labelInx].offsetVectorX;
+	}
+
+	@Override
+	public float getLabelOffsetVectorY(final CyEdge edge, final int labelInx) {
+		return values.get(edge).labels[labelInx].offsetVectorY;
+	}
+
+	@Override
+	public Justification getLabelJustify(final CyEdge edge, final int labelInx) {
+		return values.get(edge).labels[labelInx].justify;
+	}
+
+	@Override
+	public double getLabelWidth(final CyEdge edge) {
+		return values.get(edge).labelWidth;
+	}
+
+	private static final class Values {
+		private final float width;
+		private final Stroke stroke;
+		private final Paint paint;
+		private final ArrowShape srcArrow;
+		private final ArrowShape trgArrow;
+		private final float srcArrowSize;
+		private final float trgArrowSize;
+		private final Paint srcArrowPaint;
+		private final Paint trgArrowPaint;
+		private final EdgeAnchors anchors;
+		private final float[] anchorSizes;
+		private final Paint[] anchorPaints;
+		private final Label[] labels;
+		private final double labelWidth;
+
+		Values(final EdgeDetails details, final CyEdge edge, final int lodBits) {
+			width = details.getWidth(edge);
+			stroke = details.getStroke(edge);
+			paint = details.getPaint(edge);
+
+			if ((lodBits & GraphRenderer.LOD_EDGE_ARROWS) == 0) {
+				trgArrow = srcArrow = ArrowShapeVisualProperty.NONE;
+				trgArrowSize = srcArrowSize = 0.0f;
+				trgArrowPaint = srcArrowPaint = null;
+			} else {
+				srcArrow = details.getSourceArrowShape(edge);
+				trgArrow = details.getTargetArrowShape(edge);
+				srcArrowSize = (srcArrow == ArrowShapeVisualProperty.NONE) ? 0.0f
+				               : details.getSourceArrowSize(edge);
+				trgArrowSize = (trgArrow == ArrowShapeVisualProperty.NONE) ? 0.0f
+				               : details.getTargetArrowSize(edge);
+				srcArrowPaint = (srcArrow == ArrowShapeVisualProperty.NONE) ? null
+				                : details.getSourceArrowPaint(edge);
+				trgArrowPaint = (trgArrow == ArrowShapeVisualProperty.NONE) ? null
+				                : details.getTargetArrowPaint(edge);
+			}
+
+			final EdgeAnchors source = ((lodBits & GraphRenderer.LOD_EDGE_ANCHORS) == 0) ? null
+			                           : details.getAnchors(edge);
+
+			if (source == null) {
+				anchors = null;
+				anchorSizes = null;
+				anchorPaints = null;
+			} else {
+				final Anchors copy = new Anchors(source);
+				anchors = copy;
+				anchorSizes = new float[copy.numAnchors()];
+				anchorPaints = new Paint[anchorSizes.length];
+
+				for (int k = 0; k < anchorSizes.length; k++) {
+					anchorSizes[k] = details.getAnchorSize(edge, k);
+
+					if (anchorSizes[k] > 0.0f)
+						anchorPaints[k] = details.getAnchorPaint(edge, k);
+				}
+			}
+
+			if ((lodBits & GraphRenderer.LOD_EDGE_LABELS) == 0) {
+				labels = new Label[0];
+				labelWidth = 0.0;
+			} else {
+				labels = new Label[details.getLabelCount(edge)];
+
+				for (int i = 0; i < labels.length; i++)
+					labels[i] = new Label(details, edge, i);
+
+				labelWidth = details.getLabelWidth(edge);
+			}
+		}
+	}
+
+	private static final class Anchors implements EdgeAnchors {
+		private final float[] points;
+
+		Anchors(final EdgeAnchors source) {
+			points = new float[source.numAnchors() * 2];
+
+			for (int k = 0; k < (points.length / 2); k++)
+				source.getAnchor(k, points, k * 2);
+		}
+
+		@Override
+		public int numAnchors() {
+			return points.length / 2;
+		}
+
+		@Override
+		public void getAnchor(final int anchorIndex, final float[] anchorArr, final int offset) {
+			if ((anchorIndex < 0) || (anchorIndex >= numAnchors()))
+				throw new IndexOutOfBoundsException("anchor index out of range: " + anchorIndex);
+
+			anchorArr[offset] = points[anchorIndex * 2];
+			anchorArr[offset + 1] = points[(anchorIndex * 2) + 1];
+		}
+	}
+
+	private static final class Label {
+		private final String text;
+		private final Font font;
+		private final double scaleFactor;
+		private final Paint paint;
+		private final Position textAnchor;
+		private final Position edgeAnchor;
+		private final float offsetVectorX;
+		private final float offsetVectorY;
+		private final Justification justify;
+
+		Label(final EdgeDetails details, final CyEdge edge, final int labelInx) {
+			text = details.getLabelText(edge, labelInx);
+			font = details.getLabelFont(edge, labelInx);
+			scaleFactor = details.getLabelScaleFactor(edge, labelInx);
+			paint = details.getLabelPaint(edge, labelInx);
+			textAnchor = details.getLabelTextAnchor(edge, labelInx);
+			edgeAnchor = details.getLabelEdgeAnchor(edge, labelInx);
+			offsetVectorX = details.getLabelOffsetVectorX(edge, labelInx);
+			offsetVectorY = details.getLabelOffsetVectorY(edge, labelInx);
+			justify = (text.indexOf('\n') >= 0) ? details.getLabelJustify(edge, labelInx)
+			          : Justification.JUSTIFY_CENTER;
+		}
+	}
+}
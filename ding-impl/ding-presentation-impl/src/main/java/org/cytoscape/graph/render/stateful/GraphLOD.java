@@ -224,6 +224,54 @@ public class GraphLOD {
 		return false;
 	}
 
+	/**
+	 * Determines whether to split a full detail frame into square tiles that
+	 * are rendered in parallel, and how large the tiles are.  By default this
+	 * method returns zero, which means the frame is rendered as a whole.<p>
+	 * Tiling only pays off when there is a lot to draw; every tile enumerates
+	 * all visible nodes and the edges touching them, but only draws those that
+	 * may reach the tile.  This method is only called at the full detail level.
+	 * @param renderNodeCount the number of nodes that are about to be rendered.
+	 * @param renderEdgeCount the number of edges that are about to be rendered.
+	 * @return the width and height of a tile in pixels, or a non-positive value
+	 *   if the frame is not to be split.
+	 * @see #detail(int, int)
+	 */
+	public int tileSize(final int renderNodeCount, final int renderEdgeCount) {
+		return 0;
+	}
+
+	/**
+	 * Determines whether a frame that is to be rendered at full detail should
+	 * first be rendered at low detail, and refined to full detail later on a
+	 * background thread.  By default this method returns false.<p>
+	 * The renderer never calls this method; it is up to the code that shows
+	 * the frames to ask, and to render the refinement with this object.
+	 * @param renderNodeCount the number of nodes that are about to be rendered.
+	 * @param renderEdgeCount the number of edges that are about to be rendered.
+	 * @return true if and only if full detail rendering is expected to take
+	 *   too long to make the user wait for it.
+	 * @see #detail(int, int)
+	 */
+	public boolean refineLater(final int renderNodeCount, final int renderEdgeCount) {
+		return false;
+	}
+
+	/**
+	 * Called by the renderer after each frame that was not cancelled, with the
+	 * level of detail that was rendered and the time it took.  By default this
+	 * method does nothing; implementations may use the timings to adapt their
+	 * thresholds.  This method may be called from any thread.
+	 * @param lodBits the level of detail that was rendered, a bitwise-or'ed
+	 *   value of the GraphRenderer.LOD_* constants.
+	 * @param renderNodeCount the number of nodes that were rendered.
+	 * @param renderEdgeCount the number of edges that were rendered.
+	 * @param nanos how long rendering took, in nanoseconds.
+	 */
+	public void frameRendered(final int lodBits, final int renderNodeCount, final int renderEdgeCount,
+	                          final long nanos) {
+	}
+
 	public double getNestedNetworkImageScaleFactor() { return 1.0; }
 
 	public boolean getDrawEdges() { return true; }
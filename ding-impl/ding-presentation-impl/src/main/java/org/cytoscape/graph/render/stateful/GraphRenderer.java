@@ -25,7 +25,12 @@ package org.cytoscape.graph.render.stateful;
  */
 
 
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
 import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Image;
 import java.awt.Paint;
 import java.awt.Shape;
 import java.awt.Stroke;
@@ -34,11 +39,17 @@ import java.awt.geom.AffineTransform;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.PathIterator;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BooleanSupplier;
 
 import org.cytoscape.graph.render.immed.EdgeAnchors;
 import org.cytoscape.graph.render.immed.GraphGraphics;
@@ -49,10 +60,10 @@ import org.cytoscape.spacial.SpacialEntry2DEnumerator;
 import org.cytoscape.spacial.SpacialIndex2D;
 import org.cytoscape.util.intr.LongHash;
 import org.cytoscape.view.model.CyNetworkView;
-import org.cytoscape.view.model.View;
-import org.cytoscape.view.model.VisualProperty;
 import org.cytoscape.view.presentation.customgraphics.CustomGraphicLayer;
-import org.cytoscape.view.presentation.customgraphics.CyCustomGraphics;
+import org.cytoscape.view.presentation.customgraphics.Cy2DGraphicLayer;
+import org.cytoscape.view.presentation.customgraphics.ImageCustomGraphicLayer;
+import org.cytoscape.view.presentation.customgraphics.PaintedShape;
 import org.cytoscape.view.presentation.property.ArrowShapeVisualProperty;
 import org.cytoscape.view.presentation.property.values.ArrowShape;
 import org.cytoscape.view.presentation.property.values.Justification;
@@ -159,11 +170,109 @@ public final class GraphRenderer {
 	                                    final double scaleFactor,
 	                                    final boolean haveZOrder,
 	                                    final Set<VisualPropertyDependency<?>> dependencies) {
+		return renderGraph(netView, nodePositions, lod, nodeDetails, edgeDetails, nodeBuff, grafx,
+		                   bgPaint, xCenter, yCenter, scaleFactor, haveZOrder, dependencies, null, null,
+		                   null);
+	}
+
+	/**
+	 * Renders a graph, like the method above, but may split a full detail frame
+	 * into square tiles that are rendered in parallel.  Tiling is used when
+	 * tilePool is not null and lod.tileSize() returns a size smaller than the
+	 * image.<p>
+	 * The spacial index, nodeDetails, edgeDetails and the view are only read
+	 * by the calling thread, while it holds lock.  A frame rendered in one
+	 * pass holds lock throughout.  A tiled frame only holds it while the
+	 * edges and nodes are listed and what they draw is copied; the tiles are
+	 * then rendered from these copies on the threads of tilePool, while the
+	 * calling thread waits, and the view may change in the meantime.  The
+	 * tiles only hand the view on to Cy2DGraphicLayer.draw(), as its contract
+	 * requires.<p>
+	 * Unless it is cancelled, a frame is reported to lod.frameRendered() with
+	 * the time it took.
+	 * @param tilePool the pool that renders the tiles, or null to render the
+	 *   whole frame on the calling thread.
+	 * @param lock the lock that keeps the view from changing, or null if the
+	 *   caller keeps it from changing until this method returns.
+	 * @param cancelled polled while full detail edges and nodes are rendered,
+	 *   or null; once it returns true this method returns as soon as possible,
+	 *   leaving the image incomplete.
+	 * @see GraphLOD#tileSize(int, int)
+	 * @see GraphLOD#frameRendered(int, int, int, long)
+	 */
+	public final static int renderGraph(final CyNetworkView netView,
+										final SpacialIndex2D nodePositions,
+	                                    final GraphLOD lod,
+	                                    final NodeDetails nodeDetails,
+	                                    final EdgeDetails edgeDetails,
+	                                    final LongHash nodeBuff,
+	                                    final GraphGraphics grafx,
+	                                    final Paint bgPaint,
+	                                    final double xCenter,
+	                                    final double yCenter,
+	                                    final double scaleFactor,
+	                                    final boolean haveZOrder,
+	                                    final Set<VisualPropertyDependency<?>> dependencies,
+	                                    final ForkJoinPool tilePool,
+	                                    final Object lock,
+	                                    final BooleanSupplier cancelled) {
+		final long startNanos = System.nanoTime();
 		nodeBuff.empty(); // Make sure we keep our promise.
 
 		if (grafx == null || grafx.image == null)
 			return 0;
-		
+
+		// { lodBits, renderNodeCount, renderEdgeCount, tileSize }
+		final int[] frameInfo = new int[4];
+		final TileFrame tiles;
+
+		if (lock == null) {
+			tiles = renderOrListFrame(netView, nodePositions, lod, nodeDetails, edgeDetails, nodeBuff,
+			                          grafx, bgPaint, xCenter, yCenter, scaleFactor, haveZOrder,
+			                          dependencies, tilePool, cancelled, frameInfo);
+		} else {
+			synchronized (lock) {
+				tiles = renderOrListFrame(netView, nodePositions, lod, nodeDetails, edgeDetails, nodeBuff,
+				                          grafx, bgPaint, xCenter, yCenter, scaleFactor, haveZOrder,
+				                          dependencies, tilePool, cancelled, frameInfo);
+			}
+		}
+
+		final int lodBits = frameInfo[0];
+
+		if (tiles != null)
+			renderTiles(netView, tiles, grafx, bgPaint, xCenter, yCenter, scaleFactor, frameInfo[3],
+			            lodBits, dependencies, tilePool, cancelled);
+
+		if ((cancelled == null) || !cancelled.getAsBoolean())
+			lod.frameRendered(lodBits, frameInfo[1], frameInfo[2], System.nanoTime() - startNanos);
+
+		return lodBits;
+	}
+
+	/**
+	 * The part of renderGraph() that reads the view: picks the level of detail
+	 * and clears the image, then either renders the frame in one pass and
+	 * returns null, or lists what its tiles draw and returns that.  Puts
+	 * lodBits, the numbers of nodes and edges and the tile size into
+	 * frameInfo.
+	 */
+	private final static TileFrame renderOrListFrame(final CyNetworkView netView,
+	                                                 final SpacialIndex2D nodePositions,
+	                                                 final GraphLOD lod,
+	                                                 final NodeDetails nodeDetails,
+	                                                 final EdgeDetails edgeDetails,
+	                                                 final LongHash nodeBuff,
+	                                                 final GraphGraphics grafx,
+	                                                 final Paint bgPaint,
+	                                                 final double xCenter,
+	                                                 final double yCenter,
+	                                                 final double scaleFactor,
+	                                                 final boolean haveZOrder,
+	                                                 final Set<VisualPropertyDependency<?>> dependencies,
+	                                                 final ForkJoinPool tilePool,
+	                                                 final BooleanSupplier cancelled,
+	                                                 final int[] frameInfo) {
 		final CyNetwork graph = netView.getModel();
 		
 		// Define the visible window in node coordinate space.
@@ -182,36 +291,7 @@ public final class GraphRenderer {
 		xMax = (float) (xCenter + ((0.5d * grafx.image.getWidth(null)) / scaleFactor));
 		yMax = (float) (yCenter + ((0.5d * grafx.image.getHeight(null)) / scaleFactor));
 
-		// Define buffers.  These are of the few objects we're instantiating
-		// directly in this method.
-		final float[] floatBuff1;
-
-		// Define buffers.  These are of the few objects we're instantiating
-		// directly in this method.
-		final float[] floatBuff2;
-
-		// Define buffers.  These are of the few objects we're instantiating
-		// directly in this method.
-		final float[] floatBuff3;
-
-		// Define buffers.  These are of the few objects we're instantiating
-		// directly in this method.
-		final float[] floatBuff4;
-
-		// Define buffers.  These are of the few objects we're instantiating
-		// directly in this method.
-		final float[] floatBuff5;
-		final double[] doubleBuff1;
-		final double[] doubleBuff2;
-		final GeneralPath path2d;
-		floatBuff1 = new float[4];
-		floatBuff2 = new float[4];
-		floatBuff3 = new float[2];
-		floatBuff4 = new float[2];
-		floatBuff5 = new float[8];
-		doubleBuff1 = new double[4];
-		doubleBuff2 = new double[2];
-		path2d = new GeneralPath();
+		final float[] floatBuff1 = new float[4];
 
 		// Determine the number of nodes and edges that we are about to render.
 		final int renderNodeCount;
@@ -328,26 +408,106 @@ public final class GraphRenderer {
 				grafx.clear(bgPaint, xCenter, yCenter, scaleFactor);
 		}
 
+		// Query the nodes whose touching edges are rendered, and the nodes that are
+		// rendered.
+		final SpacialEntry2DEnumerator edgeNodeHits;
+
+		if (renderEdges > 0)
+			// We want to render edges in the same order (back to front) that
+			// we would use to render just edges on visible nodes; this is assuming
+			// that our spacial index has the subquery order-preserving property.
+			edgeNodeHits = nodePositions.queryOverlap(Float.NEGATIVE_INFINITY,
+			                                          Float.NEGATIVE_INFINITY,
+			                                          Float.POSITIVE_INFINITY,
+			                                          Float.POSITIVE_INFINITY, null, 0, false);
+		else if (renderEdges == 0)
+			edgeNodeHits = nodePositions.queryOverlap(xMin, yMin, xMax, yMax, null, 0, false);
+		else
+			edgeNodeHits = null;
+
+		final SpacialEntry2DEnumerator nodeHits = nodePositions.queryOverlap(xMin, yMin, xMax, yMax,
+		                                                                     null, 0, false);
+
+		// Full detail frames may be split into tiles that are rendered in parallel.
+		final int tileSize = ((tilePool == null) || ((lodBits & LOD_HIGH_DETAIL) == 0)) ? 0
+		                     : lod.tileSize(renderNodeCount, renderEdgeCount);
+
+		frameInfo[0] = lodBits;
+		frameInfo[1] = renderNodeCount;
+		frameInfo[2] = renderEdgeCount;
+		frameInfo[3] = tileSize;
+
+		if ((tileSize > 0)
+		    && ((grafx.image.getWidth(null) > tileSize) || (grafx.image.getHeight(null) > tileSize)))
+			return new TileFrame(netView, nodePositions, nodeDetails, edgeDetails, nodeBuff,
+			                     edgeNodeHits, nodeHits, lodBits, haveZOrder, dependencies);
+
+		renderEdgesAndNodes(netView, nodePositions, nodeDetails, edgeDetails, nodeBuff, grafx,
+		                    edgeNodeHits, nodeHits, lodBits, haveZOrder, dependencies, cancelled);
+
+		// System.out.println("total time: "+(System.currentTimeMillis()-start)+"ms");
+		return null;
+	}
+
+	/**
+	 * Renders the edges touching the nodes of edgeNodeHits (no edges if it is
+	 * null), then the nodes of visibleNodeHits, in enumeration order.
+	 * Full detail rendering stops early once cancelled (if not null) returns true.
+	 */
+	private final static void renderEdgesAndNodes(final CyNetworkView netView,
+	                                              final SpacialIndex2D nodePositions,
+	                                              final NodeDetails nodeDetails,
+	                                              final EdgeDetails edgeDetails,
+	                                              final LongHash nodeBuff,
+	                                              final GraphGraphics grafx,
+	                                              final SpacialEntry2DEnumerator edgeNodeHits,
+	                                              final SpacialEntry2DEnumerator visibleNodeHits,
+	                                              final int lodBits,
+	                                              final boolean haveZOrder,
+	                                              final Set<VisualPropertyDependency<?>> dependencies,
+	                                              final BooleanSupplier cancelled) {
+		final CyNetwork graph = netView.getModel();
+
+		// Define buffers.  These are of the few objects we're instantiating
+		// directly in this method.
+		final float[] floatBuff1;
+
+		// Define buffers.  These are of the few objects we're instantiating
+		// directly in this method.
+		final float[] floatBuff2;
+
+		// Define buffers.  These are of the few objects we're instantiating
+		// directly in this method.
+		final float[] floatBuff3;
+
+		// Define buffers.  These are of the few objects we're instantiating
+		// directly in this method.
+		final float[] floatBuff4;
+
+		// Define buffers.  These are of the few objects we're instantiating
+		// directly in this method.
+		final float[] floatBuff5;
+		final double[] doubleBuff1;
+		final double[] doubleBuff2;
+		final GeneralPath path2d;
+		floatBuff1 = new float[4];
+		floatBuff2 = new float[4];
+		floatBuff3 = new float[2];
+		floatBuff4 = new float[2];
+		floatBuff5 = new float[8];
+		doubleBuff1 = new double[4];
+		doubleBuff2 = new double[2];
+		path2d = new GeneralPath();
+
 		// Render the edges first.  No edge shall be rendered twice.  Render edge
 		// labels.  A label is not necessarily on top of every edge; it is only
 		// on top of the edge it belongs to.
-		if (renderEdges >= 0) {
-			final SpacialEntry2DEnumerator nodeHits;
+		if (edgeNodeHits != null) {
+			final SpacialEntry2DEnumerator nodeHits = edgeNodeHits;
 
 			// System.out.println("Rendering edges: high detail = "+(lodBits & LOD_HIGH_DETAIL));
 			// System.out.println("time: "+(System.currentTimeMillis()-start)+"ms");
 
-			if (renderEdges > 0)
-				// We want to render edges in the same order (back to front) that
-				// we would use to render just edges on visible nodes; this is assuming
-				// that our spacial index has the subquery order-preserving property.
-				nodeHits = nodePositions.queryOverlap(Float.NEGATIVE_INFINITY,
-				                                      Float.NEGATIVE_INFINITY,
-				                                      Float.POSITIVE_INFINITY,
-				                                      Float.POSITIVE_INFINITY, null, 0, false);
-			else
-				nodeHits = nodePositions.queryOverlap(xMin, yMin, xMax, yMax, null, 0, false);
-		
 			if ((lodBits & LOD_HIGH_DETAIL) == 0) { // Low detail.
 
 				final int nodeHitCount = nodeHits.numRemaining();
@@ -382,6 +542,9 @@ public final class GraphRenderer {
 				}
 			} else { // High detail.
 				while (nodeHits.numRemaining() > 0) {
+					if ((cancelled != null) && cancelled.getAsBoolean())
+						return;
+
 					final long node =nodeHits.nextExtents(floatBuff1, 0);
 					final CyNode cyNode = graph.getNode(node);
 					final byte nodeShape = nodeDetails.getShape(cyNode);
@@ -420,233 +583,9 @@ public final class GraphRenderer {
 								trgExtents = floatBuff1;
 							}
 
-							// Compute visual attributes that do not depend on LOD.
-							final float thickness = edgeDetails.getWidth(edge);
-							final Stroke edgeStroke = edgeDetails.getStroke(edge);
-							final Paint segPaint = edgeDetails.getPaint(edge);
-
-							// Compute arrows.
-							final ArrowShape srcArrow;
-							final ArrowShape trgArrow;
-							final float srcArrowSize;
-							final float trgArrowSize;
-							final Paint srcArrowPaint;
-							final Paint trgArrowPaint;
-
-							if ((lodBits & LOD_EDGE_ARROWS) == 0) { // Not rendering arrows.
-								trgArrow = srcArrow = ArrowShapeVisualProperty.NONE;
-								trgArrowSize = srcArrowSize = 0.0f;
-								trgArrowPaint = srcArrowPaint = null;
-							} else { // Rendering edge arrows.
-								srcArrow = edgeDetails.getSourceArrowShape(edge);
-								trgArrow = edgeDetails.getTargetArrowShape(edge);
-								srcArrowSize = ((srcArrow == ArrowShapeVisualProperty.NONE) 
-								                 ? 0.0f
-								                 : edgeDetails.getSourceArrowSize(edge));
-								trgArrowSize = ((trgArrow == ArrowShapeVisualProperty.NONE)
-								                 ? 0.0f
-								                 : edgeDetails.getTargetArrowSize(edge));
-								srcArrowPaint = ((srcArrow == ArrowShapeVisualProperty.NONE)
-								                 ? null : edgeDetails.getSourceArrowPaint(edge));
-								trgArrowPaint = ((trgArrow == ArrowShapeVisualProperty.NONE)
-								                 ? null : edgeDetails.getTargetArrowPaint(edge));
-							}
-
-							// Compute the anchors to use when rendering edge.
-							final EdgeAnchors anchors = (((lodBits & LOD_EDGE_ANCHORS) == 0) ? null
-							                                                                 : edgeDetails
-							                                                                   .getAnchors(edge));
-
-							if (!computeEdgeEndpoints(grafx, srcExtents, srcShape, srcArrow,
-							                          srcArrowSize, anchors, trgExtents, trgShape,
-							                          trgArrow, trgArrowSize, floatBuff3, floatBuff4))
-								continue;
-
-							final float srcXAdj = floatBuff3[0];
-							final float srcYAdj = floatBuff3[1];
-							final float trgXAdj = floatBuff4[0];
-							final float trgYAdj = floatBuff4[1];
-
-							grafx.drawEdgeFull(srcArrow, srcArrowSize, srcArrowPaint, trgArrow,
-							                   trgArrowSize, trgArrowPaint, srcXAdj, srcYAdj,
-							                   anchors, trgXAdj, trgYAdj, thickness, edgeStroke, segPaint);
-
-							// Take care of edge anchor rendering.
-							if (anchors != null) {
-								for (int k = 0; k < anchors.numAnchors(); k++) {
-									final float anchorSize;
-
-									if ((anchorSize = edgeDetails.getAnchorSize(edge, k)) > 0.0f) {
-										anchors.getAnchor(k, floatBuff4, 0);
-										grafx.drawNodeFull(GraphGraphics.SHAPE_RECTANGLE,
-										                   (float) (floatBuff4[0] - (anchorSize / 2.0d)),
-										                   (float) (floatBuff4[1] - (anchorSize / 2.0d)),
-										                   (float) (floatBuff4[0] + (anchorSize / 2.0d)),
-										                   (float) (floatBuff4[1] + (anchorSize / 2.0d)),
-										                   edgeDetails.getAnchorPaint(edge, k), 0.0f, null, null);
-									}
-								}
-							}
-
-							// Take care of label rendering.
-							if ((lodBits & LOD_EDGE_LABELS) != 0) {
-								
-								final int labelCount = edgeDetails.getLabelCount(edge);
-								for (int labelInx = 0; labelInx < labelCount; labelInx++) {
-									final String text = edgeDetails.getLabelText(edge, labelInx);
-									final Font font = edgeDetails.getLabelFont(edge, labelInx);
-									final double fontScaleFactor = edgeDetails.getLabelScaleFactor(edge, labelInx);
-									final Paint paint = edgeDetails.getLabelPaint(edge, labelInx);
-									final Position textAnchor = edgeDetails.getLabelTextAnchor(edge, labelInx);
-									final Position edgeAnchor = edgeDetails.getLabelEdgeAnchor(edge, labelInx);
-									final float offsetVectorX = edgeDetails.getLabelOffsetVectorX(edge, labelInx);
-									final float offsetVectorY = edgeDetails.getLabelOffsetVectorY(edge, labelInx);
-									final Justification justify;
-
-									if (text.indexOf('\n') >= 0)
-										justify = edgeDetails.getLabelJustify(edge, labelInx);
-									else
-										justify = Justification.JUSTIFY_CENTER;
-
-									final double edgeAnchorPointX;
-									final double edgeAnchorPointY;
-
-									final double edgeLabelWidth = edgeDetails.getLabelWidth(edge);
-
-									// Note that we reuse the position enum here.  West == source and East == target
-									// This is sort of safe since we don't provide an API for changing this
-									// in any case.
-									if (edgeAnchor == Position.WEST) {		edgeAnchorPointX = srcXAdj;   edgeAnchorPointY = srcYAdj;
-									} else if (edgeAnchor == Position.EAST) { edgeAnchorPointX = trgXAdj; edgeAnchorPointY = trgYAdj;
-									} else if (edgeAnchor == Position.CENTER) {
-										if (!grafx.getEdgePath(srcArrow, srcArrowSize, trgArrow,
-										              trgArrowSize, srcXAdj, srcYAdj, anchors,  trgXAdj, trgYAdj, path2d)) {
-											continue;
-										}
-
-										// Count the number of path segments.  This count
-										// includes the initial SEG_MOVETO.  So, for example, a
-										// path composed of 2 cubic curves would have a numPaths
-										// of 3.  Note that numPaths will be at least 2 in all
-										// cases.
-										final int numPaths;
-
-										{
-											final PathIterator pathIter = path2d.getPathIterator(null);
-											int numPathsTemp = 0;
-
-											while (!pathIter.isDone()) {
-												numPathsTemp++; // pathIter.currentSegment().
-												pathIter.next();
-											}
-
-											numPaths = numPathsTemp;
-										}
-
-										// Compute "midpoint" of edge.
-										if ((numPaths % 2) != 0) {
-											final PathIterator pathIter = path2d.getPathIterator(null);
-
-											for (int i = numPaths / 2; i > 0; i--)
-												pathIter.next();
-
-											final int subPathType = pathIter.currentSegment(floatBuff5);
-
-											if (subPathType == PathIterator.SEG_LINETO) {
-												edgeAnchorPointX = floatBuff5[0];
-												edgeAnchorPointY = floatBuff5[1];
-											} else if (subPathType == PathIterator.SEG_QUADTO) {
-												edgeAnchorPointX = floatBuff5[2];
-												edgeAnchorPointY = floatBuff5[3];
-											} else if (subPathType == PathIterator.SEG_CUBICTO) {
-												edgeAnchorPointX = floatBuff5[4];
-												edgeAnchorPointY = floatBuff5[5];
-											} else
-												throw new IllegalStateException("got unexpected PathIterator segment type: "
-												                                + subPathType);
-										} else { // numPaths % 2 == 0.
-
-											final PathIterator pathIter = path2d.getPathIterator(null);
-
-											for (int i = numPaths / 2; i > 0; i--) {
-												if (i == 1) {
-													final int subPathType = pathIter.currentSegment(floatBuff5);
-
-													if ((subPathType == PathIterator.SEG_MOVETO)
-													    || (subPathType == PathIterator.SEG_LINETO)) {
-														floatBuff5[6] = floatBuff5[0];
-														floatBuff5[7] = floatBuff5[1];
-													} else if (subPathType == PathIterator.SEG_QUADTO) {
-														floatBuff5[6] = floatBuff5[2];
-														floatBuff5[7] = floatBuff5[3];
-													} else if (subPathType == PathIterator.SEG_CUBICTO) {
-														floatBuff5[6] = floatBuff5[4];
-														floatBuff5[7] = floatBuff5[5];
-													} else
-														throw new IllegalStateException("got unexpected PathIterator segment type: "
-														                                + subPathType);
-												}
-
-												pathIter.next();
-											}
-
-											final int subPathType = pathIter.currentSegment(floatBuff5);
-
-											if (subPathType == PathIterator.SEG_LINETO) {
-												edgeAnchorPointX = (0.5d * floatBuff5[6])
-												                   + (0.5d * floatBuff5[0]);
-												edgeAnchorPointY = (0.5d * floatBuff5[7])
-												                   + (0.5d * floatBuff5[1]);
-											} else if (subPathType == PathIterator.SEG_QUADTO) {
-												edgeAnchorPointX = (0.25d * floatBuff5[6])
-												                   + (0.5d * floatBuff5[0])
-												                   + (0.25d * floatBuff5[2]);
-												edgeAnchorPointY = (0.25d * floatBuff5[7])
-												                   + (0.5d * floatBuff5[1])
-												                   + (0.25d * floatBuff5[3]);
-											} else if (subPathType == PathIterator.SEG_CUBICTO) {
-												edgeAnchorPointX = (0.125d * floatBuff5[6])
-												                   + (0.375d * floatBuff5[0])
-												                   + (0.375d * floatBuff5[2])
-												                   + (0.125d * floatBuff5[4]);
-												edgeAnchorPointY = (0.125d * floatBuff5[7])
-												                   + (0.375d * floatBuff5[1])
-												                   + (0.375d * floatBuff5[3])
-												                   + (0.125d * floatBuff5[5]);
-											} else
-												throw new IllegalStateException("got unexpected PathIterator segment type: "
-												                                + subPathType);
-										}
-									} else
-										throw new IllegalStateException("encountered an invalid EDGE_ANCHOR_* constant: "
-										                                + edgeAnchor);
-
-									final MeasuredLineCreator measuredText = 
-										new MeasuredLineCreator(text,font,
-										                         grafx.getFontRenderContextFull(),
-										                         fontScaleFactor, 
-										                         (lodBits&LOD_TEXT_AS_SHAPE)!= 0, 
-										                         edgeLabelWidth);
-
-									doubleBuff1[0] = -0.5d * measuredText.getMaxLineWidth();
-									doubleBuff1[1] = -0.5d * measuredText.getTotalHeight(); 
-									doubleBuff1[2] = 0.5d * measuredText.getMaxLineWidth(); 
-									doubleBuff1[3] = 0.5d * measuredText.getTotalHeight(); 
-									lemma_computeAnchor(textAnchor, doubleBuff1, doubleBuff2);
-
-									final double textXCenter = edgeAnchorPointX - doubleBuff2[0]
-									                           + offsetVectorX;
-									final double textYCenter = edgeAnchorPointY - doubleBuff2[1]
-									                           + offsetVectorY;
-									TextRenderingUtils.renderHorizontalText(grafx, measuredText, 
-									                                        font, fontScaleFactor,
-									                                        (float) textXCenter,
-									                                        (float) textYCenter,
-									                                        justify, paint,
-									                                        (lodBits
-									                                        & LOD_TEXT_AS_SHAPE) != 0);
-								}
-							}
+							renderEdgeHigh(grafx, edgeDetails, edge, srcShape, srcExtents, trgShape,
+							               trgExtents, lodBits, floatBuff3, floatBuff4, floatBuff5,
+							               doubleBuff1, doubleBuff2, path2d);
 						}
 					}
 
@@ -657,9 +596,7 @@ public final class GraphRenderer {
 		// Render nodes and labels.  A label is not necessarily on top of every
 		// node; it is only on top of the node it belongs to.
 		{
-			final SpacialEntry2DEnumerator nodeHits = nodePositions.queryOverlap(xMin, yMin, xMax,
-			                                                                     yMax, null, 0,
-			                                                                     false);
+			final SpacialEntry2DEnumerator nodeHits = visibleNodeHits;
 			// System.out.println("Rendering nodes: high detail = "+(lodBits & LOD_HIGH_DETAIL));
 			// System.out.println("time: "+(System.currentTimeMillis()-start)+"ms");
 
@@ -680,73 +617,870 @@ public final class GraphRenderer {
 					zHits = new SpacialEntry2DEnumeratorZSort(nodePositions, nodeHits);
 				}
 				while (zHits.numRemaining() > 0) {
+					if ((cancelled != null) && cancelled.getAsBoolean())
+						return;
+
 					final long node = zHits.nextExtents(floatBuff1, 0);
 					final CyNode cyNode = graph.getNode(node);
 
 					renderNodeHigh(netView, grafx, cyNode, floatBuff1, doubleBuff1, doubleBuff2,
 							nodeDetails, lodBits, dependencies);
+					renderNodeLabels(grafx, cyNode, floatBuff1, nodeDetails, lodBits,
+					                 doubleBuff1, doubleBuff2);
+				}
+			}
+		}
+	}
 
-					// Take care of label rendering.
-					if ((lodBits & LOD_NODE_LABELS) != 0) { // Potential label rendering.
-
-						final int labelCount = nodeDetails.getLabelCount(cyNode);
-
-						for (int labelInx = 0; labelInx < labelCount; labelInx++) {
-							final String text = nodeDetails.getLabelText(cyNode, labelInx);
-							final Font font = nodeDetails.getLabelFont(cyNode, labelInx);
-							final double fontScaleFactor = nodeDetails.labelScaleFactor(cyNode,
-							                                                            labelInx);
-							final Paint paint = nodeDetails.getLabelPaint(cyNode, labelInx);
-							final Position textAnchor = nodeDetails.getLabelTextAnchor(cyNode, labelInx);
-							final Position nodeAnchor = nodeDetails.getLabelNodeAnchor(cyNode, labelInx);
-							final float offsetVectorX = nodeDetails.getLabelOffsetVectorX(cyNode,
-							                                                           labelInx);
-							final float offsetVectorY = nodeDetails.getLabelOffsetVectorY(cyNode,
-							                                                           labelInx);
-							final Justification justify;
-
-							if (text.indexOf('\n') >= 0)
-								justify = nodeDetails.getLabelJustify(cyNode, labelInx);
-							else
-								justify = Justification.JUSTIFY_CENTER;
-
-							final double nodeLabelWidth = nodeDetails.getLabelWidth(cyNode);
-
-							doubleBuff1[0] = floatBuff1[0];
-							doubleBuff1[1] = floatBuff1[1];
-							doubleBuff1[2] = floatBuff1[2];
-							doubleBuff1[3] = floatBuff1[3];
-							lemma_computeAnchor(nodeAnchor, doubleBuff1, doubleBuff2);
-
-							final double nodeAnchorPointX = doubleBuff2[0];
-							final double nodeAnchorPointY = doubleBuff2[1];
-							final MeasuredLineCreator measuredText = new MeasuredLineCreator(
-							    text, font, grafx.getFontRenderContextFull(), fontScaleFactor,
-							    (lodBits & LOD_TEXT_AS_SHAPE) != 0, nodeLabelWidth);
-
-							doubleBuff1[0] = -0.5d * measuredText.getMaxLineWidth();
-							doubleBuff1[1] = -0.5d * measuredText.getTotalHeight();
-							doubleBuff1[2] = 0.5d * measuredText.getMaxLineWidth();
-							doubleBuff1[3] = 0.5d * measuredText.getTotalHeight();
-							lemma_computeAnchor(textAnchor, doubleBuff1, doubleBuff2);
-
-							final double textXCenter = nodeAnchorPointX - doubleBuff2[0]
-							                           + offsetVectorX;
-							final double textYCenter = nodeAnchorPointY - doubleBuff2[1]
-							                           + offsetVectorY;
-							TextRenderingUtils.renderHorizontalText(grafx, measuredText, font,
-							                                        fontScaleFactor,
-							                                        (float) textXCenter,
-							                                        (float) textYCenter, justify,
-							                                        paint,
-							                                        (lodBits & LOD_TEXT_AS_SHAPE) != 0);
-						}
-					}
+	/**
+	 * Renders a full detail edge, its anchors and its labels.
+	 */
+	private final static void renderEdgeHigh(final GraphGraphics grafx,
+	                                         final EdgeDetails edgeDetails,
+	                                         final CyEdge edge,
+	                                         final byte srcShape,
+	                                         final float[] srcExtents,
+	                                         final byte trgShape,
+	                                         final float[] trgExtents,
+	                                         final int lodBits,
+	                                         final float[] floatBuff3,
+	                                         final float[] floatBuff4,
+	                                         final float[] floatBuff5,
+	                                         final double[] doubleBuff1,
+	                                         final double[] doubleBuff2,
+	                                         final GeneralPath path2d) {
+		// Compute visual attributes that do not depend on LOD.
+		final float thickness = edgeDetails.getWidth(edge);
+		final Stroke edgeStroke = edgeDetails.getStroke(edge);
+		final Paint segPaint = edgeDetails.getPaint(edge);
+
+		// Compute arrows.
+		final ArrowShape srcArrow;
+		final ArrowShape trgArrow;
+		final float srcArrowSize;
+		final float trgArrowSize;
+		final Paint srcArrowPaint;
+		final Paint trgArrowPaint;
+
+		if ((lodBits & LOD_EDGE_ARROWS) == 0) { // Not rendering arrows.
+			trgArrow = srcArrow = ArrowShapeVisualProperty.NONE;
+			trgArrowSize = srcArrowSize = 0.0f;
+			trgArrowPaint = srcArrowPaint = null;
+		} else { // Rendering edge arrows.
+			srcArrow = edgeDetails.getSourceArrowShape(edge);
+			trgArrow = edgeDetails.getTargetArrowShape(edge);
+			srcArrowSize = ((srcArrow == ArrowShapeVisualProperty.NONE) 
+			                 ? 0.0f
+			                 : edgeDetails.getSourceArrowSize(edge));
+			trgArrowSize = ((trgArrow == ArrowShapeVisualProperty.NONE)
+			                 ? 0.0f
+			                 : edgeDetails.getTargetArrowSize(edge));
+			srcArrowPaint = ((srcArrow == ArrowShapeVisualProperty.NONE)
+			                 ? null : edgeDetails.getSourceArrowPaint(edge));
+			trgArrowPaint = ((trgArrow == ArrowShapeVisualProperty.NONE)
+			                 ? null : edgeDetails.getTargetArrowPaint(edge));
+		}
+
+		// Compute the anchors to use when rendering edge.
+		final EdgeAnchors anchors = (((lodBits & LOD_EDGE_ANCHORS) == 0) ? null
+		                                                                 : edgeDetails
+		                                                                   .getAnchors(edge));
+
+		if (!computeEdgeEndpoints(grafx, srcExtents, srcShape, srcArrow,
+		                          srcArrowSize, anchors, trgExtents, trgShape,
+		                          trgArrow, trgArrowSize, floatBuff3, floatBuff4))
+			return;
+
+		final float srcXAdj = floatBuff3[0];
+		final float srcYAdj = floatBuff3[1];
+		final float trgXAdj = floatBuff4[0];
+		final float trgYAdj = floatBuff4[1];
+
+		grafx.drawEdgeFull(srcArrow, srcArrowSize, srcArrowPaint, trgArrow,
+		                   trgArrowSize, trgArrowPaint, srcXAdj, srcYAdj,
+		                   anchors, trgXAdj, trgYAdj, thickness, edgeStroke, segPaint);
+
+		// Take care of edge anchor rendering.
+		if (anchors != null) {
+			for (int k = 0; k < anchors.numAnchors(); k++) {
+				final float anchorSize;
+
+				if ((anchorSize = edgeDetails.getAnchorSize(edge, k)) > 0.0f) {
+					anchors.getAnchor(k, floatBuff4, 0);
+					grafx.drawNodeFull(GraphGraphics.SHAPE_RECTANGLE,
+					                   (float) (floatBuff4[0] - (anchorSize / 2.0d)),
+					                   (float) (floatBuff4[1] - (anchorSize / 2.0d)),
+					                   (float) (floatBuff4[0] + (anchorSize / 2.0d)),
+					                   (float) (floatBuff4[1] + (anchorSize / 2.0d)),
+					                   edgeDetails.getAnchorPaint(edge, k), 0.0f, null, null);
 				}
 			}
 		}
-		// System.out.println("total time: "+(System.currentTimeMillis()-start)+"ms");
-		return lodBits;
+
+		// Take care of label rendering.
+		if ((lodBits & LOD_EDGE_LABELS) != 0) {
+			
+			final int labelCount = edgeDetails.getLabelCount(edge);
+			for (int labelInx = 0; labelInx < labelCount; labelInx++) {
+				final String text = edgeDetails.getLabelText(edge, labelInx);
+				final Font font = edgeDetails.getLabelFont(edge, labelInx);
+				final double fontScaleFactor = edgeDetails.getLabelScaleFactor(edge, labelInx);
+				final MeasuredLineCreator measuredText =
+					layoutEdgeLabel(grafx, edgeDetails, edge, labelInx, text, font, fontScaleFactor,
+					                lodBits, srcArrow, srcArrowSize, trgArrow, trgArrowSize, anchors,
+					                srcXAdj, srcYAdj, trgXAdj, trgYAdj, floatBuff5, doubleBuff1,
+					                doubleBuff2, path2d);
+
+				if (measuredText == null)
+					continue;
+
+				final Paint paint = edgeDetails.getLabelPaint(edge, labelInx);
+				final Justification justify;
+
+				if (text.indexOf('\n') >= 0)
+					justify = edgeDetails.getLabelJustify(edge, labelInx);
+				else
+					justify = Justification.JUSTIFY_CENTER;
+
+				TextRenderingUtils.renderHorizontalText(grafx, measuredText, 
+				                                        font, fontScaleFactor,
+				                                        (float) doubleBuff2[0],
+				                                        (float) doubleBuff2[1],
+				                                        justify, paint,
+				                                        (lodBits
+				                                        & LOD_TEXT_AS_SHAPE) != 0);
+			}
+		}
+	}
+
+	/**
+	 * Adds the box that renderEdgeHigh() draws the given edge, its anchors
+	 * and its labels into to bounds, which holds { xMin, yMin, xMax, yMax }.
+	 */
+	private final static void addEdgeHighBounds(final GraphGraphics grafx,
+	                                            final EdgeDetails edgeDetails,
+	                                            final CyEdge edge,
+	                                            final byte srcShape,
+	                                            final float[] srcExtents,
+	                                            final byte trgShape,
+	                                            final float[] trgExtents,
+	                                            final int lodBits,
+	                                            final float[] bounds,
+	                                            final float[] floatBuff3,
+	                                            final float[] floatBuff4,
+	                                            final float[] floatBuff5,
+	                                            final double[] doubleBuff1,
+	                                            final double[] doubleBuff2,
+	                                            final GeneralPath path2d) {
+		final float thickness = edgeDetails.getWidth(edge);
+		final ArrowShape srcArrow;
+		final ArrowShape trgArrow;
+		final float srcArrowSize;
+		final float trgArrowSize;
+
+		if ((lodBits & LOD_EDGE_ARROWS) == 0) {
+			trgArrow = srcArrow = ArrowShapeVisualProperty.NONE;
+			trgArrowSize = srcArrowSize = 0.0f;
+		} else {
+			srcArrow = edgeDetails.getSourceArrowShape(edge);
+			trgArrow = edgeDetails.getTargetArrowShape(edge);
+			srcArrowSize = ((srcArrow == ArrowShapeVisualProperty.NONE) ? 0.0f
+			                : edgeDetails.getSourceArrowSize(edge));
+			trgArrowSize = ((trgArrow == ArrowShapeVisualProperty.NONE) ? 0.0f
+			                : edgeDetails.getTargetArrowSize(edge));
+		}
+
+		final EdgeAnchors anchors = ((lodBits & LOD_EDGE_ANCHORS) == 0) ? null
+		                            : edgeDetails.getAnchors(edge);
+
+		// An edge that renderEdgeHigh() skips draws nothing.
+		if (!computeEdgeEndpoints(grafx, srcExtents, srcShape, srcArrow,
+		                          srcArrowSize, anchors, trgExtents, trgShape,
+		                          trgArrow, trgArrowSize, floatBuff3, floatBuff4))
+			return;
+
+		final float srcXAdj = floatBuff3[0];
+		final float srcYAdj = floatBuff3[1];
+		final float trgXAdj = floatBuff4[0];
+		final float trgYAdj = floatBuff4[1];
+
+		addEdgeBounds(bounds, srcExtents, trgExtents, anchors,
+		              thickness + (2.0f * Math.max(srcArrowSize, trgArrowSize))
+		              + maxAnchorSize(edgeDetails, edge, anchors),
+		              floatBuff4);
+
+		if ((lodBits & LOD_EDGE_LABELS) != 0) {
+			final int labelCount = edgeDetails.getLabelCount(edge);
+
+			for (int labelInx = 0; labelInx < labelCount; labelInx++) {
+				final Font font = edgeDetails.getLabelFont(edge, labelInx);
+				final double fontScaleFactor = edgeDetails.getLabelScaleFactor(edge, labelInx);
+				final MeasuredLineCreator measuredText =
+					layoutEdgeLabel(grafx, edgeDetails, edge, labelInx,
+					                edgeDetails.getLabelText(edge, labelInx), font, fontScaleFactor,
+					                lodBits, srcArrow, srcArrowSize, trgArrow, trgArrowSize, anchors,
+					                srcXAdj, srcYAdj, trgXAdj, trgYAdj, floatBuff5, doubleBuff1,
+					                doubleBuff2, path2d);
+
+				if (measuredText != null)
+					addTextBounds(bounds, measuredText, font, fontScaleFactor, doubleBuff2[0], doubleBuff2[1]);
+			}
+		}
+	}
+
+	/**
+	 * Measures a label of a full detail edge whose ends have been computed,
+	 * and puts the center of its text into rtrn2x.  Returns null if the label
+	 * is anchored to the middle of an edge path that cannot be computed.
+	 */
+	private final static MeasuredLineCreator layoutEdgeLabel(final GraphGraphics grafx,
+	                                                         final EdgeDetails edgeDetails,
+	                                                         final CyEdge edge,
+	                                                         final int labelInx,
+	                                                         final String text,
+	                                                         final Font font,
+	                                                         final double fontScaleFactor,
+	                                                         final int lodBits,
+	                                                         final ArrowShape srcArrow,
+	                                                         final float srcArrowSize,
+	                                                         final ArrowShape trgArrow,
+	                                                         final float trgArrowSize,
+	                                                         final EdgeAnchors anchors,
+	                                                         final float srcXAdj,
+	                                                         final float srcYAdj,
+	                                                         final float trgXAdj,
+	                                                         final float trgYAdj,
+	                                                         final float[] floatBuff5,
+	                                                         final double[] doubleBuff1,
+	                                                         final double[] rtrn2x,
+	                                                         final GeneralPath path2d) {
+		final Position textAnchor = edgeDetails.getLabelTextAnchor(edge, labelInx);
+		final Position edgeAnchor = edgeDetails.getLabelEdgeAnchor(edge, labelInx);
+		final float offsetVectorX = edgeDetails.getLabelOffsetVectorX(edge, labelInx);
+		final float offsetVectorY = edgeDetails.getLabelOffsetVectorY(edge, labelInx);
+
+		final double edgeAnchorPointX;
+		final double edgeAnchorPointY;
+
+		final double edgeLabelWidth = edgeDetails.getLabelWidth(edge);
+
+		// Note that we reuse the position enum here.  West == source and East == target
+		// This is sort of safe since we don't provide an API for changing this
+		// in any case.
+		if (edgeAnchor == Position.WEST) {		edgeAnchorPointX = srcXAdj;   edgeAnchorPointY = srcYAdj;
+		} else if (edgeAnchor == Position.EAST) { edgeAnchorPointX = trgXAdj; edgeAnchorPointY = trgYAdj;
+		} else if (edgeAnchor == Position.CENTER) {
+			if (!grafx.getEdgePath(srcArrow, srcArrowSize, trgArrow,
+			              trgArrowSize, srcXAdj, srcYAdj, anchors,  trgXAdj, trgYAdj, path2d)) {
+				return null;
+			}
+
+			computeEdgeMidpoint(path2d, floatBuff5, rtrn2x);
+			edgeAnchorPointX = rtrn2x[0];
+			edgeAnchorPointY = rtrn2x[1];
+		} else
+			throw new IllegalStateException("encountered an invalid EDGE_ANCHOR_* constant: "
+			                                + edgeAnchor);
+
+		final MeasuredLineCreator measuredText = 
+			new MeasuredLineCreator(text,font,
+			                         grafx.getFontRenderContextFull(),
+			                         fontScaleFactor, 
+			                         (lodBits&LOD_TEXT_AS_SHAPE)!= 0, 
+			                         edgeLabelWidth);
+
+		doubleBuff1[0] = -0.5d * measuredText.getMaxLineWidth();
+		doubleBuff1[1] = -0.5d * measuredText.getTotalHeight(); 
+		doubleBuff1[2] = 0.5d * measuredText.getMaxLineWidth(); 
+		doubleBuff1[3] = 0.5d * measuredText.getTotalHeight(); 
+		lemma_computeAnchor(textAnchor, doubleBuff1, rtrn2x);
+
+		rtrn2x[0] = edgeAnchorPointX - rtrn2x[0] + offsetVectorX;
+		rtrn2x[1] = edgeAnchorPointY - rtrn2x[1] + offsetVectorY;
+
+		return measuredText;
+	}
+
+	/**
+	 * Computes the "midpoint" of an edge path, where labels anchored to the
+	 * center of the edge are placed.
+	 */
+	private final static void computeEdgeMidpoint(final GeneralPath path2d, final float[] floatBuff5,
+	                                              final double[] rtrn2x) {
+		// Count the number of path segments.  This count
+		// includes the initial SEG_MOVETO.  So, for example, a
+		// path composed of 2 cubic curves would have a numPaths
+		// of 3.  Note that numPaths will be at least 2 in all
+		// cases.
+		final int numPaths;
+
+		{
+			final PathIterator pathIter = path2d.getPathIterator(null);
+			int numPathsTemp = 0;
+
+			while (!pathIter.isDone()) {
+				numPathsTemp++; // pathIter.currentSegment().
+				pathIter.next();
+			}
+
+			numPaths = numPathsTemp;
+		}
+
+		// Compute "midpoint" of edge.
+		if ((numPaths % 2) != 0) {
+			final PathIterator pathIter = path2d.getPathIterator(null);
+
+			for (int i = numPaths / 2; i > 0; i--)
+				pathIter.next();
+
+			final int subPathType = pathIter.currentSegment(floatBuff5);
+
+			if (subPathType == PathIterator.SEG_LINETO) {
+				rtrn2x[0] = floatBuff5[0];
+				rtrn2x[1] = floatBuff5[1];
+			} else if (subPathType == PathIterator.SEG_QUADTO) {
+				rtrn2x[0] = floatBuff5[2];
+				rtrn2x[1] = floatBuff5[3];
+			} else if (subPathType == PathIterator.SEG_CUBICTO) {
+				rtrn2x[0] = floatBuff5[4];
+				rtrn2x[1] = floatBuff5[5];
+			} else
+				throw new IllegalStateException("got unexpected PathIterator segment type: "
+				                                + subPathType);
+		} else { // numPaths % 2 == 0.
+
+			final PathIterator pathIter = path2d.getPathIterator(null);
+
+			for (int i = numPaths / 2; i > 0; i--) {
+				if (i == 1) {
+					final int subPathType = pathIter.currentSegment(floatBuff5);
+
+					if ((subPathType == PathIterator.SEG_MOVETO)
+					    || (subPathType == PathIterator.SEG_LINETO)) {
+						floatBuff5[6] = floatBuff5[0];
+						floatBuff5[7] = floatBuff5[1];
+					} else if (subPathType == PathIterator.SEG_QUADTO) {
+						floatBuff5[6] = floatBuff5[2];
+						floatBuff5[7] = floatBuff5[3];
+					} else if (subPathType == PathIterator.SEG_CUBICTO) {
+						floatBuff5[6] = floatBuff5[4];
+						floatBuff5[7] = floatBuff5[5];
+					} else
+						throw new IllegalStateException("got unexpected PathIterator segment type: "
+						                                + subPathType);
+				}
+
+				pathIter.next();
+			}
+
+			final int subPathType = pathIter.currentSegment(floatBuff5);
+
+			if (subPathType == PathIterator.SEG_LINETO) {
+				rtrn2x[0] = (0.5d * floatBuff5[6])
+				            + (0.5d * floatBuff5[0]);
+				rtrn2x[1] = (0.5d * floatBuff5[7])
+				            + (0.5d * floatBuff5[1]);
+			} else if (subPathType == PathIterator.SEG_QUADTO) {
+				rtrn2x[0] = (0.25d * floatBuff5[6])
+				            + (0.5d * floatBuff5[0])
+				            + (0.25d * floatBuff5[2]);
+				rtrn2x[1] = (0.25d * floatBuff5[7])
+				            + (0.5d * floatBuff5[1])
+				            + (0.25d * floatBuff5[3]);
+			} else if (subPathType == PathIterator.SEG_CUBICTO) {
+				rtrn2x[0] = (0.125d * floatBuff5[6])
+				            + (0.375d * floatBuff5[0])
+				            + (0.375d * floatBuff5[2])
+				            + (0.125d * floatBuff5[4]);
+				rtrn2x[1] = (0.125d * floatBuff5[7])
+				            + (0.375d * floatBuff5[1])
+				            + (0.375d * floatBuff5[3])
+				            + (0.125d * floatBuff5[5]);
+			} else
+				throw new IllegalStateException("got unexpected PathIterator segment type: "
+				                                + subPathType);
+		}
+	}
+
+	/**
+	 * Renders the labels of a full detail node.
+	 */
+	private final static void renderNodeLabels(final GraphGraphics grafx,
+	                                           final CyNode cyNode,
+	                                           final float[] floatBuff1,
+	                                           final NodeDetails nodeDetails,
+	                                           final int lodBits,
+	                                           final double[] doubleBuff1,
+	                                           final double[] doubleBuff2) {
+		// Take care of label rendering.
+		if ((lodBits & LOD_NODE_LABELS) != 0) { // Potential label rendering.
+
+			final int labelCount = nodeDetails.getLabelCount(cyNode);
+
+			for (int labelInx = 0; labelInx < labelCount; labelInx++) {
+				final String text = nodeDetails.getLabelText(cyNode, labelInx);
+				final Font font = nodeDetails.getLabelFont(cyNode, labelInx);
+				final double fontScaleFactor = nodeDetails.labelScaleFactor(cyNode,
+				                                                            labelInx);
+				final MeasuredLineCreator measuredText =
+					layoutNodeLabel(grafx, cyNode, floatBuff1, nodeDetails, labelInx, text, font,
+					                fontScaleFactor, lodBits, doubleBuff1, doubleBuff2);
+				final Paint paint = nodeDetails.getLabelPaint(cyNode, labelInx);
+				final Justification justify;
+
+				if (text.indexOf('\n') >= 0)
+					justify = nodeDetails.getLabelJustify(cyNode, labelInx);
+				else
+					justify = Justification.JUSTIFY_CENTER;
+
+				TextRenderingUtils.renderHorizontalText(grafx, measuredText, font,
+				                                        fontScaleFactor,
+				                                        (float) doubleBuff2[0],
+				                                        (float) doubleBuff2[1], justify,
+				                                        paint,
+				                                        (lodBits & LOD_TEXT_AS_SHAPE) != 0);
+			}
+		}
+	}
+
+	/**
+	 * Adds the boxes that renderNodeLabels() draws the labels of the given
+	 * node into to bounds.
+	 */
+	private final static void addNodeLabelBounds(final GraphGraphics grafx,
+	                                             final CyNode cyNode,
+	                                             final float[] floatBuff1,
+	                                             final NodeDetails nodeDetails,
+	                                             final int lodBits,
+	                                             final float[] bounds,
+	                                             final double[] doubleBuff1,
+	                                             final double[] doubleBuff2) {
+		if ((lodBits & LOD_NODE_LABELS) != 0) {
+			final int labelCount = nodeDetails.getLabelCount(cyNode);
+
+			for (int labelInx = 0; labelInx < labelCount; labelInx++) {
+				final Font font = nodeDetails.getLabelFont(cyNode, labelInx);
+				final double fontScaleFactor = nodeDetails.labelScaleFactor(cyNode, labelInx);
+				final MeasuredLineCreator measuredText =
+					layoutNodeLabel(grafx, cyNode, floatBuff1, nodeDetails, labelInx,
+					                nodeDetails.getLabelText(cyNode, labelInx), font, fontScaleFactor,
+					                lodBits, doubleBuff1, doubleBuff2);
+
+				addTextBounds(bounds, measuredText, font, fontScaleFactor, doubleBuff2[0], doubleBuff2[1]);
+			}
+		}
+	}
+
+	/**
+	 * Measures a label of a full detail node whose extents are in floatBuff1,
+	 * and puts the center of its text into rtrn2x.
+	 */
+	private final static MeasuredLineCreator layoutNodeLabel(final GraphGraphics grafx,
+	                                                         final CyNode cyNode,
+	                                                         final float[] floatBuff1,
+	                                                         final NodeDetails nodeDetails,
+	                                                         final int labelInx,
+	                                                         final String text,
+	                                                         final Font font,
+	                                                         final double fontScaleFactor,
+	                                                         final int lodBits,
+	                                                         final double[] doubleBuff1,
+	                                                         final double[] rtrn2x) {
+		final Position textAnchor = nodeDetails.getLabelTextAnchor(cyNode, labelInx);
+		final Position nodeAnchor = nodeDetails.getLabelNodeAnchor(cyNode, labelInx);
+		final float offsetVectorX = nodeDetails.getLabelOffsetVectorX(cyNode,
+		                                                           labelInx);
+		final float offsetVectorY = nodeDetails.getLabelOffsetVectorY(cyNode,
+		                                                           labelInx);
+
+		final double nodeLabelWidth = nodeDetails.getLabelWidth(cyNode);
+
+		doubleBuff1[0] = floatBuff1[0];
+		doubleBuff1[1] = floatBuff1[1];
+		doubleBuff1[2] = floatBuff1[2];
+		doubleBuff1[3] = floatBuff1[3];
+		lemma_computeAnchor(nodeAnchor, doubleBuff1, rtrn2x);
+
+		final double nodeAnchorPointX = rtrn2x[0];
+		final double nodeAnchorPointY = rtrn2x[1];
+		final MeasuredLineCreator measuredText = new MeasuredLineCreator(
+		    text, font, grafx.getFontRenderContextFull(), fontScaleFactor,
+		    (lodBits & LOD_TEXT_AS_SHAPE) != 0, nodeLabelWidth);
+
+		doubleBuff1[0] = -0.5d * measuredText.getMaxLineWidth();
+		doubleBuff1[1] = -0.5d * measuredText.getTotalHeight();
+		doubleBuff1[2] = 0.5d * measuredText.getMaxLineWidth();
+		doubleBuff1[3] = 0.5d * measuredText.getTotalHeight();
+		lemma_computeAnchor(textAnchor, doubleBuff1, rtrn2x);
+
+		rtrn2x[0] = nodeAnchorPointX - rtrn2x[0] + offsetVectorX;
+		rtrn2x[1] = nodeAnchorPointY - rtrn2x[1] + offsetVectorY;
+
+		return measuredText;
+	}
+
+	/**
+	 * The number of edges or nodes whose boxes one task of the tile pool computes.
+	 */
+	private final static int BOUNDS_CHUNK_SIZE = 256;
+
+	/**
+	 * The number of tasks per thread of the tile pool that are run between two
+	 * polls of cancelled, when it is not null.
+	 */
+	private final static int BATCH_TASKS_PER_THREAD = 4;
+
+	private final static Color TRANSPARENT = new Color(0, 0, 0, 0);
+
+	private final static ThreadLocal<TileCanvas> s_tileCanvas = new ThreadLocal<>();
+	/**
+	 * Renders a full detail frame, listed by renderOrListFrame(), as tiles on
+	 * tilePool and draws them onto grafx.image, whose background has already
+	 * been cleared.  The box that each edge and node draws into, labels and
+	 * custom graphics included, is computed on the pool.  Each tile then
+	 * renders the edges and nodes whose boxes touch it, in the order
+	 * renderEdgesAndNodes() renders them.
+	 */
+	private final static void renderTiles(final CyNetworkView netView,
+	                                      final TileFrame frame,
+	                                      final GraphGraphics grafx,
+	                                      final Paint bgPaint,
+	                                      final double xCenter,
+	                                      final double yCenter,
+	                                      final double scaleFactor,
+	                                      final int tileSize,
+	                                      final int lodBits,
+	                                      final Set<VisualPropertyDependency<?>> dependencies,
+	                                      final ForkJoinPool tilePool,
+	                                      final BooleanSupplier cancelled) {
+		final TileEdgeList edges = frame.edges;
+		final TileNodeList nodes = frame.nodes;
+		final EdgeDetails edgeSnapshot = frame.edgeDetails;
+		final NodeDetails nodeSnapshot = frame.nodeDetails;
+		final int edgeCount = (edges == null) ? 0 : edges.size();
+		final float[] edgeBounds = new float[edgeCount * 4];
+		final float[] nodeBounds = new float[nodes.size() * 4];
+		final List<Runnable> jobs = new ArrayList<>();
+
+		for (int from = 0; from < edgeCount; from += BOUNDS_CHUNK_SIZE) {
+			final int start = from;
+			final int end = Math.min(edgeCount, from + BOUNDS_CHUNK_SIZE);
+			jobs.add(() -> computeEdgeBounds(tileCanvas(grafx, tileSize).grafx, edgeSnapshot,
+			                                 edges, start, end, lodBits, edgeBounds, cancelled));
+		}
+
+		for (int from = 0; from < nodes.size(); from += BOUNDS_CHUNK_SIZE) {
+			final int start = from;
+			final int end = Math.min(nodes.size(), from + BOUNDS_CHUNK_SIZE);
+			jobs.add(() -> computeNodeBounds(netView, tileCanvas(grafx, tileSize).grafx,
+			                                 nodeSnapshot, nodes, start, end, lodBits,
+			                                 dependencies, nodeBounds, cancelled));
+		}
+
+		if (!runJobs(tilePool, jobs, cancelled))
+			return;
+
+		final int width = grafx.image.getWidth(null);
+		final int height = grafx.image.getHeight(null);
+
+		// Antialiasing may touch pixels just outside of what is drawn.
+		final double pad = 2.0d / scaleFactor;
+		// Over an opaque background color, the tiles are cleared to that color
+		// and copied onto the frame, which gives the same pixels as rendering
+		// the frame in one pass.  Otherwise they are drawn over the frame.
+		final boolean opaque = (bgPaint instanceof Color) && (((Color) bgPaint).getAlpha() == 255);
+		final Paint tileBgPaint = opaque ? bgPaint : TRANSPARENT;
+		final TileCompositor compositor = new TileCompositor(grafx.image, opaque);
+		jobs.clear();
+
+		try {
+			for (int ty = 0; ty < height; ty += tileSize) {
+				for (int tx = 0; tx < width; tx += tileSize) {
+					final int x = tx;
+					final int y = ty;
+					final int w = Math.min(tileSize, width - tx);
+					final int h = Math.min(tileSize, height - ty);
+					final double tileXMin = xCenter + ((tx - (0.5d * width)) / scaleFactor);
+					final double tileYMin = yCenter + ((ty - (0.5d * height)) / scaleFactor);
+					final float[] tile = new float[] {
+					                         (float) (tileXMin - pad),
+					                         (float) (tileYMin - pad),
+					                         (float) (tileXMin + (w / scaleFactor) + pad),
+					                         (float) (tileYMin + (h / scaleFactor) + pad)
+					                     };
+
+					// Tiles on the right and bottom edges may be smaller than the
+					// canvas, which is always tileSize square; they use its top left.
+					final double tileXCenter = tileXMin + ((0.5d * tileSize) / scaleFactor);
+					final double tileYCenter = tileYMin + ((0.5d * tileSize) / scaleFactor);
+
+					jobs.add(() -> {
+						final TileCanvas canvas = tileCanvas(grafx, tileSize);
+						canvas.grafx.clear(tileBgPaint, tileXCenter, tileYCenter, scaleFactor);
+
+						if (renderTile(netView, nodeSnapshot, edgeSnapshot, canvas.grafx, edges, edgeBounds,
+						               nodes, nodeBounds, tile, lodBits, dependencies, cancelled))
+							compositor.draw(canvas.image, x, y, w, h);
+					});
+				}
+			}
+
+			runJobs(tilePool, jobs, cancelled);
+		} finally {
+			compositor.dispose();
+		}
+	}
+
+	/**
+	 * Runs the jobs on the pool and waits for them.  If cancelled is not null
+	 * the jobs are run a few at a time, and cancelled is polled on the calling
+	 * thread between batches, when none of them is running.  Returns false if
+	 * rendering was cancelled or the calling thread was interrupted.
+	 */
+	private final static boolean runJobs(final ForkJoinPool pool, final List<Runnable> jobs,
+	                                     final BooleanSupplier cancelled) {
+		final int batchSize = (cancelled == null) ? jobs.size()
+		                      : (BATCH_TASKS_PER_THREAD * pool.getParallelism());
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+		for (int from = 0; from < jobs.size(); from += batchSize) {
+			if ((cancelled != null) && cancelled.getAsBoolean())
+				return false;
+
+			tasks.clear();
+
+			for (final Runnable job : jobs.subList(from, Math.min(jobs.size(), from + batchSize)))
+				tasks.add(pool.submit(job));
+
+			if (!joinTasks(tasks))
+				return false;
+		}
+
+		return (cancelled == null) || !cancelled.getAsBoolean();
+	}
+
+	/**
+	 * Waits for the tasks to finish.  Returns false, with the interrupt status
+	 * set again, if the calling thread is interrupted; even then it only
+	 * returns once none of the tasks is running, since the caller may dispose
+	 * of the images they draw into as soon as this method returns.
+	 */
+	private final static boolean joinTasks(final List<ForkJoinTask<?>> tasks) {
+		try {
+			for (final ForkJoinTask<?> t : tasks)
+				t.get();
+
+			return true;
+		} catch (InterruptedException e) {
+			for (final ForkJoinTask<?> t : tasks)
+				t.quietlyJoin();
+
+			Thread.currentThread().interrupt();
+
+			return false;
+		} catch (ExecutionException e) {
+			for (final ForkJoinTask<?> t : tasks)
+				t.quietlyJoin();
+
+			throw new IllegalStateException("failed to render a tile", e.getCause());
+		}
+	}
+
+	/**
+	 * Renders the edges and nodes of a frame whose boxes touch tile, which
+	 * holds { xMin, yMin, xMax, yMax } in node coordinates.  Returns false if
+	 * rendering was cancelled.
+	 */
+	private final static boolean renderTile(final CyNetworkView netView,
+	                                        final NodeDetails nodeDetails,
+	                                        final EdgeDetails edgeDetails,
+	                                        final GraphGraphics grafx,
+	                                        final TileEdgeList edges,
+	                                        final float[] edgeBounds,
+	                                        final TileNodeList nodes,
+	                                        final float[] nodeBounds,
+	                                        final float[] tile,
+	                                        final int lodBits,
+	                                        final Set<VisualPropertyDependency<?>> dependencies,
+	                                        final BooleanSupplier cancelled) {
+		final float[] floatBuff1 = new float[4];
+		final float[] floatBuff2 = new float[4];
+		final float[] floatBuff3 = new float[2];
+		final float[] floatBuff4 = new float[2];
+		final float[] floatBuff5 = new float[8];
+		final double[] doubleBuff1 = new double[4];
+		final double[] doubleBuff2 = new double[2];
+		final GeneralPath path2d = new GeneralPath();
+		final int edgeCount = (edges == null) ? 0 : edges.size();
+
+		for (int i = 0; i < edgeCount; i++) {
+			if (!intersects(edgeBounds, i, tile))
+				continue;
+
+			if ((cancelled != null) && cancelled.getAsBoolean())
+				return false;
+
+			edges.getExtents(i, floatBuff1, floatBuff2);
+			renderEdgeHigh(grafx, edgeDetails, edges.getEdge(i), edges.getSourceShape(i), floatBuff1,
+			               edges.getTargetShape(i), floatBuff2, lodBits, floatBuff3, floatBuff4,
+			               floatBuff5, doubleBuff1, doubleBuff2, path2d);
+		}
+
+		for (int i = 0; i < nodes.size(); i++) {
+			if (!intersects(nodeBounds, i, tile))
+				continue;
+
+			if ((cancelled != null) && cancelled.getAsBoolean())
+				return false;
+
+			final CyNode cyNode = nodes.getExtents(i, floatBuff1, 0);
+			renderNodeHigh(netView, grafx, cyNode, floatBuff1, doubleBuff1, doubleBuff2,
+			               nodeDetails, lodBits, dependencies);
+			renderNodeLabels(grafx, cyNode, floatBuff1, nodeDetails, lodBits, doubleBuff1, doubleBuff2);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Computes the boxes of the edges from start to end, four floats each.
+	 */
+	private final static void computeEdgeBounds(final GraphGraphics grafx,
+	                                            final EdgeDetails edgeDetails,
+	                                            final TileEdgeList edges,
+	                                            final int start,
+	                                            final int end,
+	                                            final int lodBits,
+	                                            final float[] edgeBounds,
+	                                            final BooleanSupplier cancelled) {
+		final float[] floatBuff1 = new float[4];
+		final float[] floatBuff2 = new float[4];
+		final float[] floatBuff3 = new float[2];
+		final float[] floatBuff4 = new float[2];
+		final float[] floatBuff5 = new float[8];
+		final double[] doubleBuff1 = new double[4];
+		final double[] doubleBuff2 = new double[2];
+		final GeneralPath path2d = new GeneralPath();
+		final float[] bounds = new float[4];
+
+		for (int i = start; i < end; i++) {
+			if ((cancelled != null) && cancelled.getAsBoolean())
+				return;
+
+			edges.getExtents(i, floatBuff1, floatBuff2);
+			resetBounds(bounds);
+			addEdgeHighBounds(grafx, edgeDetails, edges.getEdge(i), edges.getSourceShape(i), floatBuff1,
+			                  edges.getTargetShape(i), floatBuff2, lodBits, bounds, floatBuff3, floatBuff4,
+			                  floatBuff5, doubleBuff1, doubleBuff2, path2d);
+			System.arraycopy(bounds, 0, edgeBounds, i * 4, 4);
+		}
+	}
+
+	/**
+	 * Computes the boxes of the nodes from start to end, four floats each.
+	 */
+	private final static void computeNodeBounds(final CyNetworkView netView,
+	                                            final GraphGraphics grafx,
+	                                            final NodeDetails nodeDetails,
+	                                            final TileNodeList nodes,
+	                                            final int start,
+	                                            final int end,
+	                                            final int lodBits,
+	                                            final Set<VisualPropertyDependency<?>> dependencies,
+	                                            final float[] nodeBounds,
+	                                            final BooleanSupplier cancelled) {
+		final float[] floatBuff1 = new float[4];
+		final double[] doubleBuff1 = new double[4];
+		final double[] doubleBuff2 = new double[2];
+		final GeneralPath path2d = new GeneralPath();
+		final float[] bounds = new float[4];
+
+		for (int i = start; i < end; i++) {
+			if ((cancelled != null) && cancelled.getAsBoolean())
+				return;
+
+			final CyNode cyNode = nodes.getExtents(i, floatBuff1, 0);
+			resetBounds(bounds);
+			addNodeBounds(netView, grafx, cyNode, floatBuff1, doubleBuff1, doubleBuff2, path2d,
+			              nodeDetails, lodBits, dependencies, bounds);
+			addNodeLabelBounds(grafx, cyNode, floatBuff1, nodeDetails, lodBits, bounds,
+			                   doubleBuff1, doubleBuff2);
+			System.arraycopy(bounds, 0, nodeBounds, i * 4, 4);
+		}
+	}
+
+	/**
+	 * Adds the box around both end nodes and all anchors of an edge, grown by
+	 * margin, to bounds.  The edge and its arrows stay within that box.
+	 */
+	private final static void addEdgeBounds(final float[] bounds, final float[] srcExtents,
+	                                        final float[] trgExtents, final EdgeAnchors anchors,
+	                                        final float margin, final float[] floatBuff) {
+		float xMin = Math.min(srcExtents[0], trgExtents[0]);
+		float yMin = Math.min(srcExtents[1], trgExtents[1]);
+		float xMax = Math.max(srcExtents[2], trgExtents[2]);
+		float yMax = Math.max(srcExtents[3], trgExtents[3]);
+
+		if (anchors != null) {
+			for (int k = 0; k < anchors.numAnchors(); k++) {
+				anchors.getAnchor(k, floatBuff, 0);
+				xMin = Math.min(xMin, floatBuff[0]);
+				yMin = Math.min(yMin, floatBuff[1]);
+				xMax = Math.max(xMax, floatBuff[0]);
+				yMax = Math.max(yMax, floatBuff[1]);
+			}
+		}
+
+		addBounds(bounds, xMin - margin, yMin - margin, xMax + margin, yMax + margin);
+	}
+
+	private final static float maxAnchorSize(final EdgeDetails edgeDetails, final CyEdge edge,
+	                                         final EdgeAnchors anchors) {
+		float size = 0.0f;
+
+		if (anchors != null) {
+			for (int k = 0; k < anchors.numAnchors(); k++)
+				size = Math.max(size, edgeDetails.getAnchorSize(edge, k));
+		}
+
+		return size;
+	}
+
+	/**
+	 * Adds the box of a label centered at (xCenter, yCenter) to bounds.  The
+	 * measured lines hold the advance of the text, so half of the font size is
+	 * added around them for glyphs that reach beyond it.
+	 */
+	private final static void addTextBounds(final float[] bounds, final MeasuredLineCreator measuredText,
+	                                        final Font font, final double fontScaleFactor,
+	                                        final double xCenter, final double yCenter) {
+		final double margin = 0.5d * font.getSize2D() * fontScaleFactor;
+		final double halfWidth = (0.5d * measuredText.getMaxLineWidth()) + margin;
+		final double halfHeight = (0.5d * measuredText.getTotalHeight()) + margin;
+
+		addBounds(bounds, xCenter - halfWidth, yCenter - halfHeight, xCenter + halfWidth,
+		          yCenter + halfHeight);
+	}
+
+	/**
+	 * Makes bounds { xMin, yMin, xMax, yMax } empty, so that it touches no tile.
+	 */
+	private final static void resetBounds(final float[] bounds) {
+		bounds[0] = bounds[1] = Float.POSITIVE_INFINITY;
+		bounds[2] = bounds[3] = Float.NEGATIVE_INFINITY;
+	}
+
+	private final static void addBounds(final float[] bounds, final double xMin, final double yMin,
+	                                    final double xMax, final double yMax) {
+		bounds[0] = Math.min(bounds[0], (float) xMin);
+		bounds[1] = Math.min(bounds[1], (float) yMin);
+		bounds[2] = Math.max(bounds[2], (float) xMax);
+		bounds[3] = Math.max(bounds[3], (float) yMax);
+	}
+
+	private final static boolean intersects(final float[] bounds, final int i, final float[] tile) {
+		return (bounds[i * 4] <= tile[2]) && (bounds[(i * 4) + 2] >= tile[0])
+		       && (bounds[(i * 4) + 1] <= tile[3]) && (bounds[(i * 4) + 3] >= tile[1]);
 	}
 
 	private final static void lemma_computeAnchor(final Position anchor, final double[] input4x,
@@ -1123,38 +1857,27 @@ public final class GraphRenderer {
 				grafx.drawCustomGraphicImage(nestedNetworkPaint.getAnchorRect(), (float)doubleBuff2[0],  (float)doubleBuff2[1], nestedNetworkPaint); 
 			}
 
-			// draw custom graphics on top of nested networks 
-			// don't allow our custom graphics to mutate while we iterate over them:
-			synchronized (nodeDetails.customGraphicsLock(cyNode)) {
-				final View<CyNode> nodeView = netView.getNodeView(cyNode);
-				
-				// This method should return CustomGraphics in rendering order:
-				final Map<VisualProperty<CyCustomGraphics>, CustomGraphicsInfo> cgMap = nodeDetails.getCustomGraphics(cyNode);
-				final List<CustomGraphicsInfo> infoList = new ArrayList<>(cgMap.values());
+			// draw custom graphics on top of nested networks, in rendering order
+			for (final List<CustomGraphicLayer> layers : nodeDetails.getCustomGraphicLayers(netView, cyNode, dependencies)) {
+				// The graphic index used to retrieve non custom graphic info corresponds to the zero-based
+				// index of the CustomGraphicLayer returned by the iterator:
+				int graphicInx = 0;
 				
-				for (final CustomGraphicsInfo cgInfo : infoList) {
-					final List<CustomGraphicLayer> layers = cgInfo.createLayers(netView, nodeView, nodeDetails, dependencies);
+				for (final CustomGraphicLayer layer : layers) {
+					final float offsetVectorX = nodeDetails.graphicOffsetVectorX(cyNode, graphicInx);
+					final float offsetVectorY = nodeDetails.graphicOffsetVectorY(cyNode, graphicInx);
+					doubleBuff1[0] = floatBuff1[0];
+					doubleBuff1[1] = floatBuff1[1];
+					doubleBuff1[2] = floatBuff1[2];
+					doubleBuff1[3] = floatBuff1[3];
+					lemma_computeAnchor(Position.CENTER, doubleBuff1, doubleBuff2);
 					
-					// The graphic index used to retrieve non custom graphic info corresponds to the zero-based
-					// index of the CustomGraphicLayer returned by the iterator:
-					int graphicInx = 0;
+					float xOffset = (float) (doubleBuff2[0] + offsetVectorX);
+					float yOffset = (float) (doubleBuff2[1] + offsetVectorY);
+					nodeShape = createCustomGraphicsShape(nodeShape, layer, -xOffset, -yOffset);
 					
-					for (final CustomGraphicLayer layer : layers) {
-						final float offsetVectorX = nodeDetails.graphicOffsetVectorX(cyNode, graphicInx);
-						final float offsetVectorY = nodeDetails.graphicOffsetVectorY(cyNode, graphicInx);
-						doubleBuff1[0] = floatBuff1[0];
-						doubleBuff1[1] = floatBuff1[1];
-						doubleBuff1[2] = floatBuff1[2];
-						doubleBuff1[3] = floatBuff1[3];
-						lemma_computeAnchor(Position.CENTER, doubleBuff1, doubleBuff2);
-						
-						float xOffset = (float) (doubleBuff2[0] + offsetVectorX);
-						float yOffset = (float) (doubleBuff2[1] + offsetVectorY);
-						nodeShape = createCustomGraphicsShape(nodeShape, layer, -xOffset, -yOffset);
-						
-						grafx.drawCustomGraphicFull(netView, cyNode, nodeShape, layer, xOffset, yOffset);
-						graphicInx++;
-					}
+					grafx.drawCustomGraphicFull(netView, cyNode, nodeShape, layer, xOffset, yOffset);
+					graphicInx++;
 				}
 			}
 		}
@@ -1172,6 +1895,103 @@ public final class GraphRenderer {
 		return xform.createTransformedShape(nodeShape);
 	}
 
+	/**
+	 * Adds the box that renderNodeHigh() draws the given node into to bounds,
+	 * with the same geometry: the node shape and its border, a nested network
+	 * and each custom graphic layer at its offset.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final void addNodeBounds(final CyNetworkView netView,
+	                                        final GraphGraphics grafx,
+	                                        final CyNode cyNode,
+	                                        final float[] floatBuff1,
+	                                        final double[] doubleBuff1,
+	                                        final double[] doubleBuff2,
+	                                        final GeneralPath path2d,
+	                                        final NodeDetails nodeDetails,
+	                                        final int lodBits,
+	                                        final Set<VisualPropertyDependency<?>> dependencies,
+	                                        final float[] bounds) {
+		Shape nodeShape = null;
+
+		if ((floatBuff1[0] != floatBuff1[2]) && (floatBuff1[1] != floatBuff1[3])) {
+			final float borderWidth = ((lodBits & LOD_NODE_BORDERS) == 0) ? 0.0f
+			                          : nodeDetails.getBorderWidth(cyNode);
+
+			// GraphGraphics.drawNodeFull() insets the shape by half of the border width.
+			final float off = borderWidth / 2.0f;
+			grafx.getNodeShape(nodeDetails.getShape(cyNode), floatBuff1[0] + off, floatBuff1[1] + off,
+			                   floatBuff1[2] - off, floatBuff1[3] - off, path2d);
+			nodeShape = path2d;
+			addBounds(bounds, floatBuff1[0], floatBuff1[1], floatBuff1[2], floatBuff1[3]);
+
+			// Mitered corners of the border may reach well beyond the extents.
+			if (borderWidth > 0.0f) {
+				final Stroke borderStroke = nodeDetails.getBorderStroke(cyNode);
+				final Rectangle2D borderBounds = ((borderStroke != null) ? borderStroke
+				                                  : new BasicStroke(borderWidth))
+				                                 .createStrokedShape(path2d).getBounds2D();
+				addBounds(bounds, borderBounds.getMinX(), borderBounds.getMinY(),
+				          borderBounds.getMaxX(), borderBounds.getMaxY());
+			}
+		}
+
+		if ((lodBits & LOD_CUSTOM_GRAPHICS) != 0) {
+			doubleBuff1[0] = floatBuff1[0];
+			doubleBuff1[1] = floatBuff1[1];
+			doubleBuff1[2] = floatBuff1[2];
+			doubleBuff1[3] = floatBuff1[3];
+			lemma_computeAnchor(Position.CENTER, doubleBuff1, doubleBuff2);
+
+			final TexturePaint nestedNetworkPaint = nodeDetails.getNestedNetworkTexturePaint(cyNode);
+			if (nestedNetworkPaint != null) {
+				final Rectangle2D anchorRect = nestedNetworkPaint.getAnchorRect().getBounds();
+				addBounds(bounds, (float) doubleBuff2[0] + anchorRect.getMinX(),
+				          (float) doubleBuff2[1] + anchorRect.getMinY(),
+				          (float) doubleBuff2[0] + anchorRect.getMaxX(),
+				          (float) doubleBuff2[1] + anchorRect.getMaxY());
+			}
+
+			for (final List<CustomGraphicLayer> layers : nodeDetails.getCustomGraphicLayers(netView, cyNode, dependencies)) {
+				int graphicInx = 0;
+
+				for (final CustomGraphicLayer layer : layers) {
+					final float offsetVectorX = nodeDetails.graphicOffsetVectorX(cyNode, graphicInx);
+					final float offsetVectorY = nodeDetails.graphicOffsetVectorY(cyNode, graphicInx);
+					final float xOffset = (float) (doubleBuff2[0] + offsetVectorX);
+					final float yOffset = (float) (doubleBuff2[1] + offsetVectorY);
+					nodeShape = createCustomGraphicsShape(nodeShape, layer, -xOffset, -yOffset);
+
+					final Rectangle2D layerBounds = getCustomGraphicBounds(layer, nodeShape);
+					addBounds(bounds, xOffset + layerBounds.getMinX(), yOffset + layerBounds.getMinY(),
+					          xOffset + layerBounds.getMaxX(), yOffset + layerBounds.getMaxY());
+					graphicInx++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the box that GraphGraphics.drawCustomGraphicFull() draws a layer
+	 * into, relative to the offset the layer is drawn at.
+	 */
+	private static Rectangle2D getCustomGraphicBounds(final CustomGraphicLayer layer, final Shape nodeShape) {
+		if (layer instanceof PaintedShape) {
+			final PaintedShape ps = (PaintedShape) layer;
+			final Rectangle2D shapeBounds = ps.getShape().getBounds2D();
+
+			return (ps.getStroke() == null) ? shapeBounds
+			       : shapeBounds.createUnion(ps.getStroke().createStrokedShape(ps.getShape()).getBounds2D());
+		} else if (layer instanceof Cy2DGraphicLayer) {
+			// Charts and gradients draw into their bounds or into the node shape.
+			return layer.getBounds2D().createUnion(nodeShape.getBounds2D());
+		} else if (layer instanceof ImageCustomGraphicLayer) {
+			return layer.getBounds2D().getBounds();
+		} else {
+			return nodeShape.getBounds2D();
+		}
+	}
+
 	private static class SpacialEntry2DEnumeratorZSort implements SpacialEntry2DEnumerator {
 		List<ZSpacialEntry> entryList;
 		int nextEntry = 0;
@@ -1204,6 +2024,221 @@ public final class GraphRenderer {
 		}
 	}
 
+	/**
+	 * What the tiles of a full detail frame draw: its edges and nodes, and
+	 * copies of their details.  The tiles only read the view through it, so
+	 * the view may change while they are rendered.
+	 */
+	private static final class TileFrame {
+		private final TileEdgeList edges;
+		private final TileNodeList nodes;
+		private final EdgeDetails edgeDetails;
+		private final NodeDetails nodeDetails;
+
+		/**
+		 * Lists the edges and nodes of the frame (sorted by Z, if needed),
+		 * since queries on the spacial index are not thread safe.  Listing the
+		 * edges keeps the promise made about nodeBuff.
+		 */
+		TileFrame(final CyNetworkView netView, final SpacialIndex2D nodePositions,
+		          final NodeDetails nodeDetails, final EdgeDetails edgeDetails, final LongHash nodeBuff,
+		          final SpacialEntry2DEnumerator edgeNodeHits, final SpacialEntry2DEnumerator nodeHits,
+		          final int lodBits, final boolean haveZOrder,
+		          final Set<VisualPropertyDependency<?>> dependencies) {
+			edges = (edgeNodeHits == null) ? null
+			        : new TileEdgeList(netView.getModel(), nodePositions, nodeDetails, edgeDetails,
+			                           edgeNodeHits, nodeBuff);
+			nodes = new TileNodeList(netView.getModel(), haveZOrder
+			                         ? new SpacialEntry2DEnumeratorZSort(nodePositions, nodeHits)
+			                         : nodeHits);
+			this.edgeDetails = (edges == null) ? edgeDetails
+			                   : new EdgeDetailsSnapshot(edgeDetails, edges.getEdges(), edges.size(), lodBits);
+			this.nodeDetails = new NodeDetailsSnapshot(netView, nodeDetails, nodes.getNodes(), nodes.size(),
+			                                           lodBits, dependencies);
+		}
+	}
+
+	/**
+	 * The full detail nodes of a frame, in the order renderEdgesAndNodes()
+	 * renders them, with their extents.  Any number of threads may read it at
+	 * once.
+	 */
+	private static final class TileNodeList {
+		private final CyNode[] nodes;
+		private final float[] extents;
+
+		TileNodeList(final CyNetwork graph, final SpacialEntry2DEnumerator hits) {
+			nodes = new CyNode[hits.numRemaining()];
+			extents = new float[nodes.length * 4];
+
+			for (int i = 0; i < nodes.length; i++)
+				nodes[i] = graph.getNode(hits.nextExtents(extents, i * 4));
+		}
+
+		int size() {
+			return nodes.length;
+		}
+
+		CyNode[] getNodes() {
+			return nodes;
+		}
+
+		CyNode getExtents(final int i, final float[] extentsArr, final int offset) {
+			System.arraycopy(extents, i * 4, extentsArr, offset, 4);
+			return nodes[i];
+		}
+	}
+
+	/**
+	 * The full detail edges of a frame, in the order renderEdgesAndNodes()
+	 * renders them, with the shapes and extents of their end nodes.
+	 */
+	private static final class TileEdgeList {
+		private CyEdge[] edges = new CyEdge[16];
+		private byte[] shapes = new byte[edges.length * 2];
+		private float[] extents = new float[edges.length * 8];
+		private int size;
+
+		/**
+		 * Lists the edges touching the nodes of edgeNodeHits and, like
+		 * renderEdgesAndNodes(), puts these nodes into nodeBuff.
+		 */
+		TileEdgeList(final CyNetwork graph, final SpacialIndex2D nodePositions,
+		             final NodeDetails nodeDetails, final EdgeDetails edgeDetails,
+		             final SpacialEntry2DEnumerator edgeNodeHits, final LongHash nodeBuff) {
+			final float[] floatBuff1 = new float[4];
+			final float[] floatBuff2 = new float[4];
+
+			while (edgeNodeHits.numRemaining() > 0) {
+				final long node = edgeNodeHits.nextExtents(floatBuff1, 0);
+				final CyNode cyNode = graph.getNode(node);
+				final byte nodeShape = nodeDetails.getShape(cyNode);
+
+				for (final CyEdge edge : graph.getAdjacentEdgeIterable(cyNode, CyEdge.Type.ANY)) {
+					if (!edgeDetails.isVisible(edge))
+						continue;
+
+					final long otherNode = node ^ edge.getSource().getSUID() ^ edge.getTarget().getSUID();
+
+					if ((nodeBuff.get(otherNode) < 0) && nodePositions.exists(otherNode, floatBuff2, 0)) {
+						final byte otherNodeShape = nodeDetails.getShape(graph.getNode(otherNode));
+
+						if (node == edge.getSource().getSUID())
+							add(edge, nodeShape, floatBuff1, otherNodeShape, floatBuff2);
+						else
+							add(edge, otherNodeShape, floatBuff2, nodeShape, floatBuff1);
+					}
+				}
+
+				nodeBuff.put(node);
+			}
+		}
+
+		private void add(final CyEdge edge, final byte srcShape, final float[] srcExtents,
+		                 final byte trgShape, final float[] trgExtents) {
+			if (size == edges.length) {
+				edges = Arrays.copyOf(edges, size * 2);
+				shapes = Arrays.copyOf(shapes, size * 4);
+				extents = Arrays.copyOf(extents, size * 16);
+			}
+
+			edges[size] = edge;
+			shapes[size * 2] = srcShape;
+			shapes[(size * 2) + 1] = trgShape;
+			System.arraycopy(srcExtents, 0, extents, size * 8, 4);
+			System.arraycopy(trgExtents, 0, extents, (size * 8) + 4, 4);
+			size++;
+		}
+
+		int size() {
+			return size;
+		}
+
+		CyEdge[] getEdges() {
+			return edges;
+		}
+
+		CyEdge getEdge(final int i) {
+			return edges[i];
+		}
+
+		byte getSourceShape(final int i) {
+			return shapes[i * 2];
+		}
+
+		byte getTargetShape(final int i) {
+			return shapes[(i * 2) + 1];
+		}
+
+		void getExtents(final int i, final float[] srcExtents, final float[] trgExtents) {
+			System.arraycopy(extents, i * 8, srcExtents, 0, 4);
+			System.arraycopy(extents, (i * 8) + 4, trgExtents, 0, 4);
+		}
+	}
+
+	/**
+	 * The image that a thread of the tile pool renders its tiles into.  It is
+	 * kept for the thread's next tile, for as long as the frames it renders
+	 * come from the same GraphGraphics, with the same custom node shapes.
+	 */
+	private static final class TileCanvas {
+		private final BufferedImage image;
+		private final GraphGraphics grafx;
+		private final WeakReference<GraphGraphics> source;
+		private final int customShapeCount;
+
+		TileCanvas(final GraphGraphics source, final int tileSize) {
+			image = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_ARGB_PRE);
+			grafx = new GraphGraphics(image, false, true);
+			grafx.importCustomNodeShapes(source);
+			this.source = new WeakReference<>(source);
+			customShapeCount = source.getCustomNodeShapes().length;
+		}
+
+		boolean fits(final GraphGraphics source, final int tileSize) {
+			return (this.source.get() == source) && (image.getWidth() == tileSize)
+			       && (customShapeCount == source.getCustomNodeShapes().length);
+		}
+	}
+
+	private final static TileCanvas tileCanvas(final GraphGraphics source, final int tileSize) {
+		TileCanvas canvas = s_tileCanvas.get();
+
+		if ((canvas == null) || !canvas.fits(source, tileSize)) {
+			canvas = new TileCanvas(source, tileSize);
+			s_tileCanvas.set(canvas);
+		}
+
+		return canvas;
+	}
+
+	/**
+	 * Draws finished tiles onto a frame, one at a time.  Tiles that finish
+	 * after the frame has been given up on are dropped.
+	 */
+	private static final class TileCompositor {
+		private Graphics2D g;
+
+		TileCompositor(final Image image, final boolean copy) {
+			g = (Graphics2D) image.getGraphics();
+
+			if (copy)
+				g.setComposite(AlphaComposite.Src);
+		}
+
+		synchronized void draw(final BufferedImage tile, final int x, final int y, final int w, final int h) {
+			if (g != null)
+				g.drawImage(tile, x, y, x + w, y + h, 0, 0, w, h, null);
+		}
+
+		synchronized void dispose() {
+			if (g != null) {
+				g.dispose();
+				g = null;
+			}
+		}
+	}
+
 	private static class ZSpacialEntry implements Comparable<ZSpacialEntry> {
 		private long suid;
 		private float[] extentsArr;
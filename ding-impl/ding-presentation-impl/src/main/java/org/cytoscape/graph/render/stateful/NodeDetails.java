@@ -30,15 +30,22 @@ import java.awt.Font;
 import java.awt.Paint;
 import java.awt.Stroke;
 import java.awt.TexturePaint;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.cytoscape.graph.render.immed.GraphGraphics;
 import org.cytoscape.model.CyNode;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
 import org.cytoscape.view.model.VisualProperty;
+import org.cytoscape.view.presentation.customgraphics.CustomGraphicLayer;
 import org.cytoscape.view.presentation.customgraphics.CyCustomGraphics;
 import org.cytoscape.view.presentation.property.values.Justification;
 import org.cytoscape.view.presentation.property.values.Position;
+import org.cytoscape.view.vizmap.VisualPropertyDependency;
 
 
 /**
@@ -380,6 +387,25 @@ public class NodeDetails {
 	public Map<VisualProperty<CyCustomGraphics>, CustomGraphicsInfo> getCustomGraphics(final CyNode node) {
 		return Collections.EMPTY_MAP;
 	}
+
+	/**
+	 * Returns the layers of each custom graphic of a node, in rendering order,
+	 * sized and moved to fit the node.  The layers of a custom graphic are
+	 * numbered from zero for graphicOffsetVectorX() and graphicOffsetVectorY().
+	 */
+	public List<List<CustomGraphicLayer>> getCustomGraphicLayers(final CyNetworkView netView, final CyNode node,
+			final Set<VisualPropertyDependency<?>> dependencies) {
+		// don't allow our custom graphics to mutate while we iterate over them:
+		synchronized (customGraphicsLock(node)) {
+			final View<CyNode> nodeView = netView.getNodeView(node);
+			final List<List<CustomGraphicLayer>> layers = new ArrayList<>();
+
+			for (final CustomGraphicsInfo cgInfo : getCustomGraphics(node).values())
+				layers.add(cgInfo.createLayers(netView, nodeView, this, dependencies));
+
+			return layers;
+		}
+	}
 	
 	/**
 	 * Specifies the X component of the vector that separates the location of a
@@ -0,0 +1,250 @@
+package org.cytoscape.graph.render.stateful;
+
+/*
+ * #%L
+ * Cytoscape Ding View/Presentation Impl (ding-presentation-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2013 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.awt.Font;
+import java.awt.Paint;
+import java.awt.Stroke;
+import java.awt.TexturePaint;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cytoscape.model.CyNode;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.presentation.customgraphics.CustomGraphicLayer;
+import org.cytoscape.view.presentation.property.values.Justification;
+import org.cytoscape.view.presentation.property.values.Position;
+import org.cytoscape.view.vizmap.VisualPropertyDependency;
+
+
+/**
+ * The details of the nodes of one full detail frame, read from another
+ * NodeDetails when the frame is listed.  Only what the renderer looks at for
+ * the given level of detail is kept.  Instances never change, so the threads
+ * that render the tiles of the frame can read them while the view changes.
+ */
+final class NodeDetailsSnapshot extends NodeDetails {
+	private final Map<CyNode, Values> values;
+
+	NodeDetailsSnapshot(final CyNetworkView netView, final NodeDetails details, final CyNode[] nodes,
+	                    final int nodeCount, final int lodBits,
+	                    final Set<VisualPropertyDependency<?>> dependencies) {
+		values = new HashMap<>(Math.max(16, (nodeCount * 4) / 3));
+
+		for (int i = 0; i < nodeCount; i++) {
+			if (!values.containsKey(nodes[i]))
+				values.put(nodes[i], new Values(netView, details, nodes[i], lodBits, dependencies));
+		}
+	}
+
+	@Override
+	public byte getShape(final CyNode node) {
+		return values.get(node).shape;
+	}
+
+	@Override
+	public Paint getFillPaint(final CyNode node) {
+		return values.get(node).fillPaint;
+	}
+
+	@Override
+	public float getBorderWidth(final CyNode node) {
+		return values.get(node).borderWidth;
+	}
+
+	@Override
+	public Stroke getBorderStroke(final CyNode node) {
+		return values.get(node).borderStroke;
+	}
+
+	@Override
+	public Paint getBorderPaint(final CyNode node) {
+		return values.get(node).borderPaint;
+	}
+
+	@Override
+	public int getLabelCount(final CyNode node) {
+		return values.get(node).labels.length;
+	}
+
+	@Override
+	public String getLabelText(final CyNode node, final int labelInx) {
+		return values.get(node).labels[labelInx].text;
+	}
+
+	@Override
+	public Font getLabelFont(final CyNode node, final int labelInx) {
+		return values.get(node).labels[labelInx].font;
+	}
+
+	@Override
+	public double labelScaleFactor(final CyNode node, final int labelInx) {
+		return values.get(node).labels[labelInx].scaleFactor;
+	}
+
+	@Override
+	public Paint getLabelPaint(final CyNode node, final int labelInx) {
+		return values.get(node).labels[labelInx].paint;
+	}
+
+	@Override
+	public Position getLabelTextAnchor(final CyNode node, final int labelInx) {
+		return values.get(node).labels[labelInx].textAnchor;
+	}
+
+	@Override
+	public Position getLabelNodeAnchor(final CyNode node, final int labelInx) {
+		return values.get(node).labels[labelInx].nodeAnchor;
+	}
+
+	@Override
+	public float getLabelOffsetVectorX(final CyNode node, final int labelInx) {
+		return values.get(node).labels[labelInx].offsetVectorX;
+	}
+
+	@Override
+	public float getLabelOffsetVectorY(final CyNode node, final int labelInx) {
+		return values.get(node).labels[labelInx].offsetVectorY;
+	}
+
+	@Override
+	public Justification getLabelJustify(final CyNode node, final int labelInx) {
+		return values.get(node).labels[labelInx].justify;
+	}
+
+	@Override
+	public double getLabelWidth(final CyNode node) {
+		return values.get(node).labelWidth;
+	}
+
+	@Override
+	public List<List<CustomGraphicLayer>> getCustomGraphicLayers(final CyNetworkView netView, final CyNode node,
+			final Set<VisualPropertyDependency<?>> dependencies) {
+		return values.get(node).customGraphicLayers;
+	}
+
+	@Override
+	public float graphicOffsetVectorX(final CyNode node, final int graphicInx) {
+		return values.get(node).graphicOffsets[graphicInx * 2];
+	}
+
+	@Override
+	public float graphicOffsetVectorY(final CyNode node, final int graphicInx) {
+		return values.get(node).graphicOffsets[(graphicInx * 2) + 1];
+	}
+
+	@Override
+	public TexturePaint getNestedNetworkTexturePaint(final CyNode node) {
+		return values.get(node).nestedNetworkPaint;
+	}
+
+	private static final class Values {
+		private final byte shape;
+		private final Paint fillPaint;
+		private final float borderWidth;
+		private final Stroke borderStroke;
+		private final Paint borderPaint;
+		private final Label[] labels;
+		private final double labelWidth;
+		private final TexturePaint nestedNetworkPaint;
+		private final List<List<CustomGraphicLayer>> customGraphicLayers;
+		private final float[] graphicOffsets;
+
+		Values(final CyNetworkView netView, final NodeDetails details, final CyNode node, final int lodBits,
+		       final Set<VisualPropertyDependency<?>> dependencies) {
+			shape = details.getShape(node);
+			fillPaint = details.getFillPaint(node);
+
+			if ((lodBits & GraphRenderer.LOD_NODE_BORDERS) == 0) {
+				borderWidth = 0.0f;
+				borderStroke = null;
+				borderPaint = null;
+			} else {
+				borderWidth = details.getBorderWidth(node);
+				borderStroke = details.getBorderStroke(node);
+				borderPaint = (borderWidth == 0.0f) ? null : details.getBorderPaint(node);
+			}
+
+			if ((lodBits & GraphRenderer.LOD_NODE_LABELS) == 0) {
+				labels = new Label[0];
+				labelWidth = 0.0;
+			} else {
+				labels = new Label[details.getLabelCount(node)];
+
+				for (int i = 0; i < labels.length; i++)
+					labels[i] = new Label(details, node, i);
+
+				labelWidth = details.getLabelWidth(node);
+			}
+
+			if ((lodBits & GraphRenderer.LOD_CUSTOM_GRAPHICS) == 0) {
+				nestedNetworkPaint = null;
+				customGraphicLayers = null;
+				graphicOffsets = null;
+			} else {
+				nestedNetworkPaint = details.getNestedNetworkTexturePaint(node);
+				customGraphicLayers = details.getCustomGraphicLayers(netView, node, dependencies);
+				int graphicCount = 0;
+
+				for (final List<CustomGraphicLayer> layers : customGraphicLayers)
+					graphicCount = Math.max(graphicCount, layers.size());
+
+				graphicOffsets = new float[graphicCount * 2];
+
+				for (int i = 0; i < graphicCount; i++) {
+					graphicOffsets[i * 2] = details.graphicOffsetVectorX(node, i);
+					graphicOffsets[(i * 2) + 1] = details.graphicOffsetVectorY(node, i);
+				}
+			}
+		}
+	}
+
+	private static final class Label {
+		private final String text;
+		private final Font font;
+		private final double scaleFactor;
+		private final Paint paint;
+		private final Position textAnchor;
+		private final Position nodeAnchor;
+		private final float offsetVectorX;
+		private final float offsetVectorY;
+		private final Justification justify;
+
+		Label(final NodeDetails details, final CyNode node, final int labelInx) {
+			text = details.getLabelText(node, labelInx);
+			font = details.getLabelFont(node, labelInx);
+			scaleFactor = details.labelScaleFactor(node, labelInx);
+			paint = details.getLabelPaint(node, labelInx);
+			textAnchor = details.getLabelTextAnchor(node, labelInx);
+			nodeAnchor = details.getLabelNodeAnchor(node, labelInx);
+			offsetVectorX = details.getLabelOffsetVectorX(node, labelInx);
+			offsetVectorY = details.getLabelOffsetVectorY(node, labelInx);
+			justify = (text.indexOf('\n') >= 0) ? details.getLabelJustify(node, labelInx)
+			          : Justification.JUSTIFY_CENTER;
+		}
+	}
+}
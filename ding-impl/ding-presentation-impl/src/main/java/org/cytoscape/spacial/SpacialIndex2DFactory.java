@@ -29,4 +29,18 @@ public interface SpacialIndex2DFactory {
 	
 	SpacialIndex2D createSpacialIndex2D();
 
+	/**
+	 * Creates a spacial index that is bulk loaded with the given entries.
+	 * Building the index this way is much faster than inserting the entries
+	 * one at a time, and the index stays cheap to update when most of its
+	 * entries are deleted and inserted again, as when a layout moves the
+	 * nodes of a view one after another.
+	 * @param objKeys the entries; must be non-negative and distinct.
+	 * @param extentsArr the extents of the entries, four values
+	 *   { xMin, yMin, xMax, yMax } per entry.
+	 * @param zOrders the z order of the entries, or null if all are zero.
+	 * @param count the number of entries; the arrays may be null if it is zero.
+	 */
+	SpacialIndex2D createSpacialIndex2D(long[] objKeys, float[] extentsArr, double[] zOrders, int count);
+
 }
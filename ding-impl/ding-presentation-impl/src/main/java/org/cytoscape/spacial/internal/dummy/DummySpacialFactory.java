@@ -39,4 +39,8 @@ public class DummySpacialFactory implements SpacialIndex2DFactory {
 	public SpacialIndex2D createSpacialIndex2D() {
 		return new DummySpacial(graphView);
 	}
+
+	public SpacialIndex2D createSpacialIndex2D(long[] objKeys, float[] extentsArr, double[] zOrders, int count) {
+		return new DummySpacial(graphView);
+	}
 }
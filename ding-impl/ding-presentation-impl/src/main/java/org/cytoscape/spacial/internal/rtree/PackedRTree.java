@@ -0,0 +1,633 @@
+package org.cytoscape.spacial.internal.rtree;
+
+/*
+ * #%L
+ * Cytoscape Ding View/Presentation Impl (ding-presentation-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import org.cytoscape.spacial.SpacialEntry2DEnumerator;
+import org.cytoscape.spacial.SpacialIndex2D;
+
+
+/**
+ * An in-memory R-tree over real numbers in two dimensions that is built all
+ * at once by sort-tile-recursive (STR) packing, instead of one insertion at a
+ * time like {@link RTree}.<p>
+ * Entries and tree nodes live in flat primitive arrays.  Entries are stored
+ * in packing order, so that leaf node i holds entries [i * B, (i + 1) * B)
+ * and internal node i on one level covers nodes [i * B, (i + 1) * B) on the
+ * level below, where B is the branching factor.<p>
+ * The tree is not rebalanced on every change.  An entry that is deleted and
+ * inserted again (which is how a node view moves) keeps its slot, and only
+ * the nodes above it are grown to fit.  New entries are kept in an unpacked
+ * area that queries scan linearly.  Once too many entries have moved, been
+ * added or been deleted, the whole tree is packed again by the next query.
+ * This makes applying a layout to a large network cost one O(N log N) packing
+ * instead of N incremental insertions.<p>
+ * Like RTree, an instance of this class is not thread safe; however, exists()
+ * does not modify the tree and may be called from several threads at once.
+ */
+public final class PackedRTree implements SpacialIndex2D {
+	public final static int DEFAULT_MAX_BRANCHES = 16;
+
+	// Smallest number of unpacked, moved or deleted entries that can trigger
+	// packing; below this a linear scan is cheaper than packing.
+	private final static int MIN_REPACK_COUNT = 64;
+
+	private final int m_maxBranches;
+
+	// Entries by slot.  Deleted entries keep their slot, with the key stored
+	// as -1 - objKey, until the tree is packed again.
+	private long[] m_objKeys;
+	private float[] m_extents; // { xMin, yMin, xMax, yMax } per slot.
+	private double[] m_zOrders;
+	private int m_slotCount;
+	private int m_packedCount; // Slots [0, m_packedCount) are covered by the tree.
+	private int m_size;
+	private int m_moveCount;
+	private boolean m_needsPacking;
+
+	// objKey -> slot, open addressing with linear probing; -1 marks a free bucket.
+	private long[] m_hashKeys;
+	private int[] m_hashSlots;
+	private int m_hashShift;
+
+	// Node extents, four floats per node, leaf level first.  The nodes of
+	// level l are [m_levelStarts[l], m_levelStarts[l + 1]).
+	private float[] m_nodeExtents;
+	private int[] m_levelStarts;
+
+	private int[] m_hitBuff;
+
+	/**
+	 * Instantiates a new, empty packed R-tree.
+	 */
+	public PackedRTree() {
+		this(DEFAULT_MAX_BRANCHES);
+	}
+
+	/**
+	 * Instantiates a new, empty packed R-tree with the specified branching
+	 * factor.
+	 * @param maxBranches the branching factor of this tree.
+	 * @exception IllegalArgumentException if maxBranches is less than two.
+	 */
+	public PackedRTree(final int maxBranches) {
+		if (maxBranches < 2)
+			throw new IllegalArgumentException("maxBranches is less than two");
+
+		m_maxBranches = maxBranches;
+		m_hitBuff = new int[16];
+		empty();
+	}
+
+	/**
+	 * Instantiates a new packed R-tree that holds the specified entries.
+	 * @param objKeys the entries; must be non-negative and distinct.
+	 * @param extentsArr the extents of the entries, four values
+	 *   { xMin, yMin, xMax, yMax } per entry.
+	 * @param zOrders the z order of the entries, or null if all are zero.
+	 * @param count the number of entries.
+	 * @exception IllegalStateException if an objKey occurs more than once.
+	 * @exception IllegalArgumentException if an objKey is negative or if
+	 *   extents are invalid, as for insert().
+	 */
+	public PackedRTree(final long[] objKeys, final float[] extentsArr, final double[] zOrders,
+	                   final int count) {
+		this(DEFAULT_MAX_BRANCHES);
+
+		ensureCapacity(count);
+
+		for (int i = 0; i < count; i++) {
+			final int e = i * 4;
+			checkEntry(objKeys[i], extentsArr[e], extentsArr[e + 1], extentsArr[e + 2], extentsArr[e + 3]);
+
+			if (lookup(objKeys[i]) >= 0)
+				throw new IllegalStateException("objkey " + objKeys[i] + " is already in this tree");
+
+			addSlot(objKeys[i], extentsArr[e], extentsArr[e + 1], extentsArr[e + 2], extentsArr[e + 3],
+			        (zOrders == null) ? 0.0 : zOrders[i]);
+		}
+
+		pack();
+	}
+
+	/**
+	 * Empties this R-tree of all entries.
+	 */
+	public final void empty() {
+		m_objKeys = new long[16];
+		m_extents = new float[64];
+		m_zOrders = new double[16];
+		m_slotCount = 0;
+		m_packedCount = 0;
+		m_size = 0;
+		m_moveCount = 0;
+		m_needsPacking = false;
+		m_nodeExtents = new float[0];
+		m_levelStarts = new int[] { 0 };
+		initHash(16);
+	}
+
+	/**
+	 * Returns the number of entries currently in this R-tree.
+	 */
+	public final int size() {
+		return m_size;
+	}
+
+	public final boolean exists(final long objKey, final float[] extentsArr, final int offset) {
+		if (objKey < 0)
+			return false;
+
+		final int slot = lookup(objKey);
+
+		if ((slot < 0) || (m_objKeys[slot] < 0))
+			return false;
+
+		if (extentsArr != null)
+			System.arraycopy(m_extents, slot * 4, extentsArr, offset, 4);
+
+		return true;
+	}
+
+	/**
+	 * Inserts a new data entry into this tree.  If objKey was deleted
+	 * earlier and the tree has not been packed since, the entry takes its
+	 * old place in the tree.
+	 * @exception IllegalStateException if objKey is already used for an
+	 *   existing entry in this R-tree.
+	 * @exception IllegalArgumentException if objKey is negative,
+	 *   if xMin is not less than or equal to xMax, or
+	 *   if yMin is not less than or equal to yMax.
+	 * @see SpacialIndex2D#insert(long, float, float, float, float, double)
+	 */
+	public final void insert(final long objKey, final float xMin, final float yMin,
+	                         final float xMax, final float yMax, final double z) {
+		checkEntry(objKey, xMin, yMin, xMax, yMax);
+
+		final int slot = lookup(objKey);
+
+		if (slot >= 0) {
+			if (m_objKeys[slot] >= 0)
+				throw new IllegalStateException("objkey " + objKey + " is already in this tree");
+
+			m_objKeys[slot] = objKey;
+			setExtents(slot, xMin, yMin, xMax, yMax);
+			m_zOrders[slot] = z;
+			m_size++;
+
+			return;
+		}
+
+		ensureCapacity(m_slotCount + 1);
+		addSlot(objKey, xMin, yMin, xMax, yMax, z);
+
+		if ((m_slotCount - m_packedCount) > Math.max(MIN_REPACK_COUNT, m_packedCount / 8))
+			m_needsPacking = true;
+	}
+
+	/**
+	 * Deletes the specified data entry from this tree.  The space the entry
+	 * took up is reclaimed the next time the tree is packed.
+	 * @see SpacialIndex2D#delete(long)
+	 */
+	public final boolean delete(final long objKey) {
+		if (objKey < 0)
+			return false;
+
+		final int slot = lookup(objKey);
+
+		if ((slot < 0) || (m_objKeys[slot] < 0))
+			return false;
+
+		m_objKeys[slot] = -1 - objKey;
+		m_size--;
+
+		final int deleted = m_slotCount - m_size;
+
+		if (deleted > Math.max(MIN_REPACK_COUNT, m_slotCount / 2))
+			m_needsPacking = true;
+
+		return true;
+	}
+
+	public final double getZOrder(final long objKey) {
+		final int slot = (objKey < 0) ? -1 : lookup(objKey);
+
+		if ((slot < 0) || (m_objKeys[slot] < 0))
+			return 0.0;
+
+		return m_zOrders[slot];
+	}
+
+	public final void setZOrder(final long objKey, final double z) {
+		final int slot = (objKey < 0) ? -1 : lookup(objKey);
+
+		if (slot >= 0)
+			m_zOrders[slot] = z;
+	}
+
+	/**
+	 * Returns an enumeration of entries whose extents intersect the
+	 * specified axis-aligned rectangular area, packing the tree first if it
+	 * has degraded.  As with RTree, the enumeration must not be used after
+	 * this tree has been modified.
+	 * @see SpacialIndex2D#queryOverlap(float, float, float, float, float[], int, boolean)
+	 */
+	public final SpacialEntry2DEnumerator queryOverlap(final float xMin, final float yMin,
+	                                                   final float xMax, final float yMax,
+	                                                   final float[] extentsArr, final int offset,
+	                                                   final boolean reverse) {
+		if (!(xMin <= xMax))
+			throw new IllegalArgumentException("xMin <= xMax not true");
+
+		if (!(yMin <= yMax))
+			throw new IllegalArgumentException("yMin <= yMax not true");
+
+		if (m_needsPacking)
+			pack();
+
+		int hitCount = 0;
+
+		if (m_packedCount > 0)
+			hitCount = queryNode(m_levelStarts.length - 2, 0, xMin, yMin, xMax, yMax, hitCount);
+
+		for (int slot = m_packedCount; slot < m_slotCount; slot++)
+			if ((m_objKeys[slot] >= 0) && overlaps(m_extents, slot * 4, xMin, yMin, xMax, yMax))
+				hitCount = addHit(slot, hitCount);
+
+		final int[] hits = Arrays.copyOf(m_hitBuff, hitCount);
+
+		if (extentsArr != null) {
+			float hitXMin = Float.POSITIVE_INFINITY;
+			float hitYMin = Float.POSITIVE_INFINITY;
+			float hitXMax = Float.NEGATIVE_INFINITY;
+			float hitYMax = Float.NEGATIVE_INFINITY;
+
+			for (int i = 0; i < hitCount; i++) {
+				final int e = hits[i] * 4;
+				hitXMin = Math.min(hitXMin, m_extents[e]);
+				hitYMin = Math.min(hitYMin, m_extents[e + 1]);
+				hitXMax = Math.max(hitXMax, m_extents[e + 2]);
+				hitYMax = Math.max(hitYMax, m_extents[e + 3]);
+			}
+
+			extentsArr[offset] = hitXMin;
+			extentsArr[offset + 1] = hitYMin;
+			extentsArr[offset + 2] = hitXMax;
+			extentsArr[offset + 3] = hitYMax;
+		}
+
+		return new HitEnumerator(hits, m_objKeys, m_extents, reverse);
+	}
+
+	/*
+	 * Adds the entries under the specified node that overlap the query
+	 * rectangle to m_hitBuff, in slot order.  Returns the new hit count.
+	 */
+	private int queryNode(final int level, final int node, final float xMin, final float yMin,
+	                      final float xMax, final float yMax, int hitCount) {
+		if (!overlaps(m_nodeExtents, (m_levelStarts[level] + node) * 4, xMin, yMin, xMax, yMax))
+			return hitCount;
+
+		final int first = node * m_maxBranches;
+
+		if (level == 0) {
+			final int last = Math.min(first + m_maxBranches, m_packedCount);
+
+			for (int slot = first; slot < last; slot++)
+				if ((m_objKeys[slot] >= 0) && overlaps(m_extents, slot * 4, xMin, yMin, xMax, yMax))
+					hitCount = addHit(slot, hitCount);
+		} else {
+			final int last = Math.min(first + m_maxBranches,
+			                          m_levelStarts[level] - m_levelStarts[level - 1]);
+
+			for (int child = first; child < last; child++)
+				hitCount = queryNode(level - 1, child, xMin, yMin, xMax, yMax, hitCount);
+		}
+
+		return hitCount;
+	}
+
+	private int addHit(final int slot, final int hitCount) {
+		if (hitCount == m_hitBuff.length)
+			m_hitBuff = Arrays.copyOf(m_hitBuff, hitCount * 2);
+
+		m_hitBuff[hitCount] = slot;
+
+		return hitCount + 1;
+	}
+
+	private final static boolean overlaps(final float[] extents, final int e, final float xMin,
+	                                      final float yMin, final float xMax, final float yMax) {
+		return (extents[e] <= xMax) && (extents[e + 1] <= yMax)
+		       && (extents[e + 2] >= xMin) && (extents[e + 3] >= yMin);
+	}
+
+	private final static void checkEntry(final long objKey, final float xMin, final float yMin,
+	                                     final float xMax, final float yMax) {
+		if (objKey < 0)
+			throw new IllegalArgumentException("objKey is negative");
+
+		if (!(xMin <= xMax))
+			throw new IllegalArgumentException("xMin <= xMax not true: xMin " + xMin + " xMax " + xMax);
+
+		if (!(yMin <= yMax))
+			throw new IllegalArgumentException("yMin <= yMax not true: yMin " + yMin + " yMax " + yMax);
+	}
+
+	/*
+	 * Sets the extents of a live slot.  If the slot is covered by the tree,
+	 * the nodes above it are grown to fit, and the move is counted if that
+	 * was necessary.
+	 */
+	private void setExtents(final int slot, final float xMin, final float yMin, final float xMax,
+	                        final float yMax) {
+		final int e = slot * 4;
+		m_extents[e] = xMin;
+		m_extents[e + 1] = yMin;
+		m_extents[e + 2] = xMax;
+		m_extents[e + 3] = yMax;
+
+		if (slot >= m_packedCount)
+			return;
+
+		boolean grown = false;
+		int node = slot / m_maxBranches;
+
+		for (int level = 0; level < m_levelStarts.length - 1; level++) {
+			final int n = (m_levelStarts[level] + node) * 4;
+
+			if ((m_nodeExtents[n] <= xMin) && (m_nodeExtents[n + 1] <= yMin)
+			    && (m_nodeExtents[n + 2] >= xMax) && (m_nodeExtents[n + 3] >= yMax))
+				break; // The nodes above contain this one.
+
+			m_nodeExtents[n] = Math.min(m_nodeExtents[n], xMin);
+			m_nodeExtents[n + 1] = Math.min(m_nodeExtents[n + 1], yMin);
+			m_nodeExtents[n + 2] = Math.max(m_nodeExtents[n + 2], xMax);
+			m_nodeExtents[n + 3] = Math.max(m_nodeExtents[n + 3], yMax);
+			grown = true;
+			node /= m_maxBranches;
+		}
+
+		if (grown && (++m_moveCount > Math.max(MIN_REPACK_COUNT, m_packedCount / 4)))
+			m_needsPacking = true;
+	}
+
+	private void addSlot(final long objKey, final float xMin, final float yMin, final float xMax,
+	                     final float yMax, final double z) {
+		final int slot = m_slotCount++;
+		final int e = slot * 4;
+		m_objKeys[slot] = objKey;
+		m_extents[e] = xMin;
+		m_extents[e + 1] = yMin;
+		m_extents[e + 2] = xMax;
+		m_extents[e + 3] = yMax;
+		m_zOrders[slot] = z;
+		m_size++;
+		hashPut(objKey, slot);
+	}
+
+	private void ensureCapacity(final int slotCount) {
+		if (slotCount > m_objKeys.length) {
+			final int capacity = Math.max(slotCount, m_objKeys.length * 2);
+			m_objKeys = Arrays.copyOf(m_objKeys, capacity);
+			m_extents = Arrays.copyOf(m_extents, capacity * 4);
+			m_zOrders = Arrays.copyOf(m_zOrders, capacity);
+		}
+
+		if ((slotCount * 2) > m_hashKeys.length) {
+			initHash(slotCount * 2);
+
+			for (int slot = 0; slot < m_slotCount; slot++)
+				hashPut(key(slot), slot);
+		}
+	}
+
+	private long key(final int slot) {
+		final long k = m_objKeys[slot];
+
+		return (k < 0) ? (-1 - k) : k;
+	}
+
+	/*
+	 * Packs all live entries with the sort-tile-recursive algorithm: the
+	 * entries are sorted by the x coordinate of their centers and cut into
+	 * about sqrt(N / B) vertical slabs, and each slab is sorted by y.  Every B
+	 * consecutive entries then form a leaf node.  Slabs alternate between
+	 * ascending and descending y so that consecutive leaves stay close, which
+	 * keeps the higher levels, built from consecutive nodes, tight as well.
+	 */
+	private void pack() {
+		final int n = m_size;
+		final long[] order = new long[n];
+		int count = 0;
+
+		for (int slot = 0; slot < m_slotCount; slot++)
+			if (m_objKeys[slot] >= 0)
+				order[count++] = sortKey(m_extents[slot * 4] + m_extents[slot * 4 + 2], slot);
+
+		Arrays.sort(order);
+
+		final int leafCount = (n + m_maxBranches - 1) / m_maxBranches;
+		final int slabSize = (int) Math.ceil(Math.sqrt(leafCount)) * m_maxBranches;
+
+		for (int start = 0, slab = 0; start < n; start += slabSize, slab++) {
+			final int end = Math.min(start + slabSize, n);
+
+			for (int i = start; i < end; i++) {
+				final int slot = (int) order[i];
+				final float y = m_extents[slot * 4 + 1] + m_extents[slot * 4 + 3];
+				order[i] = sortKey(((slab & 1) == 0) ? y : -y, slot);
+			}
+
+			Arrays.sort(order, start, end);
+		}
+
+		final long[] objKeys = new long[Math.max(16, n)];
+		final float[] extents = new float[objKeys.length * 4];
+		final double[] zOrders = new double[objKeys.length];
+
+		for (int i = 0; i < n; i++) {
+			final int slot = (int) order[i];
+			objKeys[i] = m_objKeys[slot];
+			System.arraycopy(m_extents, slot * 4, extents, i * 4, 4);
+			zOrders[i] = m_zOrders[slot];
+		}
+
+		m_objKeys = objKeys;
+		m_extents = extents;
+		m_zOrders = zOrders;
+		m_slotCount = n;
+		m_packedCount = n;
+		m_moveCount = 0;
+		m_needsPacking = false;
+
+		initHash(Math.max(16, n * 2));
+
+		for (int slot = 0; slot < n; slot++)
+			hashPut(objKeys[slot], slot);
+
+		buildNodes();
+	}
+
+	/*
+	 * Computes the extents of all tree nodes from the packed entries.
+	 */
+	private void buildNodes() {
+		int levels = 0;
+		int total = 0;
+
+		if (m_packedCount > 0) {
+			int count = m_packedCount;
+
+			do {
+				count = (count + m_maxBranches - 1) / m_maxBranches;
+				total += count;
+				levels++;
+			} while (count > 1);
+		}
+
+		m_levelStarts = new int[levels + 1];
+		m_nodeExtents = new float[total * 4];
+
+		for (int level = 0, childCount = m_packedCount; level < levels; level++) {
+			final int nodeCount = (childCount + m_maxBranches - 1) / m_maxBranches;
+			final int start = m_levelStarts[level];
+			final float[] childExtents = (level == 0) ? m_extents : m_nodeExtents;
+			final int childStart = (level == 0) ? 0 : m_levelStarts[level - 1];
+			m_levelStarts[level + 1] = start + nodeCount;
+
+			for (int node = 0; node < nodeCount; node++) {
+				float xMin = Float.POSITIVE_INFINITY;
+				float yMin = Float.POSITIVE_INFINITY;
+				float xMax = Float.NEGATIVE_INFINITY;
+				float yMax = Float.NEGATIVE_INFINITY;
+				final int last = Math.min((node + 1) * m_maxBranches, childCount);
+
+				for (int child = node * m_maxBranches; child < last; child++) {
+					final int c = (childStart + child) * 4;
+					xMin = Math.min(xMin, childExtents[c]);
+					yMin = Math.min(yMin, childExtents[c + 1]);
+					xMax = Math.max(xMax, childExtents[c + 2]);
+					yMax = Math.max(yMax, childExtents[c + 3]);
+				}
+
+				final int e = (start + node) * 4;
+				m_nodeExtents[e] = xMin;
+				m_nodeExtents[e + 1] = yMin;
+				m_nodeExtents[e + 2] = xMax;
+				m_nodeExtents[e + 3] = yMax;
+			}
+
+			childCount = nodeCount;
+		}
+	}
+
+	/*
+	 * Packs a float and a slot into a long whose natural order is the order
+	 * of the floats.
+	 */
+	private final static long sortKey(final float value, final int slot) {
+		int bits = Float.floatToIntBits(value);
+		bits ^= (bits >> 31) & 0x7fffffff;
+
+		return (((long) bits) << 32) | (slot & 0xffffffffL);
+	}
+
+	private void initHash(final int minCapacity) {
+		final int capacity = Integer.highestOneBit(Math.max(16, minCapacity) - 1) << 1;
+		m_hashKeys = new long[capacity];
+		m_hashSlots = new int[capacity];
+		m_hashShift = 64 - Integer.numberOfTrailingZeros(capacity);
+		Arrays.fill(m_hashKeys, -1L);
+	}
+
+	private int bucket(final long objKey) {
+		return (int) ((objKey * 0x9E3779B97F4A7C15L) >>> m_hashShift);
+	}
+
+	private int lookup(final long objKey) {
+		final int mask = m_hashKeys.length - 1;
+
+		for (int b = bucket(objKey);; b = (b + 1) & mask) {
+			final long k = m_hashKeys[b];
+
+			if (k == objKey)
+				return m_hashSlots[b];
+
+			if (k < 0)
+				return -1;
+		}
+	}
+
+	private void hashPut(final long objKey, final int slot) {
+		final int mask = m_hashKeys.length - 1;
+		int b = bucket(objKey);
+
+		while (m_hashKeys[b] >= 0)
+			b = (b + 1) & mask;
+
+		m_hashKeys[b] = objKey;
+		m_hashSlots[b] = slot;
+	}
+
+	private final static class HitEnumerator implements SpacialEntry2DEnumerator {
+		private final int[] hits;
+		private final long[] objKeys;
+		private final float[] extents;
+		private final boolean reverse;
+		private int index;
+
+		HitEnumerator(final int[] hits, final long[] objKeys, final float[] extents,
+		              final boolean reverse) {
+			this.hits = hits;
+			this.objKeys = objKeys;
+			this.extents = extents;
+			this.reverse = reverse;
+		}
+
+		public final int numRemaining() {
+			return hits.length - index;
+		}
+
+		public final long nextLong() {
+			return objKeys[next()];
+		}
+
+		public final long nextExtents(final float[] extentsArr, final int offset) {
+			final int slot = next();
+			System.arraycopy(extents, slot * 4, extentsArr, offset, 4);
+
+			return objKeys[slot];
+		}
+
+		private int next() {
+			final int i = index++;
+
+			return hits[reverse ? (hits.length - 1 - i) : i];
+		}
+	}
+}
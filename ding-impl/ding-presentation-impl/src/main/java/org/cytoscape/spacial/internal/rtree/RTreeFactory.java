@@ -32,4 +32,8 @@ public class RTreeFactory implements SpacialIndex2DFactory {
 	public SpacialIndex2D createSpacialIndex2D() {
 		return new RTree();
 	}
+
+	public SpacialIndex2D createSpacialIndex2D(long[] objKeys, float[] extentsArr, double[] zOrders, int count) {
+		return new PackedRTree(objKeys, extentsArr, zOrders, count);
+	}
 }
@@ -184,26 +184,25 @@ public final class LongObjHash implements java.io.Serializable {
 	 * Returns the value bound to the specified key or null if no value is
 	 * currently bound to the specified key.<p>
 	 * Searches in this hashtable are performed in [amortized] time
-	 * complexity O(1).
+	 * complexity O(1).<p>
+	 * This method does not modify the hashtable, so it may be called from
+	 * several threads at once as long as no thread is modifying it.
 	 * @exception IllegalArgumentException if key is negative.
 	 */
 	public final Object get(final long key) {
 		if (key < 0)
 			throw new IllegalArgumentException("key is negative");
 
-		if (key != m_prevKey) {
-			int incr = 0;
+		int incr = 0;
+		int inx;
 
-			for (m_prevInx = (int)(key % (long)m_keys.length);
-			     (m_keys[m_prevInx] >= 0) && (m_keys[m_prevInx] != key);
-			     m_prevInx = (int)((m_prevInx + incr) % (long)m_keys.length))
-				if (incr == 0)
-					incr = 1 + (int)(key % (long)(m_keys.length - 1));
-
-			m_prevKey = key;
-		}
+		for (inx = (int)(key % (long)m_keys.length);
+		     (m_keys[inx] >= 0) && (m_keys[inx] != key);
+		     inx = (int)((inx + incr) % (long)m_keys.length))
+			if (incr == 0)
+				incr = 1 + (int)(key % (long)(m_keys.length - 1));
 
-		return m_vals[m_prevInx];
+		return m_vals[inx];
 	}
 
 	/**
@@ -0,0 +1,105 @@
+package org.cytoscape.ding.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Paint;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DetailsStoreTest {
+
+	private DetailsStore store;
+	private DetailsStore.ObjectColumn<Paint> paints;
+	private DetailsStore.DoubleColumn widths;
+	private DetailsStore.IntColumn transparencies;
+	private DetailsStore.BooleanColumn visible;
+
+	@Before
+	public void setUp() {
+		store = new DetailsStore();
+		paints = store.newObjectColumn();
+		widths = store.newDoubleColumn();
+		transparencies = store.newIntColumn();
+		visible = store.newBooleanColumn();
+	}
+
+	@Test
+	public void testUnsetValues() {
+		final int slot = store.allocate();
+
+		assertNull(paints.get(slot));
+		assertFalse(widths.isSet(slot));
+		assertTrue(Double.isNaN(widths.get(slot)));
+		assertFalse(transparencies.isSet(slot));
+		assertNull(visible.get(slot));
+
+		// Writes and reads for removed views are ignored.
+		paints.put(-1, Color.RED);
+		assertNull(paints.get(-1));
+	}
+
+	@Test
+	public void testPutGetRemove() {
+		final int a = store.allocate();
+		final int b = store.allocate();
+
+		paints.put(a, Color.RED);
+		widths.put(b, 2.5);
+		transparencies.put(a, 0);
+		visible.put(b, false);
+
+		assertEquals(Color.RED, paints.get(a));
+		assertNull(paints.get(b));
+		assertEquals(2.5, widths.get(b), 0.0);
+		assertFalse(widths.isSet(a));
+		assertEquals(0, transparencies.get(a));
+		assertEquals(Boolean.FALSE, visible.get(b));
+
+		paints.remove(a);
+		widths.remove(b);
+		assertNull(paints.get(a));
+		assertFalse(widths.isSet(b));
+	}
+
+	@Test
+	public void testColumnsGrow() {
+		int last = -1;
+		for (int i = 0; i < 1000; i++)
+			last = store.allocate();
+
+		widths.put(last, 7.0);
+		widths.put(0, 1.0);
+		assertEquals(7.0, widths.get(last), 0.0);
+		assertEquals(1.0, widths.get(0), 0.0);
+		assertFalse(widths.isSet(500));
+	}
+
+	@Test
+	public void testReleasedSlotIsClearedAndReused() {
+		final int a = store.allocate();
+		paints.put(a, Color.BLUE);
+		transparencies.put(a, 100);
+
+		store.release(a);
+		final int b = store.allocate();
+
+		assertEquals(a, b);
+		assertNull(paints.get(b));
+		assertFalse(transparencies.isSet(b));
+	}
+
+	@Test
+	public void testClearKeepsSlots() {
+		final int a = store.allocate();
+		paints.put(a, Color.BLUE);
+
+		store.clear();
+		assertNull(paints.get(a));
+		assertEquals(a + 1, store.allocate());
+	}
+}
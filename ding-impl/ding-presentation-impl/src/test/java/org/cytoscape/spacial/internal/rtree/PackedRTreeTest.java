@@ -0,0 +1,186 @@
+package org.cytoscape.spacial.internal.rtree;
+
+/*
+ * #%L
+ * Cytoscape Ding View/Presentation Impl (ding-presentation-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.cytoscape.spacial.SpacialEntry2DEnumerator;
+import org.cytoscape.spacial.SpacialIndex2D;
+import org.junit.Test;
+
+/**
+ * Checks PackedRTree against RTree, which serves as the reference.
+ */
+public class PackedRTreeTest {
+
+	private static final int N = 5000;
+
+	@Test
+	public void testBulkLoadMatchesIncrementalTree() {
+		final Random random = new Random(17);
+		final long[] keys = new long[N];
+		final float[] extents = new float[N * 4];
+		final RTree reference = new RTree();
+
+		for (int i = 0; i < N; i++) {
+			keys[i] = i * 3 + 1;
+			randomExtents(random, extents, i * 4);
+			reference.insert(keys[i], extents[i * 4], extents[i * 4 + 1], extents[i * 4 + 2], extents[i * 4 + 3], 0.0);
+		}
+
+		final PackedRTree tree = new PackedRTree(keys, extents, null, N);
+		assertEquals(N, tree.size());
+		assertSameQueries(random, reference, tree);
+
+		final float[] buff = new float[4];
+		assertTrue(tree.exists(keys[42], buff, 0));
+		assertArrayEquals(Arrays.copyOfRange(extents, 42 * 4, 43 * 4), buff, 0.0f);
+		assertFalse(tree.exists(2, buff, 0));
+	}
+
+	@Test
+	public void testUpdatesMatchIncrementalTree() {
+		final Random random = new Random(23);
+		final RTree reference = new RTree();
+		final SpacialIndex2D tree = new RTreeFactory().createSpacialIndex2D(null, null, null, 0);
+		final float[] e = new float[4];
+
+		for (int i = 0; i < N; i++) {
+			randomExtents(random, e, 0);
+			reference.insert(i, e[0], e[1], e[2], e[3], i);
+			tree.insert(i, e[0], e[1], e[2], e[3], i);
+		}
+
+		assertSameQueries(random, reference, tree);
+
+		// Move nodes the way DNodeView does, delete some and add new ones.
+		for (int i = 0; i < N * 2; i++) {
+			final long key = random.nextInt(N + N / 2);
+			randomExtents(random, e, 0);
+
+			if (random.nextInt(4) == 0) {
+				assertEquals(reference.delete(key), tree.delete(key));
+			} else if (reference.delete(key)) {
+				assertTrue(tree.delete(key));
+				reference.insert(key, e[0], e[1], e[2], e[3], key);
+				tree.insert(key, e[0], e[1], e[2], e[3], key);
+			} else {
+				reference.insert(key, e[0], e[1], e[2], e[3], key);
+				tree.insert(key, e[0], e[1], e[2], e[3], key);
+			}
+
+			if ((i % 1000) == 0)
+				assertSameQueries(random, reference, tree);
+		}
+
+		assertEquals(reference.size(), tree.size());
+		assertSameQueries(random, reference, tree);
+
+		for (long key = 0; key < N + N / 2; key++) {
+			assertEquals(reference.exists(key, null, 0), tree.exists(key, null, 0));
+
+			if (reference.exists(key, null, 0))
+				assertEquals(reference.getZOrder(key), tree.getZOrder(key), 0.0);
+		}
+	}
+
+	@Test
+	public void testReverseQuery() {
+		final Random random = new Random(5);
+		final long[] keys = new long[100];
+		final float[] extents = new float[400];
+
+		for (int i = 0; i < 100; i++) {
+			keys[i] = i;
+			randomExtents(random, extents, i * 4);
+		}
+
+		final PackedRTree tree = new PackedRTree(keys, extents, null, 100);
+		final long[] forward = toArray(tree.queryOverlap(0.2f, 0.2f, 0.8f, 0.8f, null, 0, false));
+		final long[] backward = toArray(tree.queryOverlap(0.2f, 0.2f, 0.8f, 0.8f, null, 0, true));
+
+		for (int i = 0; i < forward.length; i++)
+			assertEquals(forward[i], backward[forward.length - 1 - i]);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testDuplicateInsert() {
+		final PackedRTree tree = new PackedRTree();
+		tree.insert(1, 0, 0, 1, 1, 0.0);
+		tree.insert(1, 0, 0, 1, 1, 0.0);
+	}
+
+	private static void assertSameQueries(final Random random, final SpacialIndex2D reference,
+	                                      final SpacialIndex2D tree) {
+		assertEquals(reference.size(), tree.size());
+		assertSameQuery(reference, tree, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY,
+		                Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+
+		for (int i = 0; i < 50; i++) {
+			final float x = random.nextFloat();
+			final float y = random.nextFloat();
+			final float size = random.nextFloat() * 0.2f;
+			assertSameQuery(reference, tree, x, y, x + size, y + size);
+		}
+	}
+
+	private static void assertSameQuery(final SpacialIndex2D reference, final SpacialIndex2D tree,
+	                                    final float xMin, final float yMin, final float xMax, final float yMax) {
+		final float[] expectedMBR = new float[4];
+		final float[] actualMBR = new float[4];
+		final long[] expected = toArray(reference.queryOverlap(xMin, yMin, xMax, yMax, expectedMBR, 0, false));
+		final long[] actual = toArray(tree.queryOverlap(xMin, yMin, xMax, yMax, actualMBR, 0, false));
+		Arrays.sort(expected);
+		Arrays.sort(actual);
+		assertArrayEquals(expected, actual);
+
+		if (expected.length > 0)
+			assertArrayEquals(expectedMBR, actualMBR, 0.0f);
+	}
+
+	private static long[] toArray(final SpacialEntry2DEnumerator hits) {
+		final long[] ret = new long[hits.numRemaining()];
+
+		for (int i = 0; i < ret.length; i++)
+			ret[i] = hits.nextLong();
+
+		return ret;
+	}
+
+	private static void randomExtents(final Random random, final float[] extents, final int offset) {
+		final float x = random.nextFloat();
+		final float y = random.nextFloat();
+		extents[offset] = x;
+		extents[offset + 1] = y;
+		extents[offset + 2] = x + random.nextFloat() * 0.02f;
+		extents[offset + 3] = y + random.nextFloat() * 0.02f;
+	}
+}
@@ -0,0 +1,174 @@
+package org.cytoscape.spacial.internal.rtree;
+
+/*
+ * #%L
+ * Cytoscape Ding View/Presentation Impl Performance (ding-impl-performance-debug)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.cytoscape.spacial.SpacialEntry2DEnumerator;
+import org.cytoscape.spacial.SpacialIndex2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the incremental {@link RTree} with the bulk loaded
+ * {@link PackedRTree}: building an index of N node extents, applying a layout
+ * that moves every node, and queryOverlap() with a viewport that covers about
+ * 1% of the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RTreeBenchmark {
+
+	@Param({ "10000", "100000", "500000" })
+	public int nodeCount;
+
+	private long[] keys;
+	private float[] extents;
+	private float[] layoutExtents;
+	private float[] viewports;
+
+	private RTree rtree;
+	private PackedRTree packedTree;
+	private int viewport;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(42);
+		final float side = (float) Math.sqrt(nodeCount) * 100.0f;
+
+		keys = new long[nodeCount];
+		extents = randomExtents(random, side);
+		layoutExtents = randomExtents(random, side);
+
+		for (int i = 0; i < nodeCount; i++)
+			keys[i] = i;
+
+		viewports = new float[64 * 2];
+
+		for (int i = 0; i < viewports.length; i++)
+			viewports[i] = random.nextFloat() * side * 0.9f;
+
+		rtree = buildRTree();
+		packedTree = new PackedRTree(keys, extents, null, nodeCount);
+	}
+
+	private float[] randomExtents(final Random random, final float side) {
+		final float[] ret = new float[nodeCount * 4];
+
+		for (int i = 0; i < nodeCount; i++) {
+			final float x = random.nextFloat() * side;
+			final float y = random.nextFloat() * side;
+			ret[i * 4] = x;
+			ret[i * 4 + 1] = y;
+			ret[i * 4 + 2] = x + 40.0f;
+			ret[i * 4 + 3] = y + 40.0f;
+		}
+
+		return ret;
+	}
+
+	private RTree buildRTree() {
+		final RTree tree = new RTree();
+
+		for (int i = 0; i < nodeCount; i++)
+			tree.insert(keys[i], extents[i * 4], extents[i * 4 + 1], extents[i * 4 + 2], extents[i * 4 + 3], 0.0);
+
+		return tree;
+	}
+
+	@Benchmark
+	public SpacialIndex2D buildIncremental() {
+		return buildRTree();
+	}
+
+	@Benchmark
+	public SpacialIndex2D buildPacked() {
+		return new PackedRTree(keys, extents, null, nodeCount);
+	}
+
+	/**
+	 * Applies a layout the way DNodeView does, one delete and insert per
+	 * node, then queries once so that the packed tree is repacked.
+	 */
+	@Benchmark
+	public void layoutIncremental(final Blackhole bh) {
+		applyLayout(buildRTree(), bh);
+	}
+
+	@Benchmark
+	public void layoutPacked(final Blackhole bh) {
+		applyLayout(new PackedRTree(keys, extents, null, nodeCount), bh);
+	}
+
+	private void applyLayout(final SpacialIndex2D tree, final Blackhole bh) {
+		for (int i = 0; i < nodeCount; i++) {
+			final int e = i * 4;
+			tree.delete(keys[i]);
+			tree.insert(keys[i], layoutExtents[e], layoutExtents[e + 1], layoutExtents[e + 2],
+			            layoutExtents[e + 3], 0.0);
+		}
+
+		bh.consume(query(tree));
+	}
+
+	@Benchmark
+	public int queryIncremental() {
+		return query(rtree);
+	}
+
+	@Benchmark
+	public int queryPacked() {
+		return query(packedTree);
+	}
+
+	private int query(final SpacialIndex2D tree) {
+		final float side = (float) Math.sqrt(nodeCount) * 10.0f; // About 1% of the area.
+		final int v = (viewport = (viewport + 2) % viewports.length);
+		final SpacialEntry2DEnumerator hits = tree.queryOverlap(viewports[v], viewports[v + 1],
+		                                                        viewports[v] + side, viewports[v + 1] + side,
+		                                                        null, 0, false);
+		int sum = 0;
+
+		while (hits.numRemaining() > 0)
+			sum += (int) hits.nextLong();
+
+		return sum;
+	}
+}
@@ -1,5 +1,7 @@
 package org.cytoscape.edge.bundler.internal;
 
+import java.util.concurrent.RecursiveAction;
+
 /*
  * #%L
  * Cytoscape Edge Bundler Impl (edge-bundler-impl)
@@ -24,49 +26,39 @@ package org.cytoscape.edge.bundler.internal;
  * #L%
  */
 
-public final class EdgeBundlerRunner implements Runnable {
+/**
+ * Runs an edge bundler pass over a range of edge indices on a fork-join pool,
+ * splitting the range in halves until it is no longer than the grain size.
+ * Each edge must only be written by the pass for its own index.
+ */
+final class EdgeBundlerRunner extends RecursiveAction {
 
-	private final int ni;
-	private final int numNubs;
-	private final boolean[][] edgeAlign;
-	private final double[][][] nubs;
-	private final double[][][] forces;
-	private final double[][] edgeCompatability;
-	private final int[][] edgeMatcher;
+	private static final long serialVersionUID = 2839541367519402514L;
 
-	public EdgeBundlerRunner(final int ni, final int numNubs, final boolean[][] edgeAlign, final double[][][] nubs, final double[][][] forces,
-			final double[][] edgeCompatability, final int[][] edgeMatcher) {
-		this.ni = ni;
-		this.numNubs = numNubs;
-		this.edgeAlign = edgeAlign;
-		this.nubs = nubs;
-		this.forces = forces;
-		this.edgeCompatability = edgeCompatability;
-		this.edgeMatcher = edgeMatcher;
+	@FunctionalInterface
+	interface EdgePass {
+		void run(int from, int to);
 	}
 
-	@Override
-	public void run() {
-		final int size = edgeAlign.length;
-		for (int ei = 0; ei < size; ei++)
-			for (int em = 0; em < edgeMatcher[ei].length; em++) {
-				final int ej = edgeMatcher[ei][em];
-				final int nj = (edgeAlign[ei][ej]) ? ni : numNubs - ni - 1;
-
-				final double diffx = (nubs[ni][0][ei] - nubs[nj][0][ej]);
-				final double diffy = (nubs[ni][1][ei] - nubs[nj][1][ej]);
+	private final EdgePass pass;
+	private final int from;
+	private final int to;
+	private final int grain;
 
-				if (Math.abs(diffx) > 1) {
-					final double fx = edgeCompatability[ei][ej] / diffx;
-					forces[ni][0][ei] -= fx;
-					forces[nj][0][ej] += fx;
-				}
+	EdgeBundlerRunner(final EdgePass pass, final int from, final int to, final int grain) {
+		this.pass = pass;
+		this.from = from;
+		this.to = to;
+		this.grain = grain;
+	}
 
-				if (Math.abs(diffy) > 1) {
-					final double fy = edgeCompatability[ei][ej] / diffy;
-					forces[ni][1][ei] -= fy;
-					forces[nj][1][ej] += fy;
-				}
-			}
+	@Override
+	protected void compute() {
+		if (to - from <= grain) {
+			pass.run(from, to);
+		} else {
+			final int mid = (from + to) >>> 1;
+			invokeAll(new EdgeBundlerRunner(pass, from, mid, grain), new EdgeBundlerRunner(pass, mid, to, grain));
+		}
 	}
 }
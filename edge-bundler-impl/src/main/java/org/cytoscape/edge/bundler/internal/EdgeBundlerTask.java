@@ -6,13 +6,13 @@ import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_X
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_Y_LOCATION;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
 
 import org.cytoscape.model.CyColumn;
 import org.cytoscape.model.CyEdge;
@@ -74,6 +74,16 @@ public class EdgeBundlerTask extends AbstractNetworkViewTask {
 	
 	private static final String BEND_MAP_COLUMN = "BEND_MAP_ID";
 
+	/** Minimum number of edges processed by one fork-join task */
+	private static final int MIN_EDGES_PER_TASK = 64;
+
+	/**
+	 * Relative slack of the distance and length bounds that rule out edge pairs
+	 * before their compatibility is computed, so rounding never excludes a pair
+	 * the full computation would accept.
+	 */
+	private static final double BOUND_SLACK = 1e-6;
+
 	@Tunable(description = "Number of handles:")
 	public int numNubs = 3;
 
@@ -91,10 +101,14 @@ public class EdgeBundlerTask extends AbstractNetworkViewTask {
 
 	private double[][][] edgePos; // source/target, X/Y, edgeIndex
 	private double[][][] nubs; // nubLocation, X/Y, edgeIndex
-	private double[][] edgeCompatability;
-	private boolean[][] edgeAlign;
 	private double[] edgeLength;
-	private int[][] edgeMatcher;
+
+	// The compatible edges of edge ei are edgeMatcher[matchStart[ei]] to edgeMatcher[matchStart[ei + 1] - 1],
+	// with the compatibility and alignment of each pair at the same index
+	private int[] matchStart;
+	private int[] edgeMatcher;
+	private double[] edgeCompatability;
+	private boolean[] edgeAlign;
 
 	private int numEdges;
 	private int selection;
@@ -202,8 +216,12 @@ public class EdgeBundlerTask extends AbstractNetworkViewTask {
 			ei++;
 		}
 
+		tm.setStatusMessage("Finding compatible edges");
 		computeEdgeCompatability();
 
+		if (this.cancelled)
+			return;
+
 		// Simulating physics
 		tm.setStatusMessage("Simulating physics");
 		double time = System.nanoTime();
@@ -324,32 +342,161 @@ public class EdgeBundlerTask extends AbstractNetworkViewTask {
 		}
 	}
 
+	/**
+	 * Finds all pairs of edges whose compatibility is above the threshold.
+	 * <p>
+	 * Since none of the compatibility factors is larger than 1, a pair can only
+	 * be compatible if both its position and its scale compatibility are above
+	 * the threshold. The first means that the distance of the midpoints is less
+	 * than lavg * (1 - threshold) / threshold, where the average length of the
+	 * pair is at most the length of the longer edge, and the second bounds the
+	 * ratio of the lengths. So each edge only needs to look for shorter edges
+	 * of a similar length within that distance of its midpoint, which grids
+	 * over the midpoints of edges of similar lengths find without comparing
+	 * all pairs.
+	 */
 	private void computeEdgeCompatability() {
-		edgeCompatability = new double[edgeLength.length][];
-		edgeAlign = new boolean[edgeLength.length][];
-		edgeMatcher = new int[edgeLength.length][];
+		final int numEdges = edgeLength.length;
+		final double[] midX = new double[numEdges];
+		final double[] midY = new double[numEdges];
+
+		for (int ei = 0; ei < numEdges; ei++) {
+			midX[ei] = (edgePos[1][0][ei] + edgePos[0][0][ei]) / 2.0;
+			midY[ei] = (edgePos[1][1][ei] + edgePos[0][1][ei]) / 2.0;
+		}
+
+		final double threshold = COMPATABILITY_THRESHOLD / (1.0 + BOUND_SLACK);
+		final double reach = threshold > 0.0 ? (1.0 - threshold) / threshold : Double.POSITIVE_INFINITY;
+		final double maxRatio = maxLengthRatio(threshold);
 
-		edgeMatcher[0] = new int[0];
+		// One grid per length class, where lengths in class k are in [2^k, 2^(k+1))
+		final int[] lengthClass = new int[numEdges];
+		final int[] edgesByClass = new int[numEdges];
 
-		for (int ei = 1; ei < edgeLength.length; ei++) {
-			edgeCompatability[ei] = new double[ei];
-			edgeAlign[ei] = new boolean[ei];
+		for (int ei = 0; ei < numEdges; ei++)
+			lengthClass[ei] = Math.getExponent(edgeLength[ei]) - Double.MIN_EXPONENT + 1;
 
-			List<Integer> compatibleEdges = new ArrayList<Integer>(1000);
-			for (int ej = 0; ej < ei; ej++) {
-				edgeCompatability[ei][ej] = cangle(ei, ej) * cscale(ei, ej) * cpos(ei, ej) * cvis(ei, ej);
-				edgeAlign[ei][ej] = cangleSign(ei, ej) > 0;
+		final int[] classStart = new int[Double.MAX_EXPONENT - Double.MIN_EXPONENT + 4];
 
-				if (edgeCompatability[ei][ej] > COMPATABILITY_THRESHOLD)
-					compatibleEdges.add(ej);
+		for (int ei = 0; ei < numEdges; ei++)
+			classStart[lengthClass[ei] + 1]++;
+
+		for (int c = 0; c < classStart.length - 1; c++)
+			classStart[c + 1] += classStart[c];
+
+		final int[] next = Arrays.copyOf(classStart, classStart.length - 1);
+
+		for (int ei = 0; ei < numEdges; ei++)
+			edgesByClass[next[lengthClass[ei]]++] = ei;
+
+		final EdgeMidpointGrid[] grids = new EdgeMidpointGrid[classStart.length - 1];
+
+		for (int c = 0; c < grids.length; c++) {
+			final int count = classStart[c + 1] - classStart[c];
+
+			if (count > 0) {
+				final int[] classEdges = Arrays.copyOfRange(edgesByClass, classStart[c], classStart[c + 1]);
+				grids[c] = new EdgeMidpointGrid(classEdges, count, midX, midY,
+						edgeLength[classEdges[count / 2]] * reach);
 			}
+		}
+
+		// The shorter compatible edges of each edge
+		final CompatibleEdges[] shorter = new CompatibleEdges[numEdges];
+
+		forEachEdge((from, to) -> {
+			for (int ei = from; ei < to && !this.cancelled; ei++) {
+				final int i = ei;
+				final CompatibleEdges found = new CompatibleEdges();
+
+				final int minClass = maxRatio < Double.POSITIVE_INFINITY
+						? Math.getExponent(edgeLength[i] / maxRatio) - Double.MIN_EXPONENT + 1
+						: 0;
+				final IntConsumer candidate = j -> {
+					if (edgeLength[j] > edgeLength[i] || (edgeLength[j] == edgeLength[i] && j >= i))
+						return;
+
+					final double dx = midX[i] - midX[j];
+					final double dy = midY[i] - midY[j];
+					final double maxDistance = (edgeLength[i] + edgeLength[j]) / 2.0 * reach;
+
+					if (dx * dx + dy * dy > maxDistance * maxDistance)
+						return;
+
+					final int ea = Math.max(i, j);
+					final int eb = Math.min(i, j);
+					final double compatability = cangle(ea, eb) * cscale(ea, eb) * cpos(ea, eb) * cvis(ea, eb);
+
+					if (compatability > COMPATABILITY_THRESHOLD)
+						found.add(j, compatability, cangleSign(ea, eb) > 0);
+				};
+
+				final double radius = edgeLength[i] * reach;
+
+				for (int c = minClass; c <= lengthClass[i]; c++) {
+					if (grids[c] != null)
+						grids[c].forEachNear(midX[i], midY[i], Double.isNaN(radius) ? Double.POSITIVE_INFINITY : radius,
+								candidate);
+				}
+
+				shorter[i] = found;
+			}
+		});
+
+		if (this.cancelled)
+			return;
 
-			edgeMatcher[ei] = new int[compatibleEdges.size()];
-			for (int i = 0; i < compatibleEdges.size(); i++)
-				edgeMatcher[ei][i] = compatibleEdges.get(i);
+		// Every pair was found by one of its edges, list it for both
+		matchStart = new int[numEdges + 1];
+
+		for (int ei = 0; ei < numEdges; ei++) {
+			matchStart[ei + 1] += shorter[ei].size;
+
+			for (int k = 0; k < shorter[ei].size; k++)
+				matchStart[shorter[ei].edges[k] + 1]++;
+		}
+
+		for (int ei = 0; ei < numEdges; ei++)
+			matchStart[ei + 1] += matchStart[ei];
+
+		final int[] nextMatch = Arrays.copyOf(matchStart, numEdges);
+		edgeMatcher = new int[matchStart[numEdges]];
+		edgeCompatability = new double[edgeMatcher.length];
+		edgeAlign = new boolean[edgeMatcher.length];
+
+		for (int ei = 0; ei < numEdges; ei++) {
+			final CompatibleEdges found = shorter[ei];
+
+			for (int k = 0; k < found.size; k++) {
+				final int ej = found.edges[k];
+				final int a = nextMatch[ei]++;
+				final int b = nextMatch[ej]++;
+
+				edgeMatcher[a] = ej;
+				edgeMatcher[b] = ei;
+				edgeCompatability[a] = edgeCompatability[b] = found.compatability[k];
+				edgeAlign[a] = edgeAlign[b] = found.align[k];
+			}
 		}
 	}
 
+	/**
+	 * Returns the largest ratio of the lengths of two edges whose scale
+	 * compatibility is above the given threshold. With r = lmax / lmin the
+	 * scale compatibility is 2 / ((1 + r) / 2 + 2r / (1 + r)), which decreases
+	 * as r grows.
+	 */
+	private static double maxLengthRatio(final double threshold) {
+		if (!(threshold > 0.0))
+			return Double.POSITIVE_INFINITY;
+
+		// Solve (1 + r)^2 + (4 - 4 / threshold) (1 + r) - 4 = 0 for 1 + r
+		final double b = 4.0 - 4.0 / threshold;
+		final double s = (-b + Math.sqrt(b * b + 16.0)) / 2.0;
+
+		return Math.max(1.0, s - 1.0);
+	}
+
 	private double cangle(int ei, int ej) {
 		double a = edgePos[1][0][ei] - edgePos[0][0][ei];
 		double b = edgePos[1][1][ei] - edgePos[0][1][ei];
@@ -471,9 +618,33 @@ public class EdgeBundlerTask extends AbstractNetworkViewTask {
 		return new double[] { x, y };
 	}
 
+	/**
+	 * Runs the given pass over all edges on the common fork-join pool.
+	 */
+	private void forEachEdge(final EdgeBundlerRunner.EdgePass pass) {
+		final int numEdges = edgeLength.length;
+		final int parallelism = ForkJoinPool.getCommonPoolParallelism();
+
+		if (parallelism < 2 || numEdges <= MIN_EDGES_PER_TASK) {
+			pass.run(0, numEdges);
+		} else {
+			final int grain = Math.max(MIN_EDGES_PER_TASK, numEdges / (4 * parallelism));
+			ForkJoinPool.commonPool().invoke(new EdgeBundlerRunner(pass, 0, numEdges, grain));
+		}
+	}
+
 	private void updateForces(final double[][][] forces) {
+		forEachEdge((from, to) -> updateForces(forces, from, to));
+	}
+
+	/**
+	 * Computes the forces on the nubs of the edges in the given range. Every
+	 * compatible pair is listed for both of its edges, so each edge only
+	 * writes its own forces.
+	 */
+	private void updateForces(final double[][][] forces, final int from, final int to) {
 		// Spring forces
-		for (int ei = 0; ei < edgeLength.length; ei++) {
+		for (int ei = from; ei < to; ei++) {
 			for (int ni = 0; ni < numNubs; ni++) {
 				if (ni == 0) {
 					forces[ni][0][ei] = nubs[ni][0][ei] - edgePos[0][0][ei];
@@ -495,29 +666,57 @@ public class EdgeBundlerTask extends AbstractNetworkViewTask {
 				forces[ni][1][ei] *= -K;
 
 			}
-		}
 
-		// Electrostatic forces
-		// For parallel processing
-		final ExecutorService exec = Executors.newCachedThreadPool();
-		for (int ni = 0; ni < numNubs; ni++)
-			exec.execute(new EdgeBundlerRunner(ni, numNubs, edgeAlign, nubs, forces, edgeCompatability, edgeMatcher));
+			// Electrostatic forces
+			for (int ni = 0; ni < numNubs; ni++) {
+				for (int em = matchStart[ei]; em < matchStart[ei + 1]; em++) {
+					final int ej = edgeMatcher[em];
+					final int nj = edgeAlign[em] ? ni : numNubs - ni - 1;
 
-		exec.shutdown();
+					final double diffx = (nubs[ni][0][ei] - nubs[nj][0][ej]);
+					final double diffy = (nubs[ni][1][ei] - nubs[nj][1][ej]);
 
-		try {
-			exec.awaitTermination(30, TimeUnit.DAYS);
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-			exec.shutdownNow();
+					if (Math.abs(diffx) > 1)
+						forces[ni][0][ei] -= edgeCompatability[em] / diffx;
+
+					if (Math.abs(diffy) > 1)
+						forces[ni][1][ei] -= edgeCompatability[em] / diffy;
+				}
+			}
 		}
 	}
 
-	private void updateNubs(double[][][] forces) {
-		for (int ei = 0; ei < edgeLength.length; ei++)
-			for (int ni = 0; ni < numNubs; ni++) {
-				nubs[ni][0][ei] += forces[ni][0][ei];
-				nubs[ni][1][ei] += forces[ni][1][ei];
+	private void updateNubs(final double[][][] forces) {
+		forEachEdge((from, to) -> {
+			for (int ei = from; ei < to; ei++)
+				for (int ni = 0; ni < numNubs; ni++) {
+					nubs[ni][0][ei] += forces[ni][0][ei];
+					nubs[ni][1][ei] += forces[ni][1][ei];
+				}
+		});
+	}
+
+	/**
+	 * The compatible edges found by one edge.
+	 */
+	private static final class CompatibleEdges {
+
+		int size;
+		int[] edges = new int[4];
+		double[] compatability = new double[4];
+		boolean[] align = new boolean[4];
+
+		void add(final int edge, final double compatability, final boolean align) {
+			if (size == edges.length) {
+				edges = Arrays.copyOf(edges, size * 2);
+				this.compatability = Arrays.copyOf(this.compatability, size * 2);
+				this.align = Arrays.copyOf(this.align, size * 2);
 			}
+
+			edges[size] = edge;
+			this.compatability[size] = compatability;
+			this.align[size] = align;
+			size++;
+		}
 	}
 }
@@ -0,0 +1,143 @@
+package org.cytoscape.edge.bundler.internal;
+
+import java.util.function.IntConsumer;
+
+/*
+ * #%L
+ * Cytoscape Edge Bundler Impl (edge-bundler-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * A uniform grid over the midpoints of a set of edges, used to find the edges
+ * whose midpoints are near a given point without looking at all the others.
+ * The edges of each cell are kept in ascending order in one array, so queries
+ * are read only and may run concurrently.
+ */
+final class EdgeMidpointGrid {
+
+	/** Upper bound of the number of cells per edge, so sparse networks do not waste memory */
+	private static final int CELLS_PER_EDGE = 4;
+
+	private final double minX;
+	private final double minY;
+	private final double cellSize;
+	private final int sizeX;
+	private final int sizeY;
+
+	/** The edges of cell (x, y) are cellEdges[cellStart[c]] to cellEdges[cellStart[c + 1] - 1], c = x * sizeY + y */
+	private final int[] cellStart;
+	private final int[] cellEdges;
+
+	/**
+	 * @param edges the indices of the edges in the grid, in ascending order
+	 * @param numEdges the number of edges in the grid
+	 * @param midX x coordinates of the midpoints of all edges
+	 * @param midY y coordinates of the midpoints of all edges
+	 * @param preferredCellSize the width of a cell, which is increased if the
+	 *        grid would have too many cells
+	 */
+	EdgeMidpointGrid(final int[] edges, final int numEdges, final double[] midX, final double[] midY,
+			final double preferredCellSize) {
+		double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY;
+		double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+
+		for (int k = 0; k < numEdges; k++) {
+			final int i = edges[k];
+			x0 = Math.min(x0, midX[i]);
+			y0 = Math.min(y0, midY[i]);
+			x1 = Math.max(x1, midX[i]);
+			y1 = Math.max(y1, midY[i]);
+		}
+
+		final double extent = Math.max(x1 - x0, y1 - y0);
+		double size = preferredCellSize;
+
+		if (!(size > 0.0) || Double.isInfinite(size))
+			size = extent > 0.0 ? extent : 1.0;
+
+		final long maxCells = (long) CELLS_PER_EDGE * numEdges + 16;
+
+		while (((long) ((x1 - x0) / size) + 1) * ((long) ((y1 - y0) / size) + 1) > maxCells)
+			size *= 2.0;
+
+		minX = x0;
+		minY = y0;
+		cellSize = size;
+		sizeX = (int) ((x1 - x0) / size) + 1;
+		sizeY = (int) ((y1 - y0) / size) + 1;
+
+		cellStart = new int[sizeX * sizeY + 1];
+
+		for (int k = 0; k < numEdges; k++)
+			cellStart[cell(midX[edges[k]], midY[edges[k]]) + 1]++;
+
+		for (int c = 0; c < sizeX * sizeY; c++)
+			cellStart[c + 1] += cellStart[c];
+
+		final int[] next = new int[sizeX * sizeY];
+		System.arraycopy(cellStart, 0, next, 0, next.length);
+		cellEdges = new int[numEdges];
+
+		for (int k = 0; k < numEdges; k++)
+			cellEdges[next[cell(midX[edges[k]], midY[edges[k]])]++] = edges[k];
+	}
+
+	/**
+	 * Passes every edge whose midpoint is in a cell that overlaps the square
+	 * of the given radius around (x, y) to the consumer, cell by cell, which
+	 * includes all edges whose midpoints are within the radius.
+	 */
+	void forEachNear(final double x, final double y, final double radius, final IntConsumer consumer) {
+		final int cx0 = cellX(x - radius);
+		final int cx1 = cellX(x + radius);
+		final int cy0 = cellY(y - radius);
+		final int cy1 = cellY(y + radius);
+
+		for (int cx = cx0; cx <= cx1; cx++) {
+			for (int cy = cy0; cy <= cy1; cy++) {
+				final int c = cx * sizeY + cy;
+
+				for (int k = cellStart[c]; k < cellStart[c + 1]; k++)
+					consumer.accept(cellEdges[k]);
+			}
+		}
+	}
+
+	private int cell(final double x, final double y) {
+		return cellX(x) * sizeY + cellY(y);
+	}
+
+	private int cellX(final double x) {
+		return clamp(Math.floor((x - minX) / cellSize), sizeX);
+	}
+
+	private int cellY(final double y) {
+		return clamp(Math.floor((y - minY) / cellSize), sizeY);
+	}
+
+	private static int clamp(final double cell, final int size) {
+		if (!(cell > 0.0)) // Also for NaN
+			return 0;
+
+		return cell >= size - 1 ? size - 1 : (int) cell;
+	}
+}
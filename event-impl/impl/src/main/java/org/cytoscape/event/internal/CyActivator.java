@@ -1,10 +1,17 @@
 package org.cytoscape.event.internal;
 
+import java.lang.management.ManagementFactory;
 import java.util.Properties;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.cytoscape.event.CyEventHelper;
 import org.cytoscape.service.util.AbstractCyActivator;
 import org.osgi.framework.BundleContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /*
  * #%L
@@ -32,11 +39,46 @@ import org.osgi.framework.BundleContext;
 
 public class CyActivator extends AbstractCyActivator {
 
+	private static final Logger logger = LoggerFactory.getLogger("org.cytoscape.application.userlog");
+
+	private ObjectName metricsName;
+
 	@Override
 	public void start(BundleContext bc) {
-		CyListenerAdapter cyListenerAdapter = new CyListenerAdapter(bc);
+		EventMetrics eventMetrics = new EventMetrics();
+		CyListenerAdapter cyListenerAdapter = new CyListenerAdapter(bc, eventMetrics);
 		CyEventHelperImpl cyEventHelper = new CyEventHelperImpl(cyListenerAdapter);
 
 		registerService(bc, cyEventHelper, CyEventHelper.class, new Properties());
+		
+		// The metrics are published through JMX so that they can be read without exporting this package.
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(EventMetrics.OBJECT_NAME);
+			
+			if (server.isRegistered(name))
+				server.unregisterMBean(name);
+			
+			server.registerMBean(eventMetrics, name);
+			metricsName = name;
+		} catch (JMException e) {
+			logger.warn("Could not register the event metrics MBean.", e);
+		}
+	}
+
+	@Override
+	public void stop(BundleContext bc) {
+		// The MBean server would otherwise keep this bundle's class loader alive.
+		if (metricsName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(metricsName);
+			} catch (JMException e) {
+				logger.warn("Could not unregister the event metrics MBean.", e);
+			}
+			
+			metricsName = null;
+		}
+		
+		super.stop(bc);
 	}
 }
@@ -1,15 +1,18 @@
 package org.cytoscape.event.internal;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.WeakHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.cytoscape.event.CyEvent;
 import org.cytoscape.event.CyEventHelper;
@@ -47,19 +50,32 @@ public class CyEventHelperImpl implements CyEventHelper {
 
 	private static final Object DUMMY = new Object();
 
+	// Number of pending payloads that triggers a flush before the timer fires.
+	private static final int DEFAULT_FLUSH_THRESHOLD = 10000;
+
 	private final CyListenerAdapter normal;
-	private final Map<Object, Map<Class<?>, PayloadAccumulator<?, ?, ?>>> sourceAccMap;
 	private final ScheduledExecutorService payloadEventMonitor;
-	private final Map<Object, Object> silencedSources;
-	private boolean havePayload;
-
-	private final Object lock = new Object();
+	
+	// Payloads are accumulated in independent stripes, chosen by the hash of the event source,
+	// so that threads adding payloads for different sources don't contend on a single lock.
+	// Silencing is tracked per stripe as well, since a source always maps to the same stripe.
+	private final Stripe[] stripes;
+	private final AtomicLong sourceSequence = new AtomicLong();
+	private final AtomicInteger pendingPayloads = new AtomicInteger();
+	private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+	private final int flushThreshold;
+	private final PayloadFlushMetrics metrics = new PayloadFlushMetrics();
 
 	public CyEventHelperImpl(final CyListenerAdapter normal) {
 		this.normal = normal;
-		sourceAccMap = new LinkedHashMap<>();
+		normal.getEventMetrics().setPayloadFlushMetrics(metrics);
 		payloadEventMonitor = Executors.newSingleThreadScheduledExecutor();
-		silencedSources = new WeakHashMap<>();
+		flushThreshold = Integer.getInteger("payloadFlushThreshold", DEFAULT_FLUSH_THRESHOLD);
+
+		final int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) << 1;
+		stripes = new Stripe[stripeCount];
+		for (int i = 0; i < stripeCount; i++)
+			stripes[i] = new Stripe();
 
 		// This thread just flushes any accumulated payload events.
 		// It is scheduled to run repeatedly at a fixed interval.
@@ -87,8 +103,9 @@ public class CyEventHelperImpl implements CyEventHelper {
 		logger.info("Silencing event source: " + eventSource.toString());
 		normal.silenceEventSource(eventSource);
 
-		synchronized (lock) {
-			silencedSources.put(eventSource, DUMMY);
+		final Stripe stripe = stripeFor(eventSource);
+		synchronized (stripe) {
+			stripe.silencedSources.put(eventSource, DUMMY);
 		}
 	}
 
@@ -100,8 +117,9 @@ public class CyEventHelperImpl implements CyEventHelper {
 		logger.info("Unsilencing event source: " + eventSource.toString());
 		normal.unsilenceEventSource(eventSource);
 		
-		synchronized (lock) {
-			silencedSources.remove(eventSource);
+		final Stripe stripe = stripeFor(eventSource);
+		synchronized (stripe) {
+			stripe.silencedSources.remove(eventSource);
 		}
 	}
 
@@ -114,23 +132,26 @@ public class CyEventHelperImpl implements CyEventHelper {
 			return;
 		}
 		
-		synchronized (lock) {
-			if (silencedSources.containsKey(source))
+		final Stripe stripe = stripeFor(source);
+		final int pending;
+		
+		synchronized (stripe) {
+			if (stripe.silencedSources.containsKey(source))
 				return;
 
-			Map<Class<?>, PayloadAccumulator<?, ?, ?>> cmap = sourceAccMap.get(source);
+			SourceAccumulators cmap = stripe.sourceAccMap.get(source);
 			
 			if (cmap == null) {
-				cmap = new LinkedHashMap<>();
-				sourceAccMap.put(source, cmap);
+				cmap = new SourceAccumulators(source, sourceSequence.getAndIncrement());
+				stripe.sourceAccMap.put(source, cmap);
 			}
 
-			PayloadAccumulator<S, P, E> acc = (PayloadAccumulator<S, P, E>) cmap.get(eventType);
+			PayloadAccumulator<S, P, E> acc = (PayloadAccumulator<S, P, E>) cmap.accumulators.get(eventType);
 
 			if (acc == null) {
 				try {
 					acc = new PayloadAccumulator<>(source, eventType);
-					cmap.put(eventType, acc);
+					cmap.accumulators.put(eventType, acc);
 				} catch (NoSuchMethodException nsme) {
 					logger.warn("Unable to add payload to event, because of missing event constructor.", nsme);
 					return;
@@ -138,48 +159,98 @@ public class CyEventHelperImpl implements CyEventHelper {
 			}
 
 			acc.addPayload(payload);
-			havePayload = true;
+			cmap.payloadCount++;
+			stripe.payloadCount++;
+			// Counted under the stripe lock, like the drain in flushPayloadEvents(),
+			// so the counter is never zero while a payload is waiting in a stripe.
+			pending = pendingPayloads.incrementAndGet();
+		}
+		
+		metrics.payloadAdded();
+		
+		// Don't wait for the timer when a lot of payloads have piled up.
+		if (pending >= flushThreshold && earlyFlushScheduled.compareAndSet(false, true)) {
+			metrics.earlyFlushRequested();
+			try {
+				payloadEventMonitor.execute(() -> {
+					earlyFlushScheduled.set(false);
+					flushPayloadEvents();
+				});
+			} catch (RuntimeException e) {
+				// The monitor has been shut down, the payloads will be flushed by the next fireEvent().
+				earlyFlushScheduled.set(false);
+			}
 		}
 	}
 
 	@Override
 	public void flushPayloadEvents() {
-		List<CyPayloadEvent<?, ?>> flushList;
-
-		synchronized (lock) {
-			if (!havePayload)
-				return;
+		if (pendingPayloads.get() == 0)
+			return;
+		
+		final long begin = System.nanoTime();
+		final List<SourceAccumulators> drained = new ArrayList<>();
 
-			flushList = new ArrayList<>();
-			havePayload = false;
+		for (final Stripe stripe : stripes) {
+			synchronized (stripe) {
+				if (stripe.sourceAccMap.isEmpty())
+					continue;
+				
+				drained.addAll(stripe.sourceAccMap.values());
+				stripe.sourceAccMap = new HashMap<>();
+				pendingPayloads.addAndGet(-stripe.payloadCount);
+				stripe.payloadCount = 0;
+			}
+		}
+		
+		if (drained.isEmpty())
+			return;
+		
+		// Fire in the order in which the sources first received a payload, as if there was a single map.
+		drained.sort(Comparator.comparingLong(cmap -> cmap.sequence));
+		
+		final List<CyPayloadEvent<?, ?>> flushList = new ArrayList<>();
+		int payloadCount = 0;
 
-			Iterator<Entry<Object, Map<Class<?>, PayloadAccumulator<?, ?, ?>>>> iterator = sourceAccMap.entrySet()
-					.iterator();
+		for (final SourceAccumulators cmap : drained) {
+			payloadCount += cmap.payloadCount;
 			
-			while (iterator.hasNext()) {
-				Entry<Object, Map<Class<?>, PayloadAccumulator<?, ?, ?>>> entry = iterator.next();
-				Object source = entry.getKey();
-				
-				for (PayloadAccumulator<?, ?, ?> acc : entry.getValue().values()) {
-					try {
-						CyPayloadEvent<?, ?> event = acc.newEventInstance(source);
-						
-						if (event != null)
-							flushList.add(event);
-					} catch (Exception ie) {
-						logger.warn("Couldn't instantiate event for source: " + source, ie);
-					}
+			for (PayloadAccumulator<?, ?, ?> acc : cmap.accumulators.values()) {
+				try {
+					CyPayloadEvent<?, ?> event = acc.newEventInstance(cmap.source);
+					
+					if (event != null)
+						flushList.add(event);
+				} catch (Exception ie) {
+					logger.warn("Couldn't instantiate event for source: " + cmap.source, ie);
 				}
-				
-				iterator.remove();
 			}
-
 		}
 
+		final EventMetrics eventMetrics = normal.getEventMetrics();
+
 		// Actually fire the events outside of the synchronized block.
 		for (CyPayloadEvent<?, ?> event : flushList) {
+			if (eventMetrics.isEnabled())
+				eventMetrics.payloadFired(event.getClass(), event.getPayloadCollection().size());
+			
 			normal.fireEvent(event);
 		}
+		
+		metrics.flushed(payloadCount, flushList.size(), System.nanoTime() - begin);
+	}
+	
+	/**
+	 * Returns the payload accumulation and flush counters of this event helper.
+	 */
+	public PayloadFlushMetrics getPayloadFlushMetrics() {
+		return metrics;
+	}
+
+	private Stripe stripeFor(final Object source) {
+		int h = source.hashCode();
+		h ^= (h >>> 16);
+		return stripes[h & (stripes.length - 1)];
 	}
 
 	/** 
@@ -188,5 +259,28 @@ public class CyEventHelperImpl implements CyEventHelper {
 	void cleanup() {
 		payloadEventMonitor.shutdown();
 	}
+	
+	/**
+	 * One shard of the pending payloads. All fields are guarded by the stripe's monitor.
+	 */
+	private static final class Stripe {
+		Map<Object, SourceAccumulators> sourceAccMap = new HashMap<>();
+		final Map<Object, Object> silencedSources = new WeakHashMap<>();
+		int payloadCount;
+	}
+	
+	/**
+	 * The accumulators of one event source, in the order their event types were first seen.
+	 */
+	private static final class SourceAccumulators {
+		final Object source;
+		final long sequence;
+		final Map<Class<?>, PayloadAccumulator<?, ?, ?>> accumulators = new LinkedHashMap<>();
+		int payloadCount;
+		
+		SourceAccumulators(final Object source, final long sequence) {
+			this.source = source;
+			this.sequence = sequence;
+		}
+	}
 }
-
@@ -25,6 +25,9 @@ package org.cytoscape.event.internal;
  */
 
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.Arrays;
@@ -47,9 +50,14 @@ public class CyListenerAdapter {
 
 	private static final Object DUMMY = new Object();
 	
-	private final Map<Class<?>,ServiceTracker> serviceTrackers; 
+	// All handles are adapted to this type so that they can be called with invokeExact.
+	private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	
+	private final Map<Class<?>,ListenerCache> listenerCaches; 
+	private final Map<Class<?>,Map<Class<?>,MethodHandle>> handlerCache;
 	private final BundleContext bc;
 	private final Map<Object, Object> silencedSources;
+	private final EventMetrics metrics;
 	private final StringBuilder traceString; 
 	private final boolean printEventTrace;
 	private int fireCount;
@@ -62,8 +70,14 @@ public class CyListenerAdapter {
 	 * @param bc  DOCUMENT ME!
 	 */
 	public CyListenerAdapter(BundleContext bc) {
+		this(bc, new EventMetrics());
+	}
+
+	CyListenerAdapter(BundleContext bc, EventMetrics metrics) {
 		this.bc = bc;
-		serviceTrackers = new ConcurrentHashMap<Class<?>,ServiceTracker>(16, 0.75f, 2);
+		this.metrics = metrics;
+		listenerCaches = new ConcurrentHashMap<Class<?>,ListenerCache>(16, 0.75f, 2);
+		handlerCache = new ConcurrentHashMap<Class<?>,Map<Class<?>,MethodHandle>>(16, 0.75f, 2);
 		silencedSources = new WeakHashMap<Object, Object>();
 
 		// used only for printing a coherent event trace
@@ -90,13 +104,13 @@ public class CyListenerAdapter {
 		
 		final Class<?> listenerClass = event.getListenerClass();
 		
-		final Object[] listeners = getListeners(listenerClass);
+		final Snapshot snapshot = getListenerCache(listenerClass).getSnapshot();
+		final Object[] listeners = snapshot.listeners;
 		if ( listeners == null ) 
 			return;
 	
-	
-		Object lastListener = null;
-		long begin = 0;
+		final boolean timed = metrics.isEnabled() || printEventTrace;
+		final long eventBegin = timed ? System.nanoTime() : 0;
 
 		if ( printEventTrace ) {
 			fireCount++;
@@ -104,56 +118,138 @@ public class CyListenerAdapter {
 		}
 		
 		try {
-			final Method method = listenerClass.getMethod("handleEvent", event.getClass());
+			final MethodHandle handler = getHandler(listenerClass, event.getClass());
 
-			for (final Object listener : listeners) {
+			for (int i = 0; i < listeners.length; i++) {
+				final Object listener = listeners[i];
 				try {
-					lastListener = listener;
-	
 					// This call is VERY memory intensive - only use it for debugging!!!!
 					// logger.debug("event: " + event.getClass().getName() + "  listener: " + listener.getClass().getName());
-					if ( printEventTrace ) {
+					if ( printEventTrace )
 						printTrace(fireCount,"listener: " + listener.getClass().getName());
-						begin = System.currentTimeMillis();
-					}
+
+					final long begin = timed ? System.nanoTime() : 0;
 	
-					method.invoke(listenerClass.cast(listener), event);
+					handler.invokeExact(listener, (Object) event);
 	
-					if ( printEventTrace ) {
-						final long end = System.currentTimeMillis();
-						printTrace(fireCount,"listener: " + listener.getClass().getName() + " duration: " + (end - begin));
+					if ( timed ) {
+						final long duration = System.nanoTime() - begin;
+
+						if ( metrics.isEnabled() )
+							metrics.listenerCalled(snapshot.getStats(i, metrics), event.getClass(), duration);
+						if ( printEventTrace )
+							printTrace(fireCount,"listener: " + listener.getClass().getName() + " duration: " 
+							           + String.format("%.3f ms", duration / 1000000.0));
 					}
-				} catch (Exception e) {
-					logger.error("Unexpected exception while handling listener: " + listenerClass.getName(), e);
+				} catch (Throwable t) {
+					// Method.invoke used to wrap everything, including Errors, so keep logging them all.
+					logger.error("Unexpected exception while handling listener: " + listenerClass.getName(), t);
 				}
 			}
-		} catch (NoSuchMethodException e) {
+		} catch (NoSuchMethodException | IllegalAccessException e) {
 			logger.error("Listener doesn't implement \"handleEvent\" method: "
 				     + listenerClass.getName(), e);
 		}
 
+		if ( metrics.isEnabled() )
+			metrics.eventFired(event.getClass(), System.nanoTime() - eventBegin);
+
 		if ( printEventTrace ) {
 			printTrace(fireCount,"EVENT END  : " + event.getClass().getName());
 			fireCount--;
 		}
 	}
 
-	private Object[] getListeners(Class<?> listenerClass) {
-		ServiceTracker tracker = serviceTrackers.get(listenerClass);
-		if ( tracker == null ) {
+	/**
+	 * Returns the handleEvent method of the listener class for the given event class,
+	 * looked up once and then cached as a MethodHandle of type (Object,Object)void.
+	 */
+	private MethodHandle getHandler(final Class<?> listenerClass, final Class<?> eventClass) 
+			throws NoSuchMethodException, IllegalAccessException {
+		final Map<Class<?>,MethodHandle> handlers = 
+			handlerCache.computeIfAbsent(listenerClass, k -> new ConcurrentHashMap<Class<?>,MethodHandle>(4, 0.75f, 2));
+
+		MethodHandle handler = handlers.get(eventClass);
+		if ( handler == null ) {
+			final Method method = listenerClass.getMethod("handleEvent", eventClass);
+			handler = MethodHandles.publicLookup().unreflect(method).asType(HANDLER_TYPE);
+			handlers.put(eventClass, handler);
+		}
+
+		return handler;
+	}
+
+	EventMetrics getEventMetrics() {
+		return metrics;
+	}
+
+	private ListenerCache getListenerCache(Class<?> listenerClass) {
+		ListenerCache cache = listenerCaches.get(listenerClass);
+		if ( cache == null ) {
 			//logger.debug("added new service tracker for " + listenerClass);
-			tracker = new ServiceTracker(bc, listenerClass.getName(), null);
-			tracker.open();
-			serviceTrackers.put( listenerClass, tracker );
+			synchronized (listenerCaches) {
+				cache = listenerCaches.get(listenerClass);
+				if ( cache == null ) {
+					final ServiceTracker tracker = new ServiceTracker(bc, listenerClass.getName(), null);
+					tracker.open();
+					cache = new ListenerCache(tracker);
+					listenerCaches.put( listenerClass, cache );
+				}
+			}
 		}
 
-		Object[] services = tracker.getServices();
+		return cache;
+	}
 
-		if ( services == null )
-			return null;
+	/**
+	 * Holds the sorted listeners of one listener class. The array is only rebuilt
+	 * when the tracking count of the ServiceTracker changes, that is when a listener
+	 * service has been registered, modified or unregistered. 
+	 */
+	private static final class ListenerCache {
+		private final ServiceTracker tracker;
+		private volatile Snapshot snapshot = new Snapshot(-1, null);
+
+		ListenerCache(final ServiceTracker tracker) {
+			this.tracker = tracker;
+		}
+
+		Snapshot getSnapshot() {
+			Snapshot current = snapshot;
+			final int trackingCount = tracker.getTrackingCount();
+			
+			if ( current.trackingCount != trackingCount ) {
+				final Object[] services = tracker.getServices();
+				if ( services != null )
+					Arrays.sort(services, serviceComparator);
+				current = new Snapshot(trackingCount, services);
+				snapshot = current;
+			}
 
-		Arrays.sort(services, serviceComparator);
-		return services; 
+			return current;
+		}
+	}
+
+	private static final class Snapshot {
+		final int trackingCount;
+		final Object[] listeners;
+		// The metrics of each listener, looked up on first use.
+		private final EventMetrics.ListenerStats[] stats;
+
+		Snapshot(final int trackingCount, final Object[] listeners) {
+			this.trackingCount = trackingCount;
+			this.listeners = listeners;
+			this.stats = listeners == null ? null : new EventMetrics.ListenerStats[listeners.length];
+		}
+
+		EventMetrics.ListenerStats getStats(final int index, final EventMetrics metrics) {
+			EventMetrics.ListenerStats s = stats[index];
+			if ( s == null ) {
+				s = metrics.getListenerStats(listeners[index].getClass());
+				stats[index] = s;
+			}
+			return s;
+		}
 	}
 
 	void silenceEventSource(Object eventSource) {
@@ -0,0 +1,253 @@
+package org.cytoscape.event.internal;
+
+/*
+ * #%L
+ * Cytoscape Event Impl (event-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Always-on instrumentation of the event bus. {@link CyListenerAdapter} records
+ * how long each event took to dispatch and how long each listener took to
+ * handle it, and {@link CyEventHelperImpl} records the size of every payload
+ * event it fires. The single slowest listener call is kept so that a listener
+ * stalling the EDT can be found without a profiler.
+ * <p>
+ * The metrics can be read as JSON from the platform MBean server, under the
+ * name {@value #OBJECT_NAME}, which is how the <code>events metrics</code>
+ * command gets them. Recording can be turned off with the
+ * <code>eventMetrics=false</code> system property.
+ */
+public class EventMetrics implements EventMetricsMXBean {
+
+	public static final String OBJECT_NAME = "org.cytoscape:type=EventMetrics";
+
+	private static final int SLOWEST_LISTENERS = 10;
+
+	private final boolean enabled;
+	// Keyed by class name rather than by class, so that the metrics of an app
+	// do not keep its class loader alive after the app is uninstalled.
+	private final Map<String, EventTypeStats> eventTypes = new ConcurrentHashMap<>(64, 0.75f, 2);
+	private final Map<String, ListenerStats> listeners = new ConcurrentHashMap<>(64, 0.75f, 2);
+	private final AtomicReference<SlowCall> slowestCall = new AtomicReference<>();
+	private volatile PayloadFlushMetrics payloadFlushMetrics;
+	private volatile long startNanos = System.nanoTime();
+
+	public EventMetrics() {
+		this(Boolean.parseBoolean(System.getProperty("eventMetrics", "true")));
+	}
+
+	EventMetrics(final boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	boolean isEnabled() {
+		return enabled;
+	}
+
+	void setPayloadFlushMetrics(final PayloadFlushMetrics payloadFlushMetrics) {
+		this.payloadFlushMetrics = payloadFlushMetrics;
+	}
+
+	EventTypeStats getEventTypeStats(final Class<?> eventType) {
+		return eventTypes.computeIfAbsent(eventType.getName(), EventTypeStats::new);
+	}
+
+	ListenerStats getListenerStats(final Class<?> listenerType) {
+		return listeners.computeIfAbsent(listenerType.getName(), ListenerStats::new);
+	}
+
+	void eventFired(final Class<?> eventType, final long nanos) {
+		getEventTypeStats(eventType).dispatch.record(nanos);
+	}
+
+	void payloadFired(final Class<?> eventType, final int size) {
+		getEventTypeStats(eventType).payloadSize.record(size);
+	}
+
+	void listenerCalled(final ListenerStats stats, final Class<?> eventType, final long nanos) {
+		stats.latency.record(nanos);
+
+		SlowCall slowest = slowestCall.get();
+		while ((slowest == null || nanos > slowest.nanos)
+				&& !slowestCall.compareAndSet(slowest, new SlowCall(stats.type, eventType.getName(), nanos)))
+			slowest = slowestCall.get();
+	}
+
+	@Override
+	public String getMetricsJSON() {
+		final StringBuilder sb = new StringBuilder(4096);
+		sb.append("{\"enabled\":").append(enabled);
+		sb.append(",\"intervalMillis\":").append((System.nanoTime() - startNanos) / 1000000L);
+
+		final SlowCall slowest = slowestCall.get();
+		sb.append(",\"slowestCall\":");
+		if (slowest == null) {
+			sb.append("null");
+		} else {
+			sb.append("{\"listener\":");
+			appendString(sb, slowest.listenerType);
+			sb.append(",\"event\":");
+			appendString(sb, slowest.eventType);
+			sb.append(",\"nanos\":").append(slowest.nanos).append('}');
+		}
+
+		final List<ListenerStats> sortedListeners = new ArrayList<>(listeners.values());
+		sortedListeners.sort(Comparator.comparingLong((ListenerStats s) -> s.latency.getMax()).reversed());
+
+		sb.append(",\"slowestListeners\":[");
+		for (int i = 0; i < Math.min(SLOWEST_LISTENERS, sortedListeners.size()); i++) {
+			if (i > 0)
+				sb.append(',');
+			appendString(sb, sortedListeners.get(i).type);
+		}
+		sb.append(']');
+
+		sb.append(",\"listeners\":{");
+		boolean first = true;
+		for (ListenerStats stats : sortedListeners) {
+			if (!first)
+				sb.append(',');
+			first = false;
+			appendString(sb, stats.type);
+			sb.append(":{\"latencyNanos\":");
+			appendHistogram(sb, stats.latency);
+			sb.append('}');
+		}
+		sb.append('}');
+
+		final List<EventTypeStats> sortedEvents = new ArrayList<>(eventTypes.values());
+		sortedEvents.sort(Comparator.comparing(s -> s.type));
+
+		sb.append(",\"events\":{");
+		first = true;
+		for (EventTypeStats stats : sortedEvents) {
+			if (!first)
+				sb.append(',');
+			first = false;
+			appendString(sb, stats.type);
+			sb.append(":{\"fireCount\":").append(stats.dispatch.getCount());
+			sb.append(",\"dispatchNanos\":");
+			appendHistogram(sb, stats.dispatch);
+			if (stats.payloadSize.getCount() > 0) {
+				sb.append(",\"payloadSize\":");
+				appendHistogram(sb, stats.payloadSize);
+			}
+			sb.append('}');
+		}
+		sb.append('}');
+
+		final PayloadFlushMetrics flush = payloadFlushMetrics;
+		if (flush != null) {
+			sb.append(",\"payloadFlush\":{\"payloadsAdded\":").append(flush.getPayloadsAdded())
+				.append(",\"payloadsFlushed\":").append(flush.getPayloadsFlushed())
+				.append(",\"pendingPayloads\":").append(flush.getPendingPayloads())
+				.append(",\"eventsFired\":").append(flush.getEventsFired())
+				.append(",\"flushCount\":").append(flush.getFlushCount())
+				.append(",\"earlyFlushCount\":").append(flush.getEarlyFlushCount())
+				.append(",\"meanFlushNanos\":").append(flush.getMeanFlushNanos())
+				.append(",\"maxFlushNanos\":").append(flush.getMaxFlushNanos())
+				.append('}');
+		}
+
+		return sb.append('}').toString();
+	}
+
+	/**
+	 * Clears all histograms and the slowest call. The payload flush counters
+	 * are cumulative and are not affected.
+	 */
+	@Override
+	public void reset() {
+		for (EventTypeStats stats : eventTypes.values()) {
+			stats.dispatch.reset();
+			stats.payloadSize.reset();
+		}
+		for (ListenerStats stats : listeners.values())
+			stats.latency.reset();
+
+		slowestCall.set(null);
+		startNanos = System.nanoTime();
+	}
+
+	private static void appendHistogram(final StringBuilder sb, final Histogram h) {
+		sb.append("{\"count\":").append(h.getCount())
+			.append(",\"mean\":").append(h.getMean())
+			.append(",\"p50\":").append(h.getValueAtPercentile(50.0))
+			.append(",\"p90\":").append(h.getValueAtPercentile(90.0))
+			.append(",\"p99\":").append(h.getValueAtPercentile(99.0))
+			.append(",\"p999\":").append(h.getValueAtPercentile(99.9))
+			.append(",\"max\":").append(h.getMax())
+			.append('}');
+	}
+
+	private static void appendString(final StringBuilder sb, final String s) {
+		sb.append('"');
+		for (int i = 0; i < s.length(); i++) {
+			final char c = s.charAt(i);
+			if (c == '"' || c == '\\')
+				sb.append('\\').append(c);
+			else if (c < 0x20)
+				sb.append(String.format("\\u%04x", (int) c));
+			else
+				sb.append(c);
+		}
+		sb.append('"');
+	}
+
+	static final class EventTypeStats {
+		final String type;
+		final Histogram dispatch = new Histogram();
+		final Histogram payloadSize = new Histogram();
+
+		EventTypeStats(final String type) {
+			this.type = type;
+		}
+	}
+
+	static final class ListenerStats {
+		final String type;
+		final Histogram latency = new Histogram();
+
+		ListenerStats(final String type) {
+			this.type = type;
+		}
+	}
+
+	private static final class SlowCall {
+		final String listenerType;
+		final String eventType;
+		final long nanos;
+
+		SlowCall(final String listenerType, final String eventType, final long nanos) {
+			this.listenerType = listenerType;
+			this.eventType = eventType;
+			this.nanos = nanos;
+		}
+	}
+}
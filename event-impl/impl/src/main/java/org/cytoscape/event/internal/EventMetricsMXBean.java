@@ -0,0 +1,43 @@
+package org.cytoscape.event.internal;
+
+/*
+ * #%L
+ * Cytoscape Event Impl (event-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Management interface of {@link EventMetrics}. Only JDK types are used so that
+ * other bundles can read the metrics through the platform MBean server without
+ * depending on this bundle's private packages.
+ */
+public interface EventMetricsMXBean {
+
+	/**
+	 * @return all event bus metrics as a JSON object; latencies are in nanoseconds.
+	 */
+	String getMetricsJSON();
+
+	/**
+	 * Clears the recorded latencies and payload sizes.
+	 */
+	void reset();
+}
@@ -0,0 +1,135 @@
+package org.cytoscape.event.internal;
+
+/*
+ * #%L
+ * Cytoscape Event Impl (event-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, log-linear histogram of non-negative long values, in the spirit
+ * of HdrHistogram. Every power of two is split into {@value #SUB_BUCKETS} equal
+ * buckets, so a recorded value is reproduced within about 6% no matter its
+ * magnitude. Recording is wait-free and never allocates, which keeps it cheap
+ * enough to leave on for every listener call.
+ * <p>
+ * Values larger than 2<sup>{@value #MAX_EXPONENT}</sup> (about 18 minutes
+ * when recording nanoseconds) are counted in the last bucket.
+ */
+class Histogram {
+
+	private static final int SUB_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int MAX_EXPONENT = 40;
+	private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	void record(long value) {
+		if (value < 0)
+			value = 0;
+
+		counts.incrementAndGet(bucketIndex(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value))
+			current = max.get();
+	}
+
+	long getCount() {
+		return count.get();
+	}
+
+	long getMax() {
+		return max.get();
+	}
+
+	long getMean() {
+		final long n = count.get();
+		return n == 0 ? 0 : sum.get() / n;
+	}
+
+	/**
+	 * @param percentile a value between 0 and 100
+	 * @return the midpoint of the bucket holding the given percentile, never more
+	 * than the largest recorded value, or 0 if nothing has been recorded. The
+	 * 100th percentile is the exact maximum.
+	 */
+	long getValueAtPercentile(final double percentile) {
+		final long total = count.get();
+		if (total == 0)
+			return 0;
+
+		final long rank = Math.max(1, (long) Math.ceil(total * Math.min(100.0, percentile) / 100.0));
+		if (rank >= total)
+			return max.get();
+
+		long seen = 0;
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts.get(i);
+			if (seen >= rank)
+				return Math.min(max.get(), bucketMidpoint(i));
+		}
+
+		return max.get();
+	}
+
+	void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++)
+			counts.set(i, 0);
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	static int bucketIndex(final long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+
+		final int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent > MAX_EXPONENT)
+			return BUCKET_COUNT - 1;
+
+		final int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	static long bucketMidpoint(final int index) {
+		if (index < SUB_BUCKETS)
+			return index;
+
+		final int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+		final int sub = index % SUB_BUCKETS;
+		final long width = 1L << (exponent - SUB_BITS);
+		final long low = (1L << exponent) + sub * width;
+
+		return low + width / 2;
+	}
+}
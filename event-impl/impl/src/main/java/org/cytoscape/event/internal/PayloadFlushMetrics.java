@@ -0,0 +1,120 @@
+package org.cytoscape.event.internal;
+
+/*
+ * #%L
+ * Cytoscape Event Impl (event-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing how payload events are accumulated and flushed by
+ * {@link CyEventHelperImpl}. All counters are cumulative since creation and
+ * can be updated from any thread.
+ */
+public class PayloadFlushMetrics {
+
+	private final LongAdder payloadsAdded = new LongAdder();
+	private final LongAdder payloadsFlushed = new LongAdder();
+	private final LongAdder eventsFired = new LongAdder();
+	private final LongAdder flushCount = new LongAdder();
+	private final LongAdder earlyFlushCount = new LongAdder();
+	private final LongAdder totalFlushNanos = new LongAdder();
+	private final AtomicLong maxFlushNanos = new AtomicLong();
+	private volatile long lastFlushNanos;
+
+	void payloadAdded() {
+		payloadsAdded.increment();
+	}
+
+	void earlyFlushRequested() {
+		earlyFlushCount.increment();
+	}
+
+	void flushed(final int payloads, final int events, final long nanos) {
+		payloadsFlushed.add(payloads);
+		eventsFired.add(events);
+		flushCount.increment();
+		totalFlushNanos.add(nanos);
+		lastFlushNanos = nanos;
+		maxFlushNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	public long getPayloadsAdded() {
+		return payloadsAdded.sum();
+	}
+
+	public long getPayloadsFlushed() {
+		return payloadsFlushed.sum();
+	}
+
+	/**
+	 * @return the number of payloads added but not yet flushed.
+	 */
+	public long getPendingPayloads() {
+		return Math.max(0, payloadsAdded.sum() - payloadsFlushed.sum());
+	}
+
+	public long getEventsFired() {
+		return eventsFired.sum();
+	}
+
+	/**
+	 * @return the number of flushes that actually fired at least one event.
+	 */
+	public long getFlushCount() {
+		return flushCount.sum();
+	}
+
+	/**
+	 * @return how many times a flush was triggered early because the
+	 * pending payload count crossed the threshold.
+	 */
+	public long getEarlyFlushCount() {
+		return earlyFlushCount.sum();
+	}
+
+	/**
+	 * Flush latency covers building and firing all the events of one flush.
+	 */
+	public long getLastFlushNanos() {
+		return lastFlushNanos;
+	}
+
+	public long getMaxFlushNanos() {
+		return maxFlushNanos.get();
+	}
+
+	public long getMeanFlushNanos() {
+		final long count = flushCount.sum();
+		return count == 0 ? 0 : totalFlushNanos.sum() / count;
+	}
+
+	@Override
+	public String toString() {
+		return "PayloadFlushMetrics[payloadsAdded=" + getPayloadsAdded() + ", pending=" + getPendingPayloads()
+				+ ", eventsFired=" + getEventsFired() + ", flushes=" + getFlushCount()
+				+ ", earlyFlushes=" + getEarlyFlushCount() + ", meanFlushNanos=" + getMeanFlushNanos()
+				+ ", maxFlushNanos=" + getMaxFlushNanos() + "]";
+	}
+}
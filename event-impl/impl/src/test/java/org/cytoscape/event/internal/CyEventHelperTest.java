@@ -1,15 +1,20 @@
 package org.cytoscape.event.internal;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 import org.cytoscape.event.AbstractCyEventHelperTest;
 import org.cytoscape.event.FakeCyListener;
 import org.cytoscape.event.StubCyListener;
 import org.cytoscape.event.StubCyListenerImpl;
+import org.cytoscape.event.StubCyPayloadEvent;
 import org.cytoscape.event.StubCyPayloadListener;
 import org.cytoscape.event.StubCyPayloadListenerImpl;
 import org.cytoscape.event.internal.CyEventHelperImpl;
 import org.cytoscape.event.internal.CyListenerAdapter;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Test;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
@@ -103,4 +108,21 @@ public class CyEventHelperTest extends AbstractCyEventHelperTest {
 	public void cleanup() {
 		helperImpl.cleanup();
 	}
+
+	@Test
+	public void testPayloadFlushMetrics() {
+		final PayloadFlushMetrics metrics = helperImpl.getPayloadFlushMetrics();
+		final long flushes = metrics.getFlushCount();
+
+		helperImpl.addEventPayload("source", "homer", StubCyPayloadEvent.class);
+		helperImpl.addEventPayload("source", "marge", StubCyPayloadEvent.class);
+		helperImpl.addEventPayload("other", "bart", StubCyPayloadEvent.class);
+		assertEquals(3, metrics.getPayloadsAdded());
+
+		helperImpl.flushPayloadEvents();
+		assertEquals(3, metrics.getPayloadsFlushed());
+		assertEquals(0, metrics.getPendingPayloads());
+		assertTrue(metrics.getFlushCount() > flushes);
+		assertTrue(metrics.getEventsFired() >= 2);
+	}
 }
@@ -0,0 +1,65 @@
+package org.cytoscape.event.internal;
+
+/*
+ * #%L
+ * Cytoscape Event Impl (event-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+	@Test
+	public void testSmallValuesAreExact() {
+		for (long v = 0; v < 32; v++)
+			assertEquals(v, Histogram.bucketMidpoint(Histogram.bucketIndex(v)));
+	}
+
+	@Test
+	public void testRelativeError() {
+		for (long v = 32; v < 1L << 40; v = v * 3 / 2 + 7) {
+			final long mid = Histogram.bucketMidpoint(Histogram.bucketIndex(v));
+			assertTrue("value " + v + " midpoint " + mid, Math.abs(mid - v) <= v / 16);
+		}
+	}
+
+	@Test
+	public void testPercentiles() {
+		final Histogram h = new Histogram();
+		for (long v = 1; v <= 1000; v++)
+			h.record(v * 1000);
+
+		assertEquals(1000, h.getCount());
+		assertEquals(1000000, h.getMax());
+		assertEquals(500500, h.getMean());
+		assertEquals(500000, h.getValueAtPercentile(50.0), 500000 / 16);
+		assertEquals(990000, h.getValueAtPercentile(99.0), 990000 / 16);
+		assertEquals(1000000, h.getValueAtPercentile(100.0));
+
+		h.reset();
+		assertEquals(0, h.getCount());
+		assertEquals(0, h.getValueAtPercentile(99.0));
+	}
+}
@@ -0,0 +1,134 @@
+package org.cytoscape.event;
+
+/*
+ * #%L
+ * Cytoscape Event Impl (event-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.cytoscape.event.internal.CyListenerAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.springframework.osgi.mock.MockBundleContext;
+import org.springframework.osgi.mock.MockServiceReference;
+
+/**
+ * Measures the cost of delivering one event to 1, 10 and 100 listeners through
+ * {@link CyListenerAdapter}, next to the reflective lookup and invoke on every
+ * fire that the adapter used to do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ListenerDispatchBenchmark {
+
+	@Param({ "1", "10", "100" })
+	public int listenerCount;
+
+	private CyListenerAdapter adapter;
+	private BenchListener[] listeners;
+	private BenchEvent event;
+
+	@Setup
+	public void setup() {
+		listeners = new BenchListener[listenerCount];
+		final ServiceReference[] refs = new ServiceReference[listenerCount];
+
+		for (int i = 0; i < listenerCount; i++) {
+			listeners[i] = new BenchListenerImpl();
+			refs[i] = new MockServiceReference();
+		}
+
+		final BundleContext bc = new MockBundleContext() {
+			@Override
+			public ServiceReference getServiceReference(String clazz) {
+				return BenchListener.class.getName().equals(clazz) && refs.length > 0 ? refs[0] : null;
+			}
+
+			@Override
+			public ServiceReference[] getServiceReferences(String clazz, String filter) {
+				return BenchListener.class.getName().equals(clazz) ? refs : null;
+			}
+
+			@Override
+			public Object getService(ServiceReference ref) {
+				for (int i = 0; i < refs.length; i++) {
+					if (refs[i] == ref)
+						return listeners[i];
+				}
+				return null;
+			}
+		};
+
+		adapter = new CyListenerAdapter(bc);
+		event = new BenchEvent(this);
+	}
+
+	@Benchmark
+	public void adapterFireEvent() {
+		adapter.fireEvent(event);
+	}
+
+	@Benchmark
+	public void reflectiveFireEvent(final Blackhole bh) throws Exception {
+		final Method method = BenchListener.class.getMethod("handleEvent", event.getClass());
+		for (final Object listener : listeners)
+			method.invoke(BenchListener.class.cast(listener), event);
+		bh.consume(method);
+	}
+
+	public interface BenchListener extends CyListener {
+		void handleEvent(BenchEvent e);
+	}
+
+	public static final class BenchEvent extends AbstractCyEvent<Object> {
+		public BenchEvent(final Object source) {
+			super(source, BenchListener.class);
+		}
+	}
+
+	public static final class BenchListenerImpl implements BenchListener {
+		private int count;
+
+		@Override
+		public void handleEvent(final BenchEvent e) {
+			count++;
+		}
+	}
+}
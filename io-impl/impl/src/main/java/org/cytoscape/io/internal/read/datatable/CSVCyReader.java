@@ -139,18 +139,21 @@ public class CSVCyReader implements CyTableReader {
 						final Equation equation;
 						final Class<?> eqnType;
 						
-						if (compiler.compile(values[i], variableNameToTypeMap)) {
-							eqnType = compiler.getEquation().getType();
-							if(EquationUtil.eqnTypeIsCompatible(columnType, columnListElementType, eqnType))
-								equation = compiler.getEquation();
-							else {
-								final String errorMsg = "Equation result type is "
-									+ EquationUtil.getUnqualifiedName(eqnType) + ", column type is "
-									+ EquationUtil.getUnqualifiedName(columnType) + ".";
-								equation = compiler.getErrorEquation(values[i], expectedType, errorMsg);
+						// The compiler keeps the last equation, and session tables are read concurrently
+						synchronized (compiler) {
+							if (compiler.compile(values[i], variableNameToTypeMap)) {
+								eqnType = compiler.getEquation().getType();
+								if(EquationUtil.eqnTypeIsCompatible(columnType, columnListElementType, eqnType))
+									equation = compiler.getEquation();
+								else {
+									final String errorMsg = "Equation result type is "
+										+ EquationUtil.getUnqualifiedName(eqnType) + ", column type is "
+										+ EquationUtil.getUnqualifiedName(columnType) + ".";
+									equation = compiler.getErrorEquation(values[i], expectedType, errorMsg);
+								}
+							} else {
+								equation = compiler.getErrorEquation(values[i], expectedType, compiler.getLastErrorMsg());
 							}
-						} else {
-							equation = compiler.getErrorEquation(values[i], expectedType, compiler.getLastErrorMsg());
 						}
 						
 						row.set(name, equation);
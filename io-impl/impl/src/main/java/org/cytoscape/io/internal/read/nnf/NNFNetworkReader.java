@@ -1,15 +1,15 @@
 package org.cytoscape.io.internal.read.nnf;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.cytoscape.application.CyApplicationManager;
+import org.cytoscape.io.internal.util.LineChunkReader;
 import org.cytoscape.io.read.AbstractCyNetworkReader;
 import org.cytoscape.model.CyNetwork;
 import org.cytoscape.model.CyNetworkFactory;
@@ -98,35 +98,32 @@ public class NNFNetworkReader extends AbstractCyNetworkReader {
 		this.parentTaskMonitor = tm;
 		tm.setProgress(0.0);
 
-		// Create buffered reader from given InputStream
-		final BufferedReader in = new BufferedReader(
-				new InputStreamReader(inputStream, Charset.forName("UTF-8").newDecoder()));
-				
-		in.mark(9999999);
+		// Split all the lines once, on all processors
+		final List<Line> lines = new ArrayList<>();
+		final int[] lineCount = new int[1];
 		
-		String overviewNetworkName = retriveOverviewNetworkName(in);
+		LineChunkReader.read(inputStream, this::splitLines, chunk -> {
+			for (Line line : chunk.lines) {
+				line.number += lineCount[0];
+				lines.add(line);
+			}
+			
+			lineCount[0] += chunk.lineCount;
+			
+			return true;
+		});
+		
+		String overviewNetworkName = retriveOverviewNetworkName(lines);
 		if (overviewNetworkName == null){
 			throw new IOException("Can not find overview netwrok!");
 		}
-				
-		in.reset();
 		
 		parser.setOverViewnetworkName(overviewNetworkName);
 		
-		String line;
-		try {
-			for (int lineNumber = 1; (line = in.readLine()) != null; ++lineNumber) {
-				line = processComment(line);
-				if (line.length() == 0) {
-					continue;
-				}
-
-				if (!parser.parse(line)) {
-					throw new IOException("Malformed line in NNF file: " + lineNumber + " \"" + line + "\"");
-				}
+		for (Line line : lines) {
+			if (line.text != null || !parser.parse(line.parts)) {
+				throw new IOException("Malformed line in NNF file: " + line.number + " \"" + line.text + "\"");
 			}
-		} finally {
-			in.close();
 		}
 		
 		if (parser.getNetworks().size() == 0) {
@@ -145,19 +142,38 @@ public class NNFNetworkReader extends AbstractCyNetworkReader {
 		tm.setProgress(1.0);
 	}
 
-	private String retriveOverviewNetworkName(final BufferedReader in) throws IOException {
+	/**
+	 * Splits the lines of a chunk, without comments and empty lines; called from the pool of the
+	 * {@link LineChunkReader}.
+	 */
+	private LineChunk splitLines(final char[] text, final int start, final int end) {
+		final LineChunk chunk = new LineChunk();
+		int pos = start;
+		
+		while (pos < end) {
+			final int lineEnd = LineChunkReader.lineEnd(text, pos, end);
+			final String line = processComment(new String(text, pos, lineEnd - pos));
+			chunk.lineCount++;
+			
+			if (line.length() > 0) {
+				// Split with white space chars
+				final String[] parts = NNFParser.splitLine(line);
+				final boolean valid = parts.length == 2 || parts.length == 4;
+				chunk.lines.add(new Line(parts, chunk.lineCount, valid ? null : line));
+			}
+			
+			pos = LineChunkReader.nextLine(text, lineEnd, end);
+		}
+		
+		return chunk;
+	}
+
+	private String retriveOverviewNetworkName(final List<Line> lines) {
 		HashSet<String> networkSet = new HashSet<String>();
 		HashSet<String> nodeSet = new HashSet<String>();
 		
-		String line;
-		
-		for (int lineNumber = 1; (line = in.readLine()) != null; ++lineNumber) {
-				line = processComment(line);
-				if (line.length() == 0) {
-					continue;
-				}
-				// Split with white space chars
-				String[] parts = NNFParser.splitLine(line);
+		for (Line line : lines) {
+				String[] parts = line.parts;
 				int length = parts.length;
 								
 				if (length == 2) {
@@ -213,4 +229,24 @@ public class NNFNetworkReader extends AbstractCyNetworkReader {
 
 		return view;
 	}
+
+	/** The split lines of a chunk */
+	private static final class LineChunk {
+		final List<Line> lines = new ArrayList<>();
+		/** All the lines of the chunk, including the empty ones */
+		int lineCount;
+	}
+	
+	private static final class Line {
+		final String[] parts;
+		int number;
+		/** The line, only kept when it is malformed */
+		final String text;
+		
+		Line(final String[] parts, final int number, final String text) {
+			this.parts = parts;
+			this.number = number;
+			this.text = text;
+		}
+	}
 }
@@ -100,8 +100,20 @@ public class NNFParser {
 	 */
 	public boolean parse(final String line) {
 		// Split with white space chars
-		parts = splitLine(line);
+		return parse(splitLine(line));
+	}
+	
+	/**
+	 * Parse an entry/line in an NNF file that has already been split.
+	 * 
+	 * @param parts
+	 */
+	public boolean parse(final String[] parts) {
+		this.parts = parts;
 		length = parts.length;
+		
+		if (length == 0)
+			return false;
 
 		final String originalName = parts[0];
 		CyNetwork network = getNetworkByName(originalName);
@@ -16,8 +16,10 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -28,11 +30,19 @@ import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.cytoscape.equations.EquationCompiler;
 import org.cytoscape.equations.EquationUtil;
+import org.cytoscape.io.internal.read.MarkSupportedInputStream;
 import org.cytoscape.io.internal.read.datatable.CSVCyReaderFactory;
 import org.cytoscape.io.internal.read.datatable.CyTablesXMLReader;
 import org.cytoscape.io.internal.read.session.CyTableMetadataImpl.CyTableMetadataBuilder;
@@ -65,6 +75,7 @@ import org.cytoscape.property.SimpleCyProperty;
 import org.cytoscape.property.bookmark.Bookmarks;
 import org.cytoscape.service.util.CyServiceRegistrar;
 import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.vizmap.VisualStyle;
 import org.cytoscape.work.TaskMonitor;
 
 /*
@@ -93,6 +104,14 @@ import org.cytoscape.work.TaskMonitor;
 
 /**
  * Session reader implementation that handles the Cytoscape 3 session format.
+ * <p>
+ * The session file is copied to a temporary file once, so its entries can be
+ * read in any order without decompressing the whole file again. The tables,
+ * visual styles, properties and app files only depend on their own entry, so
+ * they are parsed on a pool while the networks are read on the calling thread,
+ * which they have to be because they share the {@link ReadCache}. What the pool
+ * parsed is then added to the session in the order of the entries, and the
+ * network views are read last, once all networks and tables are in place.
  * 
  * @see org.cytoscape.io.internal.read.session.Cy2SessionReaderImpl
  * @see org.cytoscape.io.internal.write.session.SessionWriterImpl
@@ -111,6 +130,9 @@ public class Cy3SessionReaderImpl extends AbstractSessionReader {
 	
 	private static final String THUMBNAIL_FILE = "session_thumbnail.png";
 	
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+	
 	private final Map<Long/*network_suid*/, CyNetwork> networkLookup = new LinkedHashMap<>();
 	private final Map<Long/*old_network_id*/, Set<CyTableMetadataBuilder>> networkTableMap = new HashMap<>();
 
@@ -124,7 +146,10 @@ public class Cy3SessionReaderImpl extends AbstractSessionReader {
 	private Map<CyTableMetadataBuilder, String> builderFilenameMap;
 
 	protected final List<VirtualColumn> virtualColumns;
-	private boolean networksExtracted;
+	
+	private File sessionFile;
+	private ZipFile zipFile;
+	private final List<ZipEntry> networkViewEntries = new ArrayList<>();
 
 
 	public Cy3SessionReaderImpl(final InputStream sourceInputStream,
@@ -165,40 +190,152 @@ public class Cy3SessionReaderImpl extends AbstractSessionReader {
 	}
 	
 	@Override
-	protected void handleEntry(final InputStream is, final String entryName) throws Exception {
-		if (!networksExtracted) {
-			// First pass..
-			if (entryName.contains("/" + APPS_FOLDER)) {
-				extractAppEntry(is, entryName);
-			} else if (entryName.endsWith(VIZMAP_XML_FILE)) {
-				extractVizmap(is, entryName);
-			} else if (entryName.contains("/" + PROPERTIES_FOLDER)) {
-				extractProperties(is, entryName);
-			} else if (entryName.endsWith(XGMML_EXT)) {
-				// Ignore network view files for now...
-				Matcher matcher = NETWORK_PATTERN.matcher(entryName);
+	protected void readSessionFile(TaskMonitor tm) throws Exception {
+		tm.setStatusMessage("Copying session file...");
+		openZipFile();
+		
+		if (cancelled) return;
+		
+		final int processors = Runtime.getRuntime().availableProcessors();
+		final List<ZipEntry> entries = new ArrayList<>();
+		final List<ZipEntry> parsedEntries = new ArrayList<>();
+		
+		for (Enumeration<? extends ZipEntry> e = zipFile.entries(); e.hasMoreElements();) {
+			final ZipEntry entry = e.nextElement();
+			final String entryName = entry.getName();
+			
+			if (isNetworkViewEntry(entryName))
+				networkViewEntries.add(entry); // Extracted after the networks
+			else if (processors > 1 && !isNetworkEntry(entryName))
+				parsedEntries.add(entry);
+			else
+				entries.add(entry);
+		}
+		
+		final ExecutorService executor = parsedEntries.isEmpty() ? null
+				: Executors.newFixedThreadPool(Math.min(processors, parsedEntries.size()), r -> {
+					final Thread t = new Thread(r, "session-reader-" + THREAD_COUNT.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				});
+		
+		try {
+			final List<Future<Runnable>> futures = new ArrayList<>();
+			
+			for (final ZipEntry entry : parsedEntries)
+				futures.add(executor.submit(() -> cancelled ? null : parseEntry(entry)));
+			
+			int count = 0;
+			
+			for (final ZipEntry entry : entries) {
+				if (cancelled) return;
+				
+				tm.setStatusMessage("Extracting zip entry #" + ++count);
 				
-				if (matcher.matches()) {
-					extractNetworks(is, entryName);
+				try (InputStream zis = zipFile.getInputStream(entry)) {
+					handleEntry(new MarkSupportedInputStream(zis), entry.getName());
+				} catch (Exception e) {
+					logger.error("Failed reading session entry: " + entry.getName(), e);
 				}
-			} else if (entryName.endsWith(TABLE_EXT)) {
-				extractTable(is, entryName);
-			} else if (entryName.endsWith(CYTABLE_STATE_FILE)) {
-				extractCyTableSessionState(is, entryName);
-			} else if (!entryName.endsWith(VERSION_EXT) && !entryName.endsWith("/" + THUMBNAIL_FILE)) {
-				logger.warn("Unknown entry found in session zip file!\n" + entryName);
 			}
-		} else {
-			// Second pass..
-			if (!entryName.contains("/" + APPS_FOLDER) && entryName.endsWith(XGMML_EXT)) {
-				// Now the network views can be extracted!
-				Matcher matcher = NETWORK_VIEW_PATTERN.matcher(entryName);
+			
+			tm.setStatusMessage("Extracting tables, styles and properties...");
+			
+			for (int i = 0; i < futures.size(); i++) {
+				if (cancelled) return;
 				
-				if (matcher.matches()) {
-					extractNetworkView(is, entryName);
+				try {
+					final Runnable merge = futures.get(i).get();
+					
+					if (merge != null)
+						merge.run();
+				} catch (ExecutionException e) {
+					logger.error("Failed reading session entry: " + parsedEntries.get(i).getName(), e.getCause());
+				} catch (Exception e) {
+					logger.error("Failed reading session entry: " + parsedEntries.get(i).getName(), e);
 				}
 			}
+		} finally {
+			if (executor != null)
+				executor.shutdownNow();
+		}
+	}
+	
+	@Override
+	protected void handleEntry(final InputStream is, final String entryName) throws Exception {
+		final Runnable merge = readEntry(is, entryName);
+		
+		if (merge != null)
+			merge.run();
+	}
+	
+	/**
+	 * Parses an entry on a pool thread.
+	 * @return what adds the entry to the session, or null
+	 */
+	private Runnable parseEntry(final ZipEntry entry) throws Exception {
+		try (InputStream zis = zipFile.getInputStream(entry)) {
+			return readEntry(new MarkSupportedInputStream(zis), entry.getName());
+		}
+	}
+	
+	/**
+	 * Reads any entry but the network views. Networks are added to the session
+	 * right away, but for the other entries this only parses the entry, which
+	 * does not depend on the other entries, and returns what adds it to the
+	 * session, which must run on the thread that reads the networks.
+	 * @return what adds the entry to the session, or null if there is nothing left to do
+	 */
+	private Runnable readEntry(final InputStream is, final String entryName) throws Exception {
+		if (entryName.contains("/" + APPS_FOLDER)) {
+			return extractAppEntry(is, entryName);
+		} else if (entryName.endsWith(VIZMAP_XML_FILE)) {
+			return extractVizmap(is, entryName);
+		} else if (entryName.contains("/" + PROPERTIES_FOLDER)) {
+			return extractProperties(is, entryName);
+		} else if (entryName.endsWith(XGMML_EXT)) {
+			// Ignore network view files for now...
+			Matcher matcher = NETWORK_PATTERN.matcher(entryName);
+			
+			if (matcher.matches()) {
+				extractNetworks(is, entryName);
+			}
+		} else if (entryName.endsWith(TABLE_EXT)) {
+			return extractTable(is, entryName);
+		} else if (entryName.endsWith(CYTABLE_STATE_FILE)) {
+			return extractCyTableSessionState(is, entryName);
+		} else if (!entryName.endsWith(VERSION_EXT) && !entryName.endsWith("/" + THUMBNAIL_FILE)) {
+			logger.warn("Unknown entry found in session zip file!\n" + entryName);
+		}
+		
+		return null;
+	}
+	
+	private static boolean isNetworkEntry(final String entryName) {
+		return !entryName.contains("/" + APPS_FOLDER) && entryName.endsWith(XGMML_EXT);
+	}
+	
+	private static boolean isNetworkViewEntry(final String entryName) {
+		return isNetworkEntry(entryName) && NETWORK_VIEW_PATTERN.matcher(entryName).matches();
+	}
+	
+	/**
+	 * Copies the session file to a temporary file, whose entries can be read in any order.
+	 */
+	private void openZipFile() throws IOException {
+		sessionFile = File.createTempFile("session", ".cys");
+		sessionFile.deleteOnExit();
+		
+		try (OutputStream out = new FileOutputStream(sessionFile)) {
+			final byte[] buf = new byte[BUFFER_SIZE];
+			int len;
+			
+			while ((len = sourceInputStream.read(buf)) != -1 && !cancelled)
+				out.write(buf, 0, len);
 		}
+		
+		if (!cancelled)
+			zipFile = new ZipFile(sessionFile);
 	}
 
 	@Override
@@ -226,9 +363,7 @@ public class Cy3SessionReaderImpl extends AbstractSessionReader {
 		tm.setProgress(0.65);
 		tm.setTitle("Extract network views");
 		tm.setStatusMessage("Extracting network views...");
-		// Read the session file again, this time to extract the network views
-		networksExtracted = true;
-		readSessionFile(tm);
+		extractNetworkViews();
 		
 		tm.setProgress(0.8);
 		tm.setTitle("Update SUID columns");
@@ -238,6 +373,25 @@ public class Cy3SessionReaderImpl extends AbstractSessionReader {
 		super.complete(tm);
 	}
 
+	@Override
+	protected void cleanUp(TaskMonitor tm) {
+		try {
+			if (zipFile != null)
+				zipFile.close();
+		} catch (Exception e) {
+			logger.error("Error closing session file.", e);
+		}
+		
+		if (sessionFile != null && !sessionFile.delete())
+			logger.warn("This temporary session file may not be deleted: " + sessionFile.getAbsolutePath());
+		
+		zipFile = null;
+		sessionFile = null;
+		networkViewEntries.clear();
+		
+		super.cleanUp(tm);
+	}
+
 	@Override
 	protected void createObjectMap() {
 		objectMap.put(CyNetwork.class, cache.getNetworkByIdMap());
@@ -246,53 +400,56 @@ public class Cy3SessionReaderImpl extends AbstractSessionReader {
 		objectMap.put(CyEdge.class, cache.getEdgeByIdMap());
 	}
 	
-	private void extractCyTableSessionState(InputStream is, String entryName) throws IOException {
+	private Runnable extractCyTableSessionState(InputStream is, String entryName) throws IOException {
 		CyTablesXMLReader reader = new CyTablesXMLReader(is);
 		
 		try {
 			reader.run(taskMonitor);
-			virtualColumns.addAll(reader.getCyTables().getVirtualColumns().getVirtualColumn());
+			final List<VirtualColumn> columns = reader.getCyTables().getVirtualColumns().getVirtualColumn();
+			
+			return () -> virtualColumns.addAll(columns);
 		} catch (Exception e) {
 			throw new IOException(e);
 		}
 	}
 
-	private void extractTable(InputStream stream, String entryName) throws Exception {
+	private Runnable extractTable(InputStream stream, String entryName) throws Exception {
 		CyTableReader reader = (CyTableReader) csvCyReaderFactory.createTaskIterator(stream, entryName).next();
 		reader.run(taskMonitor);
 
 		// Assume one table per entry
-		CyTable table = reader.getTables()[0];
+		final CyTable table = reader.getTables()[0];
 		Matcher matcher = NETWORK_TABLE_PATTERN.matcher(entryName);
 		
 		if (matcher.matches()) {
 			String networkName = SessionUtil.unescape(matcher.group(2));
-			Long oldNetId = getOldNetworkId(networkName);
+			final Long oldNetId = getOldNetworkId(networkName);
 			
 			if (oldNetId == null) {
 				throw new NullPointerException("Cannot extract table. Network SUID is null for entry: " + entryName);
 			}
 			
-			String namespace = SessionUtil.unescape(matcher.group(3));
-			Class<?> type = Class.forName(SessionUtil.unescape(matcher.group(4)));
+			final String namespace = SessionUtil.unescape(matcher.group(3));
+			final Class<?> type = Class.forName(SessionUtil.unescape(matcher.group(4)));
 			String title = SessionUtil.unescape(matcher.group(5));
 			table.setTitle(title);
-			CyTableMetadataBuilder builder = new CyTableMetadataBuilder().setCyTable(table).setNamespace(namespace)
-					.setType(type);
-			Set<CyTableMetadataBuilder> builders = networkTableMap.get(oldNetId);
+			final String filename = matcher.group(1);
 			
-			if (builders == null) {
-				builders = new HashSet<>();
-				networkTableMap.put(oldNetId, builders);
-			}
-			
-			builders.add(builder);
-			
-			String filename = matcher.group(1);
-			filenameTableMap.put(filename, table);
-			builderFilenameMap.put(builder, filename);
-			
-			return;
+			return () -> {
+				CyTableMetadataBuilder builder = new CyTableMetadataBuilder().setCyTable(table)
+						.setNamespace(namespace).setType(type);
+				Set<CyTableMetadataBuilder> builders = networkTableMap.get(oldNetId);
+				
+				if (builders == null) {
+					builders = new HashSet<>();
+					networkTableMap.put(oldNetId, builders);
+				}
+				
+				builders.add(builder);
+				
+				filenameTableMap.put(filename, table);
+				builderFilenameMap.put(builder, filename);
+			};
 		}
 
 		matcher = GLOBAL_TABLE_PATTERN.matcher(entryName);
@@ -300,16 +457,21 @@ public class Cy3SessionReaderImpl extends AbstractSessionReader {
 		if (matcher.matches()) {
 			String title = SessionUtil.unescape(matcher.group(3));
 			table.setTitle(title);
-			CyTableMetadataBuilder builder = new CyTableMetadataBuilder().setCyTable(table).setNetwork(null);
-			tableMetadata.add(builder.build());
+			final String filename = matcher.group(1);
 			
-			String filename = matcher.group(1);
-			filenameTableMap.put(filename, table);
-			builderFilenameMap.put(builder, filename);
-			
-			// Look for SUID-type columns--only global tables now
-			suidUpdater.addTable(table);
+			return () -> {
+				CyTableMetadataBuilder builder = new CyTableMetadataBuilder().setCyTable(table).setNetwork(null);
+				tableMetadata.add(builder.build());
+				
+				filenameTableMap.put(filename, table);
+				builderFilenameMap.put(builder, filename);
+				
+				// Look for SUID-type columns--only global tables now
+				suidUpdater.addTable(table);
+			};
 		}
+		
+		return null;
 	}
 
 	private void extractNetworks(InputStream is, String entryName) throws Exception {
@@ -331,6 +493,18 @@ public class Cy3SessionReaderImpl extends AbstractSessionReader {
 		}
 	}
 	
+	private void extractNetworkViews() {
+		for (final ZipEntry entry : networkViewEntries) {
+			if (cancelled) return;
+			
+			try (InputStream zis = zipFile.getInputStream(entry)) {
+				extractNetworkView(new MarkSupportedInputStream(zis), entry.getName());
+			} catch (Exception e) {
+				logger.error("Failed reading session entry: " + entry.getName(), e);
+			}
+		}
+	}
+	
 	private void extractNetworkView(InputStream is, String entryName) throws Exception {
 		// Get the token which identifies the network
 		Matcher matcher = NETWORK_VIEW_PATTERN.matcher(entryName);
@@ -373,15 +547,15 @@ public class Cy3SessionReaderImpl extends AbstractSessionReader {
 		}
 	}
 
-	private void extractAppEntry(InputStream is, String entryName) {
+	private Runnable extractAppEntry(InputStream is, String entryName) {
 		final String[] items = entryName.split("/");
 
 		if (items.length < 3) {
 			// It's a directory name, not a file name
-			return;
+			return null;
 		}
 
-		String appName = items[2];
+		final String appName = items[2];
 		String fileName = items[items.length - 1];
 
 		final String tmpDir = System.getProperty(TEMP_DIR);
@@ -408,30 +582,34 @@ public class Cy3SessionReaderImpl extends AbstractSessionReader {
 			bin.close();
 		} catch (IOException e) {
 			logger.error("Error: read from zip: " + entryName, e);
-			return;
+			return null;
 		}
 		
-		if (cancelled) return;
-
-		// Put the file into appFileListMap
-		if (!appFileListMap.containsKey(appName))
-			appFileListMap.put(appName, new ArrayList<>());
+		if (cancelled) return null;
 
-		List<File> fileList = appFileListMap.get(appName);
-		fileList.add(file);
+		return () -> {
+			// Put the file into appFileListMap
+			if (!appFileListMap.containsKey(appName))
+				appFileListMap.put(appName, new ArrayList<>());
+	
+			List<File> fileList = appFileListMap.get(appName);
+			fileList.add(file);
+		};
 	}
 
-	private void extractVizmap(InputStream is, String entryName) throws Exception {
+	private Runnable extractVizmap(InputStream is, String entryName) throws Exception {
 		VizmapReader reader = vizmapReaderMgr.getReader(is, entryName);
 		reader.run(taskMonitor);
-		visualStyles.addAll(reader.getVisualStyles());
+		final Set<VisualStyle> styles = reader.getVisualStyles();
+		
+		return () -> visualStyles.addAll(styles);
 	}
 
-	private void extractProperties(InputStream is, String entryName) throws Exception {
+	private Runnable extractProperties(InputStream is, String entryName) throws Exception {
 		CyPropertyReader reader = propertyReaderMgr.getReader(is, entryName);
 		
 		if (reader == null)
-			return;
+			return null;
 		
 		reader.run(taskMonitor);
 		
@@ -458,8 +636,12 @@ public class Cy3SessionReaderImpl extends AbstractSessionReader {
 			logger.error("Cannot extract CyProperty name from: " + entryName);
 		}
 		
-		if (cyProps != null)
-			properties.add(cyProps);
+		if (cyProps == null)
+			return null;
+		
+		final CyProperty<?> props = cyProps;
+		
+		return () -> properties.add(props);
 	}
 	
 	protected void restoreVirtualColumns() throws Exception {
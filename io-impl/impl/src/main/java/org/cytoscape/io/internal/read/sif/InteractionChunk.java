@@ -0,0 +1,227 @@
+package org.cytoscape.io.internal.read.sif;
+
+/*
+ * #%L
+ * Cytoscape IO Impl (io-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import org.cytoscape.io.internal.util.LineChunkReader;
+
+/**
+ * The interactions of a chunk of SIF lines, tokenized into primitive arrays.
+ * Every name that occurs in the chunk is stored once in {@link #names}, and an
+ * interaction refers to its source, type and target by their index there, so
+ * the reader only has to look up each node once per chunk. Lines without a
+ * target only declare their source node and have a target of -1.
+ * <p>
+ * A line is split into tokens at every run of one or more delimiters, and
+ * the tokens are trimmed. The first token is the source, the second one the
+ * interaction type and every following one a target. Blank lines are skipped.
+ */
+final class InteractionChunk {
+
+	private static final int INITIAL_SIZE = 1024;
+
+	/** The names, in the order they first occur in the chunk */
+	String[] names = new String[INITIAL_SIZE];
+	int nameCount;
+
+	int[] sources = new int[INITIAL_SIZE];
+	int[] types = new int[INITIAL_SIZE];
+	int[] targets = new int[INITIAL_SIZE];
+	/** The edge names, "source (type) target", or null when there is no target */
+	String[] edgeNames = new String[INITIAL_SIZE];
+	int size;
+
+	/** The number of lines that are not blank */
+	int lineCount;
+
+	// Open addressing table from the characters of a name to its index + 1
+	private int[] slots = new int[2 * INITIAL_SIZE];
+	private int[] hashes = new int[INITIAL_SIZE];
+
+	private final StringBuilder edgeNameBuilder = new StringBuilder();
+
+	/**
+	 * Tokenizes the lines of a chunk; called from the pool of the {@link LineChunkReader}.
+	 */
+	static InteractionChunk parse(final char[] text, final int start, final int end, final char delimiter) {
+		final InteractionChunk chunk = new InteractionChunk();
+		int pos = start;
+
+		while (pos < end) {
+			final int lineEnd = LineChunkReader.lineEnd(text, pos, end);
+			chunk.parseLine(text, pos, lineEnd, delimiter);
+			pos = LineChunkReader.nextLine(text, lineEnd, end);
+		}
+
+		chunk.slots = null;
+		chunk.hashes = null;
+
+		return chunk;
+	}
+
+	private void parseLine(final char[] text, final int start, final int end, final char delimiter) {
+		if (isBlank(text, start, end))
+			return;
+
+		int source = -1;
+		int type = -1;
+		int targetCount = 0;
+		int pos = start;
+
+		while (pos < end) {
+			// Skip the delimiters before the token, then trim it
+			while (pos < end && text[pos] == delimiter)
+				pos++;
+
+			if (pos == end)
+				break;
+
+			int tokenEnd = pos;
+
+			while (tokenEnd < end && text[tokenEnd] != delimiter)
+				tokenEnd++;
+
+			int from = pos;
+			int to = tokenEnd;
+
+			while (from < to && text[from] <= ' ')
+				from++;
+			while (to > from && text[to - 1] <= ' ')
+				to--;
+
+			final int index = indexOf(text, from, to);
+
+			if (source < 0) {
+				source = index;
+			} else if (type < 0) {
+				type = index;
+			} else {
+				add(source, type, index);
+				targetCount++;
+			}
+
+			pos = tokenEnd;
+		}
+
+		lineCount++;
+
+		// Lines without targets still create their source node
+		if (targetCount == 0)
+			add(source, type, -1);
+	}
+
+	private void add(final int source, final int type, final int target) {
+		if (size == sources.length) {
+			final int capacity = 2 * size;
+			sources = Arrays.copyOf(sources, capacity);
+			types = Arrays.copyOf(types, capacity);
+			targets = Arrays.copyOf(targets, capacity);
+			edgeNames = Arrays.copyOf(edgeNames, capacity);
+		}
+
+		sources[size] = source;
+		types[size] = type;
+		targets[size] = target;
+
+		if (target >= 0) {
+			edgeNameBuilder.setLength(0);
+			edgeNameBuilder.append(names[source]).append(" (").append(names[type]).append(") ").append(names[target]);
+			edgeNames[size] = edgeNameBuilder.toString();
+		}
+
+		size++;
+	}
+
+	/**
+	 * @return the index of the name with the given characters, which is added if it is new
+	 */
+	private int indexOf(final char[] text, final int from, final int to) {
+		int hash = 0;
+
+		for (int i = from; i < to; i++)
+			hash = 31 * hash + text[i];
+
+		int mask = slots.length - 1;
+		int slot = (hash ^ (hash >>> 16)) & mask;
+
+		while (slots[slot] != 0) {
+			final int index = slots[slot] - 1;
+
+			if (hashes[index] == hash && matches(names[index], text, from, to))
+				return index;
+
+			slot = (slot + 1) & mask;
+		}
+
+		if (nameCount == names.length) {
+			names = Arrays.copyOf(names, 2 * nameCount);
+			hashes = Arrays.copyOf(hashes, 2 * nameCount);
+		}
+
+		final int index = nameCount++;
+		names[index] = new String(text, from, to - from);
+		hashes[index] = hash;
+		slots[slot] = index + 1;
+
+		// Keep the table at most half full
+		if (2 * nameCount > slots.length) {
+			slots = new int[2 * slots.length];
+			mask = slots.length - 1;
+
+			for (int i = 0; i < nameCount; i++) {
+				int s = (hashes[i] ^ (hashes[i] >>> 16)) & mask;
+
+				while (slots[s] != 0)
+					s = (s + 1) & mask;
+
+				slots[s] = i + 1;
+			}
+		}
+
+		return index;
+	}
+
+	private static boolean matches(final String name, final char[] text, final int from, final int to) {
+		if (name.length() != to - from)
+			return false;
+
+		for (int i = from; i < to; i++) {
+			if (name.charAt(i - from) != text[i])
+				return false;
+		}
+
+		return true;
+	}
+
+	private static boolean isBlank(final char[] text, final int from, final int to) {
+		for (int i = from; i < to; i++) {
+			if (text[i] > ' ')
+				return false;
+		}
+
+		return true;
+	}
+}
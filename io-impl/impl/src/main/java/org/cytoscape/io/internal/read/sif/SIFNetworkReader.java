@@ -1,19 +1,19 @@
 package org.cytoscape.io.internal.read.sif;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.Charset;
 import java.util.Map;
 
 import org.cytoscape.application.CyApplicationManager;
+import org.cytoscape.io.internal.util.LineChunkReader;
 import org.cytoscape.io.read.AbstractCyNetworkReader;
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNetwork;
 import org.cytoscape.model.CyNetworkFactory;
 import org.cytoscape.model.CyNetworkManager;
 import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyRow;
 import org.cytoscape.model.subnetwork.CyRootNetwork;
 import org.cytoscape.model.subnetwork.CyRootNetworkManager;
 import org.cytoscape.model.subnetwork.CySubNetwork;
@@ -58,8 +58,6 @@ public class SIFNetworkReader extends AbstractCyNetworkReader {
 	private static final String TAB = "\t";
 	private String delimiter = " "; // single space
 
-	private final StringBuilder edgeNameBuilder = new StringBuilder();
-	
 	private TaskMonitor parentTaskMonitor;
 	
 	private final CyServiceRegistrar serviceRegistrar;
@@ -91,9 +89,13 @@ public class SIFNetworkReader extends AbstractCyNetworkReader {
 		this.parentTaskMonitor = tm;
 		tm.setProgress(0.0);
 
-		String line;
-		final BufferedReader br =
-			new BufferedReader(new InputStreamReader(inputStream, Charset.forName("UTF-8").newDecoder()), 128*1024);
+		final BufferedInputStream is = new BufferedInputStream(inputStream, 128*1024);
+		
+		// The first line tells the delimiter
+		if (hasTabInFirstLine(is))
+			delimiter = TAB;
+		
+		final char delimiterChar = delimiter.charAt(0);
 
 		CyRootNetwork root = getRootNetwork();
 		final CySubNetwork newNetwork;
@@ -103,92 +105,117 @@ public class SIFNetworkReader extends AbstractCyNetworkReader {
 		else // Need to create new network with new root.
 			newNetwork = (CySubNetwork) cyNetworkFactory.createNetwork();
 
-		Map<Object, CyNode> nMap = getNodeMap();
-		
-		tm.setProgress(0.1);
+		final Map<Object, CyNode> nMap = getNodeMap();
 		
-		final String firstLine = br.readLine();
-		if (firstLine.contains(TAB))
-			delimiter = TAB;
-		createEdge(new Interaction(firstLine.trim(), delimiter), newNetwork, nMap);
-
 		tm.setProgress(0.15);
 		tm.setStatusMessage("Processing the interactions...");
-		int numInteractionsRead = 0;
+		final int[] numInteractionsRead = new int[1];
 		
-		while ((line = br.readLine()) != null) {
-			if (cancelled) {
-				// Cancel called. Clean up the garbage.
-				nMap.clear();
-				br.close();
-				return;
-			}
-
-			if (line.trim().length() <= 0)
-				continue;
-
-			try {
-				final Interaction itr = new Interaction(line, delimiter);
-				createEdge(itr, newNetwork, nMap);
-			} catch (Exception e) {
-				// Simply ignore invalid lines.
-				continue;
-			}
-
-			if ( (++numInteractionsRead % 1000) == 0 )
-				tm.setStatusMessage("Processed " + numInteractionsRead + " interactions so far.");
+		// The lines are tokenized on all processors, and the nodes and edges are created here, in order
+		LineChunkReader.read(
+				is,
+				(text, start, end) -> InteractionChunk.parse(text, start, end, delimiterChar),
+				chunk -> {
+					if (cancelled)
+						return false;
+					
+					createEdges(chunk, newNetwork, nMap);
+					numInteractionsRead[0] += chunk.lineCount;
+					tm.setStatusMessage("Processed " + numInteractionsRead[0] + " interactions so far.");
+					
+					return true;
+				}
+		);
+		
+		// Cancel called. Clean up the garbage.
+		if (cancelled) {
+			nMap.clear();
+			return;
 		}
 
-		br.close();
-		tm.setStatusMessage("Processed " + numInteractionsRead + " interactions in total.");
-
+		tm.setStatusMessage("Processed " + numInteractionsRead[0] + " interactions in total.");
 		nMap.clear();
-		nMap = null;
 
 		this.networks = new CyNetwork[] { newNetwork };
 		tm.setProgress(1.0);
 	}
-	
-	private void createEdge(final Interaction itr, final CySubNetwork subNetwork, final Map<Object, CyNode> nMap) {
-		CyNode sourceNode = nMap.get(itr.getSource());
-		if (sourceNode == null) {
-			sourceNode = subNetwork.addNode();
-			subNetwork.getRow(sourceNode).set(CyNetwork.NAME, itr.getSource());
-			nMap.put(itr.getSource(), subNetwork.getRootNetwork().getNode(sourceNode.getSUID()));
-		}
-
-		for (final String target : itr.getTargets()) {
-			CyNode targetNode = nMap.get(target);
-			if (targetNode == null) {
-				targetNode = subNetwork.addNode();
-				subNetwork.getRow(targetNode).set(CyNetwork.NAME, target);
-				nMap.put(target, subNetwork.getRootNetwork().getNode(targetNode.getSUID()));
+	
+	private static boolean hasTabInFirstLine(final BufferedInputStream is) throws IOException {
+		is.mark(Integer.MAX_VALUE);
+		
+		try {
+			int b;
+			
+			while ((b = is.read()) != -1 && b != '\n' && b != '\r') {
+				if (b == '\t')
+					return true;
 			}
 			
+			return false;
+		} finally {
+			is.reset();
+		}
+	}
+	
+	/**
+	 * Creates the nodes and edges of a chunk of interactions. Each name is looked up only once per chunk.
+	 */
+	private void createEdges(final InteractionChunk chunk, final CySubNetwork subNetwork,
+			final Map<Object, CyNode> nMap) {
+		final CyNode[] nodes = new CyNode[chunk.nameCount];
+		// Whether the node is known to be in the sub-network
+		final boolean[] added = new boolean[chunk.nameCount];
+		
+		for (int i = 0; i < chunk.size; i++) {
+			final int s = chunk.sources[i];
+			final CyNode sourceNode = getNode(chunk, s, nodes, added, subNetwork, nMap);
+			final int t = chunk.targets[i];
+			
+			if (t < 0)
+				continue;
+			
+			final CyNode targetNode = getNode(chunk, t, nodes, added, subNetwork, nMap);
+			
 			// Add the sourceNode and targetNode to subNetwork
-			if (!subNetwork.containsNode(sourceNode)){
-				subNetwork.addNode(sourceNode);				
+			if (!added[s]) {
+				if (!subNetwork.containsNode(sourceNode))
+					subNetwork.addNode(sourceNode);
+				added[s] = true;
 			}
-			if (!subNetwork.containsNode(targetNode)){
-				subNetwork.addNode(targetNode);				
+			if (!added[t]) {
+				if (!subNetwork.containsNode(targetNode))
+					subNetwork.addNode(targetNode);
+				added[t] = true;
 			}
 			
 			final CyEdge edge = subNetwork.addEdge(sourceNode, targetNode, true);
-			subNetwork.getRow(edge).set(CyNetwork.NAME, getEdgeName(itr,target));
-			subNetwork.getRow(edge).set(CyEdge.INTERACTION, itr.getType());
+			final CyRow row = subNetwork.getRow(edge);
+			row.set(CyNetwork.NAME, chunk.edgeNames[i]);
+			row.set(CyEdge.INTERACTION, chunk.names[chunk.types[i]]);
 		}
 	}
-
-	private String getEdgeName(Interaction itr, String target) {
-		edgeNameBuilder.delete(0,edgeNameBuilder.length());
-		edgeNameBuilder.append(itr.getSource());
-		edgeNameBuilder.append(" (");
-		edgeNameBuilder.append(itr.getType());
-		edgeNameBuilder.append(") ");
-		edgeNameBuilder.append(target);
-		return edgeNameBuilder.toString();
+	
+	private CyNode getNode(final InteractionChunk chunk, final int index, final CyNode[] nodes, final boolean[] added,
+			final CySubNetwork subNetwork, final Map<Object, CyNode> nMap) {
+		CyNode node = nodes[index];
+		
+		if (node == null) {
+			final String name = chunk.names[index];
+			node = nMap.get(name);
+			
+			if (node == null) {
+				node = subNetwork.addNode();
+				subNetwork.getRow(node).set(CyNetwork.NAME, name);
+				nMap.put(name, subNetwork.getRootNetwork().getNode(node.getSUID()));
+				added[index] = true;
+			}
+			
+			nodes[index] = node;
+		}
+		
+		return node;
 	}
-
+	
 	@Override
 	public CyNetworkView buildCyNetworkView(CyNetwork network) {
 		final CyNetworkView view = getNetworkViewFactory().createNetworkView(network);
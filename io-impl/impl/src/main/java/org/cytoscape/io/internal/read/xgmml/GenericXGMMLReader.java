@@ -11,10 +11,6 @@ import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
-
 import org.cytoscape.application.CyApplicationManager;
 import org.cytoscape.application.NetworkViewRenderer;
 import org.cytoscape.io.internal.read.xgmml.handler.ReadDataManager;
@@ -44,11 +40,8 @@ import org.cytoscape.view.presentation.property.values.Handle;
 import org.cytoscape.work.TaskMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
-import org.xml.sax.XMLReader;
-import org.xml.sax.helpers.ParserAdapter;
 
 /*
  * #%L
@@ -225,32 +218,17 @@ public class GenericXGMMLReader extends AbstractCyNetworkReader {
 	 * 
 	 * @throws IOException
 	 * @throws SAXException
-	 * @throws ParserConfigurationException
 	 */
 	protected void readXGMML(final TaskMonitor tm) throws SAXException, IOException {
-		final SAXParserFactory spf = SAXParserFactory.newInstance();
-
 		try {
-			// Get our parser
-			final SAXParser sp = spf.newSAXParser();
-			// Ignore the DTD declaration
-			final XMLReader reader = sp.getXMLReader();
-			reader.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-			reader.setFeature("http://xml.org/sax/features/validation", false);
-			// Make the SAX1 Parser act as a SAX2 XMLReader
-			final ParserAdapter pa = new ParserAdapter(sp.getParser());
-			pa.setContentHandler(parser);
-			pa.setErrorHandler(parser);
-			// Parse the XGMML input
-			pa.parse(new InputSource(inputStream));
+			// Pull the elements through the parser's state machine
+			new XGMMLStreamParser(parser).parse(inputStream);
 		} catch (OutOfMemoryError oe) {
 			// It's not generally a good idea to catch OutOfMemoryErrors, but in
 			// this case, where we know the culprit (a file that is too large),
 			// we can at least try to degrade gracefully.
 			System.gc();
 			throw new RuntimeException("Out of memory error caught. The network being loaded is too large for the current memory allocation.  Use the -Xmx flag for the java virtual machine to increase the amount of memory available, e.g. java -Xmx1G cytoscape.jar -p apps ....");
-		} catch (ParserConfigurationException e) {
-			logger.error("XGMMLParser: " + e.getMessage());
 		} catch (SAXParseException e) {
 			logger.error("XGMMLParser: fatal parsing error on line " + e.getLineNumber() + " -- '" + e.getMessage()
 					+ "'");
@@ -26,18 +26,12 @@ package org.cytoscape.io.internal.read.xgmml;
 
 import java.awt.List;
 import java.util.ArrayList;
-import java.util.regex.Pattern;
 
 import org.cytoscape.io.internal.util.SUIDUpdater;
 import org.cytoscape.io.internal.util.xgmml.ObjectType;
 
 public class ObjectTypeMap {
 
-	// Should be only "1", but let's be nice and also accept "true"
-	// http://www.cs.rpi.edu/research/groups/pb/punin/public_html/XGMML/draft-xgmml-20001006.html#BT
-	// We also accept "yes", because of Cy2 "has_nested_network" attribute
-	private static Pattern TRUE_PATTERN = Pattern.compile("(?i)1|true|yes");
-	
     public ObjectType fromXgmml(final String cyType, final String xgmmlType) {
         ObjectType type = null;
         
@@ -85,7 +79,7 @@ public class ObjectTypeMap {
 		switch (type) {
 		case BOOLEAN:
 			if (value != null)
-				typedValue = fromXGMMLBoolean("" + value);
+				typedValue = fromXGMMLBoolean(value);
 			break;
 		case REAL:
 			if (value != null) {
@@ -108,11 +102,8 @@ public class ObjectTypeMap {
 				typedValue = Long.valueOf(value);
 			break;
 		case STRING:
-			if (value != null) {
-				// Make sure we convert our newlines and tabs back
-				final String sAttr = value.replace("\\t", "\t");
-				typedValue = sAttr.replace("\\n", "\n");
-			}
+			if (value != null)
+				typedValue = fromXGMMLString(value);
 			break;
 		case LIST:
 			typedValue = new ArrayList<Object>();
@@ -124,7 +115,21 @@ public class ObjectTypeMap {
 	}
 	
     public static boolean fromXGMMLBoolean(final String s) {
-    	return s != null && TRUE_PATTERN.matcher(s).matches();
+    	// Should be only "1", but let's be nice and also accept "true"
+    	// http://www.cs.rpi.edu/research/groups/pb/punin/public_html/XGMML/draft-xgmml-20001006.html#BT
+    	// We also accept "yes", because of Cy2 "has_nested_network" attribute
+    	return s != null && ("1".equals(s) || "true".equalsIgnoreCase(s) || "yes".equalsIgnoreCase(s));
+    }
+
+    /**
+     * Converts the escaped newlines and tabs of a string value back.
+     */
+    public static String fromXGMMLString(final String s) {
+    	// Most values have nothing to convert, so don't copy them
+    	if (s.indexOf('\\') < 0)
+    		return s;
+    	
+    	return s.replace("\\t", "\t").replace("\\n", "\n");
     }
 
     public static String toXGMMLBoolean(final Boolean value) {
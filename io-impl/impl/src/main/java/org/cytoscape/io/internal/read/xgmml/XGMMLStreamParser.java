@@ -0,0 +1,217 @@
+package org.cytoscape.io.internal.read.xgmml;
+
+/*
+ * #%L
+ * Cytoscape IO Impl (io-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.InputStream;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Reads XGMML documents with a StAX pull parser and feeds the elements to the
+ * state machine of an {@link XGMMLParser}, so the same handlers read them.
+ * <p>
+ * Compared to the SAX parser, the attributes of an element are not copied:
+ * the handlers see them through one {@link Attributes} view of the stream
+ * reader, which is only valid until they return. Element and attribute names
+ * come from the symbol table of the StAX parser, so each of them exists once.
+ * Character data is skipped, because none of the handlers use it.
+ */
+public class XGMMLStreamParser {
+
+	private final XGMMLParser parser;
+	private final XMLInputFactory factory;
+
+	public XGMMLStreamParser(final XGMMLParser parser) {
+		this.parser = parser;
+		this.factory = XMLInputFactory.newInstance();
+
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		// Ignore the DTD declaration
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+	}
+
+	/**
+	 * Parses the whole document. The stream is not closed.
+	 */
+	public void parse(final InputStream is) throws SAXException {
+		XMLStreamReader reader = null;
+
+		try {
+			reader = factory.createXMLStreamReader(is);
+			final StreamAttributes atts = new StreamAttributes(reader);
+
+			parser.startDocument();
+
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+					case XMLStreamConstants.START_ELEMENT:
+						parser.startElement(uri(reader.getNamespaceURI()), reader.getLocalName(),
+								qName(reader.getPrefix(), reader.getLocalName()), atts);
+						break;
+					case XMLStreamConstants.END_ELEMENT:
+						parser.endElement(uri(reader.getNamespaceURI()), reader.getLocalName(),
+								qName(reader.getPrefix(), reader.getLocalName()));
+						break;
+				}
+			}
+
+			parser.endDocument();
+		} catch (XMLStreamException e) {
+			final Location location = e.getLocation();
+			throw new SAXParseException(e.getMessage(), null, null,
+					location != null ? location.getLineNumber() : -1,
+					location != null ? location.getColumnNumber() : -1, e);
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (XMLStreamException e) {
+					// Nothing else is read from it
+				}
+			}
+		}
+	}
+
+	private static String uri(final String uri) {
+		return uri != null ? uri : "";
+	}
+
+	private static String qName(final String prefix, final String localName) {
+		return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+	}
+
+	/**
+	 * The attributes of the current start element of a stream reader.
+	 */
+	private static final class StreamAttributes implements Attributes {
+
+		private final XMLStreamReader reader;
+
+		StreamAttributes(final XMLStreamReader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public int getLength() {
+			return reader.getAttributeCount();
+		}
+
+		@Override
+		public String getURI(final int index) {
+			return index >= 0 && index < getLength() ? uri(reader.getAttributeNamespace(index)) : null;
+		}
+
+		@Override
+		public String getLocalName(final int index) {
+			return index >= 0 && index < getLength() ? reader.getAttributeLocalName(index) : null;
+		}
+
+		@Override
+		public String getQName(final int index) {
+			return index >= 0 && index < getLength() ?
+					qName(reader.getAttributePrefix(index), reader.getAttributeLocalName(index)) : null;
+		}
+
+		@Override
+		public String getType(final int index) {
+			return index >= 0 && index < getLength() ? reader.getAttributeType(index) : null;
+		}
+
+		@Override
+		public String getValue(final int index) {
+			return index >= 0 && index < getLength() ? reader.getAttributeValue(index) : null;
+		}
+
+		@Override
+		public int getIndex(final String uri, final String localName) {
+			final int length = getLength();
+
+			for (int i = 0; i < length; i++) {
+				if (reader.getAttributeLocalName(i).equals(localName)
+						&& uri(reader.getAttributeNamespace(i)).equals(uri))
+					return i;
+			}
+
+			return -1;
+		}
+
+		@Override
+		public int getIndex(final String qName) {
+			final int length = getLength();
+
+			for (int i = 0; i < length; i++) {
+				if (matches(qName, reader.getAttributePrefix(i), reader.getAttributeLocalName(i)))
+					return i;
+			}
+
+			return -1;
+		}
+
+		@Override
+		public String getType(final String uri, final String localName) {
+			return getType(getIndex(uri, localName));
+		}
+
+		@Override
+		public String getType(final String qName) {
+			return getType(getIndex(qName));
+		}
+
+		@Override
+		public String getValue(final String uri, final String localName) {
+			return getValue(getIndex(uri, localName));
+		}
+
+		@Override
+		public String getValue(final String qName) {
+			return getValue(getIndex(qName));
+		}
+
+		/**
+		 * Compares a qualified name to a prefix and local name without joining them.
+		 */
+		private static boolean matches(final String qName, final String prefix, final String localName) {
+			if (prefix == null || prefix.isEmpty())
+				return qName.equals(localName);
+
+			final int colon = prefix.length();
+
+			return qName.length() == colon + 1 + localName.length()
+					&& qName.charAt(colon) == ':'
+					&& qName.startsWith(prefix)
+					&& qName.endsWith(localName);
+		}
+	}
+}
@@ -171,7 +171,7 @@ public class AttributeValueUtil {
 	protected ParseState handleAttribute(Attributes atts) throws SAXParseException {
     	ParseState parseState = ParseState.NONE;
     	
-    	final String name = atts.getValue("name");
+    	final String name = manager.intern(atts.getValue("name"));
     	String type = atts.getValue("type");
     	String cyType = atts.getValue("cy:type");
     	
@@ -260,7 +260,6 @@ public class AttributeValueUtil {
         		row = curNet.getRow(curElement, CyNetwork.LOCAL_ATTRS);
         }
         
-        Object value = null;
         final ObjectType objType = typeMap.fromXgmml(cyType, type);
 
         if (isEquation) {
@@ -270,36 +269,16 @@ public class AttributeValueUtil {
             if (name != null && formula != null) {
             	manager.addEquationString(row, name, formula);
             }
-        } else {
-        	// Regular attribute value...
-        	value = getTypedAttributeValue(objType, atts, name);
         }
 
         switch (objType) {
 			case BOOLEAN:
-				if (name != null) setAttribute(row, name, Boolean.class, (Boolean) value);
-				break;
 			case REAL:
-				if (name != null) {
-					if (SUIDUpdater.isUpdatable(name))
-						setAttribute(row, name, Long.class, (Long) value);
-					else
-						setAttribute(row, name, Double.class, (Double) value);
-				}
-				break;
 			case INTEGER:
-				if (name != null) {
-					if (SUIDUpdater.isUpdatable(name))
-						setAttribute(row, name, Long.class, (Long) value);
-					else
-						setAttribute(row, name, Integer.class, (Integer) value);
-				}
-				break;
 			case LONG:
-				if (name != null) setAttribute(row, name, Long.class, (Long) value);
-				break;
 			case STRING:
-				if (name != null) setAttribute(row, name, String.class, (String) value);
+				// Equations only need the column, their values are set when all of them have been read
+				if (name != null) setTypedAttribute(row, name, objType, isEquation ? null : atts.getValue("value"));
 				break;
 			// We need to be *very* careful. Because we duplicate attributes for
 			// each network we write out, we wind up reading and processing each
@@ -334,39 +313,90 @@ public class AttributeValueUtil {
         return parseState;
     }
     
-    private <T> void setAttribute(final CyRow row, final String name, final Class<T> type, final T value) {
-        if (name != null) {
-            final CyTable table = row.getTable();
-            CyColumn column = table.getColumn(name);
-            
-            if (column == null) {
-            	table.createColumn(name, type, false);
-            	column = table.getColumn(name);
-            } else if (column.getVirtualColumnInfo().isVirtual()) {
-            	logger.warn("Cannot set value to virtual column \"" + name + "\".");
-            	return;
-            }
-            
-            if (value != null) {
-            	// Note: The actual column type may be different from the passed "type" argument,
-            	//       if the column was not created when importing the XGMML
-            	//       (i.e. merging with an existing CyRootNetwork)
-            	final Class<?> colType = column.getType();
-            	
-            	// Preventing ClassCastExeptions when handling numbers,
-            	// because there is no 1:1 type matching between numeric CyColumn types and XGMML types
-            	// (only when importing standard XGMML files or from Cytoscape version 3.2 or bellow,
-            	// since Cytoscape 3.3 adds the "cy:type" and "cy:elementTypes" attributes)
-            	if (colType == Integer.class)
-            		row.set(name, ((Number)value).intValue());
-            	else if (colType == Long.class)
-            		row.set(name, ((Number)value).longValue());
-            	else if (colType == Double.class)
-            		row.set(name, ((Number)value).doubleValue());
-            	else
-            		row.set(name, value);
-            }
+    /**
+     * Parses the value straight into the type of the column, which may be different from the XGMML type,
+     * and sets it, creating the column if it does not exist yet.
+     */
+    private void setTypedAttribute(final CyRow row, final String name, final ObjectType objType, final String value)
+    		throws SAXParseException {
+        final CyTable table = row.getTable();
+        CyColumn column = table.getColumn(name);
+        
+        if (column == null) {
+        	table.createColumn(name, typeMap.getClass(objType, name), false);
+        	column = table.getColumn(name);
+        } else if (column.getVirtualColumnInfo().isVirtual()) {
+        	logger.warn("Cannot set value to virtual column \"" + name + "\".");
+        	return;
         }
+        
+        if (value == null)
+        	return;
+        
+        // Note: The actual column type may be different from the XGMML type,
+        //       if the column was not created when importing the XGMML
+        //       (i.e. merging with an existing CyRootNetwork)
+        final Class<?> colType = column.getType();
+        
+        // Preventing ClassCastExeptions when handling numbers,
+        // because there is no 1:1 type matching between numeric CyColumn types and XGMML types
+        // (only when importing standard XGMML files or from Cytoscape version 3.2 or bellow,
+        // since Cytoscape 3.3 adds the "cy:type" and "cy:elementTypes" attributes)
+        try {
+	        switch (objType) {
+				case BOOLEAN:
+					row.set(name, ObjectTypeMap.fromXGMMLBoolean(value));
+					break;
+				case REAL:
+					if (SUIDUpdater.isUpdatable(name))
+						setLong(row, name, colType, (long) Double.parseDouble(value));
+					else
+						setDouble(row, name, colType, Double.parseDouble(value));
+					break;
+				case INTEGER:
+					if (SUIDUpdater.isUpdatable(name))
+						setLong(row, name, colType, Long.parseLong(value));
+					else
+						setInt(row, name, colType, Integer.parseInt(value));
+					break;
+				case LONG:
+					setLong(row, name, colType, Long.parseLong(value));
+					break;
+				default:
+					// The same values are often repeated in many rows
+					row.set(name, manager.intern(ObjectTypeMap.fromXGMMLString(value)));
+					break;
+	        }
+        } catch (NumberFormatException e) {
+        	throw new SAXParseException("Unable to convert '" + value + "' to type " + objType.toString(), locator);
+        }
+    }
+    
+    private static void setInt(final CyRow row, final String name, final Class<?> colType, final int value) {
+    	if (colType == Long.class)
+    		row.set(name, (long) value);
+    	else if (colType == Double.class)
+    		row.set(name, (double) value);
+    	else
+    		row.set(name, value);
+    }
+    
+    private static void setLong(final CyRow row, final String name, final Class<?> colType, final long value) {
+    	if (colType == Integer.class)
+    		row.set(name, (int) value);
+    	else if (colType == Double.class)
+    		row.set(name, (double) value);
+    	else
+    		row.set(name, value);
+    }
+    
+    private static void setDouble(final CyRow row, final String name, final Class<?> colType, final double value) {
+    	if (colType == Integer.class)
+    		row.set(name, (int) value);
+    	else if (colType == Long.class)
+    		row.set(name, (long) value);
+    	else
+    		row.set(name, value);
     }
     
 	private static boolean existsInLocalTable(final String columnName, final Class<? extends CyIdentifiable> tableType,
@@ -0,0 +1,69 @@
+package org.cytoscape.io.internal.read.xgmml.handler;
+
+/*
+ * #%L
+ * Cytoscape IO Impl (io-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * Shares the strings that repeat all over an XGMML document, such as column
+ * names, graphics attribute names and common values like colors and shapes,
+ * so the ones that are kept while reading exist only once.
+ * <p>
+ * Unlike {@link String#intern()}, the pool has a fixed size: every string goes
+ * to the slot given by its hash code and replaces the one that was there, so
+ * unique values such as node coordinates cannot make it grow, and the
+ * frequent ones stay in it.
+ */
+final class NamePool {
+
+	private static final int SIZE = 8192;
+	/** Longer strings are hardly ever repeated, so they are not worth hashing */
+	private static final int MAX_LENGTH = 64;
+
+	private final String[] slots = new String[SIZE];
+
+	/**
+	 * @return an equal string that was passed before, or the given one
+	 */
+	String intern(final String s) {
+		if (s == null || s.length() > MAX_LENGTH)
+			return s;
+
+		final int hash = s.hashCode();
+		final int index = (hash ^ (hash >>> 16)) & (SIZE - 1);
+		final String pooled = slots[index];
+
+		if (s.equals(pooled))
+			return pooled;
+
+		slots[index] = s;
+
+		return s;
+	}
+
+	void clear() {
+		Arrays.fill(slots, null);
+	}
+}
@@ -136,6 +136,9 @@ public class ReadDataManager {
 	private Map<Object/*old model id*/, Map<String/*att name*/, String/*att value*/>> viewGraphics;
 	private Map<Object/*old model id*/, Map<String/*att name*/, String/*att value*/>> viewLockedGraphics;
 	
+	/** Shares the column names and graphics attributes that are kept while reading */
+	private final NamePool namePool = new NamePool();
+	
 	private final ReadCache cache;
 	private final SUIDUpdater suidUpdater;
 	private final GroupUtil groupUtil;
@@ -207,6 +210,7 @@ public class ReadDataManager {
 		rendererId = null;
 		viewGraphics = new LinkedHashMap<>();
 		viewLockedGraphics = new LinkedHashMap<>();
+		namePool.clear();
 	}
 	
 	public void dispose() {
@@ -253,6 +257,14 @@ public class ReadDataManager {
 		return publicNetworks;
 	}
 
+	/**
+	 * @return a string equal to the given one that may have been read before,
+	 * so that repeated names and values are not kept in memory more than once
+	 */
+	protected String intern(final String s) {
+		return namePool.intern(s);
+	}
+
 	public ReadCache getCache() {
 		return cache;
 	}
@@ -284,7 +296,7 @@ public class ReadDataManager {
 				graphics.put(element.getSUID(), attributes);
 			}
 
-			attributes.put(attName, attValue);
+			attributes.put(intern(attName), intern(attValue));
 		}
 	}
 	
@@ -305,7 +317,7 @@ public class ReadDataManager {
 			graphics.put(oldModelId, attributes);
 		}
 
-		attributes.put(attName, attValue);
+		attributes.put(intern(attName), intern(attValue));
 	}
 
 	protected void addGraphicsAttributes(CyIdentifiable element, Attributes atts) {
@@ -391,11 +403,19 @@ public class ReadDataManager {
 				String columnName = colEqEntry.getKey();
 				String formula = colEqEntry.getValue();
 
-				if (equationCompiler.compile(formula, colNameTypeMap)) {
-					Equation equation = equationCompiler.getEquation();
+				final Equation equation;
+				final String errorMsg;
+				
+				// Session tables may be compiling their equations at the same time
+				synchronized (equationCompiler) {
+					equation = equationCompiler.compile(formula, colNameTypeMap) ? equationCompiler.getEquation() : null;
+					errorMsg = equationCompiler.getLastErrorMsg();
+				}
+				
+				if (equation != null) {
 					row.set(columnName, equation);
 				} else {
-					logger.error("Error parsing equation \"" + formula + "\": " + equationCompiler.getLastErrorMsg());
+					logger.error("Error parsing equation \"" + formula + "\": " + errorMsg);
 				}
 			}
 		}
@@ -0,0 +1,235 @@
+package org.cytoscape.io.internal.util;
+
+/*
+ * #%L
+ * Cytoscape IO Impl (io-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads a UTF-8 text stream in large chunks that end at a line break and
+ * parses the chunks on a pool, while the calling thread consumes the results
+ * in the order of the chunks. This way decoding and tokenizing the lines of a
+ * large network file take all the processors, and the network can still be
+ * built on one thread, which is what the network model expects.
+ * <p>
+ * A line ends with "\n", "\r" or "\r\n", as in {@link java.io.BufferedReader#readLine()}.
+ */
+public final class LineChunkReader {
+
+	/** Parses the whole lines of one chunk; called from the pool threads. */
+	public interface ChunkParser<T> {
+		/**
+		 * @param text the decoded text, which ends with a line break unless it
+		 *        is the end of the stream
+		 */
+		T parse(char[] text, int start, int end) throws IOException;
+	}
+
+	/** Takes the parsed chunks, in order, on the calling thread. */
+	public interface ChunkConsumer<T> {
+		/**
+		 * @return false to stop reading
+		 */
+		boolean accept(T chunk) throws IOException;
+	}
+
+	private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	private LineChunkReader() {
+	}
+
+	/**
+	 * Reads the stream to the end, or until the consumer stops, without closing it.
+	 */
+	public static <T> void read(final InputStream is, final ChunkParser<T> parser, final ChunkConsumer<T> consumer)
+			throws IOException {
+		final int threads = Runtime.getRuntime().availableProcessors();
+		final Chunker chunker = new Chunker(is);
+
+		if (threads <= 1) {
+			ByteBuffer chunk;
+
+			while ((chunk = chunker.next()) != null) {
+				if (!consumer.accept(parse(parser, chunk)))
+					return;
+			}
+
+			return;
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+			final Thread t = new Thread(r, "line-chunk-reader-" + THREAD_COUNT.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		final Deque<Future<T>> pending = new ArrayDeque<>();
+
+		try {
+			boolean more = true;
+
+			while (more || !pending.isEmpty()) {
+				// Only a few chunks are read ahead of the one that is consumed, so they are not all held at once
+				while (more && pending.size() < 2 * threads) {
+					final ByteBuffer chunk = chunker.next();
+
+					if (chunk == null)
+						more = false;
+					else
+						pending.add(executor.submit(() -> parse(parser, chunk)));
+				}
+
+				if (!pending.isEmpty() && !consumer.accept(get(pending.poll())))
+					return;
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return the end of the line that starts at the given index, without its line break
+	 */
+	public static int lineEnd(final char[] text, final int start, final int end) {
+		int i = start;
+
+		while (i < end && text[i] != '\n' && text[i] != '\r')
+			i++;
+
+		return i;
+	}
+
+	/**
+	 * @return the start of the line after the line break at the given index
+	 */
+	public static int nextLine(final char[] text, final int lineEnd, final int end) {
+		if (lineEnd < end - 1 && text[lineEnd] == '\r' && text[lineEnd + 1] == '\n')
+			return lineEnd + 2;
+
+		return lineEnd + 1;
+	}
+
+	private static <T> T parse(final ChunkParser<T> parser, final ByteBuffer chunk) throws IOException {
+		// A line break byte is never part of a multi-byte character, so every chunk can be decoded on its own
+		final CharBuffer text = StandardCharsets.UTF_8.newDecoder().decode(chunk);
+
+		return parser.parse(text.array(), text.arrayOffset() + text.position(), text.arrayOffset() + text.limit());
+	}
+
+	private static <T> T get(final Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while reading", e);
+		} catch (ExecutionException e) {
+			final Throwable cause = e.getCause();
+
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Cuts the stream into chunks of about CHUNK_SIZE bytes that end after the
+	 * last line break they contain. The bytes after it start the next chunk.
+	 */
+	private static final class Chunker {
+
+		private final InputStream is;
+		private byte[] rest = new byte[0];
+		private boolean eof;
+
+		Chunker(final InputStream is) {
+			this.is = is;
+		}
+
+		/**
+		 * @return the next chunk, or null at the end of the stream
+		 */
+		ByteBuffer next() throws IOException {
+			if (eof && rest.length == 0)
+				return null;
+
+			byte[] buf = Arrays.copyOf(rest, Math.max(CHUNK_SIZE, 2 * rest.length));
+			int length = rest.length;
+			int searched = 0;
+
+			while (true) {
+				while (!eof && length < buf.length) {
+					final int n = is.read(buf, length, buf.length - length);
+
+					if (n < 0)
+						eof = true;
+					else
+						length += n;
+				}
+
+				final int end = lastLineBreak(buf, searched, length, eof) + 1;
+
+				if (end > 0) {
+					rest = Arrays.copyOfRange(buf, end, length);
+					return ByteBuffer.wrap(buf, 0, end);
+				}
+
+				if (eof) {
+					rest = new byte[0];
+					return length == 0 ? null : ByteBuffer.wrap(buf, 0, length);
+				}
+
+				// A line that is longer than the buffer
+				searched = Math.max(0, length - 1);
+				buf = Arrays.copyOf(buf, 2 * buf.length);
+			}
+		}
+
+		private static int lastLineBreak(final byte[] buf, final int from, final int to, final boolean eof) {
+			for (int i = to - 1; i >= from; i--) {
+				// A "\r" at the end may be followed by the "\n" of the same line break in the next read
+				if (buf[i] == '\n' || (buf[i] == '\r' && (eof || i < to - 1)))
+					return i;
+			}
+
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package org.cytoscape.io.internal.write.session;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/*
+ * #%L
+ * Cytoscape IO Impl (io-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Holds the content of one session entry until it is copied into the session
+ * zip. Small entries stay in memory and larger ones are moved to a temporary
+ * file. The size and CRC of the content are kept as well, because entries that
+ * are stored without compression need them before their content is written.
+ */
+final class SessionEntryBuffer extends OutputStream {
+
+	/** Content larger than this is moved to a temporary file */
+	private static final int MEMORY_LIMIT = 1024 * 1024;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final String name;
+	private final CRC32 crc = new CRC32();
+	private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+	private File file;
+	private OutputStream out = memory;
+	private long size;
+	private long writeTime;
+
+	SessionEntryBuffer(final String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return the name of the entry in the session zip
+	 */
+	String getName() {
+		return name;
+	}
+
+	long getSize() {
+		return size;
+	}
+
+	long getCrc() {
+		return crc.getValue();
+	}
+
+	/**
+	 * @return how long writing the content took, in milliseconds
+	 */
+	long getWriteTime() {
+		return writeTime;
+	}
+
+	void setWriteTime(final long writeTime) {
+		this.writeTime = writeTime;
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		spillIfFull(1);
+		out.write(b);
+		crc.update(b);
+		size++;
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) throws IOException {
+		spillIfFull(len);
+		out.write(b, off, len);
+		crc.update(b, off, len);
+		size += len;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+	/**
+	 * Copies the content to the given stream, which is not closed.
+	 */
+	void copyTo(final OutputStream target) throws IOException {
+		if (memory != null) {
+			memory.writeTo(target);
+			return;
+		}
+
+		out.close();
+		final byte[] buf = new byte[BUFFER_SIZE];
+
+		try (InputStream in = new FileInputStream(file)) {
+			int len;
+
+			while ((len = in.read(buf)) != -1)
+				target.write(buf, 0, len);
+		}
+	}
+
+	/**
+	 * Frees the memory or deletes the temporary file that holds the content.
+	 */
+	void dispose() {
+		try {
+			out.close();
+		} catch (IOException e) {
+			// Nothing is written anymore
+		}
+
+		memory = null;
+
+		if (file != null)
+			file.delete();
+	}
+
+	private void spillIfFull(final int len) throws IOException {
+		if (memory == null || memory.size() + len <= MEMORY_LIMIT)
+			return;
+
+		file = File.createTempFile("session-entry", ".tmp");
+		file.deleteOnExit();
+		out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+		memory.writeTo(out);
+		memory = null;
+	}
+}
@@ -21,14 +21,26 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -89,6 +101,14 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Write session states into files and zip them into one session file "*.cys".
+ * <p>
+ * Networks, network views and tables are written on a pool, each into its own
+ * buffer, and copied into the zip in order as they are done. The compression
+ * level and the extensions of the entries that are stored without compression,
+ * because they are compressed already, are read from the
+ * {@value #COMPRESSION_LEVEL_PROPERTY} and {@value #STORED_EXTENSIONS_PROPERTY}
+ * Cytoscape properties. How long each entry took to write and to zip is logged
+ * at debug level.
  *
  * @see org.cytoscape.io.internal.read.session.Cy2SessionReaderImpl
  * @see org.cytoscape.io.internal.read.session.Cy3SessionReaderImpl
@@ -96,6 +116,15 @@ import org.slf4j.LoggerFactory;
 public class SessionWriterImpl extends AbstractTask implements CyWriter {
 
 	private static final Logger logger = LoggerFactory.getLogger("org.cytoscape.application.userlog");
+	private static final Logger timeLogger = LoggerFactory.getLogger(SessionWriterImpl.class);
+	
+	/** Deflate level of the compressed entries, from 0 to 9, or -1 for the default level */
+	public static final String COMPRESSION_LEVEL_PROPERTY = "session.compressionLevel";
+	/** Comma separated extensions of the entries that are stored without compression */
+	public static final String STORED_EXTENSIONS_PROPERTY = "session.storedExtensions";
+	private static final String DEFAULT_STORED_EXTENSIONS = "png,jpg,jpeg,gif,gz,zip,jar";
+	
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
 	
 	private static final String VIZMAP_FILE = "session_vizmap.xml";
 	private static final String THUMBNAIL_FILE = "session_thumbnail.png";
@@ -107,6 +136,8 @@ public class SessionWriterImpl extends AbstractTask implements CyWriter {
 	private final String sessionDir;
 	private ZipOutputStream zos; 
 	private TaskMonitor taskMonitor;
+	private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+	private final Set<String> storedExtensions = new HashSet<>();
 
 	private final OutputStream outputStream;
 	private final CySession session;
@@ -191,31 +222,53 @@ public class SessionWriterImpl extends AbstractTask implements CyWriter {
 		tm.setTitle("Writing Session File");
 		tm.setStatusMessage("Preparing...");
 		
+		readCompressionSettings();
 		zos = new ZipOutputStream(outputStream);
+		zos.setLevel(compressionLevel);
 		prepareGroups(); // Groups require specific metadata
 	}
 	
+	@SuppressWarnings("unchecked")
+	private void readCompressionSettings() {
+		String extensions = DEFAULT_STORED_EXTENSIONS;
+		final CyProperty<Properties> cyProperty =
+				serviceRegistrar.getService(CyProperty.class, "(cyPropertyName=cytoscape3.props)");
+		
+		if (cyProperty != null && cyProperty.getProperties() != null) {
+			final Properties properties = cyProperty.getProperties();
+			final String level = properties.getProperty(COMPRESSION_LEVEL_PROPERTY);
+			
+			if (level != null && !level.trim().isEmpty()) {
+				try {
+					compressionLevel = Math.max(Deflater.DEFAULT_COMPRESSION,
+							Math.min(Deflater.BEST_COMPRESSION, Integer.parseInt(level.trim())));
+				} catch (NumberFormatException e) {
+					logger.warn("Invalid session compression level \"" + level + "\"; using the default level");
+				}
+			}
+			
+			extensions = properties.getProperty(STORED_EXTENSIONS_PROPERTY, extensions);
+		}
+		
+		for (final String ext : extensions.split(",")) {
+			if (!ext.trim().isEmpty())
+				storedExtensions.add(ext.trim().toLowerCase(Locale.ENGLISH));
+		}
+	}
+	
 	private void write(TaskMonitor tm) throws Exception {
+		final long start = System.currentTimeMillis();
 		zipVersion();
 		tm.setProgress(0.1);
 		
 		if (cancelled) return;
 		
-		tm.setStatusMessage("Saving networks...");
-		zipNetworks();
-		tm.setProgress(0.3);
-		
-		if (cancelled) return;
-		
-		tm.setStatusMessage("Saving network views...");
-		zipNetworkViews();
-		tm.setProgress(0.4);
-		
-		if (cancelled) return;
-		
-		tm.setStatusMessage("Saving tables...");
-		zipTables();
-		tm.setProgress(0.5);
+		// Networks, views and tables are written in parallel
+		final List<SessionEntry> entries = new ArrayList<>();
+		addNetworks(entries);
+		addNetworkViews(entries);
+		addTables(entries);
+		zipEntries(entries, tm, 0.1, 0.5);
 		
 		if (cancelled) return;
 		
@@ -240,6 +293,8 @@ public class SessionWriterImpl extends AbstractTask implements CyWriter {
 		
 		zipFileListMap();
 		tm.setProgress(0.9);
+		
+		timeLogger.debug("Session written in " + (System.currentTimeMillis() - start) + " ms");
 	}
 	
 	private void complete(TaskMonitor tm) {
@@ -310,10 +365,10 @@ public class SessionWriterImpl extends AbstractTask implements CyWriter {
 	}
 
 	/**
-	 * Writes network files to the session zip. 
+	 * Adds the network files to the entries to write. 
 	 * @throws Exception
 	 */
-	private void zipNetworks() throws Exception {
+	private void addNetworks(final List<SessionEntry> entries) throws Exception {
 		final CyRootNetworkManager rootNetworkManager = serviceRegistrar.getService(CyRootNetworkManager.class);
 		final Set<CyNetwork> networks = session.getNetworks();
 		final Set<CyRootNetwork> rootNetworks = new HashSet<>();
@@ -327,40 +382,180 @@ public class SessionWriterImpl extends AbstractTask implements CyWriter {
 		}
 		
 		for (CyRootNetwork rn : rootNetworks) {
-			if (cancelled) return;
-			
 			String xgmmlFile = SessionUtil.getXGMMLFilename(rn);
 			if (xgmmlFile.contains("_ERROR")) throw new Exception("Simulating exception...");
-			zos.putNextEntry(new ZipEntry(sessionDir + NETWORKS_FOLDER + xgmmlFile) );
 			
-			CyWriter writer = networkViewWriterFactory.createWriter(zos, rn);
-			writer.run(taskMonitor);
-	
-			zos.closeEntry();
-			writer = null;
+			entries.add(new SessionEntry(sessionDir + NETWORKS_FOLDER + xgmmlFile, "Saving networks...",
+					out -> networkViewWriterFactory.createWriter(out, rn).run(NULL_MONITOR)));
 		}
 	}
 	
 	/**
-	 * Writes network view files to the session zip. 
-	 * @throws Exception
+	 * Adds the network view files to the entries to write. 
 	 */
-	private void zipNetworkViews() throws Exception {
+	private void addNetworkViews(final List<SessionEntry> entries) {
 		final Set<CyNetworkView> netViews = session.getNetworkViews();
 
 		for (final CyNetworkView view : netViews) {
-			if (cancelled) return;
-			
 			String xgmmlFile = SessionUtil.getXGMMLFilename(view);
-			zos.putNextEntry(new ZipEntry(sessionDir + NETWORK_VIEWS_FOLDER + xgmmlFile) );
 			
-			CyWriter writer = networkViewWriterFactory.createWriter(zos, view);
-			writer.run(taskMonitor);
+			entries.add(new SessionEntry(sessionDir + NETWORK_VIEWS_FOLDER + xgmmlFile, "Saving network views...",
+					out -> networkViewWriterFactory.createWriter(out, view).run(NULL_MONITOR)));
+		}
+	}
 	
-			zos.closeEntry();
-			writer = null;
+	/**
+	 * Writes the entries on a pool and copies each one into the session zip,
+	 * in order, as soon as it is done. Only a few entries are written ahead of
+	 * the one that is copied, so that not all of them are held at once.
+	 */
+	private void zipEntries(final List<SessionEntry> entries, final TaskMonitor tm, final double startProgress,
+			final double endProgress) throws Exception {
+		if (entries.isEmpty()) return;
+		
+		final int threads = Math.min(Runtime.getRuntime().availableProcessors(), entries.size());
+		final ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+			final Thread t = new Thread(r, "session-writer-" + THREAD_COUNT.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		final AtomicBoolean aborted = new AtomicBoolean();
+		final Deque<Future<SessionEntryBuffer>> pending = new ArrayDeque<>();
+		int next = 0;
+		
+		try {
+			for (int i = 0; i < entries.size(); i++) {
+				while (next < entries.size() && next - i < 2 * threads) {
+					final SessionEntry entry = entries.get(next++);
+					pending.add(executor.submit(() -> writeEntry(entry, aborted)));
+				}
+				
+				if (cancelled) return;
+				
+				tm.setStatusMessage(entries.get(i).status);
+				final SessionEntryBuffer buffer;
+				
+				try {
+					buffer = pending.poll().get();
+				} catch (ExecutionException e) {
+					final Throwable cause = e.getCause();
+					
+					if (cause instanceof Exception)
+						throw (Exception) cause;
+					if (cause instanceof Error)
+						throw (Error) cause;
+					
+					throw e;
+				}
+				
+				if (buffer == null) return; // Cancelled
+				
+				try {
+					putEntry(buffer);
+				} finally {
+					buffer.dispose();
+				}
+				
+				tm.setProgress(startProgress + (endProgress - startProgress) * (i + 1) / entries.size());
+			}
+		} finally {
+			aborted.set(true);
+			executor.shutdownNow();
+			
+			// A writer may have got past its last check of aborted, so wait for all of
+			// them before disposing of the buffers that nobody is going to copy.
+			awaitTermination(executor);
+			
+			for (final Future<SessionEntryBuffer> future : pending) {
+				if (future.isDone() && !future.isCancelled()) {
+					try {
+						final SessionEntryBuffer buffer = future.get();
+						
+						if (buffer != null)
+							buffer.dispose();
+					} catch (Exception e) {
+						// The save has failed or was cancelled already
+					}
+				}
+			}
 		}
 	}
+	
+	/**
+	 * Waits for the pool to finish the entries it has started, even if the
+	 * current thread is interrupted, whose interrupt status is then set again.
+	 */
+	private static void awaitTermination(final ExecutorService executor) {
+		boolean interrupted = false;
+		
+		while (true) {
+			try {
+				if (executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS))
+					break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+	
+	private SessionEntryBuffer writeEntry(final SessionEntry entry, final AtomicBoolean aborted) throws Exception {
+		if (aborted.get() || cancelled)
+			return null;
+		
+		final long start = System.currentTimeMillis();
+		final SessionEntryBuffer buffer = new SessionEntryBuffer(entry.name);
+		
+		try {
+			entry.writer.write(buffer);
+			buffer.flush();
+		} catch (Exception e) {
+			buffer.dispose();
+			throw e;
+		}
+		
+		buffer.setWriteTime(System.currentTimeMillis() - start);
+		
+		if (aborted.get()) {
+			buffer.dispose();
+			return null;
+		}
+		
+		return buffer;
+	}
+	
+	/**
+	 * Copies a written entry into the session zip, without compressing it if
+	 * its extension is one of the stored extensions.
+	 */
+	private void putEntry(final SessionEntryBuffer buffer) throws IOException {
+		final long start = System.currentTimeMillis();
+		final ZipEntry entry = new ZipEntry(buffer.getName());
+		
+		if (isStored(buffer.getName())) {
+			entry.setMethod(ZipEntry.STORED);
+			entry.setSize(buffer.getSize());
+			entry.setCompressedSize(buffer.getSize());
+			entry.setCrc(buffer.getCrc());
+		}
+		
+		zos.putNextEntry(entry);
+		buffer.copyTo(zos);
+		zos.closeEntry();
+		
+		if (timeLogger.isDebugEnabled())
+			timeLogger.debug(buffer.getName() + ": written in " + buffer.getWriteTime() + " ms, zipped in "
+					+ (System.currentTimeMillis() - start) + " ms, " + buffer.getSize() + " bytes, "
+					+ entry.getCompressedSize() + " bytes compressed");
+	}
+	
+	private boolean isStored(final String name) {
+		final int dot = name.lastIndexOf('.');
+		
+		return dot >= 0 && storedExtensions.contains(name.substring(dot + 1).toLowerCase(Locale.ENGLISH));
+	}
 
 	/**
 	 * Writes any files from apps to the session file.
@@ -388,29 +583,33 @@ public class SessionWriterImpl extends AbstractTask implements CyWriter {
 					if ((theFile == null) || (!theFile.exists()))
 						continue;
 	
-					zos.putNextEntry(new ZipEntry( sessionDir + APPS_FOLDER + appName + 
-					                               "/" + theFile.getName() ) );
-
 					// copy the file contents to the zip output stream
-					FileInputStream fileIS = new FileInputStream(theFile);
-					int numRead = 0;
-			        while ((numRead = fileIS.read(buf)) > -1)
-		            	zos.write(buf, 0, numRead);
-					fileIS.close();
-
-					zos.closeEntry();
+					final SessionEntryBuffer buffer = new SessionEntryBuffer(sessionDir + APPS_FOLDER + appName + 
+					                                                         "/" + theFile.getName());
+					
+					try {
+						final long start = System.currentTimeMillis();
+						FileInputStream fileIS = new FileInputStream(theFile);
+						int numRead = 0;
+				        while ((numRead = fileIS.read(buf)) > -1)
+			            	buffer.write(buf, 0, numRead);
+						fileIS.close();
+						
+						buffer.setWriteTime(System.currentTimeMillis() - start);
+						putEntry(buffer);
+					} finally {
+						buffer.dispose();
+					}
 				}
 			}
 		}
 	}
 
-	private void zipTables() throws Exception {
+	private void addTables(final List<SessionEntry> entries) {
 		tableFilenamesBySUID = new HashMap<>();
 		Set<CyTableMetadata> tableData = session.getTables();
 		
 		for (CyTableMetadata metadata : tableData) {
-			if (cancelled) return;
-			
 			CyTable table = metadata.getTable();
 			
 			if (table.getSavePolicy() != SavePolicy.SESSION_FILE)
@@ -427,14 +626,9 @@ public class SessionWriterImpl extends AbstractTask implements CyWriter {
 			}
 			
 			tableFilenamesBySUID.put(table.getSUID(), filename);
-			zos.putNextEntry(new ZipEntry(sessionDir + TABLES_FOLDER + filename));
 			
-			try {
-				CyWriter writer = tableWriterMgr.getWriter(table, tableFilter, zos);
-				writer.run(taskMonitor);
-			} finally {
-				zos.closeEntry();
-			}
+			entries.add(new SessionEntry(sessionDir + TABLES_FOLDER + filename, "Saving tables...",
+					out -> tableWriterMgr.getWriter(table, tableFilter, out).run(NULL_MONITOR)));
 		}
 	}
 	
@@ -486,9 +680,14 @@ public class SessionWriterImpl extends AbstractTask implements CyWriter {
 					    g.dispose();
 					}
 					
-					zos.putNextEntry(new ZipEntry(sessionDir + THUMBNAIL_FILE));
-					ImageIO.write(ri, "png", zos);
-					zos.closeEntry();
+					final SessionEntryBuffer buffer = new SessionEntryBuffer(sessionDir + THUMBNAIL_FILE);
+					
+					try {
+						ImageIO.write(ri, "png", buffer);
+						putEntry(buffer);
+					} finally {
+						buffer.dispose();
+					}
 				} catch (Exception e) {
 					// Just log the error. Don't let it prevent the session from being saved!
 					logger.error("Cannot save session thumbnail", e);
@@ -500,4 +699,43 @@ public class SessionWriterImpl extends AbstractTask implements CyWriter {
 	private void prepareGroups() {
 		groupUtils.prepareGroupsForSerialization(session.getNetworks());
 	}
+	
+	/**
+	 * Writes the content of a session entry.
+	 */
+	private interface EntryWriter {
+		void write(OutputStream out) throws Exception;
+	}
+	
+	private static final class SessionEntry {
+		
+		final String name;
+		final String status;
+		final EntryWriter writer;
+		
+		SessionEntry(final String name, final String status, final EntryWriter writer) {
+			this.name = name;
+			this.status = status;
+			this.writer = writer;
+		}
+	}
+	
+	/**
+	 * The writers that run on the pool report no progress, which would make the
+	 * progress of the session go back and forth.
+	 */
+	private static final TaskMonitor NULL_MONITOR = new TaskMonitor() {
+		@Override
+		public void setTitle(String title) {
+		}
+		@Override
+		public void setProgress(double progress) {
+		}
+		@Override
+		public void setStatusMessage(String statusMessage) {
+		}
+		@Override
+		public void showMessage(TaskMonitor.Level level, String message) {
+		}
+	};
 }
@@ -0,0 +1,91 @@
+package org.cytoscape.io.internal.read.sif;
+
+/*
+ * #%L
+ * Cytoscape IO Impl (io-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class InteractionChunkTest {
+
+	@Test
+	public void testMultipleTargets() throws Exception {
+		InteractionChunk chunk = parse("YPL075W pd YDR050C YGR254W\n", ' ');
+		assertEquals(1, chunk.lineCount);
+		assertEquals(2, chunk.size);
+		assertInteraction(chunk, 0, "YPL075W", "pd", "YDR050C");
+		assertInteraction(chunk, 1, "YPL075W", "pd", "YGR254W");
+		assertEquals("YPL075W (pd) YGR254W", chunk.edgeNames[1]);
+	}
+
+	@Test
+	public void testNamesAreSharedByTheLines() throws Exception {
+		InteractionChunk chunk = parse("A pp B\r\nB pp A\rA pp C", ' ');
+		assertEquals(3, chunk.lineCount);
+		assertEquals(3, chunk.size);
+		// A, pp, B and C
+		assertEquals(4, chunk.nameCount);
+		assertEquals(chunk.sources[0], chunk.targets[1]);
+		assertEquals(chunk.types[0], chunk.types[2]);
+	}
+
+	/** a degenerate form has -only- a source node: no interaction type and no target node */
+	@Test
+	public void testDegenerateLines() throws Exception {
+		InteractionChunk chunk = parse("YNL312W\nYPL111W pp\n", ' ');
+		assertEquals(2, chunk.size);
+		assertEquals("YNL312W", chunk.names[chunk.sources[0]]);
+		assertEquals(-1, chunk.types[0]);
+		assertEquals(-1, chunk.targets[0]);
+		assertEquals("YPL111W", chunk.names[chunk.sources[1]]);
+		assertEquals(-1, chunk.targets[1]);
+		assertNull(chunk.edgeNames[1]);
+	}
+
+	@Test
+	public void testBlankLinesAreSkipped() throws Exception {
+		InteractionChunk chunk = parse("\n   \nA pp B\n\t\n", ' ');
+		assertEquals(1, chunk.lineCount);
+		assertEquals(1, chunk.size);
+	}
+
+	@Test
+	public void testTabDelimitedNamesWithSpaces() throws Exception {
+		InteractionChunk chunk = parse(" TRAF6 \tinteracts With\t\tABCDE oopah  \n", '\t');
+		assertEquals(1, chunk.size);
+		assertInteraction(chunk, 0, "TRAF6", "interacts With", "ABCDE oopah");
+	}
+
+	private static InteractionChunk parse(String text, char delimiter) {
+		return InteractionChunk.parse(text.toCharArray(), 0, text.length(), delimiter);
+	}
+
+	private static void assertInteraction(InteractionChunk chunk, int i, String source, String type, String target) {
+		assertEquals(source, chunk.names[chunk.sources[i]]);
+		assertEquals(type, chunk.names[chunk.types[i]]);
+		assertEquals(target, chunk.names[chunk.targets[i]]);
+	}
+}
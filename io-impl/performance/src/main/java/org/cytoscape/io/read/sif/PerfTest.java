@@ -4,10 +4,16 @@ import static org.cytoscape.property.CyProperty.SavePolicy.DO_NOT_SAVE;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
 import java.io.InputStream;
+import java.io.Writer;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Random;
 import java.util.Set;
 
 import org.cytoscape.application.CyApplicationManager;
@@ -152,6 +158,7 @@ public class PerfTest {
 	public void runTestLoop() {
 		try {
 			testNetworkCapability("biogrid-fly.sif");
+			largeNetworkPerf(1000000);
 //			justNetworkPerf("A200-200.sif");
 //			justNetworkPerf("A50-100.sif");
 //			justNetworkPerf("A50-50.sif");
@@ -170,6 +177,30 @@ public class PerfTest {
 		System.out.println("LOADING SIF file (" + name + ") no view duration: " + (end - start));
 	}
 
+	/**
+	 * Reads a generated SIF file with the given number of edges between edgeCount / 5 nodes.
+	 */
+	private void largeNetworkPerf(int edgeCount) throws Exception {
+		final File file = File.createTempFile("perf", ".sif");
+		file.deleteOnExit();
+		final Random random = new Random(42);
+		final int nodeCount = Math.max(1, edgeCount / 5);
+
+		try (Writer out = new BufferedWriter(new FileWriter(file))) {
+			for (int i = 0; i < edgeCount; i++)
+				out.write("n" + random.nextInt(nodeCount) + "\tpp\tn" + random.nextInt(nodeCount) + "\n");
+		}
+
+		long start = System.currentTimeMillis();
+		SIFNetworkReader snvp = new SIFNetworkReader(new FileInputStream(file), serviceRegistrar);
+		snvp.run(taskMonitor);
+		long end = System.currentTimeMillis();
+		CyNetwork net = snvp.getNetworks()[0];
+		System.out.println("LOADING generated SIF file (" + net.getNodeCount() + " nodes, " + net.getEdgeCount()
+				+ " edges) no view duration: " + (end - start));
+		file.delete();
+	}
+
 	private void networkAndViewPerf(String name) throws Exception {
 		long start = System.currentTimeMillis();
 		CyNetworkView[] views = getViews(name);
@@ -0,0 +1,242 @@
+package org.cytoscape.io.read.xgmml;
+
+import static org.cytoscape.property.CyProperty.SavePolicy.DO_NOT_SAVE;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.Random;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.cytoscape.application.CyApplicationManager;
+import org.cytoscape.io.internal.read.xgmml.GenericXGMMLReader;
+import org.cytoscape.io.internal.read.xgmml.HandlerFactory;
+import org.cytoscape.io.internal.read.xgmml.XGMMLParser;
+import org.cytoscape.io.internal.read.xgmml.handler.ReadDataManager;
+import org.cytoscape.io.internal.util.GroupUtil;
+import org.cytoscape.io.internal.util.ReadCache;
+import org.cytoscape.io.internal.util.SUIDUpdater;
+import org.cytoscape.io.internal.util.UnrecognizedVisualPropertyManager;
+import org.cytoscape.io.internal.util.session.SessionUtil;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNetworkFactory;
+import org.cytoscape.model.CyNetworkManager;
+import org.cytoscape.model.CyNetworkTableManager;
+import org.cytoscape.model.CyTableFactory;
+import org.cytoscape.model.NetworkTestSupport;
+import org.cytoscape.model.TableTestSupport;
+import org.cytoscape.model.subnetwork.CyRootNetworkManager;
+import org.cytoscape.property.CyProperty;
+import org.cytoscape.property.SimpleCyProperty;
+import org.cytoscape.service.util.CyServiceRegistrar;
+import org.cytoscape.work.TaskMonitor;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.ParserAdapter;
+
+/*
+ * #%L
+ * Cytoscape IO Impl Performance (io-impl-performance)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Compares the import time and the garbage of the StAX XGMML reader to the
+ * SAX parser it replaced, which feed the same handlers, on a generated file
+ * with the given number of nodes, twice as many edges and a few typed
+ * attributes and graphics per element.
+ * <p>
+ * Usage: XGMMLPerfTest [nodeCount] [rounds]
+ */
+public class XGMMLPerfTest {
+
+	private static final String[] NODE_TYPES = { "protein", "gene", "compound", "complex", "rna" };
+	private static final String[] SHAPES = { "ELLIPSE", "RECTANGLE", "TRIANGLE", "DIAMOND" };
+	private static final String[] COLORS = { "#FF0000", "#00FF00", "#0000FF", "#CCCCCC", "#333333" };
+
+	public static void main(String[] args) throws Exception {
+		final int nodeCount = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		final int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+		final File file = File.createTempFile("perf", ".xgmml");
+		file.deleteOnExit();
+		writeXGMML(file, nodeCount, 2 * nodeCount, new Random(42));
+		System.out.println("Generated " + file.length() / (1024 * 1024) + " MB of XGMML with " + nodeCount
+				+ " nodes and " + 2 * nodeCount + " edges");
+
+		final XGMMLPerfTest test = new XGMMLPerfTest();
+
+		for (int i = 0; i < rounds; i++) {
+			test.read(file, false);
+			test.read(file, true);
+		}
+
+		file.delete();
+	}
+
+	private final TaskMonitor taskMonitor = mock(TaskMonitor.class);
+	private final CyApplicationManager applicationManager = mock(CyApplicationManager.class);
+	private final CyServiceRegistrar serviceRegistrar = mock(CyServiceRegistrar.class);
+	private final CyNetworkFactory netFactory;
+	private final CyNetworkManager netManager;
+	private final CyRootNetworkManager rootNetManager;
+
+	public XGMMLPerfTest() {
+		final NetworkTestSupport nts = new NetworkTestSupport();
+		netFactory = nts.getNetworkFactory();
+		netManager = nts.getNetworkManager();
+		rootNetManager = nts.getRootNetworkFactory();
+
+		final Properties properties = new Properties();
+		final CyProperty<Properties> cyProperties =
+				new SimpleCyProperty<>("Test", properties, Properties.class, DO_NOT_SAVE);
+
+		when(serviceRegistrar.getService(CyProperty.class, "(cyPropertyName=cytoscape3.props)")).thenReturn(cyProperties);
+		when(serviceRegistrar.getService(CyApplicationManager.class)).thenReturn(applicationManager);
+		when(serviceRegistrar.getService(CyNetworkFactory.class)).thenReturn(netFactory);
+		when(serviceRegistrar.getService(CyNetworkManager.class)).thenReturn(netManager);
+		when(serviceRegistrar.getService(CyNetworkTableManager.class)).thenReturn(nts.getNetworkTableManager());
+		when(serviceRegistrar.getService(CyRootNetworkManager.class)).thenReturn(rootNetManager);
+		when(serviceRegistrar.getService(CyTableFactory.class)).thenReturn(new TableTestSupport().getTableFactory());
+	}
+
+	private void read(final File file, final boolean sax) throws Exception {
+		SessionUtil.setReadingSessionFile(false);
+
+		final ReadDataManager readDataMgr = new ReadDataManager(new ReadCache(serviceRegistrar), new SUIDUpdater(),
+				new GroupUtil(serviceRegistrar), serviceRegistrar);
+		final HandlerFactory handlerFactory = new HandlerFactory(readDataMgr);
+		handlerFactory.init();
+		final XGMMLParser parser = new XGMMLParser(handlerFactory, readDataMgr);
+		final InputStream is = new BufferedInputStream(new FileInputStream(file));
+
+		final GenericXGMMLReader reader = sax ?
+				new SAXReader(is, readDataMgr, parser) :
+				new GenericXGMMLReader(is, readDataMgr, parser,
+						new UnrecognizedVisualPropertyManager(serviceRegistrar), applicationManager, netFactory,
+						netManager, rootNetManager, serviceRegistrar);
+
+		System.gc();
+		final long allocated = allocatedBytes();
+		final long start = System.currentTimeMillis();
+		reader.run(taskMonitor);
+		final long end = System.currentTimeMillis();
+		final long garbage = allocatedBytes() - allocated;
+
+		final CyNetwork net = reader.getNetworks()[0];
+		System.out.println("LOADING XGMML file with " + (sax ? "SAX " : "StAX") + " duration: " + (end - start)
+				+ " ms, allocated: " + garbage / (1024 * 1024) + " MB (" + net.getNodeCount() + " nodes, "
+				+ net.getEdgeCount() + " edges)");
+	}
+
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+				.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static void writeXGMML(final File file, final int nodeCount, final int edgeCount, final Random random)
+			throws IOException {
+		try (Writer out = new BufferedWriter(
+				new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8))) {
+			out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+			out.write("<graph id=\"1\" label=\"perf\" directed=\"1\" cy:documentVersion=\"3.0\""
+					+ " xmlns:dc=\"http://purl.org/dc/elements/1.1/\" xmlns:xlink=\"http://www.w3.org/1999/xlink\""
+					+ " xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\""
+					+ " xmlns:cy=\"http://www.cytoscape.org\" xmlns=\"http://www.cs.rpi.edu/XGMML\">\n");
+			out.write("  <att name=\"name\" value=\"perf\" type=\"string\" cy:type=\"String\"/>\n");
+
+			for (int i = 0; i < nodeCount; i++) {
+				out.write("  <node id=\"" + (i + 2) + "\" label=\"n" + i + "\">\n");
+				out.write("    <att name=\"name\" value=\"n" + i + "\" type=\"string\" cy:type=\"String\"/>\n");
+				out.write("    <att name=\"type\" value=\"" + NODE_TYPES[random.nextInt(NODE_TYPES.length)]
+						+ "\" type=\"string\" cy:type=\"String\"/>\n");
+				out.write("    <att name=\"score\" value=\"" + random.nextDouble()
+						+ "\" type=\"real\" cy:type=\"Double\"/>\n");
+				out.write("    <att name=\"rank\" value=\"" + random.nextInt(1000)
+						+ "\" type=\"integer\" cy:type=\"Integer\"/>\n");
+				out.write("    <att name=\"selected\" value=\"0\" type=\"boolean\" cy:type=\"Boolean\"/>\n");
+				out.write("    <graphics type=\"" + SHAPES[random.nextInt(SHAPES.length)] + "\" fill=\""
+						+ COLORS[random.nextInt(COLORS.length)] + "\" x=\"" + random.nextInt(10000) + ".0\" y=\""
+						+ random.nextInt(10000) + ".0\" h=\"35.0\" w=\"35.0\"/>\n");
+				out.write("  </node>\n");
+			}
+
+			for (int i = 0; i < edgeCount; i++) {
+				final int source = random.nextInt(nodeCount);
+				final int target = random.nextInt(nodeCount);
+
+				out.write("  <edge id=\"" + (nodeCount + i + 2) + "\" label=\"e" + i + "\" source=\"" + (source + 2)
+						+ "\" target=\"" + (target + 2) + "\" cy:directed=\"1\">\n");
+				out.write("    <att name=\"interaction\" value=\"pp\" type=\"string\" cy:type=\"String\"/>\n");
+				out.write("    <att name=\"weight\" value=\"" + random.nextDouble()
+						+ "\" type=\"real\" cy:type=\"Double\"/>\n");
+				out.write("    <graphics width=\"2.0\" fill=\"" + COLORS[random.nextInt(COLORS.length)] + "\"/>\n");
+				out.write("  </edge>\n");
+			}
+
+			out.write("</graph>\n");
+		}
+	}
+
+	/**
+	 * Reads XGMML with the SAX parser, as GenericXGMMLReader did before the StAX one.
+	 */
+	private class SAXReader extends GenericXGMMLReader {
+
+		SAXReader(final InputStream is, final ReadDataManager readDataMgr, final XGMMLParser parser) {
+			super(is, readDataMgr, parser, new UnrecognizedVisualPropertyManager(serviceRegistrar),
+					applicationManager, netFactory, netManager, rootNetManager, serviceRegistrar);
+		}
+
+		@Override
+		protected void readXGMML(final TaskMonitor tm) throws SAXException, IOException {
+			try {
+				final SAXParser sp = SAXParserFactory.newInstance().newSAXParser();
+				final XMLReader reader = sp.getXMLReader();
+				reader.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+				reader.setFeature("http://xml.org/sax/features/validation", false);
+				final ParserAdapter pa = new ParserAdapter(sp.getParser());
+				pa.setContentHandler(parser);
+				pa.setErrorHandler(parser);
+				pa.parse(new InputSource(inputStream));
+			} catch (ParserConfigurationException e) {
+				throw new SAXException(e);
+			} finally {
+				inputStream.close();
+			}
+		}
+	}
+}
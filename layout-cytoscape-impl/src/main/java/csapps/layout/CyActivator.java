@@ -46,6 +46,7 @@ import csapps.layout.algorithms.graphPartition.AttributeCircleLayout;
 import csapps.layout.algorithms.graphPartition.DegreeSortedCircleLayout;
 import csapps.layout.algorithms.graphPartition.ISOMLayout;
 import csapps.layout.algorithms.hierarchicalLayout.HierarchicalLayoutAlgorithm;
+import csapps.layout.algorithms.stress.StressLayoutAlgorithm;
 
 public class CyActivator extends AbstractCyActivator {
 
@@ -121,6 +122,15 @@ public class CyActivator extends AbstractCyActivator {
 			props.setProperty(INSERT_SEPARATOR_AFTER, "true");
 			registerService(bc, layout, CyLayoutAlgorithm.class, props);
 		}
+		{
+			final StressLayoutAlgorithm layout = new StressLayoutAlgorithm(undoSupport);
+			final Properties props = new Properties();
+			props.setProperty("preferredTaskManager", "menu");
+			props.setProperty(TITLE, layout.toString());
+			props.setProperty(MENU_GRAVITY, "10.85");
+			props.setProperty(INSERT_SEPARATOR_AFTER, "true");
+			registerService(bc, layout, CyLayoutAlgorithm.class, props);
+		}
 		{
 			final CoSELayoutAlgorithm layout = new CoSELayoutAlgorithm(undoSupport, serviceRegistrar);
 			final Properties props = new Properties();
@@ -0,0 +1,509 @@
+package csapps.layout.algorithms;
+
+/*
+ * #%L
+ * Cytoscape Layout Algorithms Impl (layout-cytoscape-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.view.layout.AbstractPartitionLayoutTask;
+import org.cytoscape.view.layout.LayoutNode;
+import org.cytoscape.view.layout.LayoutPartition;
+import org.cytoscape.view.layout.PartitionUtil;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.undo.UndoSupport;
+
+/**
+ * A partition layout task that lays out independent partitions concurrently.
+ * <p>
+ * Subclasses opt in by overriding {@link #createPartitionTask()}. The
+ * partitions are then laid out largest first on a pool with one thread per
+ * processor, each thread using its own copy of the task, and they are packed
+ * next to each other in their original order once all of them are done. Progress reported by the copies, through {@link #setTaskStatus(int)}
+ * or their task monitor, is weighted by partition size and combined into the
+ * progress of this task.
+ * <p>
+ * Subclasses whose {@link #layoutPartition(LayoutPartition)} keeps locked
+ * nodes where they are can also lay out a few nodes incrementally by
+ * overriding {@link #getAnchorHops()}. Only the nodes to lay out and the
+ * nodes up to that many edges away from them are then put into partitions,
+ * the neighbors are locked, so they anchor the nodes to lay out to the rest of
+ * the network, and nothing is packed, so the rest of the network is neither
+ * read nor moved.
+ */
+public abstract class AbstractParallelPartitionLayoutTask extends AbstractPartitionLayoutTask {
+
+	/** Space between packed partitions, the same as AbstractPartitionLayoutTask uses. */
+	private static final double INCR = 100.0;
+
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	protected final String displayName;
+	protected final UndoSupport undo;
+
+	// Only set on the copies that lay out partitions on pool threads
+	private PartitionMonitor partitionMonitor;
+
+	private final List<AbstractParallelPartitionLayoutTask> workers = new ArrayList<>();
+	private final List<Future<?>> futures = new ArrayList<>();
+	private double totalSize;
+	private double reportedProgress;
+
+	public AbstractParallelPartitionLayoutTask(final String displayName, final boolean singlePartition,
+			final CyNetworkView networkView, final Set<View<CyNode>> nodesToLayOut, final String attrName,
+			final UndoSupport undo) {
+		super(displayName, singlePartition, networkView, nodesToLayOut, attrName, undo);
+		this.displayName = displayName;
+		this.undo = undo;
+	}
+
+	/**
+	 * Returns a new task with the same settings as this one. Each pool thread
+	 * lays out its partitions with its own copy, so copies must not share any
+	 * state that {@link #layoutPartition(LayoutPartition)} modifies.
+	 *
+	 * @return a copy of this task, or null if the partitions have to be laid
+	 *         out one after another by this task, which is the default
+	 */
+	protected AbstractParallelPartitionLayoutTask createPartitionTask() {
+		return null;
+	}
+
+	/**
+	 * Returns how many edges away from the nodes to lay out the locked nodes
+	 * that anchor them are, when only some of the nodes of the network are
+	 * laid out.
+	 *
+	 * @return the number of hops, or 0 to lay out the nodes without anchors,
+	 *         which is the default
+	 */
+	protected int getAnchorHops() {
+		return 0;
+	}
+
+	@Override
+	public void doLayout(final TaskMonitor taskMonitor) {
+		final int processors = Runtime.getRuntime().availableProcessors();
+		final int anchorHops = getAnchorHops();
+
+		if (anchorHops > 0 && !nodesToLayOut.isEmpty()
+				&& nodesToLayOut.size() < networkView.getModel().getNodeCount()) {
+			layoutIncrementally(taskMonitor, anchorHops, processors);
+			return;
+		}
+
+		if (singlePartition || processors < 2 || createPartitionTask() == null) {
+			super.doLayout(taskMonitor);
+			return;
+		}
+
+		this.taskMonitor = taskMonitor;
+		taskMonitor.setStatusMessage("Partitioning the network...");
+
+		if (edgeWeighter != null)
+			edgeWeighter.setWeightAttribute(layoutAttribute);
+
+		partitionList = PartitionUtil.partition(networkView, nodesToLayOut, edgeWeighter);
+
+		if (partitionList.isEmpty())
+			return;
+
+		final List<LayoutPartition> largestFirst = new ArrayList<>();
+
+		for (final LayoutPartition partition : partitionList) {
+			if (partition.nodeCount() > 1)
+				largestFirst.add(partition);
+		}
+
+		Collections.sort(largestFirst, (p1, p2) -> Integer.compare(p2.size(), p1.size()));
+		final double[] start = startLocation();
+
+		if (!largestFirst.isEmpty()
+				&& !layoutPartitions(largestFirst, Math.min(processors, largestFirst.size())))
+			return;
+
+		if (!cancelled)
+			packPartitions(start[0], start[1]);
+	}
+
+	/**
+	 * Lays out the nodes to lay out among their neighbors up to the given
+	 * number of hops away, which stay where they are. Partitions without any
+	 * of those neighbors are moved back to where they were.
+	 */
+	private void layoutIncrementally(final TaskMonitor taskMonitor, final int anchorHops, final int processors) {
+		this.taskMonitor = taskMonitor;
+		taskMonitor.setStatusMessage("Finding the neighborhood of the nodes to lay out...");
+
+		if (edgeWeighter != null)
+			edgeWeighter.setWeightAttribute(layoutAttribute);
+
+		final Set<CyNode> free = new HashSet<>();
+
+		for (final View<CyNode> nodeView : nodesToLayOut)
+			free.add(nodeView.getModel());
+
+		partitionList = PartitionUtil.partition(networkView, neighborhood(free, anchorHops), edgeWeighter);
+
+		final List<LayoutPartition> partitions = new ArrayList<>();
+		final List<LayoutPartition> unanchored = new ArrayList<>();
+		final List<double[]> corners = new ArrayList<>();
+
+		for (final LayoutPartition partition : partitionList) {
+			boolean anchored = false;
+
+			for (final LayoutNode node : partition.getNodeList()) {
+				if (!free.contains(node.getNode())) {
+					node.lock();
+					anchored = true;
+				}
+			}
+
+			if (partition.nodeCount() < 2)
+				continue;
+
+			partitions.add(partition);
+
+			if (!anchored) {
+				unanchored.add(partition);
+				corners.add(new double[] { partition.getMinX(), partition.getMinY() });
+			}
+		}
+
+		if (partitions.isEmpty())
+			return;
+
+		Collections.sort(partitions, (p1, p2) -> Integer.compare(p2.size(), p1.size()));
+		taskMonitor.setStatusMessage("Laying out " + free.size() + " nodes...");
+
+		if (processors > 1 && partitions.size() > 1 && createPartitionTask() != null) {
+			if (!layoutPartitions(partitions, Math.min(processors, partitions.size())))
+				return;
+		} else {
+			for (final LayoutPartition partition : partitions) {
+				if (cancelled)
+					return;
+
+				layoutPartition(partition);
+			}
+		}
+
+		if (cancelled)
+			return;
+
+		for (int i = 0; i < unanchored.size(); i++)
+			unanchored.get(i).offset(corners.get(i)[0], corners.get(i)[1]);
+	}
+
+	/**
+	 * Returns the views of the given nodes and of the nodes up to the given
+	 * number of hops away from them.
+	 */
+	private Set<View<CyNode>> neighborhood(final Set<CyNode> nodes, final int hops) {
+		final CyNetwork network = networkView.getModel();
+		final Set<CyNode> visited = new HashSet<>(nodes);
+		List<CyNode> frontier = new ArrayList<>(nodes);
+
+		for (int hop = 0; hop < hops && !frontier.isEmpty(); hop++) {
+			final List<CyNode> next = new ArrayList<>();
+
+			for (final CyNode node : frontier) {
+				for (final CyNode neighbor : network.getNeighborList(node, CyEdge.Type.ANY)) {
+					if (visited.add(neighbor))
+						next.add(neighbor);
+				}
+			}
+
+			frontier = next;
+		}
+
+		final Set<View<CyNode>> views = new HashSet<>();
+
+		for (final CyNode node : visited) {
+			final View<CyNode> nodeView = networkView.getNodeView(node);
+
+			if (nodeView != null)
+				views.add(nodeView);
+		}
+
+		return views;
+	}
+
+	/**
+	 * Lays out the partitions on a new pool, where each thread uses its own
+	 * copy of this task.
+	 *
+	 * @return false if not all partitions could be laid out
+	 */
+	private boolean layoutPartitions(final List<LayoutPartition> partitions, final int threads) {
+		final ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread t = new Thread(r, "layout-partition-" + THREAD_COUNT.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		final Queue<AbstractParallelPartitionLayoutTask> copies = new ConcurrentLinkedQueue<>();
+
+		for (int i = 0; i < threads; i++)
+			copies.add(newPartitionTask());
+
+		final ThreadLocal<AbstractParallelPartitionLayoutTask> threadTask = ThreadLocal.withInitial(() -> {
+			final AbstractParallelPartitionLayoutTask task = copies.poll();
+			return task != null ? task : newPartitionTask();
+		});
+
+		for (final LayoutPartition partition : partitions)
+			totalSize += partition.size();
+
+		try {
+			synchronized (workers) {
+				for (final LayoutPartition partition : partitions) {
+					if (cancelled)
+						return false;
+
+					final PartitionMonitor monitor = new PartitionMonitor(partition.size());
+
+					futures.add(executor.submit(() -> {
+						final AbstractParallelPartitionLayoutTask task = threadTask.get();
+
+						if (!task.cancelled) {
+							task.taskMonitor = monitor;
+							task.partitionMonitor = monitor;
+							task.layoutPartition(partition);
+							monitor.setProgress(1.0);
+						}
+					}));
+				}
+			}
+
+			for (final Future<?> future : futures)
+				future.get();
+
+			return true;
+		} catch (CancellationException e) {
+			return false;
+		} catch (InterruptedException e) {
+			cancel();
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException e) {
+			cancel();
+			final Throwable cause = e.getCause();
+
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+
+			throw new RuntimeException("Error laying out partition", cause);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private AbstractParallelPartitionLayoutTask newPartitionTask() {
+		final AbstractParallelPartitionLayoutTask task = createPartitionTask();
+
+		synchronized (workers) {
+			workers.add(task);
+
+			if (cancelled)
+				task.cancel();
+		}
+
+		return task;
+	}
+
+	/**
+	 * Returns the top left corner of the partitions before they are laid out,
+	 * which is where packing them starts.
+	 */
+	private double[] startLocation() {
+		double xStart = partitionList.get(0).getMinX();
+		double yStart = partitionList.get(0).getMinY();
+
+		for (final LayoutPartition partition : partitionList) {
+			xStart = Math.min(xStart, partition.getMinX());
+			yStart = Math.min(yStart, partition.getMinY());
+		}
+
+		return new double[] { xStart, yStart };
+	}
+
+	/**
+	 * Moves the laid out partitions next to each other, row by row, in the same
+	 * way as {@link AbstractPartitionLayoutTask#doLayout(TaskMonitor)}.
+	 */
+	private void packPartitions(final double xStart, final double yStart) {
+		double nextXStart = xStart;
+		double nextYStart = yStart;
+		double currentMaxY = 0;
+		final double maxDimensions = Math.sqrt((double) networkView.getModel().getNodeCount()) * INCR + xStart;
+
+		for (final LayoutPartition partition : partitionList) {
+			if (partition.nodeCount() > 1) {
+				partition.offset(nextXStart, nextYStart);
+			} else if (partition.nodeCount() == 1) {
+				partition.resetNodes();
+				final LayoutNode node = partition.getNodeList().get(0);
+
+				if (!node.isLocked()) {
+					node.setX(nextXStart);
+					node.setY(nextYStart);
+					partition.moveNodeToLocation(node);
+				}
+			} else {
+				continue;
+			}
+
+			final double lastMaxX = partition.getMaxX();
+			final double lastMaxY = partition.getMaxY();
+
+			if (lastMaxY > currentMaxY)
+				currentMaxY = lastMaxY;
+
+			if (lastMaxX > maxDimensions) {
+				nextXStart = xStart;
+				nextYStart = currentMaxY + INCR;
+			} else {
+				nextXStart = lastMaxX + INCR;
+			}
+		}
+	}
+
+	/**
+	 * Calculates the edge weights of the partition. The copies share the edge
+	 * weighter, which keeps the weight range of the partition it works on, so
+	 * only one partition at a time may use it.
+	 */
+	protected void calculateEdgeWeights(final LayoutPartition partition) {
+		if (edgeWeighter == null) {
+			partition.calculateEdgeWeights();
+		} else {
+			synchronized (edgeWeighter) {
+				partition.calculateEdgeWeights();
+			}
+		}
+	}
+
+	@Override
+	public void setTaskStatus(final int percent) {
+		if (partitionMonitor != null)
+			partitionMonitor.setProgress(percent / 100.0);
+		else
+			super.setTaskStatus(percent);
+	}
+
+	@Override
+	public void cancel() {
+		super.cancel();
+
+		synchronized (workers) {
+			for (final AbstractParallelPartitionLayoutTask worker : workers)
+				worker.cancel();
+			for (final Future<?> future : futures)
+				future.cancel(false);
+		}
+	}
+
+	private synchronized void updateProgress(final double delta) {
+		if (totalSize <= 0.0)
+			return;
+
+		final double progress = Math.min(1.0, reportedProgress + delta / totalSize);
+
+		if (progress > reportedProgress) {
+			reportedProgress = progress;
+
+			if (taskMonitor != null)
+				taskMonitor.setProgress(progress);
+		}
+	}
+
+	/**
+	 * The task monitor of a copy laying out one partition. It keeps the
+	 * progress of that partition from going backwards and forwards the
+	 * partition's share of it to the task that started the copy.
+	 */
+	private final class PartitionMonitor implements TaskMonitor {
+
+		private final double size;
+		private double progress;
+
+		PartitionMonitor(final double size) {
+			this.size = size;
+		}
+
+		@Override
+		public void setTitle(final String title) {
+			// The title belongs to the whole layout
+		}
+
+		@Override
+		public void setProgress(final double progress) {
+			final double delta;
+
+			synchronized (this) {
+				if (progress <= this.progress || Double.isNaN(progress))
+					return;
+
+				delta = (Math.min(1.0, progress) - this.progress) * size;
+				this.progress = Math.min(1.0, progress);
+			}
+
+			updateProgress(delta);
+		}
+
+		@Override
+		public void setStatusMessage(final String statusMessage) {
+			if (taskMonitor != null)
+				taskMonitor.setStatusMessage(statusMessage);
+		}
+
+		@Override
+		public void showMessage(final Level level, final String message) {
+			if (taskMonitor != null)
+				taskMonitor.showMessage(level, message);
+		}
+	}
+}
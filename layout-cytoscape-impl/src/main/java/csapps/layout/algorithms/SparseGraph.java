@@ -0,0 +1,220 @@
+package csapps.layout.algorithms;
+
+/*
+ * #%L
+ * Cytoscape Layout Algorithms Impl (layout-cytoscape-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * An undirected graph in compressed rows, for the layouts that approximate
+ * the distances between all pairs of nodes by the distances from a few pivots.
+ * The neighbors of node i are neighbors[neighborStart[i]] to
+ * neighbors[neighborStart[i + 1] - 1]. Every pair of adjacent nodes is in both
+ * of their rows, once, and loops are left out.
+ */
+public final class SparseGraph {
+
+	/** The distance of nodes that cannot be reached from a pivot */
+	public static final int UNREACHABLE = -1;
+
+	private final int n;
+	private final int[] neighborStart;
+	private final int[] neighbors;
+	private final double[] weights;
+
+	/**
+	 * Builds the rows from the first count edges. Of parallel edges, only the
+	 * one with the largest weight is kept.
+	 *
+	 * @param weights the weights of the edges, or null if they have none
+	 */
+	public SparseGraph(final int n, final int[] source, final int[] target, final double[] weights,
+			final int count) {
+		final int[] rowStart = new int[n + 1];
+
+		for (int e = 0; e < count; e++) {
+			if (source[e] != target[e]) {
+				rowStart[source[e] + 1]++;
+				rowStart[target[e] + 1]++;
+			}
+		}
+
+		for (int i = 0; i < n; i++)
+			rowStart[i + 1] += rowStart[i];
+
+		final int[] next = Arrays.copyOf(rowStart, n);
+		final int[] row = new int[rowStart[n]];
+		final double[] rowWeight = weights != null ? new double[rowStart[n]] : null;
+
+		for (int e = 0; e < count; e++) {
+			if (source[e] != target[e]) {
+				if (rowWeight != null) {
+					rowWeight[next[source[e]]] = weights[e];
+					rowWeight[next[target[e]]] = weights[e];
+				}
+
+				row[next[source[e]]++] = target[e];
+				row[next[target[e]]++] = source[e];
+			}
+		}
+
+		// Merge parallel edges in place
+		final int[] slot = new int[n];
+		final int[] mark = new int[n];
+		Arrays.fill(mark, -1);
+		neighborStart = new int[n + 1];
+		int size = 0;
+
+		for (int i = 0; i < n; i++) {
+			neighborStart[i] = size;
+
+			for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+				final int j = row[k];
+
+				if (mark[j] == i) {
+					if (rowWeight != null)
+						rowWeight[slot[j]] = Math.max(rowWeight[slot[j]], rowWeight[k]);
+				} else {
+					mark[j] = i;
+					slot[j] = size;
+					row[size] = j;
+
+					if (rowWeight != null)
+						rowWeight[size] = rowWeight[k];
+
+					size++;
+				}
+			}
+		}
+
+		neighborStart[n] = size;
+		this.n = n;
+		this.neighbors = Arrays.copyOf(row, size);
+		this.weights = rowWeight != null ? Arrays.copyOf(rowWeight, size) : null;
+	}
+
+	public int nodeCount() {
+		return n;
+	}
+
+	public int[] getNeighborStart() {
+		return neighborStart;
+	}
+
+	public int[] getNeighbors() {
+		return neighbors;
+	}
+
+	/**
+	 * @return the weight of each entry of the rows, or null if the edges have no weights
+	 */
+	public double[] getWeights() {
+		return weights;
+	}
+
+	public int degree(final int i) {
+		return neighborStart[i + 1] - neighborStart[i];
+	}
+
+	/**
+	 * Chooses the pivots one after another, each one being the node that is
+	 * furthest from the pivots chosen before it, and keeps the breadth first
+	 * distances from them.
+	 *
+	 * @param k the number of pivots, at most the number of nodes
+	 */
+	public Pivots calculatePivotDistances(final int k) {
+		final Pivots result = new Pivots(k, n);
+		final int[] distance = result.distance;
+		final int[] queue = new int[n];
+		Arrays.fill(result.minDistance, Integer.MAX_VALUE);
+		int next = 0;
+
+		for (int p = 0; p < k; p++) {
+			result.pivots[p] = next;
+			final int offset = p * n;
+			Arrays.fill(distance, offset, offset + n, UNREACHABLE);
+			distance[offset + next] = 0;
+			queue[0] = next;
+
+			for (int head = 0, tail = 1; head < tail; head++) {
+				final int i = queue[head];
+				final int d = distance[offset + i] + 1;
+
+				for (int e = neighborStart[i]; e < neighborStart[i + 1]; e++) {
+					final int j = neighbors[e];
+
+					if (distance[offset + j] == UNREACHABLE) {
+						distance[offset + j] = d;
+						queue[tail++] = j;
+					}
+				}
+			}
+
+			// Unreachable nodes are the furthest, so every component gets a pivot
+			next = 0;
+
+			for (int i = 0; i < n; i++) {
+				final int d = distance[offset + i];
+
+				if (d != UNREACHABLE && d < result.minDistance[i]) {
+					result.minDistance[i] = d;
+					result.closest[i] = p;
+				}
+
+				if (d > result.span)
+					result.span = d;
+
+				if (result.minDistance[i] > result.minDistance[next])
+					next = i;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * The pivots of a graph and the distances of all nodes from them.
+	 */
+	public static final class Pivots {
+
+		/** The nodes that are pivots, in the order they were chosen */
+		public final int[] pivots;
+		/** The distance from pivot p to node i is distance[p * n + i], or {@link SparseGraph#UNREACHABLE} */
+		public final int[] distance;
+		/** The pivot that is closest to each node, valid where minDistance is not Integer.MAX_VALUE */
+		public final int[] closest;
+		/** The distance of each node from its closest pivot, Integer.MAX_VALUE if no pivot reaches it */
+		public final int[] minDistance;
+		/** The largest distance from a pivot, an estimate of the diameter */
+		public int span;
+
+		private Pivots(final int k, final int n) {
+			pivots = new int[k];
+			distance = new int[k * n];
+			closest = new int[n];
+			minDistance = new int[n];
+		}
+	}
+}
@@ -101,6 +101,12 @@ public class BioLayoutFRAlgorithmTask extends BioLayoutAlgorithmTask {
 		displacementArray = new ArrayList<Double>(100);
 	}
 
+	@Override
+	protected BioLayoutFRAlgorithmTask createPartitionTask() {
+		return new BioLayoutFRAlgorithmTask(displayName, networkView, nodesToLayOut, context, supportWeights,
+				layoutAttribute, undo);
+	}
+
 	/**
 	 * Required methods (and overrides) for AbstractLayoutAlgorithm
 	 */
@@ -180,7 +186,7 @@ public class BioLayoutFRAlgorithmTask extends BioLayoutAlgorithmTask {
 		calculateForces();
 
 		// Calculate our edge weights
-		partition.calculateEdgeWeights();
+		calculateEdgeWeights(partition);
 		// initProfile.done("Initialization completed in ");
 		taskMonitor.setStatusMessage("Calculating new node positions");
 		taskMonitor.setProgress(0.01);
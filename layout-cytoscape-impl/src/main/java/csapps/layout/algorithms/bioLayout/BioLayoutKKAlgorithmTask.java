@@ -141,6 +141,12 @@ public class BioLayoutKKAlgorithmTask extends BioLayoutAlgorithmTask {
 		this.m_layoutPass = 2;
 	}
 
+	@Override
+	protected BioLayoutKKAlgorithmTask createPartitionTask() {
+		return new BioLayoutKKAlgorithmTask(displayName, networkView, nodesToLayOut, context, supportWeights,
+				layoutAttribute, undo);
+	}
+
 	/**
 	 * Overrides for LayoutAlgorithm support
 	 */
@@ -348,9 +354,6 @@ public class BioLayoutKKAlgorithmTask extends BioLayoutAlgorithmTask {
 		PartialDerivatives partials;
 		PartialDerivatives furthestNodePartials = null;
 
-		m_nodeDistanceSpringRestLengths = new double[m_nodeCount][m_nodeCount];
-		m_nodeDistanceSpringStrengths = new double[m_nodeCount][m_nodeCount];
-
 		// Figure out our starting point
 		initialLocation = partition.getAverageLocation();
 
@@ -360,7 +363,26 @@ public class BioLayoutKKAlgorithmTask extends BioLayoutAlgorithmTask {
 			partition.randomizeLocations();
 
 		// Calculate our edge weights
-		partition.calculateEdgeWeights();
+		calculateEdgeWeights(partition);
+
+		if (context.multilevelThreshold > 0 && m_nodeCount > context.multilevelThreshold) {
+			// The distance and spring matrices would not fit, so lay out
+			// coarsened copies of the partition using pivot distances instead
+			final BioLayoutKKMultilevel multilevel = new BioLayoutKKMultilevel(m_nodeDistanceRestLengthConstant,
+					m_nodeDistanceStrengthConstant, m_disconnectedNodeDistanceSpringRestLength,
+					m_disconnectedNodeDistanceSpringStrength, m_anticollisionSpringStrength,
+					m_averageIterationsPerNode, () -> cancelled, taskMonitor);
+
+			if (multilevel.layout(partition,
+			                      e -> context.unweighted ? edgeWeighter.defaultEdgeWeight : e.getWeight(),
+			                      0.02, 0.95))
+				updateLocations(initialLocation);
+
+			return;
+		}
+
+		m_nodeDistanceSpringRestLengths = new double[m_nodeCount][m_nodeCount];
+		m_nodeDistanceSpringStrengths = new double[m_nodeCount][m_nodeCount];
 
 		// Compute our distances
 		if (cancelled)
@@ -460,6 +482,10 @@ public class BioLayoutKKAlgorithmTask extends BioLayoutAlgorithmTask {
 		}
 
 		taskMonitor.setProgress(percentCompletedAfterFinalPass/100.0);
+		updateLocations(initialLocation);
+	}
+
+	private void updateLocations(LayoutPoint initialLocation) {
 		taskMonitor.setStatusMessage("Updating display");
 
 		// Actually move the pieces around
@@ -49,6 +49,8 @@ public class BioLayoutKKContext extends BioLayoutContext implements TunableValid
 	public boolean singlePartition;
 	@Tunable(description="Use unweighted edges:", groups="Standard Settings", context="both", longDescription="Use unweighted edges; boolean values only, ```true``` or ```false```; defaults to ```false```", exampleStringValue="false")
 	public boolean unweighted;
+	@Tunable(description="Multilevel layout for partitions with more nodes than:", context="both", longDescription="Partitions with more nodes than this are laid out on coarsened copies of the network, using the distances from a few pivot nodes instead of those between all pairs of nodes, which keeps memory linear in the number of nodes; ```0``` always uses all pairs", exampleStringValue="2000")
+	public int multilevelThreshold = 2000;
 	@Override // TODO
 	public ValidationState getValidationState(final Appendable errMsg) {
 		return ValidationState.OK;
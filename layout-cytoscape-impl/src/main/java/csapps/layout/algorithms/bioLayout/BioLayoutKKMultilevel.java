@@ -0,0 +1,562 @@
+package csapps.layout.algorithms.bioLayout;
+
+/*
+ * #%L
+ * Cytoscape Layout Algorithms Impl (layout-cytoscape-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+import java.util.function.ToDoubleFunction;
+
+import org.cytoscape.view.layout.LayoutEdge;
+import org.cytoscape.view.layout.LayoutNode;
+import org.cytoscape.view.layout.LayoutPartition;
+import org.cytoscape.work.TaskMonitor;
+
+import csapps.layout.algorithms.SparseGraph;
+import csapps.layout.algorithms.SparseGraph.Pivots;
+
+/**
+ * The multilevel mode of the Kamada-Kawai layout, for partitions that are too
+ * large for the distance and spring matrices of {@link BioLayoutKKAlgorithmTask}.
+ * <p>
+ * The partition is coarsened by repeatedly merging matched neighbors until
+ * only a few nodes are left. Every level is then laid out, coarsest first,
+ * starting from the layout of the level above it. Instead of the distances
+ * between all pairs of nodes, each level keeps the graph distances from a
+ * fixed number of pivot nodes: a node is pulled by springs to its neighbors
+ * and to every pivot, and the spring to a pivot stands for all the nodes that
+ * are closer to that pivot than to any other one. Nodes are moved with the same
+ * Newton-Raphson step as in the single level layout, so memory and the time of
+ * a pass are linear in the size of the partition.
+ *
+ * @see "Mark Ortmann, Mirza Klimenta and Ulrik Brandes: A Sparse Stress Model. Graph Drawing 2016"
+ */
+final class BioLayoutKKMultilevel {
+
+	/** The number of pivots whose distances approximate those between all pairs of nodes */
+	static final int PIVOTS = 50;
+
+	/** Coarsening stops when a level has no more nodes than this */
+	private static final int COARSEST_SIZE = 50;
+
+	/** Coarsening also stops when a level would keep more than this fraction of the nodes */
+	private static final double MAX_COARSENING_RATIO = 0.9;
+
+	private final double restLength;
+	private final double strength;
+	private final double disconnectedRestLength;
+	private final double disconnectedStrength;
+	private final double anticollisionStrength;
+	private final double averageIterationsPerNode;
+	private final BooleanSupplier cancelled;
+	private final TaskMonitor taskMonitor;
+
+	BioLayoutKKMultilevel(final double restLength, final double strength, final double disconnectedRestLength,
+			final double disconnectedStrength, final double anticollisionStrength,
+			final double averageIterationsPerNode, final BooleanSupplier cancelled, final TaskMonitor taskMonitor) {
+		this.restLength = restLength;
+		this.strength = strength;
+		this.disconnectedRestLength = disconnectedRestLength;
+		this.disconnectedStrength = disconnectedStrength;
+		this.anticollisionStrength = anticollisionStrength;
+		this.averageIterationsPerNode = averageIterationsPerNode;
+		this.cancelled = cancelled;
+		this.taskMonitor = taskMonitor;
+	}
+
+	/**
+	 * Lays out the nodes of the partition, which must be indexed from 0 to
+	 * nodeCount() - 1, and sets their new locations. Locked nodes are not
+	 * moved.
+	 *
+	 * @param weight the weight of an edge, the rest length of its spring is
+	 *        inversely proportional to it
+	 * @return false if the layout was cancelled
+	 */
+	boolean layout(final LayoutPartition partition, final ToDoubleFunction<LayoutEdge> weight,
+			final double startProgress, final double endProgress) {
+		taskMonitor.setStatusMessage("Coarsening the network");
+
+		final List<Level> levels = new ArrayList<Level>();
+		levels.add(new Level(partition, weight));
+
+		while (levels.get(levels.size() - 1).n > COARSEST_SIZE) {
+			final Level coarse = levels.get(levels.size() - 1).coarsen();
+
+			if (coarse == null)
+				break;
+
+			levels.add(coarse);
+
+			if (cancelled.getAsBoolean())
+				return false;
+		}
+
+		taskMonitor.setStatusMessage("Calculating pivot distances");
+		int totalNodes = 0;
+
+		for (final Level level : levels) {
+			level.calculatePivotDistances();
+			totalNodes += level.n;
+
+			if (cancelled.getAsBoolean())
+				return false;
+		}
+
+		// Each level gets the same number of passes, so the average number of
+		// times a node of the partition is moved is the configured one.
+		final Level finest = levels.get(0);
+		final int passes = Math.max(1, (int) Math.round(averageIterationsPerNode * finest.n / totalNodes));
+
+		for (final Level level : levels) {
+			level.unit = finest.unit * finest.span / Math.max(1, level.span);
+			level.calculateSprings();
+		}
+
+		final double progressPerNode = (endProgress - startProgress) / ((double) passes * totalNodes);
+		double progress = startProgress;
+
+		for (int l = levels.size() - 1; l >= 0; l--) {
+			final Level level = levels.get(l);
+
+			if (l < levels.size() - 1)
+				level.interpolate(levels.get(l + 1));
+
+			taskMonitor.setStatusMessage("Executing spring logic -- level " + (levels.size() - l) + " of "
+			                             + levels.size());
+
+			for (int pass = 0; pass < passes; pass++) {
+				if (cancelled.getAsBoolean())
+					return false;
+
+				final double maxStep = level.unit * level.span * (passes - pass) / passes + level.unit;
+
+				for (int i = 0; i < level.n; i++) {
+					if (!level.locked[i])
+						level.moveNode(i, maxStep);
+				}
+
+				progress += progressPerNode * level.n;
+				taskMonitor.setProgress(progress);
+			}
+		}
+
+		final List<LayoutNode> nodes = partition.getNodeList();
+
+		for (final LayoutNode v : nodes) {
+			if (!v.isLocked()) {
+				v.setX(finest.x[v.getIndex()]);
+				v.setY(finest.y[v.getIndex()]);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * One level of the coarsened partition. Neighbors are kept in compressed
+	 * rows: the neighbors of node i are neighbors[neighborStart[i]] to
+	 * neighbors[neighborStart[i + 1] - 1].
+	 */
+	private final class Level {
+
+		final int n;
+		final double[] x;
+		final double[] y;
+		final double[] radius;
+		final boolean[] locked;
+
+		final SparseGraph graph;
+		final int[] neighborStart;
+		final int[] neighbors;
+		final double[] edgeWeight;
+
+		/** The node of the next coarser level each node was merged into */
+		int[] parent;
+
+		int[] pivots;
+		/** The distance from pivot p to node i is pivotDistance[p * n + i] */
+		int[] pivotDistance;
+		/**
+		 * The number of nodes within distance t of pivot p that are not closer
+		 * to any other pivot is regionCount[p * (span + 1) + t]
+		 */
+		int[] regionCount;
+		/** The largest distance from a pivot, an estimate of the diameter */
+		int span;
+
+		/** The rest length of a spring between nodes that are one edge apart */
+		double unit;
+
+		double[] edgeRestLength;
+		double[] edgeStrength;
+		double[] pivotRestLength;
+		double[] pivotStrength;
+
+		private final double[] partials = new double[6];
+
+		/**
+		 * Creates the finest level from the partition.
+		 */
+		Level(final LayoutPartition partition, final ToDoubleFunction<LayoutEdge> weight) {
+			n = partition.nodeCount();
+			x = new double[n];
+			y = new double[n];
+			radius = new double[n];
+			locked = new boolean[n];
+
+			for (final LayoutNode v : partition.getNodeList()) {
+				final int i = v.getIndex();
+				x[i] = v.getX();
+				y[i] = v.getY();
+				radius[i] = v.getWidth() / 2;
+				locked[i] = v.isLocked();
+			}
+
+			final int m = partition.edgeCount();
+			final int[] source = new int[m];
+			final int[] target = new int[m];
+			final double[] w = new double[m];
+			int count = 0;
+			double totalWeight = 0.0;
+
+			for (final LayoutEdge edge : partition.getEdgeList()) {
+				source[count] = edge.getSource().getIndex();
+				target[count] = edge.getTarget().getIndex();
+				w[count] = weight.applyAsDouble(edge);
+
+				if (source[count] != target[count] && w[count] > 0.0) {
+					totalWeight += w[count];
+					count++;
+				}
+			}
+
+			graph = new SparseGraph(n, source, target, w, count);
+			neighborStart = graph.getNeighborStart();
+			neighbors = graph.getNeighbors();
+			edgeWeight = graph.getWeights();
+
+			// The single level layout uses restLength / weight for the spring
+			// of every edge, so that is the length of an average edge here.
+			unit = count > 0 ? restLength * count / totalWeight : restLength;
+
+			for (int k = 0; k < edgeWeight.length; k++)
+				edgeWeight[k] = edgeWeight[k] * count / totalWeight;
+		}
+
+		private Level(final int n, final double[] x, final double[] y, final double[] radius, final boolean[] locked,
+				final SparseGraph graph) {
+			this.n = n;
+			this.x = x;
+			this.y = y;
+			this.radius = radius;
+			this.locked = locked;
+			this.graph = graph;
+			this.neighborStart = graph.getNeighborStart();
+			this.neighbors = graph.getNeighbors();
+			this.edgeWeight = graph.getWeights();
+		}
+
+		/**
+		 * Merges every node with its unmatched neighbor of the heaviest edge,
+		 * leaves first, and nodes that are left over with their smallest
+		 * merged neighbor. Locked nodes are never merged.
+		 *
+		 * @return the next coarser level, or null if too few nodes were merged
+		 */
+		Level coarsen() {
+			final int[] order = new int[n];
+			final int[] degreeStart = new int[n + 2];
+
+			for (int i = 0; i < n; i++)
+				degreeStart[degree(i) + 1]++;
+			for (int d = 0; d <= n; d++)
+				degreeStart[d + 1] += degreeStart[d];
+			for (int i = 0; i < n; i++)
+				order[degreeStart[degree(i)]++] = i;
+
+			final int[] parent = new int[n];
+			final int[] size = new int[n];
+			int coarseCount = 0;
+			Arrays.fill(parent, -1);
+
+			for (final int i : order) {
+				if (parent[i] != -1 || locked[i])
+					continue;
+
+				int best = -1;
+
+				for (int k = neighborStart[i]; k < neighborStart[i + 1]; k++) {
+					final int j = neighbors[k];
+
+					if (parent[j] != -1 || locked[j])
+						continue;
+
+					if (best == -1 || edgeWeight[k] > edgeWeight[best]
+					    || (edgeWeight[k] == edgeWeight[best] && degree(j) < degree(neighbors[best])))
+						best = k;
+				}
+
+				if (best != -1) {
+					parent[i] = parent[neighbors[best]] = coarseCount;
+					size[coarseCount++] = 2;
+				}
+			}
+
+			for (final int i : order) {
+				if (parent[i] != -1)
+					continue;
+
+				int best = -1;
+
+				if (!locked[i]) {
+					for (int k = neighborStart[i]; k < neighborStart[i + 1]; k++) {
+						final int j = neighbors[k];
+
+						if (parent[j] != -1 && !locked[j] && (best == -1 || size[parent[j]] < size[best]))
+							best = parent[j];
+					}
+				}
+
+				if (best == -1)
+					best = coarseCount++;
+
+				parent[i] = best;
+				size[best]++;
+			}
+
+			if (coarseCount > n * MAX_COARSENING_RATIO)
+				return null;
+
+			final double[] cx = new double[coarseCount];
+			final double[] cy = new double[coarseCount];
+			final double[] cr = new double[coarseCount];
+			final boolean[] cl = new boolean[coarseCount];
+
+			for (int i = 0; i < n; i++) {
+				final int c = parent[i];
+				cx[c] += x[i] / size[c];
+				cy[c] += y[i] / size[c];
+				cr[c] += radius[i] * radius[i];
+				cl[c] |= locked[i];
+			}
+
+			for (int c = 0; c < coarseCount; c++)
+				cr[c] = Math.sqrt(cr[c]);
+
+			final int[] source = new int[neighbors.length / 2 + 1];
+			final int[] target = new int[source.length];
+			final double[] w = new double[source.length];
+			int count = 0;
+
+			for (int i = 0; i < n; i++) {
+				for (int k = neighborStart[i]; k < neighborStart[i + 1]; k++) {
+					final int j = neighbors[k];
+
+					if (i < j && parent[i] != parent[j]) {
+						source[count] = parent[i];
+						target[count] = parent[j];
+						w[count++] = edgeWeight[k];
+					}
+				}
+			}
+
+			this.parent = parent;
+
+			return new Level(coarseCount, cx, cy, cr, cl, new SparseGraph(coarseCount, source, target, w, count));
+		}
+
+		int degree(final int i) {
+			return neighborStart[i + 1] - neighborStart[i];
+		}
+
+		/**
+		 * Chooses the pivots and keeps the breadth first distances from them,
+		 * see {@link SparseGraph#calculatePivotDistances(int)}.
+		 */
+		void calculatePivotDistances() {
+			final int k = Math.min(PIVOTS, n);
+			final Pivots result = graph.calculatePivotDistances(k);
+			final int[] closest = result.closest;
+			final int[] minDistance = result.minDistance;
+
+			pivots = result.pivots;
+			pivotDistance = result.distance;
+			span = result.span;
+
+			regionCount = new int[k * (span + 1)];
+
+			for (int i = 0; i < n; i++) {
+				if (minDistance[i] != Integer.MAX_VALUE)
+					regionCount[closest[i] * (span + 1) + minDistance[i]]++;
+			}
+
+			for (int p = 0; p < k; p++) {
+				for (int t = 1; t <= span; t++)
+					regionCount[p * (span + 1) + t] += regionCount[p * (span + 1) + t - 1];
+			}
+		}
+
+		void calculateSprings() {
+			edgeRestLength = new double[neighbors.length];
+			edgeStrength = new double[neighbors.length];
+
+			for (int k = 0; k < neighbors.length; k++) {
+				edgeRestLength[k] = unit / edgeWeight[k];
+				edgeStrength[k] = strength;
+			}
+
+			pivotRestLength = new double[pivotDistance.length];
+			pivotStrength = new double[pivotDistance.length];
+
+			for (int p = 0; p < pivots.length; p++) {
+				for (int i = 0; i < n; i++) {
+					final int d = pivotDistance[p * n + i];
+
+					if (d == SparseGraph.UNREACHABLE) {
+						pivotRestLength[p * n + i] = disconnectedRestLength;
+						pivotStrength[p * n + i] = disconnectedStrength * regionCount[p * (span + 1) + span];
+					} else if (d > 0) {
+						pivotRestLength[p * n + i] = unit * d;
+						pivotStrength[p * n + i] = strength * regionCount[p * (span + 1) + d / 2] / ((double) d * d);
+					}
+				}
+			}
+
+			// The distances are only needed for the springs
+			pivotDistance = null;
+			regionCount = null;
+		}
+
+		/**
+		 * Places every node close to the node of the coarser level it was
+		 * merged into.
+		 */
+		void interpolate(final Level coarse) {
+			final Random random = new Random(n);
+			final double jitter = unit / 2;
+
+			for (int i = 0; i < n; i++) {
+				if (!locked[i]) {
+					x[i] = coarse.x[parent[i]] + (random.nextDouble() - 0.5) * jitter;
+					y[i] = coarse.y[parent[i]] + (random.nextDouble() - 0.5) * jitter;
+				}
+			}
+
+			parent = null;
+		}
+
+		/**
+		 * Moves a node to where its springs are closer to rest, using the
+		 * partial derivatives of the energy of its springs.
+		 */
+		void moveNode(final int i, final double maxStep) {
+			Arrays.fill(partials, 0.0);
+
+			for (int k = neighborStart[i]; k < neighborStart[i + 1]; k++)
+				addSpring(i, neighbors[k], edgeRestLength[k], edgeStrength[k], partials);
+
+			for (int p = 0; p < pivots.length; p++) {
+				final int j = pivots[p];
+
+				if (j != i && pivotStrength[p * n + i] > 0.0)
+					addSpring(i, j, pivotRestLength[p * n + i], pivotStrength[p * n + i], partials);
+			}
+
+			final double px = partials[0];
+			final double py = partials[1];
+			final double pxx = partials[2];
+			final double pyy = partials[3];
+			final double pxy = partials[4];
+			final double denominator = (pxx * pyy) - (pxy * pxy);
+			double deltaX;
+			double deltaY;
+
+			if (pxx > 0.0 && denominator > 0.0) {
+				deltaX = ((-px * pyy) - (-py * pxy)) / denominator;
+				deltaY = ((-py * pxx) - (-px * pxy)) / denominator;
+			} else {
+				// Where springs are compressed the energy is not convex, so
+				// follow the gradient instead, scaled by the total strength.
+				final double scale = partials[5];
+
+				if (!(scale > 0.0))
+					return;
+
+				deltaX = -px / scale;
+				deltaY = -py / scale;
+			}
+
+			final double step = Math.sqrt((deltaX * deltaX) + (deltaY * deltaY));
+
+			if (step > maxStep) {
+				deltaX *= maxStep / step;
+				deltaY *= maxStep / step;
+			}
+
+			if (!Double.isNaN(deltaX) && !Double.isNaN(deltaY)) {
+				x[i] += deltaX;
+				y[i] += deltaY;
+			}
+		}
+
+		/**
+		 * Adds the partial derivatives of one spring to x, y, xx, yy and xy,
+		 * and its strength to the total strength.
+		 */
+		private void addSpring(final int i, final int j, final double rest, final double k,
+				final double[] partials) {
+			double deltaX = x[i] - x[j];
+			double deltaY = y[i] - y[j];
+			double distance = Math.sqrt((deltaX * deltaX) + (deltaY * deltaY));
+
+			if (((float) distance) < 0.0001) {
+				deltaX = (i < j) ? -0.01 : 0.01;
+				deltaY = ((i + j) % 2 == 0) ? -0.01 : 0.01;
+				distance = Math.sqrt((deltaX * deltaX) + (deltaY * deltaY));
+			}
+
+			final double distanceCubed = distance * distance * distance;
+			addSpring(k, rest, deltaX, deltaY, distance, distanceCubed, partials);
+
+			final double touching = radius[i] + radius[j];
+
+			if (anticollisionStrength > 0.0 && distance < touching)
+				addSpring(anticollisionStrength, touching, deltaX, deltaY, distance, distanceCubed, partials);
+		}
+
+		private void addSpring(final double k, final double rest, final double deltaX, final double deltaY,
+				final double distance, final double distanceCubed, final double[] partials) {
+			partials[0] += k * (deltaX - ((rest * deltaX) / distance));
+			partials[1] += k * (deltaY - ((rest * deltaY) / distance));
+			partials[2] += k * (1.0 - ((rest * deltaY * deltaY) / distanceCubed));
+			partials[3] += k * (1.0 - ((rest * deltaX * deltaX) / distanceCubed));
+			partials[4] += k * ((rest * deltaX * deltaY) / distanceCubed);
+			partials[5] += k;
+		}
+	}
+}
@@ -32,7 +32,6 @@ import java.util.Set;
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNetwork;
 import org.cytoscape.model.CyNode;
-import org.cytoscape.view.layout.AbstractPartitionLayoutTask;
 import org.cytoscape.view.layout.LayoutNode;
 import org.cytoscape.view.layout.LayoutPartition;
 import org.cytoscape.view.model.CyNetworkView;
@@ -45,8 +44,9 @@ import cern.colt.map.PrimeFinder;
 import cern.colt.map.tlong.OpenLongIntHashMap;
 import cern.colt.matrix.tdouble.DoubleMatrix1D;
 import cern.colt.matrix.tdouble.impl.DenseDoubleMatrix1D;
+import csapps.layout.algorithms.AbstractParallelPartitionLayoutTask;
 
-public class ISOMLayoutTask  extends AbstractPartitionLayoutTask {
+public class ISOMLayoutTask  extends AbstractParallelPartitionLayoutTask {
 
 	private int epoch;
 	private double adaption;
@@ -69,6 +69,11 @@ public class ISOMLayoutTask  extends AbstractPartitionLayoutTask {
 		network = networkView.getModel();
 		q = new LongArrayList();
 	}
+
+	@Override
+	protected ISOMLayoutTask createPartitionTask() {
+		return new ISOMLayoutTask(displayName, networkView, nodesToLayOut, context, layoutAttribute, undo);
+	}
 	
 	public void layoutPartition(LayoutPartition partition) {
 		this.partition = partition;
@@ -0,0 +1,1200 @@
+package csapps.layout.algorithms.hierarchicalLayout;
+
+/*
+ * #%L
+ * Cytoscape Layout Algorithms Impl (layout-cytoscape-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.cytoscape.work.TaskMonitor;
+
+/**
+ * The fast mode of the hierarchical layout, for networks that are too large
+ * for {@link Graph}. It takes the same steps, with the same orientation and
+ * spacing, but keeps the graph in int arrays and uses linear time methods
+ * wherever {@link Graph} uses quadratic ones:
+ * <ol>
+ * <li>Cycles are removed by reversing the edges that point backwards in the
+ * node sequence of the greedy heuristic of Eades, Lin and Smyth, kept in
+ * array buckets instead of lists.</li>
+ * <li>Nodes are layered by the longest path to a sink, in the topological
+ * order of an array queue, after which nodes move between layers as long as
+ * that shortens their edges. There is no transitive reduction and no limit on
+ * the width of a layer.</li>
+ * <li>Edges that span more than one layer get a dummy node in every layer in
+ * between, which become the bends of the edge.</li>
+ * <li>Crossings are reduced by barycenter sweeps. A down and an up sweep are
+ * followed by sweeps that sort all odd and then all even layers by the
+ * positions of their neighbors in both adjacent layers; as those layers do
+ * not depend on each other, they are sorted in parallel. The order with the
+ * fewest crossings, counted with the accumulator tree of Barth, Juenger and
+ * Mutzel, is kept.</li>
+ * <li>Each layer is placed as close as possible to the weighted average
+ * position of the neighbors of its nodes, which is an isotonic regression
+ * solved exactly by pooling adjacent violators. Dummy nodes weigh more, which
+ * straightens long edges.</li>
+ * <li>The connected components are packed in bands, largest first, as the
+ * other mode does.</li>
+ * </ol>
+ */
+final class FastHierarchicalLayout {
+
+	/** The most passes that move nodes between layers to shorten edges */
+	private static final int LAYERING_PASSES = 8;
+
+	/** The most crossing reduction sweeps */
+	private static final int MAX_SWEEPS = 32;
+
+	/** Crossing reduction stops after this many sweeps that did not reduce the crossings */
+	private static final int MAX_SWEEPS_WITHOUT_IMPROVEMENT = 4;
+
+	/** Alternating down and up passes of coordinate assignment */
+	private static final int COORDINATE_SWEEPS = 8;
+
+	/** The weight of the position of a node without neighbors in the layers being looked at */
+	private static final double FREE_WEIGHT = 0.01;
+
+	/** Bucket of the nodes that have no outgoing edges left, in the cycle removal */
+	private static final int SINKS = 0;
+
+	/** Bucket of the nodes that have no incoming edges left, in the cycle removal */
+	private static final int SOURCES = 1;
+
+	private final HierarchicalLayoutContext context;
+	private final BooleanSupplier cancelled;
+	private final TaskMonitor taskMonitor;
+
+	// The proper layered graph: the nodes, followed by the dummy nodes of the long edges
+	private int nodeCount;
+	private int[] upStart;
+	private int[] up;
+	private int[] downStart;
+	private int[] down;
+
+	// The nodes of every layer of every component, a slot each, in their current order
+	private int slotCount;
+	private int[] slotStart;
+	private int[] order;
+	private int[] pos;
+
+	// The slots of every layer, and all slots of odd and of even layers
+	private int[][] layerSlots;
+	private int[] oddSlots;
+	private int[] evenSlots;
+
+	// Scratch space, used by each slot only in its own range
+	private int[] orderScratch;
+	private double[] keys;
+	private double[] keyScratch;
+	private double[] weights;
+	private double[] offsets;
+	private int[] blockEnd;
+
+	private double[] xs;
+	private double[] halfWidth;
+	private int realCount;
+
+	FastHierarchicalLayout(final HierarchicalLayoutContext context, final BooleanSupplier cancelled,
+			final TaskMonitor taskMonitor) {
+		this.context = context;
+		this.cancelled = cancelled;
+		this.taskMonitor = taskMonitor;
+	}
+
+	/**
+	 * Lays out the network.
+	 *
+	 * @param n the number of nodes
+	 * @param edgeSource the source node of every edge
+	 * @param edgeTarget the target node of every edge
+	 * @param width the width of every node
+	 * @param height the height of every node
+	 * @param x receives the x coordinate of every node
+	 * @param y receives the y coordinate of every node
+	 * @return the bends of every edge, as x and y coordinates from its source to
+	 *         its target, with null for the edges that have none, or null if
+	 *         the layout was cancelled
+	 * @throws IllegalStateException if the layers are invalid or crossing
+	 *         reduction made the layout worse
+	 */
+	double[][] layout(final int n, final int[] edgeSource, final int[] edgeTarget, final double[] width,
+			final double[] height, final double[] x, final double[] y) {
+		realCount = n;
+		final int m = edgeSource.length;
+
+		// Self loops do not affect the layout
+		int loopless = 0;
+
+		for (int e = 0; e < m; e++) {
+			if (edgeSource[e] != edgeTarget[e])
+				loopless++;
+		}
+
+		final int[] source = new int[loopless];
+		final int[] target = new int[loopless];
+		final int[] edgeIndex = new int[loopless];
+
+		for (int e = 0, k = 0; e < m; e++) {
+			if (edgeSource[e] != edgeTarget[e]) {
+				source[k] = edgeSource[e];
+				target[k] = edgeTarget[e];
+				edgeIndex[k++] = e;
+			}
+		}
+
+		taskMonitor.setStatusMessage("Removing cycles");
+		final int[] sequence = acyclicSequence(n, source, target);
+
+		if (cancelled.getAsBoolean())
+			return null;
+
+		// Orient every edge along the sequence and drop duplicates
+		final int[] dagOf = new int[loopless];
+		final int[][] dag = orient(n, source, target, sequence, dagOf);
+		final int[] dagFrom = dag[0];
+		final int[] dagTo = dag[1];
+
+		taskMonitor.setStatusMessage("Layering nodes vertically");
+		taskMonitor.setProgress(0.1);
+		final int[] component = new int[n];
+		final int componentCount = components(n, dagFrom, dagTo, component);
+		final int[] layer = layers(n, dagFrom, dagTo, component, componentCount);
+
+		if (cancelled.getAsBoolean())
+			return null;
+
+		checkLayering(dagFrom, dagTo, layer);
+		final int[] chainStart = buildProperGraph(n, dagFrom, dagTo, layer);
+		final int[] nodeLayer = Arrays.copyOf(layer, nodeCount);
+		final int[] nodeComponent = Arrays.copyOf(component, nodeCount);
+
+		for (int e = 0; e < dagFrom.length; e++) {
+			for (int d = chainStart[e]; d < chainStart[e + 1]; d++) {
+				nodeLayer[d] = layer[dagTo[e]] + 1 + d - chainStart[e];
+				nodeComponent[d] = component[dagFrom[e]];
+			}
+		}
+
+		checkProperGraph(nodeLayer);
+		final int[] componentSlots = buildSlots(nodeLayer, nodeComponent, componentCount);
+
+		taskMonitor.setStatusMessage("Reducing edge crossings");
+		taskMonitor.setProgress(0.2);
+		reduceCrossings();
+
+		if (cancelled.getAsBoolean())
+			return null;
+
+		taskMonitor.setStatusMessage("Positioning nodes within layers");
+		taskMonitor.setProgress(0.8);
+		final double[] ys = new double[nodeCount];
+		assignCoordinates(width, height, componentSlots, componentCount, ys);
+
+		if (cancelled.getAsBoolean())
+			return null;
+
+		for (int v = 0; v < n; v++) {
+			x[v] = xs[v];
+			y[v] = ys[v];
+		}
+
+		final double[][] bends = new double[m][];
+
+		for (int k = 0; k < loopless; k++) {
+			final int e = dagOf[k];
+			final int dummies = chainStart[e + 1] - chainStart[e];
+
+			if (dummies == 0)
+				continue;
+
+			// The dummy nodes of a chain are numbered from its upper end down
+			final boolean fromLowerEnd = source[k] == dagFrom[e];
+			final double[] bend = new double[2 * dummies];
+
+			for (int i = 0; i < dummies; i++) {
+				final int d = fromLowerEnd ? chainStart[e + 1] - 1 - i : chainStart[e] + i;
+				bend[2 * i] = xs[d];
+				bend[2 * i + 1] = ys[d];
+			}
+
+			bends[edgeIndex[k]] = bend;
+		}
+
+		return bends;
+	}
+
+	/**
+	 * Returns the position of every node in a sequence in which few edges
+	 * point from a later node to an earlier one: sinks are taken from the end,
+	 * sources from the start, and otherwise the node with the most outgoing
+	 * minus incoming edges goes next. Nodes are kept in buckets by that
+	 * difference, so this is linear in the size of the graph.
+	 */
+	private static int[] acyclicSequence(final int n, final int[] source, final int[] target) {
+		final int m = source.length;
+		final int[] outStart = new int[n + 1];
+		final int[] inStart = new int[n + 1];
+
+		for (int e = 0; e < m; e++) {
+			outStart[source[e] + 1]++;
+			inStart[target[e] + 1]++;
+		}
+
+		for (int v = 0; v < n; v++) {
+			outStart[v + 1] += outStart[v];
+			inStart[v + 1] += inStart[v];
+		}
+
+		final int[] out = new int[m];
+		final int[] in = new int[m];
+		final int[] outNext = Arrays.copyOf(outStart, n);
+		final int[] inNext = Arrays.copyOf(inStart, n);
+
+		for (int e = 0; e < m; e++) {
+			out[outNext[source[e]]++] = target[e];
+			in[inNext[target[e]]++] = source[e];
+		}
+
+		final int[] outDegree = new int[n];
+		final int[] inDegree = new int[n];
+
+		for (int v = 0; v < n; v++) {
+			outDegree[v] = outStart[v + 1] - outStart[v];
+			inDegree[v] = inStart[v + 1] - inStart[v];
+		}
+
+		// Buckets of doubly linked nodes: sinks, sources, then by out - in degree
+		final int bucketCount = 2 * m + 3;
+		final int[] head = new int[bucketCount];
+		final int[] next = new int[n];
+		final int[] prev = new int[n];
+		final int[] bucket = new int[n];
+		final boolean[] removed = new boolean[n];
+		Arrays.fill(head, -1);
+
+		final BucketQueue queue = new BucketQueue(head, next, prev, bucket, m);
+
+		for (int v = 0; v < n; v++)
+			queue.add(v, outDegree[v], inDegree[v]);
+
+		final int[] sequence = new int[n];
+		int first = 0;
+		int last = n - 1;
+		int maxBucket = bucketCount - 1;
+
+		for (int taken = 0; taken < n; taken++) {
+			final int v;
+
+			if (head[SINKS] >= 0) {
+				v = head[SINKS];
+				sequence[v] = last--;
+			} else if (head[SOURCES] >= 0) {
+				v = head[SOURCES];
+				sequence[v] = first++;
+			} else {
+				while (head[maxBucket] < 0)
+					maxBucket--;
+
+				v = head[maxBucket];
+				sequence[v] = first++;
+			}
+
+			queue.remove(v);
+			removed[v] = true;
+
+			for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+				final int w = out[i];
+
+				if (!removed[w]) {
+					queue.remove(w);
+					maxBucket = Math.max(maxBucket, queue.add(w, outDegree[w], --inDegree[w]));
+				}
+			}
+
+			for (int i = inStart[v]; i < inStart[v + 1]; i++) {
+				final int w = in[i];
+
+				if (!removed[w]) {
+					queue.remove(w);
+					maxBucket = Math.max(maxBucket, queue.add(w, --outDegree[w], inDegree[w]));
+				}
+			}
+		}
+
+		return sequence;
+	}
+
+	/**
+	 * Orients every edge from the node that is earlier in the sequence to the
+	 * later one and merges edges between the same nodes. As in {@link Graph},
+	 * edges go from a higher layer number to a lower one, so sinks end up in
+	 * the top layer.
+	 *
+	 * @param dagOf receives the merged edge of every edge
+	 * @return the nodes the merged edges come from and go to, sorted by the former
+	 */
+	private static int[][] orient(final int n, final int[] source, final int[] target, final int[] sequence,
+			final int[] dagOf) {
+		final int m = source.length;
+		final int[] fromStart = new int[n + 1];
+
+		for (int e = 0; e < m; e++)
+			fromStart[(sequence[source[e]] < sequence[target[e]] ? source[e] : target[e]) + 1]++;
+
+		for (int v = 0; v < n; v++)
+			fromStart[v + 1] += fromStart[v];
+
+		final int[] byFrom = new int[m];
+		final int[] fromNext = Arrays.copyOf(fromStart, n);
+
+		for (int e = 0; e < m; e++)
+			byFrom[fromNext[sequence[source[e]] < sequence[target[e]] ? source[e] : target[e]]++] = e;
+
+		// The merged edge from the current node to every node, valid if seenFrom matches
+		final int[] seenFrom = new int[n];
+		final int[] seenEdge = new int[n];
+		Arrays.fill(seenFrom, -1);
+
+		final int[] dagFrom = new int[m];
+		final int[] dagTo = new int[m];
+		int dagCount = 0;
+
+		for (int v = 0; v < n; v++) {
+			for (int i = fromStart[v]; i < fromStart[v + 1]; i++) {
+				final int e = byFrom[i];
+				final int to = source[e] == v ? target[e] : source[e];
+
+				if (seenFrom[to] != v) {
+					seenFrom[to] = v;
+					seenEdge[to] = dagCount;
+					dagFrom[dagCount] = v;
+					dagTo[dagCount++] = to;
+				}
+
+				dagOf[e] = seenEdge[to];
+			}
+		}
+
+		return new int[][] { Arrays.copyOf(dagFrom, dagCount), Arrays.copyOf(dagTo, dagCount) };
+	}
+
+	/**
+	 * Numbers the connected components in the order of their lowest node.
+	 *
+	 * @return the number of components
+	 */
+	private static int components(final int n, final int[] from, final int[] to, final int[] component) {
+		final int[] parent = new int[n];
+
+		for (int v = 0; v < n; v++)
+			parent[v] = v;
+
+		for (int e = 0; e < from.length; e++) {
+			final int a = find(parent, from[e]);
+			final int b = find(parent, to[e]);
+
+			if (a != b)
+				parent[Math.max(a, b)] = Math.min(a, b);
+		}
+
+		int count = 0;
+
+		for (int v = 0; v < n; v++) {
+			final int root = find(parent, v);
+			component[v] = root == v ? count++ : component[root];
+		}
+
+		return count;
+	}
+
+	private static int find(final int[] parent, int v) {
+		while (parent[v] != v) {
+			parent[v] = parent[parent[v]];
+			v = parent[v];
+		}
+
+		return v;
+	}
+
+	/**
+	 * Puts every node in the layer of the longest path from it to a sink, then
+	 * shortens the edges by moving nodes with more incoming than outgoing edges
+	 * down to just above their lowest parent and nodes with more outgoing edges
+	 * up to just below their highest child, in alternating passes. Layers
+	 * start at 0 in every component.
+	 */
+	private static int[] layers(final int n, final int[] from, final int[] to, final int[] component,
+			final int componentCount) {
+		final int m = from.length;
+		final int[] outStart = new int[n + 1];
+		final int[] inStart = new int[n + 1];
+
+		for (int e = 0; e < m; e++) {
+			outStart[from[e] + 1]++;
+			inStart[to[e] + 1]++;
+		}
+
+		for (int v = 0; v < n; v++) {
+			outStart[v + 1] += outStart[v];
+			inStart[v + 1] += inStart[v];
+		}
+
+		final int[] out = new int[m];
+		final int[] in = new int[m];
+		final int[] outNext = Arrays.copyOf(outStart, n);
+		final int[] inNext = Arrays.copyOf(inStart, n);
+
+		for (int e = 0; e < m; e++) {
+			out[outNext[from[e]]++] = to[e];
+			in[inNext[to[e]]++] = from[e];
+		}
+
+		// Topological order, parents first
+		final int[] topological = new int[n];
+		final int[] parentsLeft = new int[n];
+		int head = 0;
+		int tail = 0;
+
+		for (int v = 0; v < n; v++) {
+			parentsLeft[v] = inStart[v + 1] - inStart[v];
+
+			if (parentsLeft[v] == 0)
+				topological[tail++] = v;
+		}
+
+		while (head < tail) {
+			final int v = topological[head++];
+
+			for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+				if (--parentsLeft[out[i]] == 0)
+					topological[tail++] = out[i];
+			}
+		}
+
+		final int[] layer = new int[n];
+
+		for (int k = n - 1; k >= 0; k--) {
+			final int v = topological[k];
+
+			for (int i = outStart[v]; i < outStart[v + 1]; i++)
+				layer[v] = Math.max(layer[v], layer[out[i]] + 1);
+		}
+
+		// Moving a node down one layer changes the total edge length by its outgoing minus incoming
+		// edges, so each node is best at one end of the range its neighbors allow
+		for (int pass = 0; pass < LAYERING_PASSES; pass++) {
+			boolean moved = false;
+
+			for (int k = 0; k < n; k++) {
+				final int v = topological[pass % 2 == 0 ? k : n - 1 - k];
+				final int balance = (inStart[v + 1] - inStart[v]) - (outStart[v + 1] - outStart[v]);
+				int best = layer[v];
+
+				if (balance > 0) {
+					best = Integer.MAX_VALUE;
+
+					for (int i = inStart[v]; i < inStart[v + 1]; i++)
+						best = Math.min(best, layer[in[i]] - 1);
+				} else if (balance < 0) {
+					best = Integer.MIN_VALUE;
+
+					for (int i = outStart[v]; i < outStart[v + 1]; i++)
+						best = Math.max(best, layer[out[i]] + 1);
+				}
+
+				if (best != layer[v]) {
+					layer[v] = best;
+					moved = true;
+				}
+			}
+
+			if (!moved)
+				break;
+		}
+
+		final int[] minLayer = new int[componentCount];
+		Arrays.fill(minLayer, Integer.MAX_VALUE);
+
+		for (int v = 0; v < n; v++)
+			minLayer[component[v]] = Math.min(minLayer[component[v]], layer[v]);
+
+		for (int v = 0; v < n; v++)
+			layer[v] -= minLayer[component[v]];
+
+		return layer;
+	}
+
+	/**
+	 * Checks that every edge goes to a node in a lower layer, which the dummy
+	 * node chains rely on.
+	 */
+	private static void checkLayering(final int[] from, final int[] to, final int[] layer) {
+		for (int e = 0; e < from.length; e++) {
+			if (layer[from[e]] <= layer[to[e]])
+				throw new IllegalStateException("Edge " + from[e] + " -> " + to[e] + " goes from layer "
+						+ layer[from[e]] + " to layer " + layer[to[e]]);
+		}
+	}
+
+	/**
+	 * Checks that every edge of the proper graph spans exactly one layer.
+	 */
+	private void checkProperGraph(final int[] nodeLayer) {
+		for (int v = 0; v < nodeCount; v++) {
+			for (int j = downStart[v]; j < downStart[v + 1]; j++) {
+				if (nodeLayer[down[j]] != nodeLayer[v] + 1)
+					throw new IllegalStateException("Proper edge " + v + " -> " + down[j] + " goes from layer "
+							+ nodeLayer[v] + " to layer " + nodeLayer[down[j]]);
+			}
+		}
+	}
+
+	/**
+	 * Adds a dummy node to every layer that an edge passes through and links
+	 * the nodes of adjacent layers.
+	 *
+	 * @return where the dummy nodes of every edge start, which is where those of
+	 *         the next edge end
+	 */
+	private int[] buildProperGraph(final int n, final int[] from, final int[] to, final int[] layer) {
+		final int m = from.length;
+		final int[] chainStart = new int[m + 1];
+		chainStart[0] = n;
+
+		for (int e = 0; e < m; e++)
+			chainStart[e + 1] = chainStart[e] + layer[from[e]] - layer[to[e]] - 1;
+
+		nodeCount = chainStart[m];
+		final int properCount = chainStart[m] - n + m;
+		final int[] upper = new int[properCount];
+		final int[] lower = new int[properCount];
+		int k = 0;
+
+		for (int e = 0; e < m; e++) {
+			int previous = to[e];
+
+			for (int d = chainStart[e]; d < chainStart[e + 1]; d++) {
+				upper[k] = previous;
+				lower[k++] = d;
+				previous = d;
+			}
+
+			upper[k] = previous;
+			lower[k++] = from[e];
+		}
+
+		upStart = new int[nodeCount + 1];
+		downStart = new int[nodeCount + 1];
+
+		for (int i = 0; i < properCount; i++) {
+			upStart[lower[i] + 1]++;
+			downStart[upper[i] + 1]++;
+		}
+
+		for (int v = 0; v < nodeCount; v++) {
+			upStart[v + 1] += upStart[v];
+			downStart[v + 1] += downStart[v];
+		}
+
+		up = new int[properCount];
+		down = new int[properCount];
+		final int[] upNext = Arrays.copyOf(upStart, nodeCount);
+		final int[] downNext = Arrays.copyOf(downStart, nodeCount);
+
+		for (int i = 0; i < properCount; i++) {
+			up[upNext[lower[i]]++] = upper[i];
+			down[downNext[upper[i]]++] = lower[i];
+		}
+
+		return chainStart;
+	}
+
+	/**
+	 * Puts the nodes of every layer of every component in a slot, in the order
+	 * of a breadth first search, which keeps neighbors close together.
+	 *
+	 * @return where the slots of every component start
+	 */
+	private int[] buildSlots(final int[] nodeLayer, final int[] nodeComponent, final int componentCount) {
+		final int[] componentSlots = new int[componentCount + 1];
+
+		for (int v = 0; v < nodeCount; v++)
+			componentSlots[nodeComponent[v] + 1] = Math.max(componentSlots[nodeComponent[v] + 1], nodeLayer[v] + 1);
+
+		int layerCount = 0;
+
+		for (int c = 0; c < componentCount; c++) {
+			layerCount = Math.max(layerCount, componentSlots[c + 1]);
+			componentSlots[c + 1] += componentSlots[c];
+		}
+
+		slotCount = componentSlots[componentCount];
+		slotStart = new int[slotCount + 1];
+		final int[] slot = new int[nodeCount];
+
+		for (int v = 0; v < nodeCount; v++) {
+			slot[v] = componentSlots[nodeComponent[v]] + nodeLayer[v];
+			slotStart[slot[v] + 1]++;
+		}
+
+		for (int s = 0; s < slotCount; s++)
+			slotStart[s + 1] += slotStart[s];
+
+		order = new int[nodeCount];
+		pos = new int[nodeCount];
+		final int[] slotNext = Arrays.copyOf(slotStart, slotCount);
+		final boolean[] visited = new boolean[nodeCount];
+		final int[] queue = new int[nodeCount];
+
+		for (int start = 0; start < nodeCount; start++) {
+			if (visited[start])
+				continue;
+
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = start;
+			visited[start] = true;
+
+			while (head < tail) {
+				final int v = queue[head++];
+				pos[v] = slotNext[slot[v]] - slotStart[slot[v]];
+				order[slotNext[slot[v]]++] = v;
+
+				for (int i = upStart[v]; i < upStart[v + 1]; i++) {
+					if (!visited[up[i]]) {
+						visited[up[i]] = true;
+						queue[tail++] = up[i];
+					}
+				}
+
+				for (int i = downStart[v]; i < downStart[v + 1]; i++) {
+					if (!visited[down[i]]) {
+						visited[down[i]] = true;
+						queue[tail++] = down[i];
+					}
+				}
+			}
+		}
+
+		final int[] layerSize = new int[layerCount];
+		int oddCount = 0;
+
+		for (int c = 0; c < componentCount; c++) {
+			for (int l = 0; l < componentSlots[c + 1] - componentSlots[c]; l++) {
+				layerSize[l]++;
+
+				if (l % 2 == 1)
+					oddCount++;
+			}
+		}
+
+		layerSlots = new int[layerCount][];
+
+		for (int l = 0; l < layerCount; l++)
+			layerSlots[l] = new int[layerSize[l]];
+
+		oddSlots = new int[oddCount];
+		evenSlots = new int[slotCount - oddCount];
+		Arrays.fill(layerSize, 0);
+		int odd = 0;
+		int even = 0;
+
+		for (int c = 0; c < componentCount; c++) {
+			for (int s = componentSlots[c]; s < componentSlots[c + 1]; s++) {
+				final int l = s - componentSlots[c];
+				layerSlots[l][layerSize[l]++] = s;
+
+				if (l % 2 == 1)
+					oddSlots[odd++] = s;
+				else
+					evenSlots[even++] = s;
+			}
+		}
+
+		orderScratch = new int[nodeCount];
+		keys = new double[nodeCount];
+		keyScratch = new double[nodeCount];
+
+		return componentSlots;
+	}
+
+	private void reduceCrossings() {
+		final long initial = crossings();
+		long best = initial;
+		final int[] bestOrder = order.clone();
+		int sweepsWithoutImprovement = 0;
+
+		for (int sweep = 0; sweep < MAX_SWEEPS && best > 0; sweep++) {
+			if (sweep == 0) {
+				for (int l = 1; l < layerSlots.length; l++)
+					forEach(layerSlots[l], s -> sortSlot(s, true, false));
+				for (int l = layerSlots.length - 2; l >= 0; l--)
+					forEach(layerSlots[l], s -> sortSlot(s, false, true));
+			} else {
+				forEach(oddSlots, s -> sortSlot(s, true, true));
+				forEach(evenSlots, s -> sortSlot(s, true, true));
+			}
+
+			if (cancelled.getAsBoolean())
+				return;
+
+			final long crossings = crossings();
+
+			if (crossings < best) {
+				best = crossings;
+				System.arraycopy(order, 0, bestOrder, 0, nodeCount);
+				sweepsWithoutImprovement = 0;
+			} else if (++sweepsWithoutImprovement >= MAX_SWEEPS_WITHOUT_IMPROVEMENT) {
+				break;
+			}
+
+			taskMonitor.setProgress(0.2 + 0.6 * (sweep + 1) / MAX_SWEEPS);
+		}
+
+		order = bestOrder;
+
+		for (int s = 0; s < slotCount; s++) {
+			for (int i = slotStart[s]; i < slotStart[s + 1]; i++)
+				pos[order[i]] = i - slotStart[s];
+		}
+
+		final long crossings = crossings();
+
+		if (crossings > initial)
+			throw new IllegalStateException("Crossing reduction went from " + initial + " to " + crossings
+					+ " crossings");
+	}
+
+	/**
+	 * Sorts a slot by the average position of the neighbors of its nodes in
+	 * the layer above, below or both. Nodes without such neighbors keep their
+	 * position.
+	 */
+	private void sortSlot(final int s, final boolean useUp, final boolean useDown) {
+		final int start = slotStart[s];
+		final int end = slotStart[s + 1];
+
+		if (end - start < 2)
+			return;
+
+		for (int i = start; i < end; i++) {
+			final int v = order[i];
+			long sum = 0;
+			int count = 0;
+
+			if (useUp) {
+				for (int k = upStart[v]; k < upStart[v + 1]; k++)
+					sum += pos[up[k]];
+
+				count += upStart[v + 1] - upStart[v];
+			}
+
+			if (useDown) {
+				for (int k = downStart[v]; k < downStart[v + 1]; k++)
+					sum += pos[down[k]];
+
+				count += downStart[v + 1] - downStart[v];
+			}
+
+			keys[i] = count > 0 ? (double) sum / count : i - start;
+		}
+
+		mergeSort(start, end);
+
+		for (int i = start; i < end; i++)
+			pos[order[i]] = i - start;
+	}
+
+	/**
+	 * Sorts order[start..end) by keys, keeping nodes with equal keys in their
+	 * current order.
+	 */
+	private void mergeSort(final int start, final int end) {
+		int[] src = order;
+		int[] dst = orderScratch;
+		double[] srcKeys = keys;
+		double[] dstKeys = keyScratch;
+
+		for (int width = 1; width < end - start; width *= 2) {
+			for (int left = start; left < end; left += 2 * width) {
+				final int middle = Math.min(left + width, end);
+				final int right = Math.min(left + 2 * width, end);
+				int i = left;
+				int j = middle;
+
+				for (int k = left; k < right; k++) {
+					if (i < middle && (j >= right || srcKeys[i] <= srcKeys[j])) {
+						dst[k] = src[i];
+						dstKeys[k] = srcKeys[i++];
+					} else {
+						dst[k] = src[j];
+						dstKeys[k] = srcKeys[j++];
+					}
+				}
+			}
+
+			final int[] t = src;
+			src = dst;
+			dst = t;
+			final double[] tk = srcKeys;
+			srcKeys = dstKeys;
+			dstKeys = tk;
+		}
+
+		if (src != order)
+			System.arraycopy(src, start, order, start, end - start);
+	}
+
+	private long crossings() {
+		return IntStream.range(0, slotCount).parallel().mapToLong(this::crossingsBelow).sum();
+	}
+
+	/**
+	 * Counts the crossings of the edges from a slot to the layer below it.
+	 */
+	private long crossingsBelow(final int s) {
+		final int start = slotStart[s];
+		final int end = slotStart[s + 1];
+		int edgeCount = 0;
+
+		for (int i = start; i < end; i++)
+			edgeCount += downStart[order[i] + 1] - downStart[order[i]];
+
+		if (edgeCount < 2)
+			return 0;
+
+		// The positions of the lower ends, sorted by upper and then by lower end
+		final int[] lowerPos = new int[edgeCount];
+		int lowerCount = 0;
+		int k = 0;
+
+		for (int i = start; i < end; i++) {
+			final int v = order[i];
+			final int first = k;
+
+			for (int j = downStart[v]; j < downStart[v + 1]; j++) {
+				lowerPos[k] = pos[down[j]];
+				lowerCount = Math.max(lowerCount, lowerPos[k++] + 1);
+			}
+
+			Arrays.sort(lowerPos, first, k);
+		}
+
+		int firstLeaf = 1;
+
+		while (firstLeaf < lowerCount)
+			firstLeaf *= 2;
+
+		final int[] tree = new int[2 * firstLeaf - 1];
+		firstLeaf--;
+		long crossings = 0;
+
+		for (int i = 0; i < edgeCount; i++) {
+			int index = lowerPos[i] + firstLeaf;
+			tree[index]++;
+
+			while (index > 0) {
+				if (index % 2 == 1)
+					crossings += tree[index + 1];
+
+				index = (index - 1) / 2;
+				tree[index]++;
+			}
+		}
+
+		return crossings;
+	}
+
+	/**
+	 * Assigns x coordinates by alternating down and up passes that place each
+	 * layer close to the neighbors of its nodes in the layer placed before it,
+	 * and y coordinates by layer, then packs the components.
+	 */
+	private void assignCoordinates(final double[] width, final double[] height, final int[] componentSlots,
+			final int componentCount, final double[] ys) {
+		final double spacing = context.nodeHorizontalSpacing;
+		xs = new double[nodeCount];
+		halfWidth = new double[nodeCount];
+		weights = new double[nodeCount];
+		offsets = new double[nodeCount];
+		blockEnd = new int[nodeCount];
+
+		for (int v = 0; v < nodeCount; v++)
+			halfWidth[v] = v < realCount ? Math.max(spacing, width[v] + spacing / 2.0) / 2.0 : spacing / 4.0;
+
+		// Start with every layer packed and centered
+		for (int s = 0; s < slotCount; s++) {
+			final int start = slotStart[s];
+			final int end = slotStart[s + 1];
+			double x = 0.0;
+
+			for (int i = start; i < end; i++) {
+				if (i > start)
+					x += halfWidth[order[i - 1]] + halfWidth[order[i]];
+
+				xs[order[i]] = x;
+			}
+
+			for (int i = start; i < end; i++)
+				xs[order[i]] -= x / 2.0;
+		}
+
+		for (int sweep = 0; sweep < COORDINATE_SWEEPS; sweep++) {
+			if (cancelled.getAsBoolean())
+				return;
+
+			if (sweep % 2 == 0) {
+				for (int l = 1; l < layerSlots.length; l++)
+					forEach(layerSlots[l], s -> placeSlot(s, true, false));
+			} else {
+				for (int l = layerSlots.length - 2; l >= 0; l--)
+					forEach(layerSlots[l], s -> placeSlot(s, false, true));
+			}
+		}
+
+		for (int l = 0; l < layerSlots.length; l++)
+			forEach(layerSlots[l], s -> placeSlot(s, true, true));
+
+		packComponents(height, componentSlots, componentCount, ys);
+	}
+
+	/**
+	 * Moves the nodes of a slot as close as possible, in the least squares
+	 * sense, to the weighted average x of their neighbors above, below or both,
+	 * keeping their order and spacing. With y[i] = x[i] - offset[i], where the
+	 * offsets are the minimum distances from the first node, the spacing
+	 * constraints become y[i] <= y[i + 1], which pooling adjacent violators
+	 * solves in linear time.
+	 */
+	private void placeSlot(final int s, final boolean useUp, final boolean useDown) {
+		final int start = slotStart[s];
+		final int end = slotStart[s + 1];
+
+		for (int i = start; i < end; i++) {
+			final int v = order[i];
+			double sum = 0.0;
+			double weight = 0.0;
+
+			if (useUp) {
+				for (int k = upStart[v]; k < upStart[v + 1]; k++) {
+					final double w = edgeWeight(v, up[k]);
+					sum += w * xs[up[k]];
+					weight += w;
+				}
+			}
+
+			if (useDown) {
+				for (int k = downStart[v]; k < downStart[v + 1]; k++) {
+					final double w = edgeWeight(v, down[k]);
+					sum += w * xs[down[k]];
+					weight += w;
+				}
+			}
+
+			offsets[i] = i == start ? 0.0 : offsets[i - 1] + halfWidth[order[i - 1]] + halfWidth[v];
+
+			if (weight > 0.0) {
+				keys[i] = sum / weight - offsets[i];
+				weights[i] = weight;
+			} else {
+				keys[i] = xs[v] - offsets[i];
+				weights[i] = FREE_WEIGHT;
+			}
+		}
+
+		// Blocks of pooled nodes, kept in place of their first node
+		int top = start - 1;
+
+		for (int i = start; i < end; i++) {
+			top++;
+			keyScratch[top] = keys[i];
+			weights[top] = weights[i];
+			blockEnd[top] = i;
+
+			while (top > start && keyScratch[top - 1] > keyScratch[top]) {
+				final double weight = weights[top - 1] + weights[top];
+				keyScratch[top - 1] = (keyScratch[top - 1] * weights[top - 1] + keyScratch[top] * weights[top]) / weight;
+				weights[top - 1] = weight;
+				blockEnd[top - 1] = blockEnd[top];
+				top--;
+			}
+		}
+
+		for (int b = start, i = start; b <= top; b++) {
+			for (; i <= blockEnd[b]; i++)
+				xs[order[i]] = keyScratch[b] + offsets[i];
+		}
+	}
+
+	/**
+	 * Edges between dummy nodes weigh the most, so that long edges are drawn
+	 * straight, as the other mode does.
+	 */
+	private double edgeWeight(final int v, final int w) {
+		final boolean dummyV = v >= realCount;
+		final boolean dummyW = w >= realCount;
+
+		return dummyV && dummyW ? 8.0 : (dummyV || dummyW ? 2.0 : 1.0);
+	}
+
+	/**
+	 * Gives every layer the y coordinate below the tallest node of the layer
+	 * above it and packs the components in bands, largest first, starting a
+	 * new band when a component ends past the right margin.
+	 */
+	private void packComponents(final double[] height, final int[] componentSlots, final int componentCount,
+			final double[] ys) {
+		final Integer[] sorted = new Integer[componentCount];
+
+		for (int c = 0; c < componentCount; c++)
+			sorted[c] = c;
+
+		final int[] size = new int[componentCount];
+
+		for (int c = 0; c < componentCount; c++)
+			size[c] = slotStart[componentSlots[c + 1]] - slotStart[componentSlots[c]];
+
+		Arrays.sort(sorted, (c1, c2) -> size[c1] != size[c2] ? size[c2] - size[c1] : c1 - c2);
+
+		double startX = context.leftEdge;
+		double bandY = context.topEdge;
+		double bandBottom = context.topEdge;
+
+		for (final int c : sorted) {
+			double minX = Double.POSITIVE_INFINITY;
+			double maxX = Double.NEGATIVE_INFINITY;
+			double layerY = 0.0;
+
+			for (int s = componentSlots[c]; s < componentSlots[c + 1]; s++) {
+				double layerHeight = 0.0;
+
+				for (int i = slotStart[s]; i < slotStart[s + 1]; i++) {
+					final int v = order[i];
+					final double half = v < realCount ? halfWidth[v] : 0.0;
+					minX = Math.min(minX, xs[v] - half);
+					maxX = Math.max(maxX, xs[v] + half);
+					ys[v] = layerY;
+
+					if (v < realCount)
+						layerHeight = Math.max(layerHeight, height[v]);
+				}
+
+				layerY += layerHeight + (s < componentSlots[c + 1] - 1 ? context.nodeVerticalSpacing : 0);
+			}
+
+			final double dx = startX - minX;
+
+			for (int i = slotStart[componentSlots[c]]; i < slotStart[componentSlots[c + 1]]; i++) {
+				xs[order[i]] += dx;
+				ys[order[i]] += bandY;
+			}
+
+			bandBottom = Math.max(bandBottom, bandY + layerY);
+			startX = maxX + dx + context.componentSpacing;
+
+			if (startX > context.rightMargin) {
+				bandY = bandBottom + context.bandGap;
+				bandBottom = bandY;
+				startX = context.leftEdge;
+			}
+		}
+	}
+
+	/**
+	 * Runs the operation on every slot, in parallel if there is more than one.
+	 */
+	private static void forEach(final int[] slots, final IntConsumer operation) {
+		if (slots.length == 1)
+			operation.accept(slots[0]);
+		else if (slots.length > 1)
+			IntStream.of(slots).parallel().forEach(operation);
+	}
+
+	/**
+	 * The nodes of the cycle removal, kept in doubly linked lists by bucket:
+	 * sinks, sources, and then by their outgoing minus incoming edges. Nodes
+	 * are taken first in first out, which keeps the sequence from following
+	 * long paths.
+	 */
+	private static final class BucketQueue {
+
+		private final int[] head;
+		private final int[] tail;
+		private final int[] next;
+		private final int[] prev;
+		private final int[] bucket;
+		private final int edgeCount;
+
+		BucketQueue(final int[] head, final int[] next, final int[] prev, final int[] bucket, final int edgeCount) {
+			this.head = head;
+			this.tail = new int[head.length];
+			Arrays.fill(tail, -1);
+			this.next = next;
+			this.prev = prev;
+			this.bucket = bucket;
+			this.edgeCount = edgeCount;
+		}
+
+		/**
+		 * @return the bucket the node was added to
+		 */
+		int add(final int v, final int outDegree, final int inDegree) {
+			final int b;
+
+			if (outDegree == 0)
+				b = SINKS;
+			else if (inDegree == 0)
+				b = SOURCES;
+			else
+				b = 2 + edgeCount + outDegree - inDegree;
+
+			bucket[v] = b;
+			prev[v] = tail[b];
+			next[v] = -1;
+
+			if (tail[b] >= 0)
+				next[tail[b]] = v;
+			else
+				head[b] = v;
+
+			tail[b] = v;
+
+			return b;
+		}
+
+		void remove(final int v) {
+			if (prev[v] >= 0)
+				next[prev[v]] = next[v];
+			else
+				head[bucket[v]] = next[v];
+
+			if (next[v] >= 0)
+				prev[next[v]] = prev[v];
+			else
+				tail[bucket[v]] = prev[v];
+		}
+	}
+}
@@ -141,6 +141,10 @@ public class HierarchicalLayoutAlgorithmTask extends AbstractLayoutTask {
 		if (cancelled)
 			return;
 
+		if (context.fastEngineThreshold >= 0 && numLayoutNodes > context.fastEngineThreshold
+				&& layoutFast(nodeViews, suid2Index))
+			return;
+
 		/* create edge list from edges between selected nodes */
 		LinkedList<Edge> edges = new LinkedList();
 
@@ -618,6 +622,85 @@ public class HierarchicalLayoutAlgorithmTask extends AbstractLayoutTask {
 		taskMonitor.setProgress(1.0);
 		taskMonitor.setStatusMessage("hierarchical layout complete");
 	}
+
+	/**
+	 * Lays out large networks with {@link FastHierarchicalLayout}, which takes
+	 * the same steps as the code above on primitive arrays.
+	 *
+	 * @return false if its layers or crossings turned out wrong, in which case
+	 *         nothing has been moved and the code above should be used instead
+	 */
+	private boolean layoutFast(final List<View<CyNode>> nodeViews, final HashMap<Long, Integer> suid2Index) {
+		final int numLayoutNodes = nodeViews.size();
+		final List<View<CyEdge>> edgeViews = new ArrayList<>();
+
+		for (View<CyEdge> ev : networkView.getEdgeViews()) {
+			if (suid2Index.containsKey(ev.getModel().getSource().getSUID())
+					&& suid2Index.containsKey(ev.getModel().getTarget().getSUID()))
+				edgeViews.add(ev);
+		}
+
+		final int[] edgeSource = new int[edgeViews.size()];
+		final int[] edgeTarget = new int[edgeViews.size()];
+
+		for (int i = 0; i < edgeSource.length; i++) {
+			edgeSource[i] = suid2Index.get(edgeViews.get(i).getModel().getSource().getSUID());
+			edgeTarget[i] = suid2Index.get(edgeViews.get(i).getModel().getTarget().getSUID());
+		}
+
+		final double[] width = new double[numLayoutNodes];
+		final double[] height = new double[numLayoutNodes];
+
+		for (int i = 0; i < numLayoutNodes; i++) {
+			width[i] = nodeViews.get(i).getVisualProperty(BasicVisualLexicon.NODE_WIDTH);
+			height[i] = nodeViews.get(i).getVisualProperty(BasicVisualLexicon.NODE_HEIGHT);
+		}
+
+		if (cancelled)
+			return true;
+
+		final double[] xPos = new double[numLayoutNodes];
+		final double[] yPos = new double[numLayoutNodes];
+		final double[][] bends;
+
+		try {
+			bends = new FastHierarchicalLayout(context, () -> cancelled, taskMonitor)
+					.layout(numLayoutNodes, edgeSource, edgeTarget, width, height, xPos, yPos);
+		} catch (IllegalStateException e) {
+			taskMonitor.showMessage(TaskMonitor.Level.WARN, "Fast layout failed, using the default mode: " + e.getMessage());
+			return false;
+		}
+
+		if (bends == null)
+			return true;
+
+		for (int i = 0; i < numLayoutNodes; i++) {
+			nodeViews.get(i).setVisualProperty(BasicVisualLexicon.NODE_X_LOCATION, xPos[i]);
+			nodeViews.get(i).setVisualProperty(BasicVisualLexicon.NODE_Y_LOCATION, yPos[i]);
+		}
+
+		// Handles are stored relative to the end nodes, so they are created after the nodes are placed
+		final HandleFactory handleFactory = serviceRegistrar.getService(HandleFactory.class);
+		final BendFactory bendFactory = serviceRegistrar.getService(BendFactory.class);
+
+		for (int i = 0; i < bends.length; i++) {
+			if (bends[i] == null)
+				continue;
+
+			final View<CyEdge> ev = edgeViews.get(i);
+			final Bend b = bendFactory.createBend();
+
+			for (int k = 0; k < bends[i].length / 2; k++)
+				b.insertHandleAt(k, handleFactory.createHandle(networkView, ev, bends[i][2 * k], bends[i][2 * k + 1]));
+
+			ev.setVisualProperty(BasicVisualLexicon.EDGE_BEND, b);
+		}
+
+		taskMonitor.setProgress(1.0);
+		taskMonitor.setStatusMessage("hierarchical layout complete");
+		return true;
+	}
+
 	private double getXPositionOf(View<CyNode> nodeView){
 		return nodeView.getVisualProperty(BasicVisualLexicon.NODE_X_LOCATION);
 	}
@@ -43,6 +43,8 @@ public class HierarchicalLayoutContext implements TunableValidator {
 	public int topEdge = 32;
 	@Tunable(description="Right edge margin:", context="both", longDescription="Right edge margin, in numeric value", exampleStringValue="7000")
 	public int rightMargin = 7000;
+	@Tunable(description="Fast layout for networks with more nodes than:", context="both", longDescription="Networks with more nodes than this are laid out with longest path layering and parallel barycenter sweeps on primitive arrays, which scales to large pathways, without the transitive reduction and width limited layers of the default mode; ```-1``` never uses the fast layout", exampleStringValue="1000")
+	public int fastEngineThreshold = 1000;
 
 	@Override // TODO
 	public ValidationState getValidationState(final Appendable errMsg) {
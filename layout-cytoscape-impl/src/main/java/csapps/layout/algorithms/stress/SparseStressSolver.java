@@ -0,0 +1,710 @@
+package csapps.layout.algorithms.stress;
+
+/*
+ * #%L
+ * Cytoscape Layout Algorithms Impl (layout-cytoscape-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import org.cytoscape.work.TaskMonitor;
+
+import csapps.layout.algorithms.SparseGraph;
+
+/**
+ * Sparse stress majorization over primitive adjacency arrays.
+ * <p>
+ * The stress is only summed over the edges and over the pairs of every node
+ * with a fixed number of pivots, where the term of a pivot is weighted by the
+ * number of nodes it stands for. The layout starts from pivot MDS, and each
+ * majorization step solves a linear system with preconditioned conjugate
+ * gradients. Since the pivots are held in place during a step, the matrix is
+ * the Laplacian of the edges plus a diagonal, and it is never stored: products
+ * with it are computed from the adjacency arrays in parallel chunks of nodes.
+ * Sums are added up chunk by chunk in a fixed order, so the result does not
+ * depend on the number of threads.
+ *
+ * @see "Ulrik Brandes and Christian Pich: Eigensolver Methods for Progressive Multidimensional Scaling of Large Data. Graph Drawing 2006"
+ * @see "Mark Ortmann, Mirza Klimenta and Ulrik Brandes: A Sparse Stress Model. Graph Drawing 2016"
+ */
+final class SparseStressSolver {
+
+	/** Nodes per parallel chunk */
+	private static final int GRAIN = 2048;
+
+	private static final int POWER_ITERATIONS = 200;
+	private static final int CG_ITERATIONS = 20;
+	private static final double CG_TOLERANCE = 1e-3;
+	private static final double EPSILON = 1e-9;
+
+	private final int n;
+	private final SparseGraph graph;
+	private final int[] neighborStart;
+	private final int[] neighbors;
+	private final boolean[] locked;
+	private final double edgeLength;
+
+	private int[] pivots;
+	/** The distance from pivot p to node i is distance[p * n + i] */
+	private int[] distance;
+	/** The weight of a term at distance d of pivot p is weight[p * (span + 2) + d] */
+	private double[] weight;
+	private int span;
+	/** The diagonal of the matrix, the degree plus the weights of the pivot terms */
+	private double[] diagonal;
+
+	private final BooleanSupplier cancelled;
+	private final TaskMonitor taskMonitor;
+
+	/**
+	 * @param locked the nodes that must not be moved, or null
+	 * @param edgeLength the distance of nodes that are one edge apart
+	 */
+	SparseStressSolver(final SparseGraph graph, final boolean[] locked, final double edgeLength,
+			final BooleanSupplier cancelled, final TaskMonitor taskMonitor) {
+		this.n = graph.nodeCount();
+		this.graph = graph;
+		this.neighborStart = graph.getNeighborStart();
+		this.neighbors = graph.getNeighbors();
+		this.locked = locked != null ? locked : new boolean[n];
+		this.edgeLength = edgeLength;
+		this.cancelled = cancelled;
+		this.taskMonitor = taskMonitor;
+	}
+
+	/**
+	 * Lays out the nodes, starting from pivot MDS. The locations of locked
+	 * nodes are not changed.
+	 *
+	 * @return false if the layout was cancelled
+	 */
+	boolean layout(final double[] x, final double[] y, final int pivotCount, final int maxIterations,
+			final double tolerance) {
+		taskMonitor.setStatusMessage("Calculating pivot distances");
+		calculatePivotDistances(Math.max(1, Math.min(pivotCount, n)));
+
+		if (cancelled.getAsBoolean())
+			return false;
+
+		calculateWeights();
+
+		taskMonitor.setStatusMessage("Calculating pivot MDS");
+		final double[] mdsX = new double[n];
+		final double[] mdsY = new double[n];
+		pivotMDS(mdsX, mdsY);
+		scale(mdsX, mdsY);
+		alignToLocked(mdsX, mdsY, x, y);
+
+		for (int i = 0; i < n; i++) {
+			if (!locked[i]) {
+				x[i] = mdsX[i];
+				y[i] = mdsY[i];
+			}
+		}
+
+		taskMonitor.setProgress(0.1);
+
+		final double[] bx = new double[n];
+		final double[] by = new double[n];
+		double previous = 0.0;
+
+		for (int iteration = 0; iteration < maxIterations; iteration++) {
+			if (cancelled.getAsBoolean())
+				return false;
+
+			taskMonitor.setStatusMessage("Majorizing stress -- iteration " + (iteration + 1));
+			final double stress = majorize(x, y, bx, by);
+
+			if (iteration > 0 && previous - stress <= tolerance * previous)
+				break;
+
+			solve(x, y, bx, by);
+			previous = stress;
+			taskMonitor.setProgress(0.1 + 0.9 * (iteration + 1) / maxIterations);
+		}
+
+		return true;
+	}
+
+	//------------------------------------------------------------------------
+	// Pivots
+	//------------------------------------------------------------------------
+
+	/**
+	 * Chooses the pivots and keeps the breadth first distances from them,
+	 * see {@link SparseGraph#calculatePivotDistances(int)}.
+	 */
+	private void calculatePivotDistances(final int k) {
+		final SparseGraph.Pivots result = graph.calculatePivotDistances(k);
+		pivots = result.pivots;
+		distance = result.distance;
+		span = result.span;
+
+		// Other components are placed as if they were one step further away
+		// than the furthest node of this one
+		for (int e = 0; e < distance.length; e++) {
+			if (distance[e] == SparseGraph.UNREACHABLE)
+				distance[e] = span + 1;
+		}
+	}
+
+	/**
+	 * The term of node i and pivot p stands for the nodes that are closer to
+	 * p than to any other pivot, and no further from p than half the distance
+	 * of i, so its weight is their number over the squared distance.
+	 */
+	private void calculateWeights() {
+		final int k = pivots.length;
+		final int rowLength = span + 2;
+		final int[] closest = new int[n];
+		final int[] minDistance = new int[n];
+		Arrays.fill(minDistance, Integer.MAX_VALUE);
+
+		for (int p = 0; p < k; p++) {
+			for (int i = 0; i < n; i++) {
+				if (distance[p * n + i] < minDistance[i]) {
+					minDistance[i] = distance[p * n + i];
+					closest[i] = p;
+				}
+			}
+		}
+
+		final int[] count = new int[k * rowLength];
+
+		for (int i = 0; i < n; i++)
+			count[closest[i] * rowLength + minDistance[i]]++;
+
+		weight = new double[k * rowLength];
+
+		for (int p = 0; p < k; p++) {
+			for (int t = 1; t < rowLength; t++)
+				count[p * rowLength + t] += count[p * rowLength + t - 1];
+			for (int d = 1; d < rowLength; d++)
+				weight[p * rowLength + d] = count[p * rowLength + d / 2] / ((double) d * d);
+		}
+
+		diagonal = new double[n];
+
+		forEach(n, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				double sum = neighborStart[i + 1] - neighborStart[i];
+
+				for (int p = 0; p < k; p++)
+					sum += weight(p, i);
+
+				diagonal[i] = sum;
+			}
+		});
+	}
+
+	private double weight(final int p, final int i) {
+		return weight[p * (span + 2) + distance[p * n + i]];
+	}
+
+	/**
+	 * Places the nodes along the two main axes of the double centered
+	 * squared distances to the pivots.
+	 */
+	private void pivotMDS(final double[] x, final double[] y) {
+		final int k = pivots.length;
+		final double[] rowMean = new double[n];
+		final double[] columnMean = new double[k];
+
+		for (int p = 0; p < k; p++) {
+			double sum = 0.0;
+
+			for (int i = 0; i < n; i++) {
+				final double d = distance[p * n + i];
+				rowMean[i] += d * d / k;
+				sum += d * d;
+			}
+
+			columnMean[p] = sum / n;
+		}
+
+		double mean = 0.0;
+
+		for (int p = 0; p < k; p++)
+			mean += columnMean[p] / k;
+
+		// C^T C, accumulated chunk by chunk
+		final int chunks = chunks(n);
+		final double[][] partial = new double[chunks][k * k];
+		final double grandMean = mean;
+
+		IntStream.range(0, chunks).parallel().forEach(c -> {
+			final double[] m = partial[c];
+			final double[] row = new double[k];
+
+			for (int i = c * GRAIN, to = Math.min(n, i + GRAIN); i < to; i++) {
+				centeredRow(i, rowMean[i], columnMean, grandMean, row);
+
+				for (int p = 0; p < k; p++) {
+					for (int q = p; q < k; q++)
+						m[p * k + q] += row[p] * row[q];
+				}
+			}
+		});
+
+		final double[] m = new double[k * k];
+
+		for (int c = 0; c < chunks; c++) {
+			for (int e = 0; e < k * k; e++)
+				m[e] += partial[c][e];
+		}
+
+		for (int p = 0; p < k; p++) {
+			for (int q = 0; q < p; q++)
+				m[p * k + q] = m[q * k + p];
+		}
+
+		final double[] v1 = dominantEigenvector(m, k, null);
+		final double[] v2 = dominantEigenvector(m, k, v1);
+
+		forEach(n, (from, to) -> {
+			final double[] row = new double[k];
+
+			for (int i = from; i < to; i++) {
+				centeredRow(i, rowMean[i], columnMean, grandMean, row);
+				double sx = 0.0;
+				double sy = 0.0;
+
+				for (int p = 0; p < k; p++) {
+					sx += row[p] * v1[p];
+					sy += row[p] * v2[p];
+				}
+
+				x[i] = sx;
+				y[i] = sy;
+			}
+		});
+	}
+
+	private void centeredRow(final int i, final double rowMean, final double[] columnMean, final double grandMean,
+			final double[] row) {
+		for (int p = 0; p < row.length; p++) {
+			final double d = distance[p * n + i];
+			row[p] = -0.5 * (d * d - rowMean - columnMean[p] + grandMean);
+		}
+	}
+
+	/**
+	 * Power iteration on the symmetric k by k matrix m, orthogonal to other
+	 * if it is not null.
+	 */
+	private static double[] dominantEigenvector(final double[] m, final int k, final double[] other) {
+		double[] v = new double[k];
+		double[] next = new double[k];
+
+		for (int p = 0; p < k; p++)
+			v[p] = 1.0 + (p % 3) * 0.5 - (p % 2) * 0.75;
+
+		for (int iteration = 0; iteration < POWER_ITERATIONS; iteration++) {
+			if (other != null) {
+				final double dot = dot(v, other);
+
+				for (int p = 0; p < k; p++)
+					v[p] -= dot * other[p];
+			}
+
+			final double norm = Math.sqrt(dot(v, v));
+
+			if (norm < EPSILON)
+				break;
+
+			for (int p = 0; p < k; p++)
+				v[p] /= norm;
+
+			for (int p = 0; p < k; p++) {
+				double sum = 0.0;
+
+				for (int q = 0; q < k; q++)
+					sum += m[p * k + q] * v[q];
+
+				next[p] = sum;
+			}
+
+			final double[] t = v;
+			v = next;
+			next = t;
+		}
+
+		final double norm = Math.sqrt(dot(v, v));
+
+		if (norm >= EPSILON) {
+			for (int p = 0; p < k; p++)
+				v[p] /= norm;
+		}
+
+		return v;
+	}
+
+	private static double dot(final double[] a, final double[] b) {
+		double sum = 0.0;
+
+		for (int p = 0; p < a.length; p++)
+			sum += a[p] * b[p];
+
+		return sum;
+	}
+
+	/**
+	 * Scales the layout so that it has the lowest stress of all its scalings.
+	 */
+	private void scale(final double[] x, final double[] y) {
+		final double numerator = sumTerms(x, y, (w, rest, dist) -> w * rest * dist);
+		final double denominator = sumTerms(x, y, (w, rest, dist) -> w * dist * dist);
+
+		if (numerator > 0.0 && denominator > 0.0) {
+			final double s = numerator / denominator;
+
+			for (int i = 0; i < n; i++) {
+				x[i] *= s;
+				y[i] *= s;
+			}
+		}
+	}
+
+	/**
+	 * Rotates, reflects and moves the layout so that its locked nodes are as
+	 * close as possible to their actual locations.
+	 */
+	private void alignToLocked(final double[] x, final double[] y, final double[] lockedX,
+			final double[] lockedY) {
+		int count = 0;
+		double cx = 0.0, cy = 0.0, lx = 0.0, ly = 0.0;
+
+		for (int i = 0; i < n; i++) {
+			if (locked[i]) {
+				count++;
+				cx += x[i];
+				cy += y[i];
+				lx += lockedX[i];
+				ly += lockedY[i];
+			}
+		}
+
+		if (count == 0)
+			return;
+
+		cx /= count;
+		cy /= count;
+		lx /= count;
+		ly /= count;
+
+		// The rotation is the angle of the sum of conj(a) * b over the locked
+		// nodes, for the centered layout a and the centered locations b, and
+		// the reflection is used if it fits better.
+		double re = 0.0, im = 0.0, reflectedRe = 0.0, reflectedIm = 0.0;
+
+		for (int i = 0; i < n; i++) {
+			if (locked[i]) {
+				final double ax = x[i] - cx, ay = y[i] - cy;
+				final double bx = lockedX[i] - lx, by = lockedY[i] - ly;
+				re += ax * bx + ay * by;
+				im += ax * by - ay * bx;
+				reflectedRe += ax * bx - ay * by;
+				reflectedIm += ax * by + ay * bx;
+			}
+		}
+
+		final boolean reflect = Math.hypot(reflectedRe, reflectedIm) > Math.hypot(re, im);
+		final double angle = reflect ? Math.atan2(reflectedIm, reflectedRe) : Math.atan2(im, re);
+		final double cos = Math.cos(angle);
+		final double sin = Math.sin(angle);
+
+		for (int i = 0; i < n; i++) {
+			final double ax = x[i] - cx;
+			final double ay = reflect ? cy - y[i] : y[i] - cy;
+			x[i] = lx + ax * cos - ay * sin;
+			y[i] = ly + ax * sin + ay * cos;
+		}
+	}
+
+	//------------------------------------------------------------------------
+	// Majorization
+	//------------------------------------------------------------------------
+
+	@FunctionalInterface
+	private interface Term {
+		double value(double w, double rest, double dist);
+	}
+
+	/**
+	 * Adds up a function of the weight, rest length and current length of
+	 * every term.
+	 */
+	private double sumTerms(final double[] x, final double[] y, final Term term) {
+		final int k = pivots.length;
+
+		return sum(n, (from, to) -> {
+			double sum = 0.0;
+
+			for (int i = from; i < to; i++) {
+				for (int e = neighborStart[i]; e < neighborStart[i + 1]; e++) {
+					final int j = neighbors[e];
+
+					if (i < j)
+						sum += term.value(1.0, edgeLength, distance(x, y, i, j));
+				}
+
+				for (int p = 0; p < k; p++) {
+					final int j = pivots[p];
+
+					if (j != i)
+						sum += term.value(weight(p, i), edgeLength * distance[p * n + i],
+						                  distance(x, y, i, j));
+				}
+			}
+
+			return sum;
+		});
+	}
+
+	/**
+	 * Calculates the right hand side of the majorization step, where each term
+	 * pulls its nodes apart by its weight times its rest length over its
+	 * current length. The pivots are held at their current locations, which
+	 * moves their terms to the right hand side and keeps the matrix sparse.
+	 *
+	 * @return the stress of the current locations
+	 */
+	private double majorize(final double[] x, final double[] y, final double[] bx, final double[] by) {
+		final int k = pivots.length;
+
+		return sum(n, (from, to) -> {
+			double stress = 0.0;
+
+			for (int i = from; i < to; i++) {
+				double sx = 0.0;
+				double sy = 0.0;
+
+				for (int e = neighborStart[i]; e < neighborStart[i + 1]; e++) {
+					final int j = neighbors[e];
+					final double dist = length(x, y, i, j);
+					final double s = edgeLength / dist;
+					sx += s * direction(x, i, j);
+					sy += s * direction(y, i, j);
+
+					if (i < j)
+						stress += (dist - edgeLength) * (dist - edgeLength);
+				}
+
+				for (int p = 0; p < k; p++) {
+					final int j = pivots[p];
+
+					if (j != i) {
+						final double w = weight(p, i);
+						final double rest = edgeLength * distance[p * n + i];
+						final double dist = length(x, y, i, j);
+						final double s = w * rest / dist;
+						sx += s * direction(x, i, j) + w * x[j];
+						sy += s * direction(y, i, j) + w * y[j];
+						stress += w * (dist - rest) * (dist - rest);
+					}
+				}
+
+				bx[i] = sx;
+				by[i] = sy;
+			}
+
+			return stress;
+		});
+	}
+
+	private static double length(final double[] x, final double[] y, final int i, final int j) {
+		return Math.max(EPSILON, distance(x, y, i, j));
+	}
+
+	private static double distance(final double[] x, final double[] y, final int i, final int j) {
+		final double dx = x[i] - x[j];
+		final double dy = y[i] - y[j];
+
+		return Math.sqrt((dx * dx) + (dy * dy));
+	}
+
+	/**
+	 * The difference of the coordinates of i and j, or a small value that
+	 * depends on the order of the nodes if they are at the same place, so that
+	 * nodes at the same place are pushed apart in different directions.
+	 */
+	private static double direction(final double[] c, final int i, final int j) {
+		final double d = c[i] - c[j];
+
+		if (d != 0.0)
+			return d;
+
+		return i < j ? -EPSILON : EPSILON;
+	}
+
+	/**
+	 * Computes out = A v, where A is the Laplacian of the edges plus the
+	 * weights of the pivot terms on the diagonal, with the rows of locked
+	 * nodes left at zero.
+	 */
+	private void multiply(final double[] vx, final double[] vy, final double[] outX, final double[] outY) {
+		forEach(n, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				double sx = 0.0;
+				double sy = 0.0;
+
+				if (!locked[i]) {
+					sx = diagonal[i] * vx[i];
+					sy = diagonal[i] * vy[i];
+
+					for (int e = neighborStart[i]; e < neighborStart[i + 1]; e++) {
+						sx -= vx[neighbors[e]];
+						sy -= vy[neighbors[e]];
+					}
+				}
+
+				outX[i] = sx;
+				outY[i] = sy;
+			}
+		});
+	}
+
+	/**
+	 * Solves A x' = b for the unlocked nodes with Jacobi preconditioned
+	 * conjugate gradients, starting from the current locations.
+	 */
+	private void solve(final double[] x, final double[] y, final double[] bx, final double[] by) {
+		// Solve for the change d of the locations: A d = b - A x = r
+		final double[] rx = new double[n];
+		final double[] ry = new double[n];
+		final double[] zx = new double[n];
+		final double[] zy = new double[n];
+		final double[] px = new double[n];
+		final double[] py = new double[n];
+		final double[] qx = new double[n];
+		final double[] qy = new double[n];
+
+		multiply(x, y, qx, qy);
+
+		forEach(n, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				if (locked[i])
+					continue;
+
+				rx[i] = bx[i] - qx[i];
+				ry[i] = by[i] - qy[i];
+				zx[i] = px[i] = rx[i] / diagonal[i];
+				zy[i] = py[i] = ry[i] / diagonal[i];
+			}
+		});
+
+		double rzx = dot(rx, zx, n);
+		double rzy = dot(ry, zy, n);
+		final double limitX = rzx * CG_TOLERANCE * CG_TOLERANCE;
+		final double limitY = rzy * CG_TOLERANCE * CG_TOLERANCE;
+
+		for (int iteration = 0; iteration < CG_ITERATIONS; iteration++) {
+			if (!(rzx > limitX) && !(rzy > limitY))
+				break;
+
+			multiply(px, py, qx, qy);
+
+			final double pqx = dot(px, qx, n);
+			final double pqy = dot(py, qy, n);
+			final double ax = pqx > 0.0 ? rzx / pqx : 0.0;
+			final double ay = pqy > 0.0 ? rzy / pqy : 0.0;
+
+			forEach(n, (from, to) -> {
+				for (int i = from; i < to; i++) {
+					if (locked[i])
+						continue;
+
+					x[i] += ax * px[i];
+					y[i] += ay * py[i];
+					rx[i] -= ax * qx[i];
+					ry[i] -= ay * qy[i];
+					zx[i] = rx[i] / diagonal[i];
+					zy[i] = ry[i] / diagonal[i];
+				}
+			});
+
+			final double nextX = dot(rx, zx, n);
+			final double nextY = dot(ry, zy, n);
+			final double betaX = rzx > 0.0 ? nextX / rzx : 0.0;
+			final double betaY = rzy > 0.0 ? nextY / rzy : 0.0;
+			rzx = nextX;
+			rzy = nextY;
+
+			forEach(n, (from, to) -> {
+				for (int i = from; i < to; i++) {
+					px[i] = zx[i] + betaX * px[i];
+					py[i] = zy[i] + betaY * py[i];
+				}
+			});
+		}
+	}
+
+	private static double dot(final double[] a, final double[] b, final int n) {
+		return sum(n, (from, to) -> {
+			double sum = 0.0;
+
+			for (int i = from; i < to; i++)
+				sum += a[i] * b[i];
+
+			return sum;
+		});
+	}
+
+	//------------------------------------------------------------------------
+	// Parallel loops
+	//------------------------------------------------------------------------
+
+	@FunctionalInterface
+	private interface Range {
+		void run(int from, int to);
+	}
+
+	@FunctionalInterface
+	private interface RangeSum {
+		double sum(int from, int to);
+	}
+
+	private static int chunks(final int count) {
+		return (count + GRAIN - 1) / GRAIN;
+	}
+
+	private static void forEach(final int count, final Range range) {
+		IntStream.range(0, chunks(count)).parallel()
+				.forEach(c -> range.run(c * GRAIN, Math.min(count, (c + 1) * GRAIN)));
+	}
+
+	private static double sum(final int count, final RangeSum range) {
+		final double[] partial = new double[chunks(count)];
+
+		IntStream.range(0, partial.length).parallel()
+				.forEach(c -> partial[c] = range.sum(c * GRAIN, Math.min(count, (c + 1) * GRAIN)));
+
+		double sum = 0.0;
+
+		for (final double s : partial)
+			sum += s;
+
+		return sum;
+	}
+}
@@ -0,0 +1,73 @@
+package csapps.layout.algorithms.stress;
+
+/*
+ * #%L
+ * Cytoscape Layout Algorithms Impl (layout-cytoscape-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import org.cytoscape.work.Tunable;
+import org.cytoscape.work.TunableValidator;
+
+public class StressLayoutContext implements TunableValidator {
+
+	@Tunable(description="Edge length:", context="both", longDescription="The distance of nodes that are one edge apart, in numeric value", exampleStringValue="50.0")
+	public double edgeLength = 50.0;
+	@Tunable(description="Number of pivots:", context="both", longDescription="Number of pivot nodes whose distances to all other nodes are used instead of the distances between all pairs of nodes, in numeric value", exampleStringValue="50")
+	public int pivots = 50;
+	@Tunable(description="Maximum number of iterations:", context="both", longDescription="Maximum number of iterations, in numeric value", exampleStringValue="100")
+	public int maxIterations = 100;
+	@Tunable(description="Convergence tolerance:", context="both", longDescription="The layout stops when an iteration reduces the stress by less than this fraction, in numeric value", exampleStringValue="0.0001")
+	public double tolerance = 0.0001;
+	@Tunable(description="Keep neighbors this many edges away in place (0: lay out nodes on their own):", context="both", longDescription="When only the selected nodes are laid out, the other nodes up to this many edges away from them stay where they are and the selected nodes are laid out among them, without moving the rest of the network; ```0``` lays out the selected nodes on their own, in numeric value", exampleStringValue="0")
+	public int anchorHops;
+	@Tunable(description="Don't partition graph before layout:", groups="Standard Settings", context="both", longDescription="Don't partition graph before layout; boolean values only, ```true``` or ```false```; defaults to ```false```", exampleStringValue="false")
+	public boolean singlePartition;
+
+	@Override
+	public ValidationState getValidationState(final Appendable errMsg) {
+		if (!(edgeLength > 0.0)) {
+			try {
+				errMsg.append("Edge length must be greater than 0.");
+			} catch (Exception e) {
+			}
+			return ValidationState.INVALID;
+		}
+
+		if (pivots < 1) {
+			try {
+				errMsg.append("There must be at least one pivot.");
+			} catch (Exception e) {
+			}
+			return ValidationState.INVALID;
+		}
+
+		if (anchorHops < 0) {
+			try {
+				errMsg.append("The number of hops to the neighbors kept in place must not be negative.");
+			} catch (Exception e) {
+			}
+			return ValidationState.INVALID;
+		}
+
+		return ValidationState.OK;
+	}
+}
@@ -0,0 +1,109 @@
+package csapps.layout.algorithms.stress;
+
+/*
+ * #%L
+ * Cytoscape Layout Algorithms Impl (layout-cytoscape-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.Set;
+
+import org.cytoscape.model.CyNode;
+import org.cytoscape.view.layout.LayoutEdge;
+import org.cytoscape.view.layout.LayoutNode;
+import org.cytoscape.view.layout.LayoutPartition;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
+import org.cytoscape.work.undo.UndoSupport;
+
+import csapps.layout.algorithms.AbstractParallelPartitionLayoutTask;
+import csapps.layout.algorithms.SparseGraph;
+
+public class StressLayoutTask extends AbstractParallelPartitionLayoutTask {
+
+	private final StressLayoutContext context;
+
+	public StressLayoutTask(final String displayName, final CyNetworkView networkView,
+			final Set<View<CyNode>> nodesToLayOut, final StressLayoutContext context, final String attrName,
+			final UndoSupport undo) {
+		super(displayName, context.singlePartition, networkView, nodesToLayOut, attrName, undo);
+		this.context = context;
+	}
+
+	@Override
+	protected StressLayoutTask createPartitionTask() {
+		return new StressLayoutTask(displayName, networkView, nodesToLayOut, context, layoutAttribute, undo);
+	}
+
+	@Override
+	protected int getAnchorHops() {
+		return context.anchorHops;
+	}
+
+	@Override
+	public void layoutPartition(final LayoutPartition partition) {
+		final int n = partition.nodeCount();
+
+		if (n < 2)
+			return;
+
+		final List<LayoutNode> nodes = partition.getNodeList();
+		final double[] x = new double[n];
+		final double[] y = new double[n];
+		final boolean[] locked = new boolean[n];
+
+		for (final LayoutNode v : nodes) {
+			final int i = v.getIndex();
+			x[i] = v.getX();
+			y[i] = v.getY();
+			locked[i] = v.isLocked();
+		}
+
+		final List<LayoutEdge> edges = partition.getEdgeList();
+		final int[] source = new int[edges.size()];
+		final int[] target = new int[edges.size()];
+		int edgeCount = 0;
+
+		for (final LayoutEdge edge : edges) {
+			source[edgeCount] = edge.getSource().getIndex();
+			target[edgeCount++] = edge.getTarget().getIndex();
+		}
+
+		final SparseGraph graph = new SparseGraph(n, source, target, null, edgeCount);
+		final SparseStressSolver solver = new SparseStressSolver(graph, locked, context.edgeLength,
+				() -> cancelled, taskMonitor);
+
+		if (!solver.layout(x, y, context.pivots, context.maxIterations, context.tolerance))
+			return;
+
+		partition.resetNodes();
+
+		for (final LayoutNode v : nodes) {
+			if (!v.isLocked()) {
+				v.setX(x[v.getIndex()]);
+				v.setY(y[v.getIndex()]);
+			}
+
+			partition.moveNodeToLocation(v);
+		}
+	}
+}
@@ -70,6 +70,14 @@ public abstract class FDLayout extends Layout
 	 */
 	public boolean useFRGridVariant = 
 		FDLayoutConstants.DEFAULT_USE_SMART_REPULSION_RANGE_CALCULATION;
+
+	/**
+	 * Whether or not spring, repulsion and gravitation forces should be
+	 * calculated in parallel. Layouts that override the force calculation of
+	 * a single edge or node (pair) should turn this off.
+	 */
+	public boolean useParallelForceCalculation =
+		FDLayoutConstants.DEFAULT_USE_PARALLEL_FORCE_CALCULATION;
 	
 	/**
 	 * Factor used for cooling layout; starts from 1.0 and goes down towards
@@ -125,6 +133,11 @@ public abstract class FDLayout extends Layout
 	 * Grid is re-calculated after every tenth iteration.
 	 */
 	protected Vector[][] grid;
+
+	/**
+	 * Calculates forces in parallel, created on demand
+	 */
+	private FDLayoutForceCalculator forceCalculator;
 	
 // -----------------------------------------------------------------------------
 // Section: Constructors and initialization
@@ -256,6 +269,12 @@ public abstract class FDLayout extends Layout
 	 */
 	public void calcSpringForces()
 	{
+		if (this.useParallelForceCalculation)
+		{
+			this.getForceCalculator().calcSpringForces();
+			return;
+		}
+
 		Object[] lEdges = this.getAllEdges();
 		FDLayoutEdge edge;
 
@@ -277,7 +296,13 @@ public abstract class FDLayout extends Layout
 		Object[] lNodes = this.getAllNodes();
 		HashSet<FDLayoutNode> processedNodeSet;
 		
-		if (this.useFRGridVariant)
+		if (this.useParallelForceCalculation)
+		{
+			this.getForceCalculator().calcRepulsionForces(
+				this.useFRGridVariant && this.repulsionRange > 0,
+				this.totalIterations % FDLayoutConstants.GRID_CALCULATION_CHECK_PERIOD == 1);
+		}
+		else if (this.useFRGridVariant)
 		{
 			// grid is a vector matrix that holds CoSENodes.
 			// be sure to convert the Object type to CoSENode.
@@ -336,6 +361,12 @@ public abstract class FDLayout extends Layout
 		FDLayoutNode node;
 		Object[] lNodes = this.getAllNodesToApplyGravitation();
 
+		if (this.useParallelForceCalculation)
+		{
+			this.getForceCalculator().calcGravitationalForces(lNodes);
+			return;
+		}
+
 		for (int i = 0; i < lNodes.length; i++)
 		{
 			node = (FDLayoutNode) lNodes[i];
@@ -379,6 +410,34 @@ public abstract class FDLayout extends Layout
 	 * on the input ideal length.
 	 */
 	protected void calcSpringForce(LEdge edge, double idealLength)
+	{
+		FDLayoutNode sourceNode = (FDLayoutNode) edge.getSource();
+		FDLayoutNode targetNode = (FDLayoutNode) edge.getTarget();
+		double[] springForce = new double[2];
+
+		if (!this.calcSpringForce(edge, idealLength, springForce))
+		{
+			return;
+		}
+
+		// Apply forces on the end nodes
+		sourceNode.springForceX += springForce[0];
+		sourceNode.springForceY += springForce[1];
+		targetNode.springForceX -= springForce[0];
+		targetNode.springForceY -= springForce[1];
+	}
+
+	/**
+	 * This method calculates the spring force that the input edge applies to
+	 * its source, and the opposite of the force it applies to its target. The
+	 * x and y components are returned in result. It returns false if the
+	 * end nodes overlap, in which case there is no spring force. Only the
+	 * input edge is modified, so this method may be called for several edges
+	 * at once.
+	 */
+	protected boolean calcSpringForce(LEdge edge,
+		double idealLength,
+		double[] result)
 	{
 		FDLayoutNode sourceNode = (FDLayoutNode) edge.getSource();
 		FDLayoutNode targetNode = (FDLayoutNode) edge.getTarget();
@@ -400,7 +459,7 @@ public abstract class FDLayout extends Layout
 
 			if (edge.isOverlapingSourceAndTarget())
 			{
-				return;
+				return false;
 			}
 		}
 
@@ -437,17 +496,37 @@ public abstract class FDLayout extends Layout
 		springForceX = springForce * (edge.getLengthX() / length);
 		springForceY = springForce * (edge.getLengthY() / length);
 
-		// Apply forces on the end nodes
-		sourceNode.springForceX += springForceX;
-		sourceNode.springForceY += springForceY;
-		targetNode.springForceX -= springForceX;
-		targetNode.springForceY -= springForceY;
+		result[0] = springForceX;
+		result[1] = springForceY;
+
+		return true;
 	}
 
 	/**
 	 * This method calculates the repulsion forces for the input node pair.
 	 */
 	protected void calcRepulsionForce(FDLayoutNode nodeA, FDLayoutNode nodeB)
+	{
+		double[] repulsionForce = new double[2];
+
+		this.calcRepulsionForce(nodeA, nodeB, repulsionForce);
+
+		// Apply forces on the two nodes
+		nodeA.repulsionForceX -= repulsionForce[0];
+		nodeA.repulsionForceY -= repulsionForce[1];
+		nodeB.repulsionForceX += repulsionForce[0];
+		nodeB.repulsionForceY += repulsionForce[1];
+	}
+
+	/**
+	 * This method calculates the repulsion force that nodeA applies to nodeB,
+	 * which is the opposite of the force nodeB applies to nodeA. The x and y
+	 * components are returned in result. Neither node is modified, so this
+	 * method may be called for several node pairs at once.
+	 */
+	protected void calcRepulsionForce(FDLayoutNode nodeA,
+		FDLayoutNode nodeB,
+		double[] result)
 	{
 		double[] overlapAmount = new double[2];
 		double[] clipPoints = new double[4];
@@ -527,11 +606,8 @@ public abstract class FDLayout extends Layout
 			repulsionForceY = repulsionForce * distanceY / distance;
 		}
 
-		// Apply forces on the two nodes
-		nodeA.repulsionForceX -= repulsionForceX;
-		nodeA.repulsionForceY -= repulsionForceY;
-		nodeB.repulsionForceX += repulsionForceX;
-		nodeB.repulsionForceY += repulsionForceY;
+		result[0] = repulsionForceX;
+		result[1] = repulsionForceY;
 	}
 
 	/**
@@ -773,6 +849,19 @@ public abstract class FDLayout extends Layout
 		return 0.0;
 	}
 	
+	/**
+	 * This method returns the calculator used for parallel force calculation.
+	 */
+	private FDLayoutForceCalculator getForceCalculator()
+	{
+		if (this.forceCalculator == null)
+		{
+			this.forceCalculator = new FDLayoutForceCalculator(this);
+		}
+
+		return this.forceCalculator;
+	}
+
 	public int getTotalIterations()
 	{
 		return totalIterations;
@@ -60,4 +60,9 @@ public class FDLayoutConstants
 	 * Number of iterations that should be done in between grid calculations
 	 */
 	public static final int GRID_CALCULATION_CHECK_PERIOD = 10;
+
+	/**
+	 * Whether or not forces should be calculated in parallel
+	 */
+	public static final boolean DEFAULT_USE_PARALLEL_FORCE_CALCULATION = true;
 }
\ No newline at end of file
@@ -0,0 +1,782 @@
+package org.ivis.layout.fd;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.ivis.layout.LEdge;
+import org.ivis.layout.LGraph;
+import org.ivis.layout.LNode;
+import org.ivis.util.IMath;
+import org.ivis.util.RectangleD;
+
+/**
+ * This class calculates the spring, repulsion and gravitational forces of a
+ * force-directed layout in parallel. Node geometry is copied into primitive
+ * arrays once per iteration, and the nodes and edges are split into ranges
+ * that are processed on the common fork-join pool.
+ *
+ * Each node only sums the forces acting on itself, in a fixed order that does
+ * not depend on how the work is split, so that the result is the same on any
+ * number of processors. The force between two nodes is always calculated from
+ * the node that comes first in the node list, as the sequential pairwise loop
+ * does, and applied to both of them.
+ *
+ * Copyright: i-Vis Research Group, Bilkent University, 2007 - present
+ */
+class FDLayoutForceCalculator
+{
+// -----------------------------------------------------------------------------
+// Section: Class variables
+// -----------------------------------------------------------------------------
+	/**
+	 * Minimum number of nodes or edges processed by a single task
+	 */
+	private static final int NODE_GRAIN = 256;
+	private static final int EDGE_GRAIN = 1024;
+
+// -----------------------------------------------------------------------------
+// Section: Instance variables
+// -----------------------------------------------------------------------------
+	/**
+	 * Layout whose forces are calculated
+	 */
+	private final FDLayout layout;
+
+	/**
+	 * Node and edge lists of the graph manager the arrays below were built for
+	 */
+	private Object[] nodes;
+	private Object[] edges;
+
+	/**
+	 * Owner graph of each node, and whether each node is a simple (non-compound)
+	 * node
+	 */
+	private int[] owner;
+	private boolean[] simple;
+
+	/**
+	 * Geometry of each node in the current iteration
+	 */
+	private double[] left;
+	private double[] top;
+	private double[] right;
+	private double[] bottom;
+	private double[] centerX;
+	private double[] centerY;
+	private double[] halfWidth;
+	private double[] halfHeight;
+
+	/**
+	 * Edges incident to each node in edge list order, from
+	 * incidence[incidenceStart[i]] to incidence[incidenceStart[i + 1] - 1].
+	 * An entry is twice the edge index, plus one if the node is the target.
+	 */
+	private int[] incidenceStart;
+	private int[] incidence;
+
+	/**
+	 * Spring force of each edge, acting on its source
+	 */
+	private double[] edgeForceX;
+	private double[] edgeForceY;
+
+	/**
+	 * Nodes within repulsion range of each node in ascending order, as
+	 * determined by the last grid calculation, from
+	 * surrounding[surroundingStart[i]] to
+	 * surrounding[surroundingStart[i + 1] - 1]
+	 */
+	private int[] surroundingStart;
+	private int[] surrounding;
+
+	/**
+	 * For each entry of surrounding, the entry of the same node pair whose
+	 * repulsion force is calculated, which is the entry of the node that comes
+	 * first in the node list
+	 */
+	private int[] pairEntry;
+
+	/**
+	 * Repulsion force between the nodes of each surrounding entry, valid for
+	 * the entries of the node that comes first
+	 */
+	private double[] pairForceX;
+	private double[] pairForceY;
+
+// -----------------------------------------------------------------------------
+// Section: Constructors and initialization
+// -----------------------------------------------------------------------------
+	FDLayoutForceCalculator(FDLayout layout)
+	{
+		this.layout = layout;
+	}
+
+	/**
+	 * This method rebuilds the node and edge indices if the topology of the
+	 * layout has changed, such as when multi-level scaling moves on to the
+	 * next graph manager.
+	 */
+	private void updateTopology()
+	{
+		Object[] lNodes = this.layout.getAllNodes();
+		Object[] lEdges = this.layout.getAllEdges();
+
+		if (lNodes == this.nodes && lEdges == this.edges)
+		{
+			return;
+		}
+
+		int n = lNodes.length;
+		Map<Object, Integer> nodeIndex = new IdentityHashMap<Object, Integer>(n);
+		Map<LGraph, Integer> graphIndex = new IdentityHashMap<LGraph, Integer>();
+
+		this.owner = new int[n];
+		this.simple = new boolean[n];
+
+		for (int i = 0; i < n; i++)
+		{
+			LNode node = (LNode) lNodes[i];
+			Integer graph = graphIndex.get(node.getOwner());
+
+			if (graph == null)
+			{
+				graph = graphIndex.size();
+				graphIndex.put(node.getOwner(), graph);
+			}
+
+			nodeIndex.put(node, i);
+			this.owner[i] = graph;
+			this.simple[i] = node.getChild() == null;
+		}
+
+		int[] source = new int[lEdges.length];
+		int[] target = new int[lEdges.length];
+
+		this.incidenceStart = new int[n + 1];
+
+		for (int e = 0; e < lEdges.length; e++)
+		{
+			LEdge edge = (LEdge) lEdges[e];
+			source[e] = nodeIndex.get(edge.getSource());
+			target[e] = nodeIndex.get(edge.getTarget());
+			this.incidenceStart[source[e] + 1]++;
+			this.incidenceStart[target[e] + 1]++;
+		}
+
+		for (int i = 0; i < n; i++)
+		{
+			this.incidenceStart[i + 1] += this.incidenceStart[i];
+		}
+
+		int[] next = Arrays.copyOf(this.incidenceStart, n);
+		this.incidence = new int[2 * lEdges.length];
+
+		for (int e = 0; e < lEdges.length; e++)
+		{
+			this.incidence[next[source[e]]++] = 2 * e;
+			this.incidence[next[target[e]]++] = 2 * e + 1;
+		}
+
+		this.left = new double[n];
+		this.top = new double[n];
+		this.right = new double[n];
+		this.bottom = new double[n];
+		this.centerX = new double[n];
+		this.centerY = new double[n];
+		this.halfWidth = new double[n];
+		this.halfHeight = new double[n];
+		this.edgeForceX = new double[lEdges.length];
+		this.edgeForceY = new double[lEdges.length];
+		this.surrounding = null;
+
+		this.nodes = lNodes;
+		this.edges = lEdges;
+	}
+
+	/**
+	 * This method copies the current geometry of the nodes in the given range.
+	 */
+	private void updateGeometry(int from, int to)
+	{
+		for (int i = from; i < to; i++)
+		{
+			RectangleD rect = ((LNode) this.nodes[i]).getRect();
+
+			this.left[i] = rect.x;
+			this.top[i] = rect.y;
+			this.right[i] = rect.getRight();
+			this.bottom[i] = rect.getBottom();
+			this.centerX[i] = rect.getCenterX();
+			this.centerY[i] = rect.getCenterY();
+			this.halfWidth[i] = rect.width / 2;
+			this.halfHeight[i] = rect.height / 2;
+		}
+	}
+
+// -----------------------------------------------------------------------------
+// Section: Spring forces
+// -----------------------------------------------------------------------------
+	/**
+	 * This method calculates the spring forces of all edges, and then sums them
+	 * up for each node in edge list order.
+	 */
+	void calcSpringForces()
+	{
+		this.updateTopology();
+
+		this.forEach(this.edges.length, EDGE_GRAIN, new Range()
+		{
+			public void run(int from, int to)
+			{
+				calcEdgeForces(from, to);
+			}
+		});
+
+		this.forEach(this.nodes.length, NODE_GRAIN, new Range()
+		{
+			public void run(int from, int to)
+			{
+				applySpringForces(from, to);
+			}
+		});
+	}
+
+	private void calcEdgeForces(int from, int to)
+	{
+		double[] springForce = new double[2];
+
+		for (int e = from; e < to; e++)
+		{
+			FDLayoutEdge edge = (FDLayoutEdge) this.edges[e];
+
+			if (this.layout.calcSpringForce(edge, edge.idealLength, springForce))
+			{
+				this.edgeForceX[e] = springForce[0];
+				this.edgeForceY[e] = springForce[1];
+			}
+			else
+			{
+				this.edgeForceX[e] = 0.0;
+				this.edgeForceY[e] = 0.0;
+			}
+		}
+	}
+
+	private void applySpringForces(int from, int to)
+	{
+		for (int i = from; i < to; i++)
+		{
+			FDLayoutNode node = (FDLayoutNode) this.nodes[i];
+
+			for (int k = this.incidenceStart[i]; k < this.incidenceStart[i + 1]; k++)
+			{
+				int e = this.incidence[k] >> 1;
+
+				if ((this.incidence[k] & 1) == 0)
+				{
+					node.springForceX += this.edgeForceX[e];
+					node.springForceY += this.edgeForceY[e];
+				}
+				else
+				{
+					node.springForceX -= this.edgeForceX[e];
+					node.springForceY -= this.edgeForceY[e];
+				}
+			}
+		}
+	}
+
+// -----------------------------------------------------------------------------
+// Section: Repulsion forces
+// -----------------------------------------------------------------------------
+	/**
+	 * This method calculates the repulsion forces of all nodes. With the FR
+	 * grid variant only nodes within repulsion range of each other repel each
+	 * other, and these are found again every GRID_CALCULATION_CHECK_PERIOD
+	 * iterations. Otherwise all pairs of nodes in the same graph repel each
+	 * other.
+	 */
+	void calcRepulsionForces(boolean useGrid, boolean recalculateGrid)
+	{
+		this.updateTopology();
+
+		this.forEach(this.nodes.length, NODE_GRAIN, new Range()
+		{
+			public void run(int from, int to)
+			{
+				updateGeometry(from, to);
+			}
+		});
+
+		if (!useGrid)
+		{
+			this.surrounding = null;
+
+			this.forEach(this.nodes.length, NODE_GRAIN, new Range()
+			{
+				public void run(int from, int to)
+				{
+					applyAllPairsRepulsionForces(from, to);
+				}
+			});
+
+			return;
+		}
+
+		if (recalculateGrid || this.surrounding == null)
+		{
+			this.calcSurrounding();
+		}
+
+		this.forEach(this.nodes.length, NODE_GRAIN, new Range()
+		{
+			public void run(int from, int to)
+			{
+				calcPairForces(from, to);
+			}
+		});
+
+		this.forEach(this.nodes.length, NODE_GRAIN, new Range()
+		{
+			public void run(int from, int to)
+			{
+				applyPairForces(from, to);
+			}
+		});
+	}
+
+	/**
+	 * This method places the nodes in a grid whose squares are as wide as the
+	 * repulsion range, and finds the nodes within repulsion range of each node
+	 * among the nodes in its own and the adjacent squares.
+	 */
+	private void calcSurrounding()
+	{
+		LGraph root = this.layout.getGraphManager().getRoot();
+		final double range = this.layout.repulsionRange;
+		final double gridLeft = root.getLeft();
+		final double gridTop = root.getTop();
+		final int sizeX = Math.max(1,
+			(int) Math.ceil((root.getRight() - root.getLeft()) / range));
+		final int sizeY = Math.max(1,
+			(int) Math.ceil((root.getBottom() - root.getTop()) / range));
+		final int n = this.nodes.length;
+		final int[] cells = new int[4 * n];
+
+		for (int i = 0; i < n; i++)
+		{
+			cells[4 * i] = gridCell(this.left[i], gridLeft, range, sizeX);
+			cells[4 * i + 1] = gridCell(this.right[i], gridLeft, range, sizeX);
+			cells[4 * i + 2] = gridCell(this.top[i], gridTop, range, sizeY);
+			cells[4 * i + 3] = gridCell(this.bottom[i], gridTop, range, sizeY);
+		}
+
+		// Nodes of each grid square, in ascending order
+		final int[] cellStart = new int[sizeX * sizeY + 1];
+
+		for (int i = 0; i < n; i++)
+		{
+			for (int x = cells[4 * i]; x <= cells[4 * i + 1]; x++)
+			{
+				for (int y = cells[4 * i + 2]; y <= cells[4 * i + 3]; y++)
+				{
+					cellStart[x * sizeY + y + 1]++;
+				}
+			}
+		}
+
+		for (int c = 0; c < sizeX * sizeY; c++)
+		{
+			cellStart[c + 1] += cellStart[c];
+		}
+
+		final int[] cellNodes = new int[cellStart[sizeX * sizeY]];
+		int[] next = Arrays.copyOf(cellStart, sizeX * sizeY);
+
+		for (int i = 0; i < n; i++)
+		{
+			for (int x = cells[4 * i]; x <= cells[4 * i + 1]; x++)
+			{
+				for (int y = cells[4 * i + 2]; y <= cells[4 * i + 3]; y++)
+				{
+					cellNodes[next[x * sizeY + y]++] = i;
+				}
+			}
+		}
+
+		final int[][] found = new int[n][];
+
+		this.forEach(n, NODE_GRAIN, new Range()
+		{
+			public void run(int from, int to)
+			{
+				calcSurrounding(from, to, found, cells, cellStart, cellNodes,
+					sizeX, sizeY, range);
+			}
+		});
+
+		this.surroundingStart = new int[n + 1];
+
+		for (int i = 0; i < n; i++)
+		{
+			this.surroundingStart[i + 1] = this.surroundingStart[i] +
+				found[i].length;
+		}
+
+		this.surrounding = new int[this.surroundingStart[n]];
+		this.pairEntry = new int[this.surrounding.length];
+		this.pairForceX = new double[this.surrounding.length];
+		this.pairForceY = new double[this.surrounding.length];
+
+		for (int i = 0; i < n; i++)
+		{
+			System.arraycopy(found[i], 0, this.surrounding,
+				this.surroundingStart[i], found[i].length);
+		}
+
+		this.forEach(n, NODE_GRAIN, new Range()
+		{
+			public void run(int from, int to)
+			{
+				calcPairEntries(from, to);
+			}
+		});
+	}
+
+	private void calcSurrounding(int from, int to,
+		int[][] surrounding,
+		int[] cells,
+		int[] cellStart,
+		int[] cellNodes,
+		int sizeX,
+		int sizeY,
+		double range)
+	{
+		int[] found = new int[16];
+
+		for (int i = from; i < to; i++)
+		{
+			int count = 0;
+
+			for (int x = Math.max(0, cells[4 * i] - 1);
+				x <= Math.min(sizeX - 1, cells[4 * i + 1] + 1); x++)
+			{
+				for (int y = Math.max(0, cells[4 * i + 2] - 1);
+					y <= Math.min(sizeY - 1, cells[4 * i + 3] + 1); y++)
+				{
+					int c = x * sizeY + y;
+
+					for (int k = cellStart[c]; k < cellStart[c + 1]; k++)
+					{
+						int j = cellNodes[k];
+
+						if (j == i || this.owner[j] != this.owner[i])
+						{
+							continue;
+						}
+
+						double distanceX = Math.abs(this.centerX[i] - this.centerX[j]) -
+							(this.halfWidth[i] + this.halfWidth[j]);
+						double distanceY = Math.abs(this.centerY[i] - this.centerY[j]) -
+							(this.halfHeight[i] + this.halfHeight[j]);
+
+						if (distanceX <= range && distanceY <= range)
+						{
+							if (count == found.length)
+							{
+								found = Arrays.copyOf(found, 2 * count);
+							}
+
+							found[count++] = j;
+						}
+					}
+				}
+			}
+
+			// A node that spans several grid squares is found more than once
+			Arrays.sort(found, 0, count);
+			int unique = 0;
+
+			for (int k = 0; k < count; k++)
+			{
+				if (unique == 0 || found[k] != found[unique - 1])
+				{
+					found[unique++] = found[k];
+				}
+			}
+
+			surrounding[i] = Arrays.copyOf(found, unique);
+		}
+	}
+
+	/**
+	 * This method finds the entry whose repulsion force is used for each
+	 * entry of the nodes in the given range. Since the range check is
+	 * symmetric, each node is in the surrounding of the nodes in its own
+	 * surrounding.
+	 */
+	private void calcPairEntries(int from, int to)
+	{
+		for (int i = from; i < to; i++)
+		{
+			for (int k = this.surroundingStart[i];
+				k < this.surroundingStart[i + 1]; k++)
+			{
+				int j = this.surrounding[k];
+
+				if (i < j)
+				{
+					this.pairEntry[k] = k;
+				}
+				else
+				{
+					this.pairEntry[k] = Arrays.binarySearch(this.surrounding,
+						this.surroundingStart[j],
+						this.surroundingStart[j + 1],
+						i);
+				}
+			}
+		}
+	}
+
+	/**
+	 * This method returns the grid square that the input coordinate falls
+	 * into.
+	 */
+	private static int gridCell(double coordinate, double origin, double range,
+		int size)
+	{
+		int cell = (int) Math.floor((coordinate - origin) / range);
+
+		return Math.max(0, Math.min(size - 1, cell));
+	}
+
+	/**
+	 * This method calculates the repulsion forces between the nodes in the
+	 * given range and the nodes in their surrounding that come after them.
+	 */
+	private void calcPairForces(int from, int to)
+	{
+		double[] repulsionForce = new double[2];
+
+		for (int i = from; i < to; i++)
+		{
+			for (int k = this.surroundingStart[i];
+				k < this.surroundingStart[i + 1]; k++)
+			{
+				if (i < this.surrounding[k])
+				{
+					this.calcRepulsionForce(i, this.surrounding[k], repulsionForce);
+					this.pairForceX[k] = repulsionForce[0];
+					this.pairForceY[k] = repulsionForce[1];
+				}
+			}
+		}
+	}
+
+	/**
+	 * This method sums up the repulsion forces acting on the nodes in the
+	 * given range from the nodes in their surrounding.
+	 */
+	private void applyPairForces(int from, int to)
+	{
+		for (int i = from; i < to; i++)
+		{
+			double forceX = 0.0;
+			double forceY = 0.0;
+
+			for (int k = this.surroundingStart[i];
+				k < this.surroundingStart[i + 1]; k++)
+			{
+				int pair = this.pairEntry[k];
+
+				if (i < this.surrounding[k])
+				{
+					forceX -= this.pairForceX[pair];
+					forceY -= this.pairForceY[pair];
+				}
+				else
+				{
+					forceX += this.pairForceX[pair];
+					forceY += this.pairForceY[pair];
+				}
+			}
+
+			FDLayoutNode node = (FDLayoutNode) this.nodes[i];
+			node.repulsionForceX += forceX;
+			node.repulsionForceY += forceY;
+		}
+	}
+
+	/**
+	 * This method calculates the repulsion forces acting on the nodes in the
+	 * given range from all other nodes in the same graph. Each node pair is
+	 * calculated for both of its nodes, which is cheaper than keeping the
+	 * forces of all pairs.
+	 */
+	private void applyAllPairsRepulsionForces(int from, int to)
+	{
+		double[] repulsionForce = new double[2];
+
+		for (int i = from; i < to; i++)
+		{
+			double forceX = 0.0;
+			double forceY = 0.0;
+
+			for (int j = 0; j < this.nodes.length; j++)
+			{
+				if (j == i || this.owner[j] != this.owner[i])
+				{
+					continue;
+				}
+
+				if (i < j)
+				{
+					this.calcRepulsionForce(i, j, repulsionForce);
+					forceX -= repulsionForce[0];
+					forceY -= repulsionForce[1];
+				}
+				else
+				{
+					this.calcRepulsionForce(j, i, repulsionForce);
+					forceX += repulsionForce[0];
+					forceY += repulsionForce[1];
+				}
+			}
+
+			FDLayoutNode node = (FDLayoutNode) this.nodes[i];
+			node.repulsionForceX += forceX;
+			node.repulsionForceY += forceY;
+		}
+	}
+
+	/**
+	 * This method calculates the repulsion force that node a applies to node b
+	 * in the same way as FDLayout.calcRepulsionForce. Simple nodes that do not
+	 * overlap are handled here, all others by the layout.
+	 */
+	private void calcRepulsionForce(int a, int b, double[] repulsionForce)
+	{
+		boolean overlap = this.right[a] >= this.left[b] &&
+			this.bottom[a] >= this.top[b] &&
+			this.right[b] >= this.left[a] &&
+			this.bottom[b] >= this.top[a];
+
+		if (overlap || !this.layout.uniformLeafNodeSizes ||
+			!this.simple[a] || !this.simple[b])
+		{
+			this.layout.calcRepulsionForce((FDLayoutNode) this.nodes[a],
+				(FDLayoutNode) this.nodes[b],
+				repulsionForce);
+			return;
+		}
+
+		double distanceX = this.centerX[b] - this.centerX[a];
+		double distanceY = this.centerY[b] - this.centerY[a];
+
+		if (Math.abs(distanceX) < FDLayoutConstants.MIN_REPULSION_DIST)
+		{
+			distanceX = IMath.sign(distanceX) *
+				FDLayoutConstants.MIN_REPULSION_DIST;
+		}
+
+		if (Math.abs(distanceY) < FDLayoutConstants.MIN_REPULSION_DIST)
+		{
+			distanceY = IMath.sign(distanceY) *
+				FDLayoutConstants.MIN_REPULSION_DIST;
+		}
+
+		double distanceSquared = distanceX * distanceX + distanceY * distanceY;
+		double distance = Math.sqrt(distanceSquared);
+		double force = this.layout.repulsionConstant / distanceSquared;
+
+		repulsionForce[0] = force * distanceX / distance;
+		repulsionForce[1] = force * distanceY / distance;
+	}
+
+// -----------------------------------------------------------------------------
+// Section: Gravitational forces
+// -----------------------------------------------------------------------------
+	/**
+	 * This method calculates the gravitational forces of the input nodes.
+	 */
+	void calcGravitationalForces(final Object[] lNodes)
+	{
+		this.forEach(lNodes.length, NODE_GRAIN, new Range()
+		{
+			public void run(int from, int to)
+			{
+				for (int i = from; i < to; i++)
+				{
+					layout.calcGravitationalForce((FDLayoutNode) lNodes[i]);
+				}
+			}
+		});
+	}
+
+// -----------------------------------------------------------------------------
+// Section: Fork-join support
+// -----------------------------------------------------------------------------
+	/**
+	 * This method runs the input range over 0 to count, split into tasks of at
+	 * least grain elements when there are several processors.
+	 */
+	private void forEach(int count, int grain, Range range)
+	{
+		if (count > grain && ForkJoinPool.getCommonPoolParallelism() > 1)
+		{
+			int pieces = 4 * ForkJoinPool.getCommonPoolParallelism();
+			int taskGrain = Math.max(grain, (count + pieces - 1) / pieces);
+
+			ForkJoinPool.commonPool().invoke(
+				new RangeTask(range, 0, count, taskGrain));
+		}
+		else
+		{
+			range.run(0, count);
+		}
+	}
+
+	/**
+	 * Work on a range of node or edge indices
+	 */
+	private interface Range
+	{
+		void run(int from, int to);
+	}
+
+	private static class RangeTask extends RecursiveAction
+	{
+		private final Range range;
+		private final int from;
+		private final int to;
+		private final int grain;
+
+		RangeTask(Range range, int from, int to, int grain)
+		{
+			this.range = range;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		protected void compute()
+		{
+			if (this.to - this.from <= this.grain)
+			{
+				this.range.run(this.from, this.to);
+			}
+			else
+			{
+				int mid = (this.from + this.to) >>> 1;
+
+				invokeAll(new RangeTask(this.range, this.from, mid, this.grain),
+					new RangeTask(this.range, mid, this.to, this.grain));
+			}
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package org.cytoscape.view.layout.performance;
+
+/*
+ * #%L
+ * Cytoscape Layout Performance (layout-performance)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Measures the heap allocated by all threads and the largest heap occupancy
+ * while a piece of code runs. Per thread allocation counters miss the threads
+ * that end before the measurement does, such as the pools some layouts start,
+ * so this counts what the garbage collector frees instead: the bytes
+ * allocated are the growth of the used heap plus everything collected in
+ * between, and the peak is the largest used heap seen before a collection or
+ * at the end.
+ */
+final class HeapMonitor implements NotificationListener {
+
+	/** How long to wait for the notifications of collections that have already ended */
+	private static final long NOTIFICATION_TIMEOUT_MS = 2000;
+
+	private final Object lock = new Object();
+
+	/** Collections that ended before this was listening, which are never notified */
+	private final long missedCollections;
+	private long notifiedCollections;
+
+	private boolean running;
+	private long startUsed;
+	private long freed;
+	private long peak;
+
+	private long allocatedBytes;
+	private long peakBytes;
+
+	HeapMonitor() {
+		missedCollections = collectionCount();
+
+		for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (gc instanceof NotificationEmitter)
+				((NotificationEmitter) gc).addNotificationListener(this, null, null);
+		}
+	}
+
+	/**
+	 * Collects the garbage left by earlier runs and starts measuring.
+	 */
+	void start() {
+		System.gc();
+		System.gc();
+
+		synchronized (lock) {
+			// The collections above must not count as part of the run
+			awaitNotifications();
+			freed = 0;
+			startUsed = usedHeap();
+			peak = startUsed;
+			running = true;
+		}
+	}
+
+	/**
+	 * Stops measuring, after which {@link #getAllocatedBytes()} and
+	 * {@link #getPeakBytes()} return the results.
+	 */
+	void stop() {
+		final long used = usedHeap();
+
+		synchronized (lock) {
+			awaitNotifications();
+			running = false;
+			allocatedBytes = Math.max(0, used - startUsed + freed);
+			peakBytes = Math.max(peak, used);
+		}
+	}
+
+	long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	long getPeakBytes() {
+		return peakBytes;
+	}
+
+	@Override
+	public void handleNotification(final Notification notification, final Object handback) {
+		if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+			return;
+
+		final GarbageCollectionNotificationInfo info =
+				GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+		final long before = heapUsed(info.getGcInfo().getMemoryUsageBeforeGc());
+		final long after = heapUsed(info.getGcInfo().getMemoryUsageAfterGc());
+
+		synchronized (lock) {
+			notifiedCollections++;
+
+			if (running) {
+				freed += Math.max(0, before - after);
+				peak = Math.max(peak, before);
+			}
+
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Waits until the notifications of all collections that have ended so far
+	 * have been handled, as they are sent by another thread. Must be called
+	 * while holding the lock.
+	 */
+	private void awaitNotifications() {
+		final long collections = collectionCount();
+		final long deadline = System.currentTimeMillis() + NOTIFICATION_TIMEOUT_MS;
+
+		try {
+			while (missedCollections + notifiedCollections < collections
+					&& System.currentTimeMillis() < deadline)
+				lock.wait(10);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Sums the usage of the heap pools in a collection's memory usage map,
+	 * which also has the non heap pools.
+	 */
+	private static long heapUsed(final Map<String, MemoryUsage> usage) {
+		long used = 0;
+
+		for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				final MemoryUsage poolUsage = usage.get(pool.getName());
+
+				if (poolUsage != null)
+					used += poolUsage.getUsed();
+			}
+		}
+
+		return used;
+	}
+
+	private static long usedHeap() {
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	private static long collectionCount() {
+		long count = 0;
+
+		for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			count += Math.max(0, gc.getCollectionCount());
+
+		return count;
+	}
+}
@@ -0,0 +1,423 @@
+package org.cytoscape.view.layout.performance;
+
+/*
+ * #%L
+ * Cytoscape Layout Performance (layout-performance)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.cytoscape.ding.NetworkViewTestSupport;
+import org.cytoscape.ding.impl.BendFactoryImpl;
+import org.cytoscape.ding.impl.HandleFactoryImpl;
+import org.cytoscape.group.CyGroupManager;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.prefuse.layouts.internal.ForceDirectedLayout;
+import org.cytoscape.service.util.CyServiceRegistrar;
+import org.cytoscape.view.layout.CyLayoutAlgorithm;
+import org.cytoscape.view.layout.internal.algorithms.GridNodeLayout;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.CyNetworkViewFactory;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
+import org.cytoscape.view.presentation.property.values.BendFactory;
+import org.cytoscape.view.presentation.property.values.HandleFactory;
+import org.cytoscape.work.TaskIterator;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.undo.UndoSupport;
+
+import csapps.layout.JGraphLayoutWrapper;
+import csapps.layout.algorithms.GroupAttributesLayout;
+import csapps.layout.algorithms.StackedNodeLayout;
+import csapps.layout.algorithms.bioLayout.BioLayoutFRAlgorithm;
+import csapps.layout.algorithms.bioLayout.BioLayoutKKAlgorithm;
+import csapps.layout.algorithms.circularLayout.CircularLayoutAlgorithm;
+import csapps.layout.algorithms.cose.CoSELayoutAlgorithm;
+import csapps.layout.algorithms.graphPartition.AttributeCircleLayout;
+import csapps.layout.algorithms.graphPartition.DegreeSortedCircleLayout;
+import csapps.layout.algorithms.graphPartition.ISOMLayout;
+import csapps.layout.algorithms.hierarchicalLayout.HierarchicalLayoutAlgorithm;
+import csapps.layout.algorithms.stress.StressLayoutAlgorithm;
+
+/**
+ * Runs the layout algorithms that the layout bundles register on synthetic
+ * networks, without a user interface, and writes the wall time, heap
+ * allocation and peak heap of every run as JSON.
+ * <p>
+ * Options, all of them optional:
+ * <pre>
+ *   -l name,...   the layouts to run, by {@link CyLayoutAlgorithm#getName()} (all of them)
+ *   -g name,...   the networks to generate: erdos-renyi, barabasi-albert, grid, many-components (all of them)
+ *   -n count,...  the numbers of nodes (1000,10000)
+ *   -d degree     the average degree of the generated networks (4)
+ *   -w runs       the runs before measuring, to warm up the JIT (1)
+ *   -r runs       the measured runs (3)
+ *   -s seed       the seed of the networks and of the initial node positions (42)
+ *   -o file       where to write the results (standard output)
+ * </pre>
+ * The heap numbers count all threads, so run one benchmark per JVM and give
+ * it enough heap for the largest network, e.g. -Xmx4g.
+ */
+public class LayoutPerfTest {
+
+	private static final double INITIAL_EXTENT = 1000.0;
+
+	private final CyNetworkViewFactory viewFactory;
+	private final NetworkViewTestSupport viewTestSupport;
+	private final TaskMonitor taskMonitor;
+	private final List<CyLayoutAlgorithm> layouts;
+	private final HeapMonitor heapMonitor = new HeapMonitor();
+
+	private List<String> layoutNames;
+	private List<NetworkGenerator> generators = Arrays.asList(NetworkGenerator.values());
+	private int[] nodeCounts = { 1000, 10000 };
+	private double averageDegree = 4.0;
+	private int warmupRuns = 1;
+	private int runs = 3;
+	private long seed = 42L;
+	private String outputFile;
+
+	public static void main(String[] args) {
+		final LayoutPerfTest test = new LayoutPerfTest();
+
+		try {
+			test.parseArguments(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+
+		try {
+			test.runTestLoop();
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	public LayoutPerfTest() {
+		viewTestSupport = new NetworkViewTestSupport();
+		viewFactory = viewTestSupport.getNetworkViewFactory();
+
+		// Stub only mocks, as recording the invocations of the progress updates would distort the heap numbers
+		taskMonitor = mock(TaskMonitor.class, withSettings().stubOnly());
+		final UndoSupport undoSupport = mock(UndoSupport.class, withSettings().stubOnly());
+		final CyServiceRegistrar serviceRegistrar = mock(CyServiceRegistrar.class, withSettings().stubOnly());
+		final CyGroupManager groupManager = mock(CyGroupManager.class, withSettings().stubOnly());
+
+		when(serviceRegistrar.getService(HandleFactory.class)).thenReturn(new HandleFactoryImpl());
+		when(serviceRegistrar.getService(BendFactory.class)).thenReturn(new BendFactoryImpl());
+		when(serviceRegistrar.getService(CyGroupManager.class)).thenReturn(groupManager);
+
+		layouts = createLayouts(serviceRegistrar, undoSupport);
+	}
+
+	/**
+	 * Creates the layouts in the same way as the activators of layout-impl,
+	 * layout-cytoscape-impl, layout-prefuse-impl and layout-jgraph-impl.
+	 */
+	private static List<CyLayoutAlgorithm> createLayouts(final CyServiceRegistrar serviceRegistrar,
+			final UndoSupport undoSupport) {
+		final List<CyLayoutAlgorithm> layouts = new ArrayList<>();
+
+		layouts.add(new GridNodeLayout(undoSupport));
+		layouts.add(new HierarchicalLayoutAlgorithm(serviceRegistrar, undoSupport));
+		layouts.add(new CircularLayoutAlgorithm(undoSupport));
+		layouts.add(new StackedNodeLayout(undoSupport));
+		layouts.add(new AttributeCircleLayout(undoSupport));
+		layouts.add(new DegreeSortedCircleLayout(undoSupport));
+		layouts.add(new GroupAttributesLayout(undoSupport));
+		layouts.add(new BioLayoutFRAlgorithm(true, undoSupport));
+		layouts.add(new BioLayoutKKAlgorithm(true, undoSupport));
+		layouts.add(new StressLayoutAlgorithm(undoSupport));
+		layouts.add(new CoSELayoutAlgorithm(undoSupport, serviceRegistrar));
+		layouts.add(new ISOMLayout(undoSupport));
+		layouts.add(new ForceDirectedLayout(undoSupport));
+
+		final int[] jGraphLayouts = { JGraphLayoutWrapper.ANNEALING, JGraphLayoutWrapper.MOEN,
+				JGraphLayoutWrapper.CIRCLE_GRAPH, JGraphLayoutWrapper.RADIAL_TREE, JGraphLayoutWrapper.GEM,
+				JGraphLayoutWrapper.SPRING_EMBEDDED, JGraphLayoutWrapper.SUGIYAMA, JGraphLayoutWrapper.TREE };
+
+		for (final int type : jGraphLayouts)
+			layouts.add(new JGraphLayoutWrapper(type, undoSupport));
+
+		return layouts;
+	}
+
+	private void parseArguments(final String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			final String option = args[i];
+
+			if (i + 1 >= args.length)
+				throw new IllegalArgumentException("Missing value of option " + option);
+
+			final String value = args[++i];
+
+			try {
+				if (option.equals("-l")) {
+					layoutNames = Arrays.asList(value.split(","));
+				} else if (option.equals("-g")) {
+					generators = new ArrayList<>();
+
+					for (final String name : value.split(",")) {
+						final NetworkGenerator generator = NetworkGenerator.forName(name);
+
+						if (generator == null)
+							throw new IllegalArgumentException("Unknown network generator: " + name);
+
+						generators.add(generator);
+					}
+				} else if (option.equals("-n")) {
+					final String[] counts = value.split(",");
+					nodeCounts = new int[counts.length];
+
+					for (int k = 0; k < counts.length; k++)
+						nodeCounts[k] = Integer.parseInt(counts[k]);
+				} else if (option.equals("-d")) {
+					averageDegree = Double.parseDouble(value);
+				} else if (option.equals("-w")) {
+					warmupRuns = Integer.parseInt(value);
+				} else if (option.equals("-r")) {
+					runs = Integer.parseInt(value);
+				} else if (option.equals("-s")) {
+					seed = Long.parseLong(value);
+				} else if (option.equals("-o")) {
+					outputFile = value;
+				} else {
+					throw new IllegalArgumentException("Unknown option: " + option);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid value of option " + option + ": " + value);
+			}
+		}
+
+		if (layoutNames != null) {
+			for (final String name : layoutNames) {
+				if (getLayout(name) == null)
+					throw new IllegalArgumentException("Unknown layout: " + name);
+			}
+		}
+
+		if (runs < 1)
+			throw new IllegalArgumentException("At least one measured run is needed");
+	}
+
+	private CyLayoutAlgorithm getLayout(final String name) {
+		for (final CyLayoutAlgorithm layout : layouts) {
+			if (layout.getName().equals(name))
+				return layout;
+		}
+
+		return null;
+	}
+
+	public void runTestLoop() throws IOException {
+		final List<CyLayoutAlgorithm> selected = new ArrayList<>();
+
+		if (layoutNames == null) {
+			selected.addAll(layouts);
+		} else {
+			for (final String name : layoutNames)
+				selected.add(getLayout(name));
+		}
+
+		final Writer writer = outputFile == null
+				? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+				: new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8);
+
+		try (final PrintWriter out = new PrintWriter(writer)) {
+			final Runtime runtime = Runtime.getRuntime();
+			out.println("{");
+			out.println("  \"javaVersion\": " + quote(System.getProperty("java.version")) + ",");
+			out.println("  \"processors\": " + runtime.availableProcessors() + ",");
+			out.println("  \"maxHeapBytes\": " + runtime.maxMemory() + ",");
+			out.println("  \"averageDegree\": " + format(averageDegree) + ",");
+			out.println("  \"seed\": " + seed + ",");
+			out.println("  \"results\": [");
+
+			boolean first = true;
+
+			for (final NetworkGenerator generator : generators) {
+				for (final int nodeCount : nodeCounts) {
+					final CyNetwork network = viewTestSupport.getNetwork();
+					generator.generate(network, nodeCount, averageDegree, seed);
+
+					for (final CyLayoutAlgorithm layout : selected) {
+						System.err.println("Laying out " + generator.getName() + " (" + network.getNodeCount()
+								+ " nodes, " + network.getEdgeCount() + " edges) with " + layout.getName());
+
+						if (!first)
+							out.println(",");
+
+						out.print(benchmark(layout, generator, network));
+						out.flush();
+						first = false;
+					}
+				}
+			}
+
+			out.println();
+			out.println("  ]");
+			out.println("}");
+		}
+	}
+
+	/**
+	 * Lays out the network a few times with the given layout, each time
+	 * starting from the same node positions in a new view.
+	 *
+	 * @return the JSON object with the results
+	 */
+	private String benchmark(final CyLayoutAlgorithm layout, final NetworkGenerator generator,
+			final CyNetwork network) {
+		final long[] wallTimes = new long[runs];
+		final long[] allocated = new long[runs];
+		final long[] peaks = new long[runs];
+		String error = null;
+
+		try {
+			for (int i = 0; i < warmupRuns; i++) {
+				final CyNetworkView view = createView(network);
+				runLayout(layout, view);
+				view.dispose();
+			}
+
+			for (int i = 0; i < runs; i++) {
+				final CyNetworkView view = createView(network);
+
+				heapMonitor.start();
+				final long start = System.nanoTime();
+				runLayout(layout, view);
+				wallTimes[i] = System.nanoTime() - start;
+				heapMonitor.stop();
+
+				allocated[i] = heapMonitor.getAllocatedBytes();
+				peaks[i] = heapMonitor.getPeakBytes();
+				view.dispose();
+			}
+		} catch (Exception | OutOfMemoryError e) {
+			error = e.toString();
+			System.err.println("Failed to run " + layout.getName() + ": " + error);
+		}
+
+		final StringBuilder json = new StringBuilder();
+		json.append("    {\n");
+		json.append("      \"layout\": ").append(quote(layout.getName())).append(",\n");
+		json.append("      \"generator\": ").append(quote(generator.getName())).append(",\n");
+		json.append("      \"nodes\": ").append(network.getNodeCount()).append(",\n");
+		json.append("      \"edges\": ").append(network.getEdgeCount()).append(",\n");
+
+		if (error != null) {
+			json.append("      \"error\": ").append(quote(error)).append("\n");
+		} else {
+			json.append("      \"runs\": [\n");
+
+			for (int i = 0; i < runs; i++) {
+				final double seconds = wallTimes[i] / 1e9;
+				json.append("        { \"wallTimeMs\": ").append(format(wallTimes[i] / 1e6))
+					.append(", \"allocatedBytes\": ").append(allocated[i])
+					.append(", \"allocationRateMBPerSec\": ")
+					.append(format(seconds > 0.0 ? allocated[i] / 1e6 / seconds : 0.0))
+					.append(", \"peakHeapBytes\": ").append(peaks[i])
+					.append(i < runs - 1 ? " },\n" : " }\n");
+			}
+
+			json.append("      ],\n");
+			json.append("      \"medianWallTimeMs\": ").append(format(median(wallTimes) / 1e6)).append(",\n");
+			json.append("      \"medianAllocatedBytes\": ").append(Math.round(median(allocated))).append(",\n");
+			json.append("      \"maxPeakHeapBytes\": ").append(Arrays.stream(peaks).max().getAsLong()).append("\n");
+		}
+
+		json.append("    }");
+
+		return json.toString();
+	}
+
+	/**
+	 * Creates a view of the network in which the nodes are scattered at
+	 * random, always at the same places.
+	 */
+	private CyNetworkView createView(final CyNetwork network) {
+		final CyNetworkView view = viewFactory.createNetworkView(network);
+		final Random random = new Random(seed);
+
+		for (final CyNode node : network.getNodeList()) {
+			final View<CyNode> nodeView = view.getNodeView(node);
+			nodeView.setVisualProperty(BasicVisualLexicon.NODE_X_LOCATION, random.nextDouble() * INITIAL_EXTENT);
+			nodeView.setVisualProperty(BasicVisualLexicon.NODE_Y_LOCATION, random.nextDouble() * INITIAL_EXTENT);
+		}
+
+		return view;
+	}
+
+	private void runLayout(final CyLayoutAlgorithm layout, final CyNetworkView view) throws Exception {
+		final TaskIterator iterator = layout.createTaskIterator(view, layout.createLayoutContext(),
+				CyLayoutAlgorithm.ALL_NODE_VIEWS, null);
+
+		while (iterator.hasNext())
+			iterator.next().run(taskMonitor);
+	}
+
+	private static double median(final long[] values) {
+		final long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		final int middle = sorted.length / 2;
+
+		return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+	}
+
+	private static String format(final double value) {
+		return String.format(Locale.US, "%.3f", value);
+	}
+
+	private static String quote(final String value) {
+		final StringBuilder quoted = new StringBuilder("\"");
+
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+
+			if (c == '"' || c == '\\')
+				quoted.append('\\').append(c);
+			else if (c < 0x20)
+				quoted.append(String.format("\\u%04x", (int) c));
+			else
+				quoted.append(c);
+		}
+
+		return quoted.append('"').toString();
+	}
+}
@@ -0,0 +1,200 @@
+package org.cytoscape.view.layout.performance;
+
+/*
+ * #%L
+ * Cytoscape Layout Performance (layout-performance)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+
+/**
+ * Synthetic networks to lay out. Every generator adds the given number of
+ * nodes and about nodeCount * averageDegree / 2 undirected edges, without
+ * self loops or duplicate edges, and always creates the same network for the
+ * same arguments.
+ */
+public enum NetworkGenerator {
+
+	/** G(n, m): the edges connect nodes picked uniformly at random. */
+	ERDOS_RENYI("erdos-renyi") {
+		@Override
+		void addEdges(final CyNetwork network, final CyNode[] nodes, final double averageDegree,
+				final Random random) {
+			final long edgeCount = Math.min(edgeCount(nodes.length, averageDegree),
+					(long) nodes.length * (nodes.length - 1) / 2);
+			final Set<Long> pairs = new HashSet<>();
+
+			while (pairs.size() < edgeCount) {
+				final int source = random.nextInt(nodes.length);
+				final int target = random.nextInt(nodes.length);
+
+				if (source != target && pairs.add(pair(source, target)))
+					network.addEdge(nodes[source], nodes[target], false);
+			}
+		}
+	},
+
+	/**
+	 * Preferential attachment: each new node connects to averageDegree / 2
+	 * existing nodes, picked with a probability proportional to their degree,
+	 * which gives a scale-free degree distribution with a few large hubs.
+	 */
+	BARABASI_ALBERT("barabasi-albert") {
+		@Override
+		void addEdges(final CyNetwork network, final CyNode[] nodes, final double averageDegree,
+				final Random random) {
+			final int links = Math.max(1, (int) Math.round(averageDegree / 2.0));
+			// Every edge adds both of its end points, so picking an element is picking by degree
+			final int[] ends = new int[2 * links * nodes.length];
+			final int[] picked = new int[links];
+			int endCount = 0;
+
+			for (int i = 1; i < nodes.length; i++) {
+				final int count = Math.min(links, i);
+				int pickedCount = 0;
+
+				while (pickedCount < count) {
+					final int target = i <= links ? pickedCount : ends[random.nextInt(endCount)];
+
+					if (!contains(picked, pickedCount, target))
+						picked[pickedCount++] = target;
+				}
+
+				for (int k = 0; k < count; k++) {
+					network.addEdge(nodes[i], nodes[picked[k]], false);
+					ends[endCount++] = i;
+					ends[endCount++] = picked[k];
+				}
+			}
+		}
+	},
+
+	/** A square lattice in which every node is connected to its 4 neighbors; averageDegree is ignored. */
+	GRID("grid") {
+		@Override
+		void addEdges(final CyNetwork network, final CyNode[] nodes, final double averageDegree,
+				final Random random) {
+			final int columns = (int) Math.ceil(Math.sqrt(nodes.length));
+
+			for (int i = 0; i < nodes.length; i++) {
+				if ((i + 1) % columns != 0 && i + 1 < nodes.length)
+					network.addEdge(nodes[i], nodes[i + 1], false);
+				if (i + columns < nodes.length)
+					network.addEdge(nodes[i], nodes[i + columns], false);
+			}
+		}
+	},
+
+	/**
+	 * Many small connected components of COMPONENT_SIZE nodes, each a random
+	 * tree plus random edges up to the average degree, so layouts that handle
+	 * partitions separately have a lot of them to lay out and pack.
+	 */
+	MANY_COMPONENTS("many-components") {
+		@Override
+		void addEdges(final CyNetwork network, final CyNode[] nodes, final double averageDegree,
+				final Random random) {
+			for (int start = 0; start < nodes.length; start += COMPONENT_SIZE) {
+				final int size = Math.min(COMPONENT_SIZE, nodes.length - start);
+				final long edgeCount = Math.min(Math.max(size - 1, edgeCount(size, averageDegree)),
+						(long) size * (size - 1) / 2);
+				final Set<Long> pairs = new HashSet<>();
+
+				for (int i = 1; i < size; i++) {
+					final int parent = random.nextInt(i);
+					pairs.add(pair(start + i, start + parent));
+					network.addEdge(nodes[start + i], nodes[start + parent], false);
+				}
+
+				while (pairs.size() < edgeCount) {
+					final int source = start + random.nextInt(size);
+					final int target = start + random.nextInt(size);
+
+					if (source != target && pairs.add(pair(source, target)))
+						network.addEdge(nodes[source], nodes[target], false);
+				}
+			}
+		}
+	};
+
+	private static final int COMPONENT_SIZE = 25;
+
+	private final String name;
+
+	private NetworkGenerator(final String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Adds nodeCount nodes and the edges between them to the network.
+	 */
+	public void generate(final CyNetwork network, final int nodeCount, final double averageDegree,
+			final long seed) {
+		final CyNode[] nodes = new CyNode[nodeCount];
+
+		for (int i = 0; i < nodeCount; i++)
+			nodes[i] = network.addNode();
+
+		if (nodeCount > 1)
+			addEdges(network, nodes, averageDegree, new Random(seed));
+	}
+
+	abstract void addEdges(CyNetwork network, CyNode[] nodes, double averageDegree, Random random);
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the generator with the given name, or null if there is none
+	 */
+	public static NetworkGenerator forName(final String name) {
+		for (final NetworkGenerator generator : values()) {
+			if (generator.name.equalsIgnoreCase(name) || generator.name().equalsIgnoreCase(name))
+				return generator;
+		}
+
+		return null;
+	}
+
+	private static long edgeCount(final int nodeCount, final double averageDegree) {
+		return Math.round(nodeCount * averageDegree / 2.0);
+	}
+
+	private static Long pair(final int node1, final int node2) {
+		return Math.min(node1, node2) * (long) Integer.MAX_VALUE + Math.max(node1, node2);
+	}
+
+	private static boolean contains(final int[] values, final int count, final int value) {
+		for (int i = 0; i < count; i++) {
+			if (values[i] == value)
+				return true;
+		}
+
+		return false;
+	}
+}
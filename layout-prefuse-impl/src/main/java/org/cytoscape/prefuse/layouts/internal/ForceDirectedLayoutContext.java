@@ -46,6 +46,8 @@ public class ForceDirectedLayoutContext implements TunableValidator {
 	public double defaultNodeMass = 3.0;
 	@Tunable(description="Force deterministic layouts (slower):", context="both", longDescription="Force deterministic layouts (slower); boolean values only, ```true``` or ```false```; defaults to ```false```", exampleStringValue="false")
 	public boolean isDeterministic;
+	@Tunable(description="Keep neighbors this many edges away in place (0: lay out nodes on their own):", context="both", longDescription="When only the selected nodes are laid out, the other nodes up to this many edges away from them stay where they are and the selected nodes are laid out among them, without moving the rest of the network; ```0``` lays out the selected nodes on their own, in numeric value", exampleStringValue="0")
+	public int anchorHops;
 	@Tunable(description="Don't partition graph before layout:", groups="Standard Settings", context="both", longDescription="Don't partition graph before layout; boolean values only, ```true``` or ```false```; defaults to ```false```", exampleStringValue="false")
 	public boolean singlePartition;
 
@@ -60,9 +62,11 @@ public class ForceDirectedLayoutContext implements TunableValidator {
 			errMsg.append("Default spring length must be > 0; current value = "+defaultSpringLength);
 		if (!isPositive(defaultNodeMass))
 			errMsg.append("Default node mass must be > 0; current value = "+defaultNodeMass);
+		if (anchorHops < 0)
+			errMsg.append("Number of hops to anchors must be >= 0; current value = "+anchorHops);
 		} catch (IOException e) {}
 		return isPositive(numIterations) && isPositive(defaultSpringCoefficient)
-		       && isPositive(defaultSpringLength) && isPositive(defaultNodeMass)
+		       && isPositive(defaultSpringLength) && isPositive(defaultNodeMass) && anchorHops >= 0
 			? ValidationState.OK : ValidationState.INVALID;
 	}
 
@@ -25,6 +25,7 @@ package org.cytoscape.prefuse.layouts.internal;
  */
 
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -32,7 +33,6 @@ import java.util.Map;
 import java.util.Set;
 
 import org.cytoscape.model.CyNode;
-import org.cytoscape.view.layout.AbstractPartitionLayoutTask;
 import org.cytoscape.view.layout.LayoutEdge;
 import org.cytoscape.view.layout.LayoutNode;
 import org.cytoscape.view.layout.LayoutPartition;
@@ -53,7 +53,7 @@ import prefuse.util.force.SpringForce;
  * 
  * @see <a href="http://prefuse.org">Prefuse web site</a>
  */
-public class ForceDirectedLayoutTask extends AbstractPartitionLayoutTask {
+public class ForceDirectedLayoutTask extends AbstractParallelPartitionLayoutTask {
 
 	private ForceSimulator m_fsim;
 	private ForceDirectedLayout.Integrators integrator;
@@ -81,8 +81,19 @@ public class ForceDirectedLayoutTask extends AbstractPartitionLayoutTask {
 
 		forceItems = new HashMap<LayoutNode, ForceItem>();
 	}
+
+	@Override
+	protected ForceDirectedLayoutTask createPartitionTask() {
+		return new ForceDirectedLayoutTask(displayName, networkView, nodesToLayOut, context, integrator,
+				layoutAttribute, undo);
+	}
 	
 	
+	@Override
+	protected int getAnchorHops() {
+		return context.anchorHops;
+	}
+
 	@Override
 	public String toString() {
 		return ForceDirectedLayout.ALGORITHM_DISPLAY_NAME;
@@ -92,7 +103,7 @@ public class ForceDirectedLayoutTask extends AbstractPartitionLayoutTask {
 		LayoutPoint initialLocation = null;
 		// System.out.println("layoutPartion: "+part.getEdgeList().size()+" edges");
 		// Calculate our edge weights
-		part.calculateEdgeWeights();
+		calculateEdgeWeights(part);
 		// System.out.println("layoutPartion: "+part.getEdgeList().size()+" edges after calculateEdgeWeights");
 
 		//m_fsim.setIntegrator(integrator.getNewIntegrator());
@@ -115,6 +126,14 @@ public class ForceDirectedLayoutTask extends AbstractPartitionLayoutTask {
 		}
 		
 		
+		// Locked nodes stay where they are, so the others start where they
+		// are too and are laid out around them
+		List<LayoutNode> lockedNodes = new ArrayList<LayoutNode>();
+		for (LayoutNode ln: nodeList) {
+			if (ln.isLocked())
+				lockedNodes.add(ln);
+		}
+
 		// initialize nodes
 		for (LayoutNode ln: nodeList) {
 			ForceItem fitem = forceItems.get(ln); 
@@ -123,8 +142,8 @@ public class ForceDirectedLayoutTask extends AbstractPartitionLayoutTask {
 				forceItems.put(ln, fitem);
 			}
 			fitem.mass = getMassValue(ln);
-			fitem.location[0] = 0f; 
-			fitem.location[1] = 0f; 
+			fitem.location[0] = lockedNodes.isEmpty() ? 0f : (float)ln.getX(); 
+			fitem.location[1] = lockedNodes.isEmpty() ? 0f : (float)ln.getY(); 
 			m_fsim.addItem(fitem);
 		}
 		
@@ -153,6 +172,8 @@ public class ForceDirectedLayoutTask extends AbstractPartitionLayoutTask {
 			timestep *= (1.0 - i/(double)context.numIterations);
 			long step = timestep+50;
 			m_fsim.runSimulator(step);
+			for (LayoutNode ln: lockedNodes)
+				pin(ln, forceItems.get(ln));
 			setTaskStatus((int)(((double)i/(double)context.numIterations)*90.+5));
 		}
 		
@@ -168,6 +189,16 @@ public class ForceDirectedLayoutTask extends AbstractPartitionLayoutTask {
 		}
 	}
 
+	/**
+	 * Moves the item of a locked node back to the node's location and stops it.
+	 */
+	private static void pin(LayoutNode ln, ForceItem fitem) {
+		fitem.location[0] = fitem.plocation[0] = (float)ln.getX();
+		fitem.location[1] = fitem.plocation[1] = (float)ln.getY();
+		fitem.velocity[0] = 0f;
+		fitem.velocity[1] = 0f;
+	}
+
 	/**
 	 * Get the mass value associated with the given node. Subclasses should
 	 * override this method to perform custom mass assignment.
@@ -78,6 +78,8 @@ public class ForceItem implements Cloneable {
     public float[][] k;
     /** Temporary variables for Runge-Kutta integration */
     public float[][] l;
+    /** Position of this ForceItem in the last NBodyForce snapshot */
+    int index;
     
     /**
      * Checks a ForceItem to make sure its values are all valid numbers
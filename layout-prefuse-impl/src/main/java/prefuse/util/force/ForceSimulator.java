@@ -27,11 +27,17 @@ package prefuse.util.force;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Manages a simulation of physical forces acting on bodies. To create a
  * custom ForceSimulator, add the desired {@link Force} functions and choose an
  * appropriate {@link Integrator}.
+ * 
+ * <p>The forces on large sets of items are accumulated on the common
+ * fork-join pool, so item forces must allow {@link Force#getForce(ForceItem)}
+ * to be called for different items at the same time.</p>
  *
  * @author <a href="http://jheer.org">jeffrey heer</a>
  */
@@ -45,6 +51,9 @@ public class ForceSimulator {
     private Integrator integrator;
     private float speedLimit = 1.0f;
     
+    /** Number of items for which forces are accumulated by a single task. */
+    private static final int ITEM_GRAIN = 512;
+    
     /**
      * Create a new, empty ForceSimulator. A RungeKuttaIntegrator is used
      * by default.
@@ -236,13 +245,11 @@ public class ForceSimulator {
             iforces[i].init(this);
         for ( int i = 0; i < sflen; i++ )
             sforces[i].init(this);
-        Iterator itemIter = items.iterator();
-        while ( itemIter.hasNext() ) {
-            ForceItem item = (ForceItem)itemIter.next();
-            item.force[0] = 0.0f; item.force[1] = 0.0f;
-            for ( int i = 0; i < iflen; i++ )
-                iforces[i].getForce(item);
-        }
+        if ( items.size() > ITEM_GRAIN
+                && ForkJoinPool.getCommonPoolParallelism() > 1 )
+            ForkJoinPool.commonPool().invoke(new ItemForceTask(0, items.size()));
+        else
+            accumulate(0, items.size());
         Iterator springIter = springs.iterator();
         while ( springIter.hasNext() ) {
             Spring s = (Spring)springIter.next();
@@ -252,4 +259,39 @@ public class ForceSimulator {
         }
     }
     
+    /**
+     * Accumulate the item forces acting on the items [from..to).
+     */
+    private void accumulate(int from, int to) {
+        for ( int j = from; j < to; j++ ) {
+            ForceItem item = (ForceItem)items.get(j);
+            item.force[0] = 0.0f; item.force[1] = 0.0f;
+            for ( int i = 0; i < iflen; i++ )
+                iforces[i].getForce(item);
+        }
+    }
+    
+    /**
+     * Splits the items in halves until they are small enough to accumulate
+     * their forces on one thread.
+     */
+    private final class ItemForceTask extends RecursiveAction {
+        private final int from, to;
+        
+        ItemForceTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        protected void compute() {
+            if ( to-from <= ITEM_GRAIN ) {
+                accumulate(from, to);
+            } else {
+                int mid = (from+to) >>> 1;
+                invokeAll(new ItemForceTask(from, mid),
+                          new ItemForceTask(mid, to));
+            }
+        }
+    }
+    
 } // end of class ForceSimulator
@@ -28,7 +28,10 @@ package prefuse.util.force;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Random;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * <p>Force function which computes an n-body force such as gravity,
@@ -47,6 +50,13 @@ import java.util.Random;
  *   <li><a href="http://www.ifa.hawaii.edu/~barnes/treecode/treeguide.html">Joshua Barnes' recent implementation</a>
  * </ul></p>
  * 
+ * <p>The quadtree is stored in flat arrays that are reused from one call of
+ * {@link #init(ForceSimulator)} to the next. It is built top-down by
+ * partitioning the items into quadrants, and large quadrants are built
+ * concurrently on the common fork-join pool. Once built, the tree is only
+ * read, so {@link #getForce(ForceItem)} may be called for different items
+ * from several threads at once.</p>
+ * 
  * @author <a href="http://jheer.org">jeffrey heer</a>
  */
 public class NBodyForce extends AbstractForce {
@@ -77,11 +87,34 @@ public class NBodyForce extends AbstractForce {
     public static final int MIN_DISTANCE = 1;
     public static final int BARNES_HUT_THETA = 2;
     
+    /** Items closer than this on both axes are treated as one location. */
+    private static final float SAME_LOCATION = 0.01f;
+    /** Nodes this deep are not split any further, which also stops the
+     *  recursion once the quadrant bounds run out of float precision. */
+    private static final int MAX_DEPTH = 64;
+    /** Leaves holding more items than this are approximated by their
+     *  center of mass when computing the force on one of their own items. */
+    private static final int MAX_EXACT_LEAF = 16;
+    /** Quadrants with fewer items than this are never built concurrently. */
+    private static final int MIN_PARALLEL_BUILD = 4096;
+    
     private float xMin, xMax, yMin, yMax;
-    private QuadTreeNodeFactory factory = new QuadTreeNodeFactory();
-    private QuadTreeNode root;
     
-    private Random rand = null; // deterministic randomness
+    // snapshot of the items taken by init(), indexed by ForceItem.index
+    private ForceItem[] items = new ForceItem[0];
+    private float[] itemX = new float[0];
+    private float[] itemY = new float[0];
+    private float[] itemMass = new float[0];
+    private int itemCount;
+    
+    // item indices, grouped so that every node covers a contiguous range
+    private int[] order = new int[0];
+    private int[] scratch = new int[0];
+    
+    private final QuadTree tree = new QuadTree();
+    private final List<QuadTree> buffers = new ArrayList<QuadTree>();
+    private int root = -1;
+    private int generation; // seeds the noise for items at the same place
 
     /**
      * Create a new NBodyForce with default parameters.
@@ -107,8 +140,6 @@ public class NBodyForce extends AbstractForce {
             DEFAULT_MIN_DISTANCE, DEFAULT_MIN_THETA };
         maxValues = new float[] { DEFAULT_MAX_GRAV_CONSTANT,
             DEFAULT_MAX_DISTANCE, DEFAULT_MAX_THETA };
-        root = factory.getQuadTreeNode();
-    		rand = new Random(12345678L); // deterministic randomness
     }
 
     /**
@@ -144,16 +175,12 @@ public class NBodyForce extends AbstractForce {
      * Clears the quadtree of all entries.
      */
     public void clear() {
-        clearHelper(root);
-        root = factory.getQuadTreeNode();
-    }
-    
-    private void clearHelper(QuadTreeNode n) {
-        for ( int i = 0; i < n.children.length; i++ ) {
-            if ( n.children[i] != null )
-                clearHelper(n.children[i]);
-        }
-        factory.reclaim(n);
+        tree.clear();
+        for ( QuadTree t : buffers )
+            t.clear();
+        Arrays.fill(items, 0, itemCount, null);
+        itemCount = 0;
+        root = -1;
     }
 
     /**
@@ -164,8 +191,9 @@ public class NBodyForce extends AbstractForce {
      */
     public void init(ForceSimulator fsim) {
         clear(); // clear internal state
+        generation++;
         
-        // compute and squarify bounds of quadtree
+        // snapshot the items and compute the bounds of the quadtree
         float x1 = Float.MAX_VALUE, y1 = Float.MAX_VALUE;
         float x2 = Float.MIN_VALUE, y2 = Float.MIN_VALUE;
         Iterator itemIter = fsim.getItems();
@@ -177,101 +205,160 @@ public class NBodyForce extends AbstractForce {
             if ( y < y1 ) y1 = y;
             if ( x > x2 ) x2 = x;
             if ( y > y2 ) y2 = y;
+            addItem(item);
         }
+        if ( itemCount == 0 )
+            return;
+        
+        // squarify bounds of quadtree
         float dx = x2-x1, dy = y2-y1;
         if ( dx > dy ) { y2 = y1 + dx; } else { x2 = x1 + dy; }
         setBounds(x1,y1,x2,y2);
         
-        // insert items into quadtree
-        itemIter = fsim.getItems();
-        while ( itemIter.hasNext() ) {
-            ForceItem item = (ForceItem)itemIter.next();
-            insert(item);
+        // build the tree, handing large quadrants to the fork-join pool
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        List<BuildTask> forks = null;
+        int grain = 0;
+        if ( parallelism > 1 && itemCount >= 2*MIN_PARALLEL_BUILD ) {
+            forks = new ArrayList<BuildTask>();
+            grain = Math.max(MIN_PARALLEL_BUILD, itemCount/(4*parallelism));
         }
+        root = build(tree, 0, itemCount, x1, y1, x2, y2, 0, forks, grain);
         
-        // calculate magnitudes and centers of mass
-        calcMass(root);
+        if ( forks != null && !forks.isEmpty() ) {
+            // the nodes built on the calling thread are the top of the tree;
+            // append each quadrant built in parallel and link it in
+            int top = tree.size;
+            ForkJoinTask.invokeAll(forks);
+            int[] offsets = new int[forks.size()];
+            for ( int i = 0; i < forks.size(); i++ ) {
+                offsets[i] = tree.size;
+                tree.append(forks.get(i).nodes);
+            }
+            for ( int c = 0; c < top*4; c++ ) {
+                int child = tree.children[c];
+                if ( child <= -2 ) {
+                    BuildTask task = forks.get(-2-child);
+                    tree.children[c] = offsets[-2-child] + task.root;
+                }
+            }
+            calcMass(tree, 0, top);
+        } else {
+            calcMass(tree, 0, tree.size);
+        }
     }
-
+    
+    private void addItem(ForceItem item) {
+        if ( itemCount == items.length ) {
+            int capacity = Math.max(16, itemCount + (itemCount >> 1));
+            items = Arrays.copyOf(items, capacity);
+            itemX = Arrays.copyOf(itemX, capacity);
+            itemY = Arrays.copyOf(itemY, capacity);
+            itemMass = Arrays.copyOf(itemMass, capacity);
+            order = Arrays.copyOf(order, capacity);
+            scratch = new int[capacity];
+        }
+        int i = itemCount++;
+        item.index = i;
+        items[i] = item;
+        itemX[i] = item.location[0];
+        itemY[i] = item.location[1];
+        itemMass[i] = item.mass;
+        order[i] = i;
+    }
+    
     /**
-     * Inserts an item into the quadtree.
-     * @param item the ForceItem to add.
-     * @throws IllegalStateException if the current location of the item is
-     *  outside the bounds of the quadtree
+     * Builds the subtree holding the items order[lo..hi) into t and returns
+     * the index of its root. When forks is non-null, quadrants of at most
+     * grain items are not built here but added to forks, and the returned
+     * index is -2 minus the position of that task in the list.
      */
-    public void insert(ForceItem item) {
-        // insert item into the quadtrees
-        insert(item, root, xMin, yMin, xMax, yMax);
-    }
-
-    private void insert(ForceItem p, QuadTreeNode n, 
-                        float x1, float y1, float x2, float y2)
+    private int build(QuadTree t, int lo, int hi,
+                      float x1, float y1, float x2, float y2, int depth,
+                      List<BuildTask> forks, int grain)
     {
-        // try to insert particle p at node n in the quadtree
-        // by construction, each leaf will contain either 1 or 0 particles
-        if ( n.hasChildren ) {
-            // n contains more than 1 particle
-            insertHelper(p,n,x1,y1,x2,y2);
-        } else if ( n.value != null ) {
-            // n contains 1 particle
-            if ( isSameLocation(n.value, p) ) {
-                insertHelper(p,n,x1,y1,x2,y2);
-            } else {
-                ForceItem v = n.value; n.value = null;
-                insertHelper(v,n,x1,y1,x2,y2);
-                insertHelper(p,n,x1,y1,x2,y2);
+        if ( forks != null && depth > 0 && hi-lo <= grain ) {
+            forks.add(new BuildTask(lo, hi, x1, y1, x2, y2, depth));
+            return -1-forks.size();
+        }
+        
+        float splitx = (x1+x2)/2;
+        float splity = (y1+y2)/2;
+        int n = t.add(lo, hi, splitx, splity, x2-x1);
+        if ( hi-lo == 1 || depth >= MAX_DEPTH || isSameLocation(lo, hi) )
+            return n; // a leaf
+        
+        // stable partition of the items into the four quadrants
+        int[] counts = new int[5];
+        for ( int i = lo; i < hi; i++ )
+            counts[quadrant(order[i], splitx, splity)+1]++;
+        for ( int q = 1; q < 5; q++ )
+            counts[q] += counts[q-1];
+        for ( int i = lo; i < hi; i++ ) {
+            int item = order[i];
+            scratch[lo + counts[quadrant(item, splitx, splity)]++] = item;
+        }
+        System.arraycopy(scratch, lo, order, lo, hi-lo);
+        
+        // counts[q] now holds the end of quadrant q
+        int start = lo;
+        for ( int q = 0; q < 4; q++ ) {
+            int end = lo + counts[q];
+            if ( end > start ) {
+                t.children[n*4+q] = build(t, start, end,
+                    (q==1||q==3?splitx:x1), (q>1?splity:y1),
+                    (q==1||q==3?x2:splitx), (q>1?y2:splity),
+                    depth+1, forks, grain);
             }
-        } else { 
-            // n is empty, so is a leaf
-            n.value = p;
+            start = end;
         }
+        return n;
     }
     
-    private static boolean isSameLocation(ForceItem f1, ForceItem f2) {
-        float dx = Math.abs(f1.location[0]-f2.location[0]);
-        float dy = Math.abs(f1.location[1]-f2.location[1]);
-        return ( dx < 0.01 && dy < 0.01 );
+    private int quadrant(int item, float splitx, float splity) {
+        return (itemX[item]>=splitx ? 1 : 0) + (itemY[item]>=splity ? 2 : 0);
     }
     
-    private void insertHelper(ForceItem p, QuadTreeNode n, 
-                              float x1, float y1, float x2, float y2)
-    {   
-        float x = p.location[0], y = p.location[1];
-        float splitx = (x1+x2)/2;
-        float splity = (y1+y2)/2;
-        int i = (x>=splitx ? 1 : 0) + (y>=splity ? 2 : 0);
-        // create new child node, if necessary
-        if ( n.children[i] == null ) {
-            n.children[i] = factory.getQuadTreeNode();
-            n.hasChildren = true;
+    private boolean isSameLocation(int lo, int hi) {
+        float x = itemX[order[lo]], y = itemY[order[lo]];
+        for ( int i = lo+1; i < hi; i++ ) {
+            float dx = Math.abs(itemX[order[i]]-x);
+            float dy = Math.abs(itemY[order[i]]-y);
+            if ( dx >= SAME_LOCATION || dy >= SAME_LOCATION )
+                return false;
         }
-        // update bounds
-        if ( i==1 || i==3 ) x1 = splitx; else x2 = splitx;
-        if ( i > 1 )        y1 = splity; else y2 = splity;
-        // recurse 
-        insert(p,n.children[i],x1,y1,x2,y2);        
+        return true;
     }
 
-    private void calcMass(QuadTreeNode n) {
-        float xcom = 0, ycom = 0;
-        n.mass = 0;
-        if ( n.hasChildren ) {
-            for ( int i=0; i < n.children.length; i++ ) {
-                if ( n.children[i] != null ) {
-                    calcMass(n.children[i]);
-                    n.mass += n.children[i].mass;
-                    xcom += n.children[i].mass * n.children[i].com[0];
-                    ycom += n.children[i].mass * n.children[i].com[1];
+    /**
+     * Computes masses and centers of mass of the nodes [from..to) of t,
+     * going backwards so that children, which are always added after their
+     * parent, are done first.
+     */
+    private void calcMass(QuadTree t, int from, int to) {
+        for ( int n = to-1; n >= from; n-- ) {
+            float mass = 0, xcom = 0, ycom = 0;
+            if ( t.isLeaf(n) ) {
+                for ( int i = t.start[n]; i < t.end[n]; i++ ) {
+                    int item = order[i];
+                    mass += itemMass[item];
+                    xcom += itemMass[item] * itemX[item];
+                    ycom += itemMass[item] * itemY[item];
+                }
+            } else {
+                for ( int c = n*4; c < n*4+4; c++ ) {
+                    int child = t.children[c];
+                    if ( child >= 0 ) {
+                        mass += t.mass[child];
+                        xcom += t.mass[child] * t.comX[child];
+                        ycom += t.mass[child] * t.comY[child];
+                    }
                 }
             }
+            t.mass[n] = mass;
+            t.comX[n] = xcom / mass;
+            t.comY[n] = ycom / mass;
         }
-        if ( n.value != null ) {
-            n.mass += n.value.mass;
-            xcom += n.value.mass * n.value.location[0];
-            ycom += n.value.mass * n.value.location[1];
-        }
-        n.com[0] = xcom / n.mass;
-        n.com[1] = ycom / n.mass;
     }
 
     /**
@@ -279,98 +366,235 @@ public class NBodyForce extends AbstractForce {
      * @param item the ForceItem for which to compute the force
      */
     public void getForce(ForceItem item) {
-        forceHelper(item,root,xMin,yMin,xMax,yMax);
+        if ( root >= 0 )
+            forceHelper(item, root, true);
     }
     
-    private void forceHelper(ForceItem item, QuadTreeNode n, 
-                             float x1, float y1, float x2, float y2)
-    {
-        float dx = n.com[0] - item.location[0];
-        float dy = n.com[1] - item.location[1];
+    /**
+     * Adds the force of node n on the item. onPath is true when n is on the
+     * path from the root to the leaf that holds the item itself.
+     */
+    private void forceHelper(ForceItem item, int n, boolean onPath) {
+        QuadTree t = tree;
+        float dx = t.comX[n] - item.location[0];
+        float dy = t.comY[n] - item.location[1];
         float r  = (float)Math.sqrt(dx*dx+dy*dy);
-        boolean same = false;
-        if ( r == 0.0f ) {
-            // if items are in the exact same place, add some noise
-            dx = (rand.nextFloat()-0.5f) / 50.0f;
-            dy = (rand.nextFloat()-0.5f) / 50.0f;
-            r  = (float)Math.sqrt(dx*dx+dy*dy);
-            same = true;
-        }
         boolean minDist = params[MIN_DISTANCE]>0f && r>params[MIN_DISTANCE];
         
-        // the Barnes-Hut approximation criteria is if the ratio of the
-        // size of the quadtree box to the distance between the point and
-        // the box's center of mass is beneath some threshold theta.
-        if ( (!n.hasChildren && n.value != item) || 
-             (!same && (x2-x1)/r < params[BARNES_HUT_THETA]) ) 
-        {
-            if ( minDist ) return;
-            // either only 1 particle or we meet criteria
-            // for Barnes-Hut approximation, so calc force
-            float v = params[GRAVITATIONAL_CONST]*item.mass*n.mass 
-                        / (r*r*r);
-            item.force[0] += v*dx;
-            item.force[1] += v*dy;
-        } else if ( n.hasChildren ) {
+        if ( t.isLeaf(n) ) {
+            if ( onPath ) {
+                leafForce(item, n);
+            } else if ( !minDist ) {
+                if ( r == 0.0f ) {
+                    // if items are in the exact same place, add some noise
+                    dx = noise(item.index, -1-t.start[n], 0);
+                    dy = noise(item.index, -1-t.start[n], 1);
+                    r  = (float)Math.sqrt(dx*dx+dy*dy);
+                }
+                addForce(item, t.mass[n], dx, dy, r);
+            }
+        } else if ( r > 0.0f && t.width[n]/r < params[BARNES_HUT_THETA] ) {
+            // the Barnes-Hut approximation criteria is if the ratio of the
+            // size of the quadtree box to the distance between the point and
+            // the box's center of mass is beneath some threshold theta.
+            if ( !minDist )
+                addForce(item, t.mass[n], dx, dy, r);
+        } else {
             // recurse for more accurate calculation
-            float splitx = (x1+x2)/2;
-            float splity = (y1+y2)/2;
-            for ( int i=0; i<n.children.length; i++ ) {
-                if ( n.children[i] != null ) {
-                    forceHelper(item, n.children[i],
-                        (i==1||i==3?splitx:x1), (i>1?splity:y1),
-                        (i==1||i==3?x2:splitx), (i>1?y2:splity));
+            int own = onPath ? quadrant(item.index, t.splitX[n], t.splitY[n]) : -1;
+            for ( int q = 0; q < 4; q++ ) {
+                int child = t.children[n*4+q];
+                if ( child >= 0 )
+                    forceHelper(item, child, q == own);
+            }
+        }
+    }
+    
+    /**
+     * Adds the force of the other items in the leaf n that holds the item.
+     */
+    private void leafForce(ForceItem item, int n) {
+        QuadTree t = tree;
+        int self = item.index;
+        float x = item.location[0], y = item.location[1];
+        
+        if ( t.end[n]-t.start[n] <= MAX_EXACT_LEAF ) {
+            for ( int i = t.start[n]; i < t.end[n]; i++ ) {
+                int other = order[i];
+                if ( other == self )
+                    continue;
+                float dx = itemX[other] - x;
+                float dy = itemY[other] - y;
+                float r  = (float)Math.sqrt(dx*dx+dy*dy);
+                if ( r == 0.0f ) {
+                    dx = noise(self, other, 0);
+                    dy = noise(self, other, 1);
+                    r  = (float)Math.sqrt(dx*dx+dy*dy);
                 }
+                if ( params[MIN_DISTANCE]>0f && r>params[MIN_DISTANCE] )
+                    continue;
+                addForce(item, itemMass[other], dx, dy, r);
             }
-            if ( minDist ) return;
-            if ( n.value != null && n.value != item ) {
-                float v = params[GRAVITATIONAL_CONST]*item.mass*n.value.mass
-                            / (r*r*r);
-                item.force[0] += v*dx;
-                item.force[1] += v*dy;
+        } else {
+            // a large cluster of items at one location, e.g. before the first
+            // iteration; pushing each item off in its own random direction
+            // spreads them as well as summing up every pair would
+            float mass = t.mass[n] - itemMass[self];
+            if ( mass == 0.0f )
+                return;
+            float dx = (t.mass[n]*t.comX[n] - itemMass[self]*x) / mass - x;
+            float dy = (t.mass[n]*t.comY[n] - itemMass[self]*y) / mass - y;
+            float r  = (float)Math.sqrt(dx*dx+dy*dy);
+            if ( r < SAME_LOCATION ) {
+                dx = noise(self, -1-t.start[n], 0);
+                dy = noise(self, -1-t.start[n], 1);
+                r  = (float)Math.sqrt(dx*dx+dy*dy);
             }
+            if ( params[MIN_DISTANCE]>0f && r>params[MIN_DISTANCE] )
+                return;
+            addForce(item, mass, dx, dy, r);
         }
     }
+    
+    private void addForce(ForceItem item, float mass,
+                          float dx, float dy, float r)
+    {
+        float v = params[GRAVITATIONAL_CONST]*item.mass*mass / (r*r*r);
+        item.force[0] += v*dx;
+        item.force[1] += v*dy;
+    }
+    
+    /**
+     * Returns a small displacement in [-0.01, 0.01) that depends only on its
+     * arguments and the current iteration, so that the simulation stays
+     * deterministic however the items are spread over threads.
+     */
+    private float noise(int item, int other, int axis) {
+        long h = ((long)item << 32) ^ (other & 0xffffffffL);
+        h = h*0x9E3779B97F4A7C15L + generation*0xC2B2AE3D27D4EB4FL + axis;
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        float f = (h >>> 40) / (float)(1 << 24);
+        return (f-0.5f) / 50.0f;
+    }
 
     /**
-     * Represents a node in the quadtree.
+     * Builds one quadrant of the tree into its own QuadTree, which init()
+     * appends to the main tree once all quadrants are done.
      */
-    public static final class QuadTreeNode {
-        public QuadTreeNode() {
-            com = new float[] {0.0f, 0.0f};
-            children = new QuadTreeNode[4];
-        } //
-        boolean hasChildren = false;
-        float mass; // total mass held by this node
-        float[] com; // center of mass of this node 
-        ForceItem value; // ForceItem in this node, null if node has children
-        QuadTreeNode[] children; // children nodes
-    } // end of inner class QuadTreeNode
+    private final class BuildTask extends RecursiveAction {
+        private final int lo, hi, depth;
+        private final float x1, y1, x2, y2;
+        private QuadTree nodes;
+        private int root;
+        
+        BuildTask(int lo, int hi, float x1, float y1, float x2, float y2,
+                  int depth)
+        {
+            this.lo = lo; this.hi = hi;
+            this.x1 = x1; this.y1 = y1;
+            this.x2 = x2; this.y2 = y2;
+            this.depth = depth;
+        }
+        
+        protected void compute() {
+            nodes = getBuffer();
+            root = build(nodes, lo, hi, x1, y1, x2, y2, depth, null, 0);
+            calcMass(nodes, 0, nodes.size);
+        }
+    }
+    
+    private QuadTree getBuffer() {
+        synchronized ( buffers ) {
+            for ( QuadTree t : buffers ) {
+                if ( !t.inUse ) {
+                    t.inUse = true;
+                    return t;
+                }
+            }
+            QuadTree t = new QuadTree();
+            t.inUse = true;
+            buffers.add(t);
+            return t;
+        }
+    }
 
     /**
-     * Helper class to minimize number of object creations across multiple
-     * uses of the quadtree.
+     * Array-backed quadtree nodes. Each node covers the items
+     * order[start..end); a node without children is a leaf holding all of
+     * them, otherwise the items are spread over its children.
      */
-    public static final class QuadTreeNodeFactory {
-        private int maxNodes = 50000;
-        private ArrayList nodes = new ArrayList();
+    private static final class QuadTree {
+        int size;
+        int[] children = new int[0]; // four per node, -1 if empty
+        int[] start = new int[0];
+        int[] end = new int[0];
+        float[] mass = new float[0];  // total mass held by the node
+        float[] comX = new float[0];  // center of mass of the node
+        float[] comY = new float[0];
+        float[] splitX = new float[0];
+        float[] splitY = new float[0];
+        float[] width = new float[0]; // size of the node's square
+        boolean inUse;
         
-        public QuadTreeNode getQuadTreeNode() {
-            if ( nodes.size() > 0 ) {
-                return (QuadTreeNode)nodes.remove(nodes.size()-1);
-            } else {
-                return new QuadTreeNode();
+        void clear() {
+            size = 0;
+            inUse = false;
+        }
+        
+        boolean isLeaf(int n) {
+            int c = n*4;
+            return (children[c] & children[c+1] & children[c+2] & children[c+3]) == -1;
+        }
+        
+        int add(int lo, int hi, float splitx, float splity, float w) {
+            if ( size == start.length )
+                grow(size+1);
+            int n = size++;
+            Arrays.fill(children, n*4, n*4+4, -1);
+            start[n] = lo;
+            end[n] = hi;
+            splitX[n] = splitx;
+            splitY[n] = splity;
+            width[n] = w;
+            return n;
+        }
+        
+        /**
+         * Appends the nodes of t, shifting its child indices accordingly.
+         */
+        void append(QuadTree t) {
+            grow(size+t.size);
+            for ( int c = 0; c < t.size*4; c++ ) {
+                int child = t.children[c];
+                children[size*4+c] = child < 0 ? child : child+size;
             }
+            System.arraycopy(t.start, 0, start, size, t.size);
+            System.arraycopy(t.end, 0, end, size, t.size);
+            System.arraycopy(t.mass, 0, mass, size, t.size);
+            System.arraycopy(t.comX, 0, comX, size, t.size);
+            System.arraycopy(t.comY, 0, comY, size, t.size);
+            System.arraycopy(t.splitX, 0, splitX, size, t.size);
+            System.arraycopy(t.splitY, 0, splitY, size, t.size);
+            System.arraycopy(t.width, 0, width, size, t.size);
+            size += t.size;
         }
-        public void reclaim(QuadTreeNode n) {
-            n.mass = 0;
-            n.com[0] = 0.0f; n.com[1] = 0.0f;
-            n.value = null;
-            n.hasChildren = false;
-            Arrays.fill(n.children, null);          
-            if ( nodes.size() < maxNodes )
-                nodes.add(n);
+        
+        private void grow(int minCapacity) {
+            if ( minCapacity <= start.length )
+                return;
+            int capacity = Math.max(minCapacity, Math.max(64, start.length*2));
+            children = Arrays.copyOf(children, capacity*4);
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            mass = Arrays.copyOf(mass, capacity);
+            comX = Arrays.copyOf(comX, capacity);
+            comY = Arrays.copyOf(comY, capacity);
+            splitX = Arrays.copyOf(splitX, capacity);
+            splitY = Arrays.copyOf(splitY, capacity);
+            width = Arrays.copyOf(width, capacity);
         }
-    } // end of inner class QuadTreeNodeFactory
+    } // end of inner class QuadTree
 
 } // end of class NBodyForce
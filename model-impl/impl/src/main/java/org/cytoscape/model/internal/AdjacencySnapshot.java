@@ -0,0 +1,253 @@
+package org.cytoscape.model.internal;
+
+/*
+ * #%L
+ * Cytoscape Model Impl (model-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import org.cytoscape.model.CyEdge;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+
+/**
+ * An immutable, compressed-sparse-row (CSR) view of the topology of a
+ * {@link SimpleNetwork} at one point in time.
+ * <p>
+ * Nodes and edges are numbered densely from 0, in the order they appear
+ * in the network's node and edge lists, and can be mapped back and forth to
+ * SUIDs. For a given {@link CyEdge.Type} the adjacency of node <code>n</code>
+ * occupies positions <code>adjacencyStart(n, type)</code> (inclusive) to
+ * <code>adjacencyEnd(n, type)</code> (exclusive), and each position holds the
+ * index of the neighbor and of the connecting edge. Walking the adjacency this
+ * way does not allocate, which is what BFS, degree filters and layouts want on
+ * large networks.
+ * <p>
+ * The edge selection for each type matches
+ * {@link SimpleNetwork#getAdjacentEdgeList(org.cytoscape.model.CyNode, CyEdge.Type)},
+ * except that a self-edge is listed only once. The arrays for a type are built
+ * the first time that type is requested.
+ */
+public final class AdjacencySnapshot {
+
+	private static final CyEdge.Type[] TYPES = CyEdge.Type.values();
+
+	private final long modCount;
+
+	private final long[] nodeSuids;
+	private final long[] edgeSuids;
+	private final Long2IntOpenHashMap nodeIndices;
+	private final Long2IntOpenHashMap edgeIndices;
+
+	private final int[] edgeSources;
+	private final int[] edgeTargets;
+	private final boolean[] edgeDirected;
+
+	// One lazily built adjacency per CyEdge.Type, indexed by ordinal.
+	// A race here only means the same immutable data is built twice.
+	private final Adjacency[] adjacencies = new Adjacency[TYPES.length];
+
+	/**
+	 * @param nodeIndices maps each node SUID to its position in <code>nodeSuids</code>
+	 * @param edgeSources index of the source node of each edge in <code>edgeSuids</code>
+	 * @param edgeTargets index of the target node of each edge in <code>edgeSuids</code>
+	 */
+	AdjacencySnapshot(final long modCount, final long[] nodeSuids, final Long2IntOpenHashMap nodeIndices,
+			final long[] edgeSuids, final int[] edgeSources, final int[] edgeTargets,
+			final boolean[] edgeDirected) {
+		this.modCount = modCount;
+		this.nodeSuids = nodeSuids;
+		this.nodeIndices = nodeIndices;
+		this.edgeSuids = edgeSuids;
+		this.edgeSources = edgeSources;
+		this.edgeTargets = edgeTargets;
+		this.edgeDirected = edgeDirected;
+
+		this.nodeIndices.defaultReturnValue(-1);
+
+		edgeIndices = new Long2IntOpenHashMap(edgeSuids.length);
+		edgeIndices.defaultReturnValue(-1);
+
+		for (int i = 0; i < edgeSuids.length; i++)
+			edgeIndices.put(edgeSuids[i], i);
+	}
+
+	long getModCount() {
+		return modCount;
+	}
+
+	public int getNodeCount() {
+		return nodeSuids.length;
+	}
+
+	public int getEdgeCount() {
+		return edgeSuids.length;
+	}
+
+	/**
+	 * @return the dense index of the node with the given SUID, or -1 if the
+	 * node was not part of the network when the snapshot was taken.
+	 */
+	public int getNodeIndex(final long suid) {
+		return nodeIndices.get(suid);
+	}
+
+	public long getNodeSUID(final int nodeIndex) {
+		return nodeSuids[nodeIndex];
+	}
+
+	/**
+	 * @return the dense index of the edge with the given SUID, or -1 if the
+	 * edge was not part of the network when the snapshot was taken.
+	 */
+	public int getEdgeIndex(final long suid) {
+		return edgeIndices.get(suid);
+	}
+
+	public long getEdgeSUID(final int edgeIndex) {
+		return edgeSuids[edgeIndex];
+	}
+
+	public int getEdgeSource(final int edgeIndex) {
+		return edgeSources[edgeIndex];
+	}
+
+	public int getEdgeTarget(final int edgeIndex) {
+		return edgeTargets[edgeIndex];
+	}
+
+	public boolean isDirected(final int edgeIndex) {
+		return edgeDirected[edgeIndex];
+	}
+
+	public int getDegree(final int nodeIndex, final CyEdge.Type type) {
+		final int[] offsets = getAdjacency(type).offsets;
+		return offsets[nodeIndex + 1] - offsets[nodeIndex];
+	}
+
+	public int adjacencyStart(final int nodeIndex, final CyEdge.Type type) {
+		return getAdjacency(type).offsets[nodeIndex];
+	}
+
+	public int adjacencyEnd(final int nodeIndex, final CyEdge.Type type) {
+		return getAdjacency(type).offsets[nodeIndex + 1];
+	}
+
+	/**
+	 * @return the index of the neighbor stored at the given adjacency position.
+	 */
+	public int neighborAt(final int position, final CyEdge.Type type) {
+		return getAdjacency(type).neighbors[position];
+	}
+
+	/**
+	 * @return the index of the edge stored at the given adjacency position.
+	 */
+	public int edgeAt(final int position, final CyEdge.Type type) {
+		return getAdjacency(type).edges[position];
+	}
+
+	private Adjacency getAdjacency(final CyEdge.Type type) {
+		Adjacency adj = adjacencies[type.ordinal()];
+
+		if (adj == null) {
+			adj = new Adjacency(type);
+			adjacencies[type.ordinal()] = adj;
+		}
+
+		return adj;
+	}
+
+	private static boolean includesUndirected(final CyEdge.Type type) {
+		return type == CyEdge.Type.UNDIRECTED || type == CyEdge.Type.ANY;
+	}
+
+	private static boolean includesOutgoing(final CyEdge.Type type) {
+		return type == CyEdge.Type.DIRECTED || type == CyEdge.Type.ANY || type == CyEdge.Type.OUTGOING;
+	}
+
+	private static boolean includesIncoming(final CyEdge.Type type) {
+		return type == CyEdge.Type.DIRECTED || type == CyEdge.Type.ANY || type == CyEdge.Type.INCOMING;
+	}
+
+	/**
+	 * The CSR arrays for a single edge type.
+	 */
+	private final class Adjacency {
+
+		final int[] offsets;
+		final int[] neighbors;
+		final int[] edges;
+
+		Adjacency(final CyEdge.Type type) {
+			final boolean undirected = includesUndirected(type);
+			final boolean outgoing = includesOutgoing(type);
+			final boolean incoming = includesIncoming(type);
+
+			final int nodeCount = nodeSuids.length;
+			final int edgeCount = edgeSuids.length;
+
+			// First pass: count the degree of every node.
+			offsets = new int[nodeCount + 1];
+
+			for (int e = 0; e < edgeCount; e++) {
+				final int s = edgeSources[e];
+				final int t = edgeTargets[e];
+				final boolean atSource = edgeDirected[e] ? outgoing : undirected;
+				final boolean atTarget = edgeDirected[e] ? incoming : undirected;
+
+				if (atSource)
+					offsets[s + 1]++;
+				if (atTarget && (s != t || !atSource))
+					offsets[t + 1]++;
+			}
+
+			for (int n = 0; n < nodeCount; n++)
+				offsets[n + 1] += offsets[n];
+
+			// Second pass: fill the slots.
+			neighbors = new int[offsets[nodeCount]];
+			edges = new int[offsets[nodeCount]];
+			final int[] next = new int[nodeCount];
+			System.arraycopy(offsets, 0, next, 0, nodeCount);
+
+			for (int e = 0; e < edgeCount; e++) {
+				final int s = edgeSources[e];
+				final int t = edgeTargets[e];
+				final boolean atSource = edgeDirected[e] ? outgoing : undirected;
+				final boolean atTarget = edgeDirected[e] ? incoming : undirected;
+
+				if (atSource) {
+					final int pos = next[s]++;
+					neighbors[pos] = t;
+					edges[pos] = e;
+				}
+
+				if (atTarget && (s != t || !atSource)) {
+					final int pos = next[t]++;
+					neighbors[pos] = s;
+					edges[pos] = e;
+				}
+			}
+		}
+	}
+}
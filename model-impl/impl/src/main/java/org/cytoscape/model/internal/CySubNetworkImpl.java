@@ -64,6 +64,10 @@ import org.cytoscape.model.subnetwork.CySubNetwork;
  */
 public final class CySubNetworkImpl extends DefaultTablesNetwork implements CySubNetwork, NetworkAddedListener {
 
+	// Bulk node removals of at least 1/SNAPSHOT_REMOVAL_FRACTION of the nodes
+	// collect the adjacent edges from the adjacency snapshot.
+	private static final int SNAPSHOT_REMOVAL_FRACTION = 8;
+
 	private SavePolicy savePolicy;
 	
 	private final CyRootNetworkImpl parent;
@@ -250,16 +254,36 @@ public final class CySubNetworkImpl extends DefaultTablesNetwork implements CySu
 		List<Long> nodeSuids = new ArrayList<>();
 		Set<Long> edgeSuids = new HashSet<>();
 
+		// Removing a large part of the network walks most of its edges, which
+		// the adjacency snapshot does without an iterator per node.
+		final AdjacencySnapshot snapshot = nodes.size() * SNAPSHOT_REMOVAL_FRACTION >= getNodeCount()
+				? getAdjacencySnapshot() : null;
+
 		for(CyNode node: nodes) {
 			if (this.containsNode(node)) {
 				Long nodeSuid = node.getSUID();
 				if (nodeDefaultTable.rowExists(nodeSuid))
 					nodeSuids.add(nodeSuid);
 				
-				for(CyEdge edge : getAdjacentEdgeIterable(node, Type.ANY)) {
-					Long edgeSuid = edge.getSUID();
-					if (edgeDefaultTable.rowExists(edgeSuid)) {
-						edgeSuids.add(edgeSuid);
+				if (snapshot != null) {
+					final int n = snapshot.getNodeIndex(nodeSuid);
+
+					if (n >= 0) {
+						final int end = snapshot.adjacencyEnd(n, Type.ANY);
+
+						for (int i = snapshot.adjacencyStart(n, Type.ANY); i < end; i++) {
+							Long edgeSuid = snapshot.getEdgeSUID(snapshot.edgeAt(i, Type.ANY));
+							if (edgeDefaultTable.rowExists(edgeSuid)) {
+								edgeSuids.add(edgeSuid);
+							}
+						}
+					}
+				} else {
+					for(CyEdge edge : getAdjacentEdgeIterable(node, Type.ANY)) {
+						Long edgeSuid = edge.getSUID();
+						if (edgeDefaultTable.rowExists(edgeSuid)) {
+							edgeSuids.add(edgeSuid);
+						}
 					}
 				}
 			}
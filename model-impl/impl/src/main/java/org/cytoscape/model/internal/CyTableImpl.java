@@ -56,8 +56,12 @@ import org.cytoscape.model.events.TableAddedEvent;
 import org.cytoscape.model.events.TableAddedListener;
 import org.cytoscape.model.events.TablePrivacyChangedEvent;
 import org.cytoscape.model.events.TableTitleChangedEvent;
+import org.cytoscape.model.internal.column.BooleanArrayColumn;
 import org.cytoscape.model.internal.column.ColumnData;
 import org.cytoscape.model.internal.column.ColumnDataFactory;
+import org.cytoscape.model.internal.column.DoubleArrayColumn;
+import org.cytoscape.model.internal.column.IntegerArrayColumn;
+import org.cytoscape.model.internal.column.LongArrayColumn;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -126,7 +130,7 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 		this.isImmutable = !isMutable;
 		this.suid = Long.valueOf(SUIDFactory.getNextSUID());
 		this.eventHelper = eventHelper;
-		this.columnFactory = columnFactory;
+		this.columnFactory = columnFactory.forNewTable();
 		this.interpreter = interpreter;
 		this.savePolicy = savePolicy;
 		this.fireEvents = false;
@@ -158,7 +162,7 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 		// for getMatchingRows()
 		
 		// MKTODO (this is very strange, why is the primary key column implemented as a map???)
-		attributes.put(normalizedPKName, columnFactory.create(primaryKeyType, primaryKeyType, null, defaultInitSize));
+		attributes.put(normalizedPKName, this.columnFactory.create(primaryKeyType, primaryKeyType, null, defaultInitSize));
 
 		virtualColumnMap = new HashMap<>();
 	}
@@ -380,13 +384,13 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 				if (virtColumn != null) {
 					final CyColumn cyColumn = types.get(normalizedColName);
 					virtualColumnMap.remove(normalizedColName);
-					attributes.remove(normalizedColName);
+					disposeColumnData(attributes.remove(normalizedColName));
 					types.remove(normalizedColName);
 					colList.remove(cyColumn);
 					VirtualColumnInfo info = cyColumn.getVirtualColumnInfo();
 					((CyTableImpl) info.getSourceTable()).removeDependent(info.getSourceColumn(), cyColumn);
 				} else {
-					attributes.remove(normalizedColName);
+					disposeColumnData(attributes.remove(normalizedColName));
 					colList.remove(types.get(normalizedColName));
 					types.remove(normalizedColName);
 				}
@@ -397,6 +401,11 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 		eventHelper.fireEvent(new ColumnDeletedEvent(this, columnName));
 	}
 
+	private static void disposeColumnData(final ColumnData columnData) {
+		if (columnData != null)
+			columnData.dispose();
+	}
+
 	private void addDependent(String columnName, CyColumn joinedColumn) {
 		String normalizedName = normalizeColumnName(columnName);
 		Set<CyColumn> set = dependents.get(normalizedName);
@@ -616,6 +625,202 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 		}
 	}
 
+	/**
+	 * Bulk read of a Double column for the given primary keys, meant for mappers and filters
+	 * that scan a whole column. Values stored in a primitive array column are copied without
+	 * boxing, equations and virtual columns are evaluated as usual. Unset cells get <code>defaultValue</code>.
+	 */
+	public double[] getDoubleColumn(final String columnName, final long[] keys, final double defaultValue) {
+		final double[] values = new double[keys.length];
+		synchronized (lock) {
+			final ColumnData columnData = getScalarColumnData(columnName, Double.class);
+			final DoubleArrayColumn arrayColumn = columnData instanceof DoubleArrayColumn ? (DoubleArrayColumn) columnData : null;
+			
+			for (int i = 0; i < keys.length; i++) {
+				final int slot = arrayColumn == null ? -1 : arrayColumn.getValueSlot(keys[i]);
+				if (slot >= 0) {
+					values[i] = arrayColumn.getDouble(slot);
+				} else {
+					final Object value = getValue(keys[i], columnName, Double.class);
+					values[i] = value == null ? defaultValue : (Double) value;
+				}
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Bulk read of a Long column, see {@link #getDoubleColumn(String, long[], double)}.
+	 */
+	public long[] getLongColumn(final String columnName, final long[] keys, final long defaultValue) {
+		final long[] values = new long[keys.length];
+		synchronized (lock) {
+			final ColumnData columnData = getScalarColumnData(columnName, Long.class);
+			final LongArrayColumn arrayColumn = columnData instanceof LongArrayColumn ? (LongArrayColumn) columnData : null;
+			
+			for (int i = 0; i < keys.length; i++) {
+				final int slot = arrayColumn == null ? -1 : arrayColumn.getValueSlot(keys[i]);
+				if (slot >= 0) {
+					values[i] = arrayColumn.getLong(slot);
+				} else {
+					final Object value = getValue(keys[i], columnName, Long.class);
+					values[i] = value == null ? defaultValue : (Long) value;
+				}
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Bulk read of an Integer column, see {@link #getDoubleColumn(String, long[], double)}.
+	 */
+	public int[] getIntegerColumn(final String columnName, final long[] keys, final int defaultValue) {
+		final int[] values = new int[keys.length];
+		synchronized (lock) {
+			final ColumnData columnData = getScalarColumnData(columnName, Integer.class);
+			final IntegerArrayColumn arrayColumn = columnData instanceof IntegerArrayColumn ? (IntegerArrayColumn) columnData : null;
+			
+			for (int i = 0; i < keys.length; i++) {
+				final int slot = arrayColumn == null ? -1 : arrayColumn.getValueSlot(keys[i]);
+				if (slot >= 0) {
+					values[i] = arrayColumn.getInt(slot);
+				} else {
+					final Object value = getValue(keys[i], columnName, Integer.class);
+					values[i] = value == null ? defaultValue : (Integer) value;
+				}
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Bulk read of a Boolean column, see {@link #getDoubleColumn(String, long[], double)}.
+	 */
+	public boolean[] getBooleanColumn(final String columnName, final long[] keys, final boolean defaultValue) {
+		final boolean[] values = new boolean[keys.length];
+		synchronized (lock) {
+			final ColumnData columnData = getScalarColumnData(columnName, Boolean.class);
+			final BooleanArrayColumn arrayColumn = columnData instanceof BooleanArrayColumn ? (BooleanArrayColumn) columnData : null;
+			
+			for (int i = 0; i < keys.length; i++) {
+				final int slot = arrayColumn == null ? -1 : arrayColumn.getValueSlot(keys[i]);
+				if (slot >= 0) {
+					values[i] = arrayColumn.getBoolean(slot);
+				} else {
+					final Object value = getValue(keys[i], columnName, Boolean.class);
+					values[i] = value == null ? defaultValue : (Boolean) value;
+				}
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Checks that the column exists and has the expected type and returns its data,
+	 * which is null for virtual columns. Must be called while holding the lock.
+	 */
+	private ColumnData getScalarColumnData(final String columnName, final Class<?> type) {
+		if (primaryKeyType != Long.class)
+			throw new IllegalArgumentException("bulk column access requires a Long primary key.");
+		
+		final String normalizedColName = normalizeColumnName(columnName);
+		final CyColumn column = types.get(normalizedColName);
+		
+		if (column == null)
+			throw new IllegalArgumentException("column: '" + columnName + "' does not yet exist.");
+		if (column.getType() != type)
+			throw new IllegalArgumentException("column: '" + columnName + "' is not of type " + type.getSimpleName() + ".");
+		
+		if (virtualColumnMap.containsKey(normalizedColName))
+			return null;
+		
+		return attributes.get(normalizedColName);
+	}
+
+	/**
+	 * Sets the value of one column for many rows at once, creating rows as needed.
+	 * A null value unsets the cell. The table lock is taken once for the whole batch,
+	 * values are written directly to the column data and a single {@link RowsSetEvent}
+	 * holding all the changes is fired at the end, instead of one payload per row.
+	 * <p>
+	 * List columns and columns that other tables refer to through virtual columns
+	 * go through the regular per-row path, since they need per-row handling.
+	 */
+	public void setValues(final String columnName, final Map<?, ?> values) {
+		if (columnName == null)
+			throw new NullPointerException("columnName must not be null.");
+		if (values == null)
+			throw new NullPointerException("values must not be null.");
+		if (values.isEmpty())
+			return;
+		
+		final List<RowSetRecord> records = new ArrayList<>(values.size());
+		final boolean batchable;
+		
+		synchronized (lock) {
+			final String normalizedColName = normalizeColumnName(columnName);
+			final CyColumn column = types.get(normalizedColName);
+			
+			if (column == null)
+				throw new IllegalArgumentException("column: '" + columnName + "' does not yet exist.");
+			if (column.isPrimaryKey())
+				throw new IllegalArgumentException("cannot set the primary key column '" + columnName + "'.");
+			
+			final Set<CyColumn> columnDependents = dependents.get(normalizedColName);
+			batchable = column.getType() != List.class
+					&& !virtualColumnMap.containsKey(normalizedColName)
+					&& (columnDependents == null || columnDependents.isEmpty());
+			
+			if (batchable) {
+				final Class<?> columnType = column.getType();
+				final ColumnData keyToValueMap = attributes.get(normalizedColName);
+				
+				for (final Map.Entry<?, ?> entry : values.entrySet()) {
+					final Object key = entry.getKey();
+					final Object value = entry.getValue();
+					checkKey(key);
+					
+					if (value == null) {
+						if (keyToValueMap.get(key) == null)
+							continue;
+						
+						keyToValueMap.remove(key);
+						records.add(new RowSetRecord(getRow(key), columnName, null, null));
+					} else if (value instanceof Equation) {
+						if (!EqnSupport.scalarEquationIsCompatible(value, columnType))
+							throw new IllegalArgumentException("value of \"" + columnName + "\" is not of type " + columnType);
+						
+						final CyRow row = getRow(key);
+						keyToValueMap.put(key, value);
+						
+						final StringBuilder errorMsg = new StringBuilder();
+						final Object newValue = EqnSupport.evalEquation((Equation) value, key, interpreter,
+								currentlyActiveAttributes, columnName, errorMsg, this);
+						lastInternalError = errorMsg.toString();
+						records.add(new RowSetRecord(row, columnName, newValue, value));
+					} else {
+						checkType(value);
+						if (!columnType.isAssignableFrom(value.getClass()))
+							throw new IllegalArgumentException("value of \"" + columnName + "\" is not of type " + columnType);
+						
+						final CyRow row = getRow(key);
+						keyToValueMap.put(key, value);
+						records.add(new RowSetRecord(row, columnName, value, value));
+					}
+				}
+			}
+		}
+		
+		if (!batchable) {
+			for (final Map.Entry<?, ?> entry : values.entrySet())
+				getRow(entry.getKey()).set(columnName, entry.getValue());
+			return;
+		}
+		
+		if (fireEvents && !records.isEmpty())
+			eventHelper.fireEvent(new RowsSetEvent(this, records));
+	}
+
 	private final void setX(final Object key, final String columnName, final Object value) {
 		if (columnName == null)
 			throw new NullPointerException("columnName must not be null.");
@@ -30,11 +30,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.locks.StampedLock;
 
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNode;
 	
 import cern.colt.map.tobject.OpenLongObjectHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 
 
 /**
@@ -42,6 +44,14 @@ import cern.colt.map.tobject.OpenLongObjectHashMap;
  * operations not fully represented here are addNode and addEdge.
  * Instead we provide addNodeInternal and addEdgeInternal, which
  * add a provided CyNode/CyEdge object to the network topology. 
+ * <p>
+ * Topology is guarded by a {@link StampedLock}. Mutations take the exclusive
+ * write lock, so there is still only ever a single writer. Reads take the
+ * shared read lock (or an optimistic stamp for the simple counters), which
+ * means that concurrent readers such as parallel analysis tasks and the
+ * renderer no longer serialize on one monitor. A StampedLock is not
+ * reentrant, so methods that run while a lock is held must only call the
+ * private *Unlocked helpers below.
  */
 class SimpleNetwork {
 	
@@ -61,7 +71,12 @@ class SimpleNetwork {
 	
 	private NodePointer firstNode;
 	
-	private Object lock = new Object();
+	private final StampedLock lock = new StampedLock();
+
+	// Incremented under the write lock on every topology change,
+	// so a cached AdjacencySnapshot can tell whether it is stale.
+	private long modCount;
+	private volatile AdjacencySnapshot adjacencySnapshot;
 
 	SimpleNetwork(final long suid) {
 		this.suid = suid; 
@@ -77,39 +92,70 @@ class SimpleNetwork {
 	}
 
 	public int getNodeCount() {
-		synchronized (lock) {
-			return nodeCount;
+		long stamp = lock.tryOptimisticRead();
+		int count = nodeCount;
+
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				count = nodeCount;
+			} finally {
+				lock.unlockRead(stamp);
+			}
 		}
+
+		return count;
 	}
 
 	public int getEdgeCount() {
-		synchronized (lock) {
-			return edgeCount;
+		long stamp = lock.tryOptimisticRead();
+		int count = edgeCount;
+
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				count = edgeCount;
+			} finally {
+				lock.unlockRead(stamp);
+			}
 		}
+
+		return count;
 	}
 
 	public CyEdge getEdge(final long e) {
-		synchronized (lock) {
+		final long stamp = lock.readLock();
+		try {
 			final EdgePointer ep = (EdgePointer) edgePointers.get(e);
 			if (ep != null)
 				return ep.cyEdge;
 			else
 				return null;
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
 	public CyNode getNode(final long n) {
-		synchronized (lock) {
-			final NodePointer np = (NodePointer) nodePointers.get(n);
-			if (np != null)
-				return np.cyNode;
-			else
-				return null;
+		final long stamp = lock.readLock();
+		try {
+			return getNodeUnlocked(n);
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
+	private CyNode getNodeUnlocked(final long n) {
+		final NodePointer np = (NodePointer) nodePointers.get(n);
+		if (np != null)
+			return np.cyNode;
+		else
+			return null;
+	}
+
 	public List<CyNode> getNodeList() {
-		synchronized (lock) {
+		final long stamp = lock.readLock();
+		try {
 			final List<CyNode> ret = new ArrayList<>(nodeCount);
 			int numRemaining = nodeCount;
 			NodePointer node = firstNode;
@@ -124,11 +170,14 @@ class SimpleNetwork {
 			}
 	
 			return ret;
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
 	public List<CyEdge> getEdgeList() {
-		synchronized (lock) {
+		final long stamp = lock.readLock();
+		try {
 			final List<CyEdge> ret = new ArrayList<>(edgeCount);
 			EdgePointer edge = null;
 	
@@ -155,12 +204,15 @@ class SimpleNetwork {
 			}
 	
 			return ret;
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
 	public List<CyNode> getNeighborList(final CyNode n, final CyEdge.Type e) {
-		synchronized (lock) {
-			if (!containsNode(n)) 
+		final long stamp = lock.readLock();
+		try {
+			if (!containsNodeUnlocked(n)) 
 				return Collections.emptyList(); 
 	
 			final NodePointer np = getNodePointer(n);
@@ -169,38 +221,106 @@ class SimpleNetwork {
 			while (it.hasNext()) {
 				final EdgePointer edge = it.next();
 				final long neighborIndex = np.index ^ edge.source.index ^ edge.target.index;
-				ret.add(getNode(neighborIndex));
+				ret.add(getNodeUnlocked(neighborIndex));
 			}
 	
 			return ret;
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
 	public List<CyEdge> getAdjacentEdgeList(final CyNode n, final CyEdge.Type e) {
-		synchronized (lock) {
-			if (!containsNode(n)) 
-				return Collections.emptyList(); 
-	
-			final NodePointer np = getNodePointer(n);
-			final List<CyEdge> ret = new ArrayList<>(countEdges(np, e));
-			final Iterator<EdgePointer> it = edgesAdjacent(np, e);
-	
-			while (it.hasNext()) {
-				ret.add(it.next().cyEdge);
-			}
-	
-			return ret;
+		final long stamp = lock.readLock();
+		try {
+			return getAdjacentEdgeListUnlocked(n, e);
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
+	private List<CyEdge> getAdjacentEdgeListUnlocked(final CyNode n, final CyEdge.Type e) {
+		if (!containsNodeUnlocked(n)) 
+			return Collections.emptyList(); 
+
+		final NodePointer np = getNodePointer(n);
+		final List<CyEdge> ret = new ArrayList<>(countEdges(np, e));
+		final Iterator<EdgePointer> it = edgesAdjacent(np, e);
+
+		while (it.hasNext()) {
+			ret.add(it.next().cyEdge);
+		}
+
+		return ret;
+	}
+
 	public Iterable<CyEdge> getAdjacentEdgeIterable(final CyNode n, final CyEdge.Type e) {
-		synchronized (lock) {
-			if (!containsNode(n)) 
+		final long stamp = lock.readLock();
+		try {
+			if (!containsNodeUnlocked(n)) 
 				return Collections.emptyList();
 	
 			final NodePointer np = getNodePointer(n);
 			return new IterableEdgeIterator( edgesAdjacent(np, e) ); 
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns an immutable CSR view of the current topology. The snapshot is
+	 * cached and reused until the next node or edge is added or removed, so
+	 * repeated calls between modifications are cheap.
+	 */
+	public AdjacencySnapshot getAdjacencySnapshot() {
+		final long stamp = lock.readLock();
+		try {
+			AdjacencySnapshot snapshot = adjacencySnapshot;
+
+			if (snapshot == null || snapshot.getModCount() != modCount) {
+				snapshot = createAdjacencySnapshot();
+				adjacencySnapshot = snapshot;
+			}
+
+			return snapshot;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Must be called while holding the lock.
+	 */
+	private AdjacencySnapshot createAdjacencySnapshot() {
+		final long[] nodeSuids = new long[nodeCount];
+		final Long2IntOpenHashMap nodeIndices = new Long2IntOpenHashMap(nodeCount);
+
+		NodePointer node = firstNode;
+		for (int i = 0; i < nodeCount; i++) {
+			nodeSuids[i] = node.index;
+			nodeIndices.put(node.index, i);
+			node = node.nextNode;
+		}
+
+		final long[] edgeSuids = new long[edgeCount];
+		final int[] edgeSources = new int[edgeCount];
+		final int[] edgeTargets = new int[edgeCount];
+		final boolean[] edgeDirected = new boolean[edgeCount];
+
+		// Every edge is in exactly one outgoing list, that of its source.
+		int e = 0;
+		for (node = firstNode; node != null && e < edgeCount; node = node.nextNode) {
+			for (EdgePointer edge = node.firstOutEdge; edge != null; edge = edge.nextOutEdge) {
+				edgeSuids[e] = edge.index;
+				edgeSources[e] = nodeIndices.get(edge.source.index);
+				edgeTargets[e] = nodeIndices.get(edge.target.index);
+				edgeDirected[e] = edge.directed;
+				e++;
+			}
 		}
+
+		return new AdjacencySnapshot(modCount, nodeSuids, nodeIndices, edgeSuids, edgeSources, edgeTargets,
+				edgeDirected);
 	}
 
 	private class IterableEdgeIterator implements Iterator<CyEdge>, Iterable<CyEdge> {
@@ -233,11 +353,12 @@ class SimpleNetwork {
 	}
 
 	public List<CyEdge> getConnectingEdgeList(final CyNode src, final CyNode trg, final CyEdge.Type e) {
-		synchronized (lock) {
-			if (!containsNode(src)) 
+		final long stamp = lock.readLock();
+		try {
+			if (!containsNodeUnlocked(src)) 
 				return Collections.emptyList(); 
 	
-			if (!containsNode(trg)) 
+			if (!containsNodeUnlocked(trg)) 
 				return Collections.emptyList(); 
 	
 			final NodePointer srcP = getNodePointer(src);
@@ -250,24 +371,28 @@ class SimpleNetwork {
 				ret.add(it.next().cyEdge);
 	
 			return ret;
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
-	/**
-	 * IMPORTANT: this is not protected by synchronized 
-	 * because caller always uses lock.
-	 */
 	CyNode addNodeInternal(final CyNode node) {
-		// node already exists in this network
-		if (containsNode(node))
+		final long stamp = lock.writeLock();
+		try {
+			// node already exists in this network
+			if (containsNodeUnlocked(node))
+				return node;
+	
+			final NodePointer n = new NodePointer(node);
+			nodePointers.put(node.getSUID(), n);
+			nodeCount++;
+			modCount++;
+			firstNode = n.insert(firstNode);
+	
 			return node;
-
-		final NodePointer n = new NodePointer(node);
-		nodePointers.put(node.getSUID(), n);
-		nodeCount++;
-		firstNode = n.insert(firstNode);
-
-		return node;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
 	}
 
 	protected boolean removeNodesInternal(final Collection<CyNode> nodes) {
@@ -275,21 +400,25 @@ class SimpleNetwork {
 			return false;
 
 		boolean madeChanges = false;
-		synchronized (lock) {
+		final long stamp = lock.writeLock();
+		try {
 			for ( CyNode n : nodes ) {
-				if (!containsNode(n)) 
+				if (!containsNodeUnlocked(n)) 
 					continue;
 
 				// remove adjacent edges from network
-				removeEdgesInternal(getAdjacentEdgeList(n, CyEdge.Type.ANY));
+				removeEdgesUnlocked(getAdjacentEdgeListUnlocked(n, CyEdge.Type.ANY));
 	
 				final NodePointer node = (NodePointer)nodePointers.get(n.getSUID());
 				nodePointers.removeKey(n.getSUID());
 				firstNode = node.remove(firstNode);
 	
 				nodeCount--;
+				modCount++;
 				madeChanges = true;
 			}
+		} finally {
+			lock.unlockWrite(stamp);
 		}
 
 		return madeChanges;
@@ -299,17 +428,18 @@ class SimpleNetwork {
 
 		final EdgePointer e;
 
-		synchronized (lock) {
+		final long stamp = lock.writeLock();
+		try {
 			// here we check with possible sub node, not just root node
-			if (!containsNode(s))
+			if (!containsNodeUnlocked(s))
 				throw new IllegalArgumentException("source node is not a member of this network");
 
 			// here we check with possible sub node, not just root node
-			if (!containsNode(t))
+			if (!containsNodeUnlocked(t))
 				throw new IllegalArgumentException("target node is not a member of this network");
 
 			// edge already exists in this network
-			if ( containsEdge(edge) )
+			if ( containsEdgeUnlocked(edge) )
 				return edge;
 
 			final NodePointer source = getNodePointer(s);
@@ -320,6 +450,9 @@ class SimpleNetwork {
 			edgePointers.put(edge.getSUID(),e);
 
 			edgeCount++;
+			modCount++;
+		} finally {
+			lock.unlockWrite(stamp);
 		}
 
 		return edge; 
@@ -329,20 +462,29 @@ class SimpleNetwork {
 		if (edges == null || edges.isEmpty())
 			return false;
 
+		final long stamp = lock.writeLock();
+		try {
+			return removeEdgesUnlocked(edges);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	private boolean removeEdgesUnlocked(final Collection<CyEdge> edges) {
 		boolean madeChanges = false;
-		synchronized (lock) {
-			for (CyEdge edge : edges) {
-				if (!containsEdge(edge))
-					continue;
-	
-				final EdgePointer e = (EdgePointer)edgePointers.get(edge.getSUID());
-				edgePointers.removeKey(edge.getSUID());
-	
-				e.remove();
-	
-				edgeCount--;
-				madeChanges = true;
-			}
+
+		for (CyEdge edge : edges) {
+			if (!containsEdgeUnlocked(edge))
+				continue;
+
+			final EdgePointer e = (EdgePointer)edgePointers.get(edge.getSUID());
+			edgePointers.removeKey(edge.getSUID());
+
+			e.remove();
+
+			edgeCount--;
+			modCount++;
+			madeChanges = true;
 		}
 
 		return madeChanges;
@@ -352,11 +494,19 @@ class SimpleNetwork {
 		if (node == null)
 			return false;
 
-		final NodePointer thisNode; 
-
-		synchronized (lock) {
-			thisNode = (NodePointer)nodePointers.get(node.getSUID());
+		final long stamp = lock.readLock();
+		try {
+			return containsNodeUnlocked(node);
+		} finally {
+			lock.unlockRead(stamp);
 		}
+	}
+
+	private boolean containsNodeUnlocked(final CyNode node) {
+		if (node == null)
+			return false;
+
+		final NodePointer thisNode = (NodePointer)nodePointers.get(node.getSUID());
 
 		if (thisNode == null)
 			return false;
@@ -368,11 +518,19 @@ class SimpleNetwork {
 		if (edge == null)
 			return false;
 
-		final EdgePointer thisEdge; 
-
-		synchronized (lock) {
-			thisEdge = (EdgePointer)edgePointers.get(edge.getSUID());
+		final long stamp = lock.readLock();
+		try {
+			return containsEdgeUnlocked(edge);
+		} finally {
+			lock.unlockRead(stamp);
 		}
+	}
+
+	private boolean containsEdgeUnlocked(final CyEdge edge) {
+		if (edge == null)
+			return false;
+
+		final EdgePointer thisEdge = (EdgePointer)edgePointers.get(edge.getSUID());
 
 		if (thisEdge == null)
 			return false;
@@ -381,16 +539,19 @@ class SimpleNetwork {
 	}
 
 	public boolean containsEdge(final CyNode n1, final CyNode n2) {
-		synchronized (lock) {
-			if (!containsNode(n1))
+		final long stamp = lock.readLock();
+		try {
+			if (!containsNodeUnlocked(n1))
 				return false;
 	
-			if (!containsNode(n2))
+			if (!containsNodeUnlocked(n2))
 				return false;
 	
 			final Iterator<EdgePointer> it = edgesConnecting(getNodePointer(n1), getNodePointer(n2), CyEdge.Type.ANY);
 	
 			return it.hasNext();
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
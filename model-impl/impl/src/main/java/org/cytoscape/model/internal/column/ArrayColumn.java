@@ -0,0 +1,166 @@
+package org.cytoscape.model.internal.column;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cytoscape.equations.Equation;
+import org.cytoscape.model.CyRow;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+/**
+ * Base class for columns of Long keyed tables that keep their values in a dense
+ * primitive array. Keys are translated to array positions through the
+ * {@link SlotIndex} shared by the table. Equations can't be stored in a
+ * primitive array, so they are kept on the side.
+ */
+public abstract class ArrayColumn implements ColumnData {
+
+	private final SlotIndex index;
+	private final BitSet present = new BitSet();
+	private final Long2ObjectOpenHashMap<Equation> equations = new Long2ObjectOpenHashMap<>();
+	protected final int defaultInitSize;
+	
+	ArrayColumn(SlotIndex index, int defaultInitSize) {
+		this.index = index;
+		this.defaultInitSize = Math.max(defaultInitSize, 16);
+	}
+	
+	
+	/**
+	 * Store the value in the given slot, the array must already be large enough.
+	 */
+	protected abstract void setValue(int slot, Object value);
+	
+	protected abstract Object getValue(int slot);
+	
+	protected abstract boolean matches(int slot, Object value);
+	
+	/**
+	 * Make sure the value array can hold at least <code>minCapacity</code> slots.
+	 */
+	protected abstract void ensureCapacity(int minCapacity);
+	
+	
+	static int grow(int oldCapacity, int minCapacity) {
+		return Math.max(minCapacity, oldCapacity + (oldCapacity >> 1));
+	}
+	
+	/**
+	 * @return the slot holding a plain (non-equation) value for the key, or -1
+	 * if the key has no value or its value is an equation.
+	 */
+	public final int getValueSlot(long key) {
+		int slot = index.slotOf(key);
+		return slot >= 0 && present.get(slot) ? slot : -1;
+	}
+	
+	private boolean isHeld(int slot, long key) {
+		return present.get(slot) || (!equations.isEmpty() && equations.containsKey(key));
+	}
+	
+	@Override
+	public void put(Object key, Object value) {
+		long k = (Long)key;
+		int slot = index.slotOf(k);
+		if(slot < 0 || !isHeld(slot, k)) {
+			slot = index.acquire(k);
+			ensureCapacity(slot + 1);
+		}
+		
+		if(value instanceof Equation) {
+			equations.put(k, (Equation)value);
+			present.clear(slot);
+		} else {
+			if(!equations.isEmpty())
+				equations.remove(k);
+			setValue(slot, value);
+			present.set(slot);
+		}
+	}
+
+	@Override
+	public Object get(Object key) {
+		long k = (Long)key;
+		if(!equations.isEmpty()) {
+			Equation equation = equations.get(k);
+			if(equation != null)
+				return equation;
+		}
+		int slot = getValueSlot(k);
+		return slot < 0 ? null : getValue(slot);
+	}
+
+	@Override
+	public void remove(Object key) {
+		long k = (Long)key;
+		int slot = index.slotOf(k);
+		if(slot < 0 || !isHeld(slot, k))
+			return;
+		
+		present.clear(slot);
+		if(!equations.isEmpty())
+			equations.remove(k);
+		index.release(slot);
+	}
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public Set<Object> keySet() {
+		Set<Object> keys = (Set)new LongOpenHashSet(present.cardinality() + equations.size());
+		for(int slot = present.nextSetBit(0); slot >= 0; slot = present.nextSetBit(slot + 1)) {
+			keys.add(index.keyAt(slot));
+		}
+		keys.addAll(equations.keySet());
+		return keys;
+	}
+	
+	@Override
+	public void dispose() {
+		for(int slot = present.nextSetBit(0); slot >= 0; slot = present.nextSetBit(slot + 1)) {
+			index.release(slot);
+		}
+		for(long key : equations.keySet()) {
+			index.release(index.slotOf(key));
+		}
+		present.clear();
+		equations.clear();
+	}
+
+	@Override
+	public int countMatchingRows(Object value) {
+		int count = 0;
+		for(int slot = present.nextSetBit(0); slot >= 0; slot = present.nextSetBit(slot + 1)) {
+			if(matches(slot, value))
+				count++;
+		}
+		return count;
+	}
+
+	@Override
+	public Collection<CyRow> getMatchingRows(Map<Object, CyRow> rows, Object value) {
+		List<CyRow> matchingRows = new ArrayList<>();
+		for(int slot = present.nextSetBit(0); slot >= 0; slot = present.nextSetBit(slot + 1)) {
+			if(matches(slot, value))
+				matchingRows.add(rows.get(index.keyAt(slot)));
+		}
+		return matchingRows;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> Collection<T> getMatchingKeys(Object value, Class<T> type) {
+		List<T> matchingKeys = new ArrayList<>();
+		for(int slot = present.nextSetBit(0); slot >= 0; slot = present.nextSetBit(slot + 1)) {
+			if(matches(slot, value))
+				matchingKeys.add((T)Long.valueOf(index.keyAt(slot)));
+		}
+		return matchingKeys;
+	}
+
+}
@@ -0,0 +1,37 @@
+package org.cytoscape.model.internal.column;
+
+import java.util.BitSet;
+
+public final class BooleanArrayColumn extends ArrayColumn {
+
+	private final BitSet values = new BitSet();
+	
+	BooleanArrayColumn(SlotIndex index, int defaultInitSize) {
+		super(index, defaultInitSize);
+	}
+	
+	public boolean getBoolean(int slot) {
+		return values.get(slot);
+	}
+	
+	@Override
+	protected void setValue(int slot, Object value) {
+		values.set(slot, (Boolean)value);
+	}
+
+	@Override
+	protected Object getValue(int slot) {
+		return values.get(slot);
+	}
+
+	@Override
+	protected boolean matches(int slot, Object value) {
+		return value instanceof Boolean && values.get(slot) == (Boolean)value;
+	}
+
+	@Override
+	protected void ensureCapacity(int minCapacity) {
+		// BitSet grows on its own
+	}
+
+}
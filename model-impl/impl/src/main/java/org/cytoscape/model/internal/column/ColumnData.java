@@ -16,5 +16,11 @@ public interface ColumnData {
 	Object get(Object key);
 	void remove(Object key);
 	Set<Object> keySet();
+	
+	/**
+	 * Called when the column is deleted from its table.
+	 */
+	default void dispose() {
+	}
 
 }
@@ -10,8 +10,15 @@ public interface ColumnDataFactory {
 
 	void clearCache();
 
+	/**
+	 * Returns the factory to be used for the columns of one new table. Factories that
+	 * share per-table state between columns return a new instance, the default is this.
+	 */
+	default ColumnDataFactory forNewTable() {
+		return this;
+	}
 	
 	public static ColumnDataFactory createDefaultFactory() {
-		return new ColumnDataFactoryFastUtil();
+		return new ColumnDataFactoryPrimitiveArray();
 	}
 }
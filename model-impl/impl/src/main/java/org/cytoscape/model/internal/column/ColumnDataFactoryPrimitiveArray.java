@@ -0,0 +1,88 @@
+package org.cytoscape.model.internal.column;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+/**
+ * Stores the Integer, Long, Double and Boolean columns of Long keyed tables
+ * as dense primitive arrays. All the array columns of one table share a single
+ * {@link SlotIndex}, see {@link #forNewTable()}. Everything else is delegated
+ * to {@link ColumnDataFactoryFastUtil}.
+ */
+public class ColumnDataFactoryPrimitiveArray implements ColumnDataFactory {
+
+	private final ColumnDataFactoryFastUtil delegate;
+	private final CanonicalStringPool stringPool;
+	private final SlotIndex slotIndex; // null for the shared, non table specific instance
+	
+	public ColumnDataFactoryPrimitiveArray() {
+		this(new ColumnDataFactoryFastUtil(), new CanonicalStringPool(), null);
+	}
+	
+	private ColumnDataFactoryPrimitiveArray(ColumnDataFactoryFastUtil delegate, CanonicalStringPool stringPool, SlotIndex slotIndex) {
+		this.delegate = delegate;
+		this.stringPool = stringPool;
+		this.slotIndex = slotIndex;
+	}
+	
+	@Override
+	public ColumnDataFactory forNewTable() {
+		return new TableScope(this);
+	}
+	
+	@Override
+	public void clearCache() {
+		delegate.clearCache();
+		stringPool.clear();
+	}
+	
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public ColumnData create(Class<?> primaryKeyType, Class<?> type, Class<?> listElementType, int defaultInitSize) {
+		if(Long.class.equals(primaryKeyType)) {
+			SlotIndex index = slotIndex == null ? new SlotIndex(defaultInitSize) : slotIndex;
+			
+			if(Integer.class.equals(type)) {
+				return new IntegerArrayColumn(index, defaultInitSize);
+			} else if(Long.class.equals(type)) {
+				return new LongArrayColumn(index, defaultInitSize);
+			} else if(Double.class.equals(type)) {
+				return new DoubleArrayColumn(index, defaultInitSize);
+			} else if(Boolean.class.equals(type)) {
+				return new BooleanArrayColumn(index, defaultInitSize);
+			} else if(String.class.equals(type)) {
+				return new CanonicalStringPoolFilter(stringPool, new MapColumn((Map)new Long2ObjectOpenHashMap()));
+			}
+		}
+		
+		return new MapColumn(new HashMap<>(defaultInitSize));
+	}
+
+	@Override
+	public List<?> createList(Class<?> elementType, List<?> data) {
+		return delegate.createList(elementType, data);
+	}
+	
+	
+	/**
+	 * The factory handed to a single table, it owns the table's slot index.
+	 */
+	private static class TableScope extends ColumnDataFactoryPrimitiveArray {
+		
+		private final ColumnDataFactoryPrimitiveArray parent;
+		
+		TableScope(ColumnDataFactoryPrimitiveArray parent) {
+			super(parent.delegate, parent.stringPool, new SlotIndex(0));
+			this.parent = parent;
+		}
+		
+		@Override
+		public ColumnDataFactory forNewTable() {
+			return parent.forNewTable();
+		}
+	}
+
+}
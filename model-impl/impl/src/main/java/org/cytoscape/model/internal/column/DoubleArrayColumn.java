@@ -0,0 +1,41 @@
+package org.cytoscape.model.internal.column;
+
+import java.util.Arrays;
+
+public final class DoubleArrayColumn extends ArrayColumn {
+
+	private double[] values = new double[0];
+	
+	DoubleArrayColumn(SlotIndex index, int defaultInitSize) {
+		super(index, defaultInitSize);
+	}
+	
+	public double getDouble(int slot) {
+		return values[slot];
+	}
+	
+	@Override
+	protected void setValue(int slot, Object value) {
+		values[slot] = (Double)value;
+	}
+
+	@Override
+	protected Object getValue(int slot) {
+		return values[slot];
+	}
+
+	@Override
+	protected boolean matches(int slot, Object value) {
+		// same semantics as Double.equals()
+		return value instanceof Double 
+			&& Double.doubleToLongBits(values[slot]) == Double.doubleToLongBits((Double)value);
+	}
+
+	@Override
+	protected void ensureCapacity(int minCapacity) {
+		if(minCapacity > values.length) {
+			values = Arrays.copyOf(values, Math.max(defaultInitSize, grow(values.length, minCapacity)));
+		}
+	}
+
+}
@@ -0,0 +1,39 @@
+package org.cytoscape.model.internal.column;
+
+import java.util.Arrays;
+
+public final class IntegerArrayColumn extends ArrayColumn {
+
+	private int[] values = new int[0];
+	
+	IntegerArrayColumn(SlotIndex index, int defaultInitSize) {
+		super(index, defaultInitSize);
+	}
+	
+	public int getInt(int slot) {
+		return values[slot];
+	}
+	
+	@Override
+	protected void setValue(int slot, Object value) {
+		values[slot] = (Integer)value;
+	}
+
+	@Override
+	protected Object getValue(int slot) {
+		return values[slot];
+	}
+
+	@Override
+	protected boolean matches(int slot, Object value) {
+		return value instanceof Integer && values[slot] == (Integer)value;
+	}
+
+	@Override
+	protected void ensureCapacity(int minCapacity) {
+		if(minCapacity > values.length) {
+			values = Arrays.copyOf(values, Math.max(defaultInitSize, grow(values.length, minCapacity)));
+		}
+	}
+
+}
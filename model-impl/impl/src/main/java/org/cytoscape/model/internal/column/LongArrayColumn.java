@@ -0,0 +1,39 @@
+package org.cytoscape.model.internal.column;
+
+import java.util.Arrays;
+
+public final class LongArrayColumn extends ArrayColumn {
+
+	private long[] values = new long[0];
+	
+	LongArrayColumn(SlotIndex index, int defaultInitSize) {
+		super(index, defaultInitSize);
+	}
+	
+	public long getLong(int slot) {
+		return values[slot];
+	}
+	
+	@Override
+	protected void setValue(int slot, Object value) {
+		values[slot] = (Long)value;
+	}
+
+	@Override
+	protected Object getValue(int slot) {
+		return values[slot];
+	}
+
+	@Override
+	protected boolean matches(int slot, Object value) {
+		return value instanceof Long && values[slot] == (Long)value;
+	}
+
+	@Override
+	protected void ensureCapacity(int minCapacity) {
+		if(minCapacity > values.length) {
+			values = Arrays.copyOf(values, Math.max(defaultInitSize, grow(values.length, minCapacity)));
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+package org.cytoscape.model.internal.column;
+
+import java.util.Arrays;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+/**
+ * Maps Long primary keys to dense array slots. One index is shared by all the
+ * {@link ArrayColumn}s of a table, so the key is stored only once per row no
+ * matter how many columns there are. A slot is reference counted by the
+ * columns holding a value in it and is recycled once no column uses it.
+ */
+final class SlotIndex {
+
+	private final Long2IntOpenHashMap slots;
+	private long[] keys;
+	private int[] refCounts;
+	private final IntArrayList freeSlots = new IntArrayList();
+	private int nextSlot;
+	
+	SlotIndex(int initialCapacity) {
+		initialCapacity = Math.max(initialCapacity, 16);
+		slots = new Long2IntOpenHashMap(initialCapacity);
+		slots.defaultReturnValue(-1);
+		keys = new long[initialCapacity];
+		refCounts = new int[initialCapacity];
+	}
+	
+	/**
+	 * @return the slot of the key or -1 if no column holds a value for it.
+	 */
+	int slotOf(long key) {
+		return slots.get(key);
+	}
+	
+	long keyAt(int slot) {
+		return keys[slot];
+	}
+	
+	/**
+	 * Returns the slot for the key, allocating one if needed, and counts one
+	 * more column as holding a value in it.
+	 */
+	int acquire(long key) {
+		int slot = slots.get(key);
+		if(slot < 0) {
+			if(freeSlots.isEmpty()) {
+				slot = nextSlot++;
+				if(slot == keys.length) {
+					int newCapacity = ArrayColumn.grow(keys.length, slot + 1);
+					keys = Arrays.copyOf(keys, newCapacity);
+					refCounts = Arrays.copyOf(refCounts, newCapacity);
+				}
+			} else {
+				slot = freeSlots.popInt();
+			}
+			keys[slot] = key;
+			slots.put(key, slot);
+		}
+		refCounts[slot]++;
+		return slot;
+	}
+	
+	void release(int slot) {
+		if(--refCounts[slot] == 0) {
+			slots.remove(keys[slot]);
+			freeSlots.push(slot);
+		}
+	}
+	
+}
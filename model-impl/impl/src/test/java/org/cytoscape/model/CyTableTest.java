@@ -5,6 +5,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,6 +21,7 @@ import org.cytoscape.equations.internal.interpreter.InterpreterImpl;
 import org.cytoscape.event.CyEventHelper;
 import org.cytoscape.event.DummyCyEventHelper;
 import org.cytoscape.model.events.RowSetRecord;
+import org.cytoscape.model.events.RowsSetEvent;
 import org.cytoscape.model.events.TableAddedEvent;
 import org.cytoscape.model.internal.CyNetworkManagerImpl;
 import org.cytoscape.model.internal.CyNetworkTableManagerImpl;
@@ -327,4 +329,68 @@ public class CyTableTest extends AbstractCyTableTest {
 			}
 		}
 	}
+	
+	@Test
+	public void testBulkDoubleColumn() {
+		table.createColumn("score", Double.class, false);
+		table.createColumn("flag", Boolean.class, false);
+		table.getRow(2L).set("score", 2.5);
+		table.getRow(3L).set("score", 3.5);
+		table.getRow(3L).set("flag", true);
+		
+		compiler.compile("=6/3", new HashMap<String, Class<?>>());
+		table.getRow(4L).set("score", compiler.getEquation());
+		
+		final long[] keys = { 2L, 3L, 4L, 5L };
+		final double[] scores = ((CyTableImpl) table).getDoubleColumn("score", keys, -1.0);
+		assertArrayEquals(new double[] { 2.5, 3.5, 2.0, -1.0 }, scores, 0.00001);
+		
+		final boolean[] flags = ((CyTableImpl) table).getBooleanColumn("flag", keys, false);
+		assertFalse(flags[0]);
+		assertTrue(flags[1]);
+	}
+	
+	@Test
+	public void testArrayColumnSlotsAreReused() {
+		table.createColumn("score", Double.class, false);
+		table.createColumn("count", Integer.class, false);
+		for (long key = 10; key < 20; key++) {
+			table.getRow(key).set("score", (double) key);
+			table.getRow(key).set("count", (int) key);
+		}
+		
+		table.deleteRows(Arrays.asList(10L, 11L, 12L));
+		table.deleteColumn("count");
+		table.getRow(30L).set("score", 30.0);
+		
+		assertNull(table.getRow(10L).get("score", Double.class));
+		assertEquals(30.0, table.getRow(30L).get("score", Double.class), 0.0);
+		assertEquals(13.0, table.getRow(13L).get("score", Double.class), 0.0);
+		assertEquals(1, table.countMatchingRows("score", 30.0));
+		assertEquals(Collections.singletonList(19L), table.getMatchingKeys("score", 19.0, Long.class));
+	}
+	
+	@Test
+	public void testSetValuesFiresOneRowsSetEvent() {
+		table.createColumn("score", Double.class, false);
+		table.getRow(3L).set("score", 1.0);
+		
+		final Map<Long, Double> values = new HashMap<>();
+		values.put(2L, 2.5);
+		values.put(3L, null);
+		values.put(4L, 4.5);
+		final int payloadCount = eventHelper.getAllPayloads().size();
+		((CyTableImpl) table).setValues("score", values);
+		
+		assertEquals(2.5, table.getRow(2L).get("score", Double.class), 0.0);
+		assertFalse(table.getRow(3L).isSet("score"));
+		assertEquals(4.5, table.getRow(4L).get("score", Double.class), 0.0);
+		
+		for (Object payload : eventHelper.getAllPayloads().subList(payloadCount, eventHelper.getAllPayloads().size()))
+			assertFalse(payload instanceof RowSetRecord);
+		
+		final RowsSetEvent event = (RowsSetEvent) eventHelper.getLastFiredEvent();
+		assertEquals(3, event.getPayloadCollection().size());
+		assertEquals(1, event.getColumnRecords("score").stream().filter(r -> r.getValue() == null).count());
+	}
 }
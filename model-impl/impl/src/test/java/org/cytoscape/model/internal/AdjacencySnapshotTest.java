@@ -0,0 +1,131 @@
+package org.cytoscape.model.internal;
+
+/*
+ * #%L
+ * Cytoscape Model Impl (model-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.NetworkTestSupport;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdjacencySnapshotTest {
+
+	private CyNetwork net;
+	private CyNode n1;
+	private CyNode n2;
+	private CyNode n3;
+	private CyEdge directed12;
+	private CyEdge undirected23;
+	private CyEdge selfLoop3;
+
+	@Before
+	public void setUp() {
+		net = new NetworkTestSupport().getNetwork();
+		n1 = net.addNode();
+		n2 = net.addNode();
+		n3 = net.addNode();
+		directed12 = net.addEdge(n1, n2, true);
+		undirected23 = net.addEdge(n2, n3, false);
+		selfLoop3 = net.addEdge(n3, n3, true);
+	}
+
+	private AdjacencySnapshot snapshot() {
+		return ((SimpleNetwork) net).getAdjacencySnapshot();
+	}
+
+	private Set<Long> neighbors(final AdjacencySnapshot s, final CyNode node, final CyEdge.Type type) {
+		final int idx = s.getNodeIndex(node.getSUID());
+		final Set<Long> ret = new HashSet<>();
+		for (int pos = s.adjacencyStart(idx, type); pos < s.adjacencyEnd(idx, type); pos++)
+			ret.add(s.getNodeSUID(s.neighborAt(pos, type)));
+		return ret;
+	}
+
+	@Test
+	public void testIndexMapping() {
+		final AdjacencySnapshot s = snapshot();
+		assertEquals(3, s.getNodeCount());
+		assertEquals(3, s.getEdgeCount());
+
+		for (CyNode n : net.getNodeList())
+			assertEquals(n.getSUID().longValue(), s.getNodeSUID(s.getNodeIndex(n.getSUID())));
+
+		final int e = s.getEdgeIndex(directed12.getSUID());
+		assertEquals(s.getNodeIndex(n1.getSUID()), s.getEdgeSource(e));
+		assertEquals(s.getNodeIndex(n2.getSUID()), s.getEdgeTarget(e));
+		assertTrue(s.isDirected(e));
+		assertFalse(s.isDirected(s.getEdgeIndex(undirected23.getSUID())));
+		assertEquals(-1, s.getNodeIndex(-42L));
+	}
+
+	@Test
+	public void testAdjacencyByType() {
+		final AdjacencySnapshot s = snapshot();
+
+		assertEquals(set(n2), neighbors(s, n1, CyEdge.Type.OUTGOING));
+		assertEquals(set(), neighbors(s, n1, CyEdge.Type.INCOMING));
+		assertEquals(set(n1, n3), neighbors(s, n2, CyEdge.Type.ANY));
+		assertEquals(set(n3), neighbors(s, n2, CyEdge.Type.UNDIRECTED));
+		assertEquals(set(n1), neighbors(s, n2, CyEdge.Type.DIRECTED));
+
+		// The self loop is listed once.
+		assertEquals(1, s.getDegree(s.getNodeIndex(n3.getSUID()), CyEdge.Type.DIRECTED));
+		assertEquals(2, s.getDegree(s.getNodeIndex(n3.getSUID()), CyEdge.Type.ANY));
+		assertEquals(s.getEdgeIndex(selfLoop3.getSUID()),
+				s.edgeAt(s.adjacencyStart(s.getNodeIndex(n3.getSUID()), CyEdge.Type.DIRECTED), CyEdge.Type.DIRECTED));
+	}
+
+	@Test
+	public void testSnapshotIsCachedUntilModified() {
+		final AdjacencySnapshot s = snapshot();
+		assertSame(s, snapshot());
+
+		final CyNode n4 = net.addNode();
+		final AdjacencySnapshot afterAdd = snapshot();
+		assertNotSame(s, afterAdd);
+		assertEquals(4, afterAdd.getNodeCount());
+		assertEquals(-1, s.getNodeIndex(n4.getSUID()));
+
+		net.removeEdges(Collections.singletonList(directed12));
+		final AdjacencySnapshot afterRemove = snapshot();
+		assertNotSame(afterAdd, afterRemove);
+		assertEquals(2, afterRemove.getEdgeCount());
+		assertEquals(-1, afterRemove.getEdgeIndex(directed12.getSUID()));
+	}
+
+	private static Set<Long> set(final CyNode... nodes) {
+		final Set<Long> ret = new HashSet<>();
+		for (CyNode n : nodes)
+			ret.add(n.getSUID());
+		return ret;
+	}
+}
@@ -0,0 +1,136 @@
+package org.cytoscape.model;
+
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ops4j.pax.exam.junit.MavenConfiguredJUnit4TestRunner;
+import org.osgi.util.tracker.ServiceTracker;
+
+import org.cytoscape.equations.Interpreter;
+import org.cytoscape.integration.ServiceTestSupport;
+import org.cytoscape.service.util.CyServiceRegistrar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Measures read throughput of the network topology when several threads
+ * query the same network concurrently, which is what parallel analysis tasks
+ * and the renderer do. Reported as reads per second for each thread count.
+ */
+@RunWith(MavenConfiguredJUnit4TestRunner.class)
+public class ConcurrentReadThroughputTest extends ServiceTestSupport {
+	private static final int NODE_COUNT = 50000;
+	private static final int EDGE_COUNT = 200000;
+	private static final int READS_PER_THREAD = 200000;
+	private static final int[] THREAD_COUNTS = { 1, 2, 4, 8, 16 };
+
+	private CyNetworkFactory networkFactory;
+
+	@Before
+	public void setup() {
+		registerMockService(Interpreter.class);
+		registerMockService(CyServiceRegistrar.class);
+
+		// Obtain a CyNetworkFactory service:
+		final ServiceTracker networkFactoryTracker =
+			new ServiceTracker(bundleContext, CyNetworkFactory.class.getName(), null);
+		networkFactoryTracker.open();
+		networkFactory = null;
+		try {
+			final int WAIT_TIME = 10000; // seconds
+			networkFactory = (CyNetworkFactory)networkFactoryTracker.waitForService(WAIT_TIME);
+		} catch (final InterruptedException ie) {
+			fail("Did not get an instance of a CyNetworkFactory service within the specified amount of time!");
+		}
+		assertNotNull(networkFactory);
+	}
+
+	@Test
+	public void runTestLoop() throws Exception {
+		final CyNetwork network = networkFactory.getInstance();
+		final List<CyNode> nodes = createNetwork(network);
+
+		// Warm up once so that the JIT has compiled the read paths.
+		measureReads(network, nodes, 1);
+
+		for (final int threadCount : THREAD_COUNTS) {
+			final long startTime = System.nanoTime();
+			final long reads = measureReads(network, nodes, threadCount);
+			final long endTime = System.nanoTime();
+			final long readsPerSecond = (reads * 1000000000L) / Math.max(1L, endTime - startTime);
+			System.err.println("*** CTRT: " + getClass().getName() + ".concurrentReads threads=" + threadCount
+					   + " reads/s=" + readsPerSecond);
+		}
+	}
+
+	private List<CyNode> createNetwork(final CyNetwork network) {
+		final List<CyNode> nodes = new ArrayList<CyNode>(NODE_COUNT);
+		for (int i = 0; i < NODE_COUNT; ++i)
+			nodes.add(network.addNode());
+
+		boolean isDirected = true;
+		final Random rand = new Random(1234L);
+		for (int i = 0; i < EDGE_COUNT; ++i) {
+			final CyNode source = nodes.get(rand.nextInt(NODE_COUNT));
+			final CyNode target = nodes.get(rand.nextInt(NODE_COUNT));
+			network.addEdge(source, target, isDirected);
+			isDirected = !isDirected;
+		}
+
+		return nodes;
+	}
+
+	/**
+	 * Runs the same mix of reads on <code>threadCount</code> threads and
+	 * returns the total number of read operations performed.
+	 */
+	private long measureReads(final CyNetwork network, final List<CyNode> nodes, final int threadCount)
+			throws InterruptedException {
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(threadCount);
+		final AtomicLong totalReads = new AtomicLong();
+		// Keeps the JIT from eliminating the reads.
+		final AtomicLong sink = new AtomicLong();
+
+		for (int t = 0; t < threadCount; t++) {
+			final Random rand = new Random(t);
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						long local = 0;
+						for (int i = 0; i < READS_PER_THREAD; i++) {
+							final CyNode node = nodes.get(rand.nextInt(NODE_COUNT));
+							switch (i & 3) {
+								case 0: local += network.getNodeCount(); break;
+								case 1: local += network.getNeighborList(node, CyEdge.Type.ANY).size(); break;
+								case 2: local += network.getAdjacentEdgeList(node, CyEdge.Type.ANY).size(); break;
+								default: local += network.containsNode(node) ? 1 : 0; break;
+							}
+						}
+						sink.addAndGet(local);
+						totalReads.addAndGet(READS_PER_THREAD);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						done.countDown();
+					}
+				}
+			}, "read-throughput-" + t).start();
+		}
+
+		start.countDown();
+		done.await();
+		assertTrue(sink.get() > 0);
+
+		return totalReads.get();
+	}
+}
@@ -79,6 +79,53 @@ public abstract class AbstractLineParser {
 		return value;
 	}
 	
+	/**
+	 * Parses the trimmed characters of a column of a {@link TextTableScanner} as {@link #parse(String,
+	 * AttributeDataType, String)} parses a string, without creating a string for numbers.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public Object parse(final char[] text, final int start, final int end, final AttributeDataType type,
+			final String delimiter) {
+		Object value = null;
+		
+		if (end > start && !isNull(text, start, end)) {
+			try {
+				switch (type) {
+					case TYPE_BOOLEAN:  return Boolean.valueOf(new String(text, start, end - start));
+					case TYPE_INTEGER:  return TextTableScanner.parseInt(text, start, end);
+					case TYPE_LONG:     return TextTableScanner.parseLong(text, start, end);
+					case TYPE_FLOATING: return TextTableScanner.parseDouble(text, start, end);
+					case TYPE_STRING:   return new String(text, start, end - start);
+	
+					case TYPE_BOOLEAN_LIST:
+					case TYPE_INTEGER_LIST:
+					case TYPE_LONG_LIST:
+					case TYPE_FLOATING_LIST:
+					case TYPE_STRING_LIST:
+						final int delimiterChar = TextTableScanner.toDelimiterChar(delimiter);
+						// The quotes are removed before splitting, so a quote cannot be the delimiter
+						value = delimiterChar < 0 || delimiterChar == '"' ?
+								parseList(new String(text, start, end - start), type, delimiter) :
+								parseList(text, start, end, type, (char) delimiterChar);
+						
+						if (value instanceof List)
+							value = new ArrayList<>((List)value);
+						
+						break;
+				}
+			} catch (NumberFormatException e) {
+				value = createInvalidNumberEquation(new String(text, start, end - start), type);
+			}
+		}
+		
+		return value;
+	}
+	
+	private static boolean isNull(final char[] text, final int start, final int end) {
+		return end - start == 4 && text[start] == 'n' && text[start + 1] == 'u' && text[start + 2] == 'l'
+				&& text[start + 3] == 'l';
+	}
+	
 	private Object parseList(final String s, final AttributeDataType type, String delimiter) {
 		if (s == null)
 			return null;
@@ -106,6 +153,107 @@ public abstract class AbstractLineParser {
 		return list;
 	}
 	
+	/**
+	 * Splits the list items as {@code s.replace("\"", "").split(delimiter)} does, without copying the characters.
+	 */
+	private Object parseList(final char[] text, final int start, final int end, final AttributeDataType type,
+			final char delimiter) {
+		final List<Object> list = new ArrayList<>();
+		int limit = end;
+		
+		// As with String.split(), the trailing items that are empty are removed, unless there is no delimiter
+		if (indexOf(text, start, end, delimiter) >= 0) {
+			while (true) {
+				final int itemStart = lastIndexOf(text, start, limit, delimiter) + 1;
+				
+				if (!isQuotes(text, itemStart, limit))
+					break;
+				if (itemStart == start)
+					return list;
+				
+				limit = itemStart - 1;
+			}
+		}
+		
+		int itemStart = start;
+		
+		while (itemStart <= limit) {
+			int itemEnd = indexOf(text, itemStart, limit, delimiter);
+			
+			if (itemEnd < 0)
+				itemEnd = limit;
+			
+			final Object item = parseListItem(text, itemStart, itemEnd, type);
+			
+			if (item == null)
+				return createInvalidListEquation(new String(text, start, end - start),
+						new String(text, itemStart, itemEnd - itemStart).replace("\"", "").trim(), type);
+			
+			list.add(item);
+			itemStart = itemEnd + 1;
+		}
+		
+		return list;
+	}
+	
+	/**
+	 * @return the item without quotes and trimmed, or null if it is not a valid number
+	 */
+	private static Object parseListItem(final char[] text, final int start, final int end,
+			final AttributeDataType type) {
+		char[] chars = text;
+		int from = TextTableScanner.trimStart(text, start, end);
+		int to = TextTableScanner.trimEnd(text, from, end);
+		
+		if (indexOf(text, start, end, '"') >= 0) {
+			chars = new String(text, start, end - start).replace("\"", "").trim().toCharArray();
+			from = 0;
+			to = chars.length;
+		}
+		
+		try {
+			if (type == TYPE_BOOLEAN_LIST)
+				return Boolean.valueOf(new String(chars, from, to - from));
+			else if (type == TYPE_INTEGER_LIST)
+				return TextTableScanner.parseInt(chars, from, to);
+			else if (type == TYPE_LONG_LIST)
+				return TextTableScanner.parseLong(chars, from, to);
+			else if (type == TYPE_FLOATING_LIST)
+				return TextTableScanner.parseDouble(chars, from, to);
+			else // TYPE_STRING or unknown
+				return new String(chars, from, to - from);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+	
+	private static int indexOf(final char[] text, final int start, final int end, final char c) {
+		for (int i = start; i < end; i++) {
+			if (text[i] == c)
+				return i;
+		}
+		
+		return -1;
+	}
+	
+	private static int lastIndexOf(final char[] text, final int start, final int end, final char c) {
+		for (int i = end - 1; i >= start; i--) {
+			if (text[i] == c)
+				return i;
+		}
+		
+		return start - 1;
+	}
+	
+	private static boolean isQuotes(final char[] text, final int start, final int end) {
+		for (int i = start; i < end; i++) {
+			if (text[i] != '"')
+				return false;
+		}
+		
+		return true;
+	}
+	
 	private Equation createInvalidNumberEquation(final String value, final AttributeDataType type) {
 		final String text = "=\"" + value + "\"";
 		final String msg = "Invalid value: " + value;
@@ -92,6 +92,54 @@ public class AttributeLineParser extends AbstractLineParser {
 		}
 	}
 
+	/**
+	 * Import everything regardless associated nodes/edges exist or not.
+	 * Same as {@link #parseAll(CyTable, String[])}, but the entries are the columns of the current line
+	 * of the scanner, which are only copied when they are not numbers.
+	 * @param line the scanner, after splitting the line
+	 */
+	public void parseAll(final CyTable table, final TextTableScanner line) {
+		// Get key
+		final Object primaryKey;
+		final int partsLen = line.getColumnCount();
+		final int keyIndex = mapping.getKeyIndex();
+		final AttributeDataType typeKey = mapping.getDataTypes()[keyIndex];
+		final char[] text = line.getText();
+		final int keyStart = TextTableScanner.trimStart(text, line.getStart(keyIndex), line.getEnd(keyIndex));
+		final int keyEnd = TextTableScanner.trimEnd(text, keyStart, line.getEnd(keyIndex));
+		
+		switch (typeKey) {
+			case TYPE_BOOLEAN:
+				primaryKey = Boolean.valueOf(new String(text, keyStart, keyEnd - keyStart));
+				break;
+			case TYPE_INTEGER:
+				primaryKey = TextTableScanner.parseInt(text, keyStart, keyEnd);
+				break;
+			case TYPE_LONG:
+				primaryKey = TextTableScanner.parseLong(text, keyStart, keyEnd);
+				break;
+			case TYPE_FLOATING:
+				primaryKey = TextTableScanner.parseDouble(text, keyStart, keyEnd);
+				break;
+			default:
+				primaryKey = new String(text, keyStart, keyEnd - keyStart);
+		}
+
+		if (partsLen == 1) {
+			table.getRow(line.getString(0));
+		} else {
+			final SourceColumnSemantic[] types = mapping.getTypes();
+			
+			for (int i = 0; i < partsLen; i++) {
+				if (i != keyIndex && types[i] != SourceColumnSemantic.NONE) {
+					final int start = TextTableScanner.trimStart(text, line.getStart(i), line.getEnd(i));
+					final int end = TextTableScanner.trimEnd(text, start, line.getEnd(i));
+					mapAttribute(table, primaryKey, text, start, end, i);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Based on the attribute types, map the entry to CyAttributes.<br>
 	 */
@@ -100,14 +148,7 @@ public class AttributeLineParser extends AbstractLineParser {
 
 		try {
 			if (type.isList()) {
-				final String[] delimiters = mapping.getListDelimiters();
-				String delimiter = delimiters != null && delimiters.length > index ?
-						delimiters[index] : AbstractMappingParameters.DEF_LIST_DELIMITER;
-						
-				if (delimiter == null || delimiter.isEmpty())
-					delimiter = AbstractMappingParameters.DEF_LIST_DELIMITER;
-				
-				Object value = parse(entry, type, delimiter);
+				Object value = parse(entry, type, getListDelimiter(index));
 				setListAttribute(table, type, key, mapping.getAttributeNames()[index], value);
 			} else {
 				setAttribute(table, type, key, mapping.getAttributeNames()[index], entry);
@@ -117,6 +158,38 @@ public class AttributeLineParser extends AbstractLineParser {
 		}
 	}
 
+	private void mapAttribute(final CyTable table, final Object key, final char[] text, final int start,
+			final int end, final int index) {
+		final AttributeDataType type = mapping.getDataTypes()[index];
+		final String attrName = mapping.getAttributeNames()[index];
+
+		try {
+			if (type.isList()) {
+				Object value = parse(text, start, end, type, getListDelimiter(index));
+				setListAttribute(table, type, key, attrName, value);
+			} else {
+				if (table.getColumn(attrName) == null)
+					table.createColumn(attrName, type.getType(), false);
+
+				final Object value = parse(text, start, end, type, null);
+				table.getRow(key).set(attrName, value);
+			}
+		} catch (Exception e) {
+			invalid.put(key.toString(), new String(text, start, end - start));
+		}
+	}
+
+	private String getListDelimiter(final int index) {
+		final String[] delimiters = mapping.getListDelimiters();
+		String delimiter = delimiters != null && delimiters.length > index ?
+				delimiters[index] : AbstractMappingParameters.DEF_LIST_DELIMITER;
+				
+		if (delimiter == null || delimiter.isEmpty())
+			delimiter = AbstractMappingParameters.DEF_LIST_DELIMITER;
+		
+		return delimiter;
+	}
+
 	private void setAttribute(final CyTable tbl, final AttributeDataType type, final Object key,
 			final String attrName, final String attrValue) {
 		if (tbl.getColumn(attrName) == null)
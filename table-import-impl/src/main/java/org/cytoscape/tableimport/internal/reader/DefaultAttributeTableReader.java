@@ -112,6 +112,7 @@ public class DefaultAttributeTableReader implements TextTableReader {
 				 * Read & extract one line at a time. The line can be Tab delimited,
 				 */
 				final String delimiter = mapping.getDelimiterRegEx();
+				final char[] delimiterChars = TextTableScanner.toDelimiterChars(mapping.getDelimiters());
 
 				//If the delimiter contains a comma, treat the file as a CSV file.
 				if (delimiter.contains(TextDelimiter.COMMA.getDelimiter()) && mapping.getDelimiters().size() == 1) {
@@ -137,6 +138,31 @@ public class DefaultAttributeTableReader implements TextTableReader {
 					try {
 						reader.close();
 					} catch (Exception e) { }
+				} else if (delimiterChars != null) {
+					// Single character delimiters: split the lines in place
+					final TextTableScanner scanner = new TextTableScanner(bufRd, delimiterChars);
+					
+					while (scanner.nextLine()) {
+						/*
+						 * Ignore Empty & Commnet lines.
+						 */
+						if ((commentChar != null) && scanner.startsWith(commentChar)) {
+							// Do nothing
+						} else if ((lineCount >= startLineNumber) && !scanner.isBlank()) {
+							// If key does not exists, ignore the line.
+							if (scanner.split() >= mapping.getKeyIndex() + 1) {
+								try {
+									parser.parseAll(table, scanner);
+								} catch (Exception ex) {
+									logger.warn("Couldn't parse row: "+ lineCount);
+								}
+								
+								globalCounter++;
+							}
+						}
+
+						lineCount++;
+					}
 				} else { //Use the "old" method for splitting the lines.
 					String line;
 					String[] parts = null;
@@ -0,0 +1,420 @@
+package org.cytoscape.tableimport.internal.reader;
+
+/*
+ * #%L
+ * Cytoscape Table Import Impl (table-import-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2018 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads a delimited text table one line at a time into a reusable buffer and
+ * splits the current line into columns, which are only kept as start and end
+ * offsets in that buffer. The columns are the same as the ones of
+ * {@code line.split(mapping.getDelimiterRegEx())}, but no strings are created
+ * until a value needs one, and numbers can be parsed from the buffer directly.
+ * <p>
+ * Lines end with "\n", "\r" or "\r\n", as in {@link java.io.BufferedReader#readLine()}.
+ * The buffer and the offsets are only valid until the next call to {@link #nextLine()}.
+ */
+public class TextTableScanner {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/** Characters that have a special meaning in a regular expression or in a character class */
+	private static final String REGEX_META_CHARS = ".$|()[]{}^?*+-&\\";
+
+	/** The powers of ten that a double represents exactly */
+	private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private final Reader reader;
+	private final char[] delimiters;
+
+	private char[] buffer = new char[BUFFER_SIZE];
+	private int length;
+	private int position;
+	private boolean eof;
+
+	private int lineStart;
+	private int lineEnd;
+
+	private int[] starts = new int[16];
+	private int[] ends = new int[16];
+	private int columnCount;
+
+	/**
+	 * @param delimiters the characters that separate the columns, as returned by {@link #toDelimiterChars(List)}
+	 */
+	public TextTableScanner(final Reader reader, final char[] delimiters) {
+		this.reader = reader;
+		this.delimiters = delimiters;
+	}
+
+	/**
+	 * Converts the column delimiters of the mapping parameters, which are regular expressions, to characters.
+	 * @return the characters, or null if any of the delimiters is not a single character, in which case
+	 *         the lines have to be split with {@link AbstractMappingParameters#getDelimiterRegEx()}
+	 */
+	public static char[] toDelimiterChars(final List<String> delimiters) {
+		if (delimiters == null || delimiters.isEmpty())
+			return null;
+
+		final char[] chars = new char[delimiters.size()];
+
+		for (int i = 0; i < chars.length; i++) {
+			final int c = toDelimiterChar(delimiters.get(i));
+
+			if (c < 0)
+				return null;
+
+			chars[i] = (char) c;
+		}
+
+		return chars;
+	}
+
+	/**
+	 * @return the character that the given regular expression matches, or -1 if it is not a single character
+	 */
+	public static int toDelimiterChar(final String regex) {
+		if (regex == null)
+			return -1;
+
+		if (regex.length() == 1) {
+			final char c = regex.charAt(0);
+
+			return REGEX_META_CHARS.indexOf(c) < 0 ? c : -1;
+		}
+
+		if (regex.length() == 2 && regex.charAt(0) == '\\') {
+			final char c = regex.charAt(1);
+
+			if (c == 't')
+				return '\t';
+
+			// An escaped character that is not a letter or digit always matches itself
+			return Character.isLetterOrDigit(c) ? -1 : c;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Moves to the next line, without splitting it.
+	 * @return false at the end of the input
+	 */
+	public boolean nextLine() throws IOException {
+		columnCount = 0;
+		int i = position;
+
+		while (true) {
+			while (i < length && buffer[i] != '\n' && buffer[i] != '\r')
+				i++;
+
+			// A "\r" at the end of the buffer may be followed by a "\n" that has not been read yet
+			if (i < length && (buffer[i] == '\n' || i + 1 < length || eof)) {
+				lineStart = position;
+				lineEnd = i;
+				position = buffer[i] == '\r' && i + 1 < length && buffer[i + 1] == '\n' ? i + 2 : i + 1;
+
+				return true;
+			}
+
+			if (eof) {
+				if (position == length)
+					return false;
+
+				lineStart = position;
+				lineEnd = length;
+				position = length;
+
+				return true;
+			}
+
+			i -= position;
+			fill();
+		}
+	}
+
+	private void fill() throws IOException {
+		if (position > 0) {
+			System.arraycopy(buffer, position, buffer, 0, length - position);
+			length -= position;
+			position = 0;
+		}
+
+		// A line that is longer than the buffer
+		if (length == buffer.length)
+			buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+
+		final int n = reader.read(buffer, length, buffer.length - length);
+
+		if (n < 0)
+			eof = true;
+		else
+			length += n;
+	}
+
+	/**
+	 * @return true if the current line starts with the given prefix
+	 */
+	public boolean startsWith(final String prefix) {
+		final int n = prefix.length();
+
+		if (n > lineEnd - lineStart)
+			return false;
+
+		for (int i = 0; i < n; i++) {
+			if (buffer[lineStart + i] != prefix.charAt(i))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return true if the current line is empty or only contains whitespace
+	 */
+	public boolean isBlank() {
+		return trimStart(buffer, lineStart, lineEnd) == lineEnd;
+	}
+
+	/**
+	 * Splits the current line into columns. As with {@link String#split(String)},
+	 * a line without delimiters is one column and trailing empty columns are removed.
+	 * @return the number of columns
+	 */
+	public int split() {
+		columnCount = 0;
+		int start = lineStart;
+
+		for (int i = lineStart; i < lineEnd; i++) {
+			if (isDelimiter(buffer[i])) {
+				addColumn(start, i);
+				start = i + 1;
+			}
+		}
+
+		if (columnCount == 0) {
+			addColumn(lineStart, lineEnd);
+		} else {
+			addColumn(start, lineEnd);
+
+			while (columnCount > 0 && starts[columnCount - 1] == ends[columnCount - 1])
+				columnCount--;
+		}
+
+		return columnCount;
+	}
+
+	private boolean isDelimiter(final char c) {
+		for (char d : delimiters) {
+			if (c == d)
+				return true;
+		}
+
+		return false;
+	}
+
+	private void addColumn(final int start, final int end) {
+		if (columnCount == starts.length) {
+			starts = Arrays.copyOf(starts, 2 * columnCount);
+			ends = Arrays.copyOf(ends, 2 * columnCount);
+		}
+
+		starts[columnCount] = start;
+		ends[columnCount] = end;
+		columnCount++;
+	}
+
+	public int getColumnCount() {
+		return columnCount;
+	}
+
+	/**
+	 * @return the buffer that the column offsets refer to
+	 */
+	public char[] getText() {
+		return buffer;
+	}
+
+	public int getStart(final int column) {
+		return starts[column];
+	}
+
+	public int getEnd(final int column) {
+		return ends[column];
+	}
+
+	/**
+	 * @return the untrimmed value of the column
+	 */
+	public String getString(final int column) {
+		return new String(buffer, starts[column], ends[column] - starts[column]);
+	}
+
+	/**
+	 * @return the index of the first character after start that is not whitespace, as in {@link String#trim()}
+	 */
+	public static int trimStart(final char[] text, int start, final int end) {
+		while (start < end && text[start] <= ' ')
+			start++;
+
+		return start;
+	}
+
+	/**
+	 * @return the index after the last character before end that is not whitespace, as in {@link String#trim()}
+	 */
+	public static int trimEnd(final char[] text, final int start, int end) {
+		while (end > start && text[end - 1] <= ' ')
+			end--;
+
+		return end;
+	}
+
+	/**
+	 * Parses the characters as {@link Integer#parseInt(String)} does.
+	 */
+	public static int parseInt(final char[] text, final int start, final int end) {
+		return (int) parseLong(text, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Parses the characters as {@link Long#parseLong(String)} does.
+	 */
+	public static long parseLong(final char[] text, final int start, final int end) {
+		return parseLong(text, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	private static long parseLong(final char[] text, final int start, final int end, final long min,
+			final long max) {
+		int i = start;
+		boolean negative = false;
+
+		if (i < end && (text[i] == '-' || text[i] == '+')) {
+			negative = text[i] == '-';
+			i++;
+		}
+
+		if (i == end)
+			throw invalidNumber(text, start, end);
+
+		// Accumulate negatively, so the minimum value does not overflow
+		final long limit = negative ? min : -max;
+		final long multiplyLimit = limit / 10;
+		long result = 0;
+
+		while (i < end) {
+			final int digit = Character.digit(text[i++], 10);
+
+			if (digit < 0 || result < multiplyLimit)
+				throw invalidNumber(text, start, end);
+
+			result *= 10;
+
+			if (result < limit + digit)
+				throw invalidNumber(text, start, end);
+
+			result -= digit;
+		}
+
+		return negative ? result : -result;
+	}
+
+	/**
+	 * Parses the characters as {@link Double#parseDouble(String)} does. Plain decimal numbers
+	 * with up to 15 digits, which is what most numeric tables contain, are parsed from the
+	 * characters; the exact result is the quotient or product of two doubles that are exact.
+	 * Any other number is parsed by {@link Double#parseDouble(String)}.
+	 */
+	public static double parseDouble(final char[] text, final int start, final int end) {
+		int i = start;
+		boolean negative = false;
+
+		if (i < end && (text[i] == '-' || text[i] == '+')) {
+			negative = text[i] == '-';
+			i++;
+		}
+
+		long significand = 0;
+		int digits = 0;
+		int scale = 0;
+		boolean point = false;
+
+		for (; i < end; i++) {
+			final char c = text[i];
+
+			if (c >= '0' && c <= '9') {
+				significand = 10 * significand + (c - '0');
+				digits++;
+
+				if (point)
+					scale--;
+			} else if (c == '.' && !point) {
+				point = true;
+			} else {
+				break;
+			}
+		}
+
+		if (i < end && (text[i] == 'e' || text[i] == 'E') && digits > 0) {
+			int j = i + 1;
+			boolean negativeExponent = false;
+
+			if (j < end && (text[j] == '-' || text[j] == '+')) {
+				negativeExponent = text[j] == '-';
+				j++;
+			}
+
+			int exponent = 0;
+			final int exponentStart = j;
+
+			while (j < end && j - exponentStart < 3 && text[j] >= '0' && text[j] <= '9')
+				exponent = 10 * exponent + (text[j++] - '0');
+
+			if (j > exponentStart) {
+				scale += negativeExponent ? -exponent : exponent;
+				i = j;
+			}
+		}
+
+		if (i == end && digits > 0 && digits <= 15 && Math.abs(scale) < POWERS_OF_TEN.length) {
+			double value = significand;
+			value = scale < 0 ? value / POWERS_OF_TEN[-scale] : value * POWERS_OF_TEN[scale];
+
+			return negative ? -value : value;
+		}
+
+		return Double.parseDouble(new String(text, start, end - start));
+	}
+
+	private static NumberFormatException invalidNumber(final char[] text, final int start, final int end) {
+		return new NumberFormatException("For input string: \"" + new String(text, start, end - start) + "\"");
+	}
+}
@@ -0,0 +1,95 @@
+package org.cytoscape.tableimport.internal.reader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TextTableScannerTest {
+
+	@Test
+	public void testColumnsAreTheSameAsSplit() throws IOException {
+		final String[] lines = { "a\tb\tc", "a\t\tc", "\ta", "a\tb\t\t", "abc", "a;b c", " a \t b " };
+		final TextTableScanner scanner = new TextTableScanner(new StringReader(String.join("\n", lines)),
+				new char[] { '\t', ';', ' ' });
+
+		for (String line : lines) {
+			assertTrue(scanner.nextLine());
+			assertArrayEquals(line.split("[\\t; ]"), columns(scanner));
+		}
+
+		assertFalse(scanner.nextLine());
+	}
+
+	@Test
+	public void testLineBreaks() throws IOException {
+		final TextTableScanner scanner = new TextTableScanner(new StringReader("a\r\nb\rc\n\nd\n"), new char[] { '\t' });
+		final List<String> lines = new ArrayList<>();
+
+		while (scanner.nextLine())
+			lines.add(scanner.isBlank() ? "" : scanner.getString(scanner.split() - 1));
+
+		assertEquals(Arrays.asList("a", "b", "c", "", "d"), lines);
+	}
+
+	@Test
+	public void testLinesLongerThanTheBuffer() throws IOException {
+		final char[] chars = new char[200000];
+		Arrays.fill(chars, 'x');
+		final String column = new String(chars);
+		final TextTableScanner scanner = new TextTableScanner(new StringReader(column + "\t" + column + "\r\nend"),
+				new char[] { '\t' });
+
+		assertTrue(scanner.nextLine());
+		assertEquals(2, scanner.split());
+		assertEquals(column, scanner.getString(1));
+		assertTrue(scanner.nextLine());
+		assertTrue(scanner.startsWith("en"));
+		assertFalse(scanner.nextLine());
+	}
+
+	@Test
+	public void testToDelimiterChars() {
+		assertArrayEquals(new char[] { '\t', ',', '|' }, TextTableScanner.toDelimiterChars(Arrays.asList("\\t", ",", "\\|")));
+		assertNull(TextTableScanner.toDelimiterChars(Arrays.asList(" += +")));
+		assertNull(TextTableScanner.toDelimiterChars(Arrays.asList("\\")));
+		assertNull(TextTableScanner.toDelimiterChars(Arrays.asList("-")));
+	}
+
+	@Test
+	public void testParseNumbers() {
+		assertEquals(-42, TextTableScanner.parseInt("-42".toCharArray(), 0, 3));
+		assertEquals(Long.MIN_VALUE, TextTableScanner.parseLong("-9223372036854775808".toCharArray(), 0, 20));
+
+		for (String s : new String[] { "0.1", "-1.5e-3", "1234.5678", "1e300", "NaN", "-0", ".5", "3." })
+			assertEquals(Double.valueOf(s), Double.valueOf(TextTableScanner.parseDouble(s.toCharArray(), 0, s.length())));
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testParseIntOverflow() {
+		TextTableScanner.parseInt("2147483648".toCharArray(), 0, 10);
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testParseInvalidDouble() {
+		TextTableScanner.parseDouble("1.5x".toCharArray(), 0, 4);
+	}
+
+	private static String[] columns(final TextTableScanner scanner) {
+		final String[] columns = new String[scanner.split()];
+
+		for (int i = 0; i < columns.length; i++)
+			columns[i] = scanner.getString(i);
+
+		return columns;
+	}
+}